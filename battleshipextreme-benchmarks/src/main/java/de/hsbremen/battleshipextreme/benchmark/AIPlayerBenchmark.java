@@ -0,0 +1,79 @@
+package de.hsbremen.battleshipextreme.benchmark;
+
+import de.hsbremen.battleshipextreme.model.FieldState;
+import de.hsbremen.battleshipextreme.model.Game;
+import de.hsbremen.battleshipextreme.model.Settings;
+import de.hsbremen.battleshipextreme.model.player.AIPlayer;
+import de.hsbremen.battleshipextreme.model.player.Player;
+import de.hsbremen.battleshipextreme.model.player.PlayerType;
+import de.hsbremen.battleshipextreme.model.player.Target;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks für AIPlayer.getTarget und AIPlayer.placeShips. Für getTarget
+ * wird ein Spiel verwendet, in dem jeder Spieler bereits boardSize Züge
+ * gemacht hat. getTarget gleicht das Wissen der KI jedes Mal mit allen
+ * Feldzuständen ab, getTargetFromKnowledge nutzt das über die Züge gemerkte
+ * Wissen wie Game.makeAiTurn. Die Schiffe setzt ein eigener KI-Spieler, da getroffene Schiffe
+ * kleiner werden. placeShipsOnSmallestBoard setzt dieselbe Flotte auf das
+ * kleinste Board, das Settings dafür zulässt.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AIPlayerBenchmark {
+    @Param({"5", "10", "20", "40"})
+    private int boardSize;
+
+    @Param({"2", "4", "6"})
+    private int players;
+
+    private AIPlayer ai;
+    private AIPlayer placingAi;
+    private AIPlayer crowdedAi;
+    private Player enemy;
+    private FieldState[][] enemyFieldStates;
+
+    @Setup
+    public void setUp() throws Exception {
+        Game game = BenchmarkGames.createReadyGame(boardSize, players);
+        BenchmarkGames.playTurns(game, players * boardSize);
+        ai = (AIPlayer) game.getPlayers()[0];
+        ai.setCurrentEnemyIndex(1);
+        enemy = game.getPlayers()[1];
+        enemyFieldStates = enemy.getFieldStates(false);
+        Settings settings = game.getSettings();
+        placingAi = new AIPlayer(boardSize, settings.getDestroyers(), settings.getFrigates(), settings.getCorvettes(), settings.getSubmarines(), PlayerType.SMART_AI);
+        int smallestBoardSize = Settings.getRequiredBoardSize(Settings.getRequiredFields(settings.getDestroyers(), settings.getCorvettes(), settings.getFrigates(), settings.getSubmarines()));
+        crowdedAi = new AIPlayer(smallestBoardSize, settings.getDestroyers(), settings.getFrigates(), settings.getCorvettes(), settings.getSubmarines(), PlayerType.SMART_AI);
+    }
+
+    @Benchmark
+    public Target getTarget() throws Exception {
+        return ai.getTarget(enemyFieldStates);
+    }
+
+    @Benchmark
+    public Target getTargetFromKnowledge() throws Exception {
+        return ai.getTarget(enemy);
+    }
+
+    @Benchmark
+    public AIPlayer placeShips() throws Exception {
+        placingAi.resetBoard();
+        placingAi.placeShips();
+        return placingAi;
+    }
+
+    @Benchmark
+    public AIPlayer placeShipsOnSmallestBoard() throws Exception {
+        crowdedAi.resetBoard();
+        crowdedAi.placeShips();
+        return crowdedAi;
+    }
+}
@@ -0,0 +1,72 @@
+package de.hsbremen.battleshipextreme.benchmark;
+
+import de.hsbremen.battleshipextreme.model.Game;
+import de.hsbremen.battleshipextreme.model.Settings;
+import de.hsbremen.battleshipextreme.model.player.AIPlayer;
+import de.hsbremen.battleshipextreme.model.player.Player;
+
+/**
+ * Erzeugt die Spiele, auf denen die Benchmarks arbeiten. Die Anzahl der
+ * Schiffe wächst mit der Boardgröße, damit die Belegung der Boards bei allen
+ * Größen vergleichbar bleibt.
+ */
+final class BenchmarkGames {
+    private BenchmarkGames() {
+    }
+
+    /**
+     * Liefert Settings mit ausschließlich schlauen KI-Spielern.
+     */
+    static Settings createSettings(int boardSize, int players) {
+        if (boardSize < 10) {
+            return new Settings(0, players, 0, boardSize, 0, 0, 1, 1);
+        }
+        int shipsPerType = boardSize / 10;
+        return new Settings(0, players, 0, boardSize, shipsPerType, shipsPerType, shipsPerType, shipsPerType);
+    }
+
+    /**
+     * Liefert Settings mit ausschließlich starken KI-Spielern und derselben
+     * Flotte wie createSettings.
+     */
+    static Settings createHardAiSettings(int boardSize, int players) {
+        Settings settings = createSettings(boardSize, players);
+        return new Settings(0, 0, 0, players, boardSize, settings.getDestroyers(), settings.getFrigates(), settings.getCorvettes(), settings.getSubmarines());
+    }
+
+    /**
+     * Erzeugt ein Spiel, in dem alle Spieler ihre Schiffe bereits gesetzt
+     * haben.
+     */
+    static Game createReadyGame(int boardSize, int players) throws Exception {
+        return createReadyGame(createSettings(boardSize, players));
+    }
+
+    /**
+     * Erzeugt ein Spiel mit den übergebenen Settings, in dem alle Spieler
+     * ihre Schiffe bereits gesetzt haben.
+     */
+    static Game createReadyGame(Settings settings) throws Exception {
+        Game game = new Game();
+        game.initialize(settings);
+        do {
+            ((AIPlayer) game.getCurrentPlayer()).placeShips();
+            game.nextPlayer();
+        } while (!game.isReady());
+        return game;
+    }
+
+    /**
+     * Lässt die KI-Spieler die übergebene Anzahl Züge machen, höchstens aber
+     * bis das Spiel vorbei ist.
+     */
+    static void playTurns(Game game, int turns) throws Exception {
+        for (int i = 0; i < turns && !game.isGameover(); i++) {
+            Player currentPlayer = game.getCurrentPlayer();
+            if (!currentPlayer.hasLost() && !currentPlayer.areAllShipsReloading()) {
+                game.makeAiTurn();
+            }
+            game.nextPlayer();
+        }
+    }
+}
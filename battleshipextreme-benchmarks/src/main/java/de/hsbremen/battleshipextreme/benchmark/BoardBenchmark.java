@@ -0,0 +1,122 @@
+package de.hsbremen.battleshipextreme.benchmark;
+
+import de.hsbremen.battleshipextreme.model.BitBoard;
+import de.hsbremen.battleshipextreme.model.Board;
+import de.hsbremen.battleshipextreme.model.Field;
+import de.hsbremen.battleshipextreme.model.FieldState;
+import de.hsbremen.battleshipextreme.model.Settings;
+import de.hsbremen.battleshipextreme.model.SparseBoard;
+import de.hsbremen.battleshipextreme.model.exception.FieldOutOfBoardException;
+import de.hsbremen.battleshipextreme.model.ship.Destroyer;
+import de.hsbremen.battleshipextreme.model.ship.Ship;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht das klassische Board (Field[][]) mit dem BitBoard (gepackte
+ * Bitsets) und dem SparseBoard (Hashtabellen). Die Boards sind mit Zerstörern in jeder dritten Zeile belegt und
+ * jedes zweite Feld wurde bereits beschossen.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+    @Param({"FIELD_ARRAY", "BIT_BOARD", "SPARSE_BOARD"})
+    private String implementation;
+
+    @Param({"5", "10", "20", "40"})
+    private int boardSize;
+
+    private Board board;
+    private Field shipField;
+
+    @Setup
+    public void setUp() throws FieldOutOfBoardException {
+        board = createBoard();
+        placeShips(board);
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = (y % 2); x < boardSize; x += 2) {
+                board.mark(x, y);
+            }
+        }
+        shipField = board.getField(0, 0);
+    }
+
+    @Benchmark
+    public Board createEmptyBoard() {
+        return createBoard();
+    }
+
+    @Benchmark
+    public FieldState[][] getFieldStatesOfEnemy() {
+        return board.getFieldStates(false);
+    }
+
+    @Benchmark
+    public FieldState[][] getFieldStatesOfOwnBoard() {
+        return board.getFieldStates(true);
+    }
+
+    @Benchmark
+    public void getStateOfEveryField(Blackhole blackhole) {
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                blackhole.consume(board.getState(x, y));
+            }
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Field> getFieldsOfShip() {
+        return board.getFieldsOfShip(shipField);
+    }
+
+    /**
+     * Erzeugt ein Board, setzt die Schiffe und beschießt jedes Feld genau
+     * einmal, so wie es während eines kompletten Spiels passiert.
+     */
+    @Benchmark
+    public Board playWholeBoard() {
+        Board playedBoard = createBoard();
+        placeShips(playedBoard);
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                if (!playedBoard.isHit(x, y)) {
+                    playedBoard.mark(x, y);
+                    Ship ship = playedBoard.getShip(x, y);
+                    if (ship != null) {
+                        ship.decreaseSize();
+                    }
+                }
+            }
+        }
+        return playedBoard;
+    }
+
+    private Board createBoard() {
+        if (implementation.equals("BIT_BOARD")) {
+            return new BitBoard(boardSize);
+        }
+        if (implementation.equals("SPARSE_BOARD")) {
+            return new SparseBoard(boardSize);
+        }
+        return new Board(boardSize);
+    }
+
+    private void placeShips(Board target) {
+        for (int y = 0; y < boardSize; y += 3) {
+            for (int x = 0; x + Settings.DESTROYER_SIZE <= boardSize; x += Settings.DESTROYER_SIZE + 1) {
+                Ship ship = new Destroyer();
+                for (int i = 0; i < Settings.DESTROYER_SIZE; i++) {
+                    target.setShip(x + i, y, ship);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package de.hsbremen.battleshipextreme.benchmark;
+
+import de.hsbremen.battleshipextreme.model.Game;
+import de.hsbremen.battleshipextreme.model.Orientation;
+import de.hsbremen.battleshipextreme.model.player.Player;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks für Game.makeTurn und komplette KI-Spiele.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+    @Param({"5", "10", "20", "40"})
+    private int boardSize;
+
+    @Param({"2", "4", "6"})
+    private int players;
+
+    private Game game;
+
+    /**
+     * makeTurn verändert die Boards, deshalb wird für jeden Aufruf ein neues
+     * Spiel erzeugt. Das Erzeugen wird nicht mitgemessen.
+     */
+    @Setup(Level.Invocation)
+    public void setUpGame() throws Exception {
+        game = BenchmarkGames.createReadyGame(boardSize, players);
+    }
+
+    /**
+     * Der erste Spieler beschießt jedes Feld aller Gegner genau einmal mit
+     * seinem aktuellen Schiff. Die Zeit bezieht sich also auf
+     * (Spieler - 1) * boardSize² Aufrufe von makeTurn.
+     */
+    @Benchmark
+    public void makeTurnOnEveryField(Blackhole blackhole) throws Exception {
+        Player[] allPlayers = game.getPlayers();
+        for (int i = 1; i < allPlayers.length; i++) {
+            Player enemy = allPlayers[i];
+            for (int y = 0; y < boardSize; y++) {
+                for (int x = 0; x < boardSize; x++) {
+                    blackhole.consume(game.makeTurn(enemy, x, y, Orientation.HORIZONTAL));
+                }
+            }
+        }
+    }
+
+    /**
+     * Spielt ein komplettes Spiel zwischen den KI-Spielern, die Schiffe sind
+     * bereits gesetzt.
+     */
+    @Benchmark
+    public Player playAiGame() throws Exception {
+        BenchmarkGames.playTurns(game, Integer.MAX_VALUE);
+        return game.getWinner();
+    }
+}
@@ -0,0 +1,51 @@
+package de.hsbremen.battleshipextreme.benchmark;
+
+import de.hsbremen.battleshipextreme.model.Game;
+import de.hsbremen.battleshipextreme.model.player.AIPlayer;
+import de.hsbremen.battleshipextreme.model.player.Player;
+import de.hsbremen.battleshipextreme.model.player.Target;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark für die Zielsuche der HARD_AI. Jeder Spieler hat bereits
+ * 2 * boardSize Züge gemacht, es gibt also getroffene, nicht versenkte
+ * Schiffe, für die Aufstellungen gezogen werden. Die Suche endet nach
+ * MAX_SAMPLES Aufstellungen je Gegner oder nach dem Zeitbudget der KI, eine
+ * Messung über dem Budget zeigt, wie lange Bewertung und Warten auf die
+ * Aufgaben dauern.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HardAIPlayerBenchmark {
+    @Param({"10", "20", "40"})
+    private int boardSize;
+
+    @Param({"2", "6"})
+    private int players;
+
+    private AIPlayer ai;
+    private Player[] allPlayers;
+
+    @Setup
+    public void setUp() throws Exception {
+        Game game = BenchmarkGames.createReadyGame(BenchmarkGames.createHardAiSettings(boardSize, players));
+        BenchmarkGames.playTurns(game, players * boardSize * 2);
+        allPlayers = game.getPlayers();
+        ai = (AIPlayer) allPlayers[0];
+        // Schiffe, die gerade nachladen, stehen sonst nicht zur Auswahl
+        for (int i = 0; i < ai.getShips().length; i++) {
+            ai.getShips()[i].setCurrentReloadTime(0);
+        }
+    }
+
+    @Benchmark
+    public Target getTarget() throws Exception {
+        return ai.getTarget(allPlayers);
+    }
+}
@@ -0,0 +1,79 @@
+package de.hsbremen.battleshipextreme.benchmark;
+
+import de.hsbremen.battleshipextreme.model.FieldState;
+import de.hsbremen.battleshipextreme.model.Game;
+import de.hsbremen.battleshipextreme.model.Settings;
+import de.hsbremen.battleshipextreme.model.player.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks für Spiele im Modus für große Boards (SparseBoard) mit schlauen
+ * KI-Spielern und je einem Schiff jedes Typs. Die Spieler haben bereits 1000
+ * Züge je Spieler gemacht. Die erzeugten Bytes von createGame
+ * (gc.alloc.rate.norm) hängen kaum von der Boardgröße ab.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LargeBoardBenchmark {
+    private static final int TURNS_PER_PLAYER = 1000;
+    private static final int PAGE_SIZE = 64;
+
+    @Param({"1000", "10000"})
+    private int boardSize;
+
+    @Param({"12", "48"})
+    private int players;
+
+    private Game game;
+    private int page;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        // ein Spiel auf einem großen Board dauert Millionen Züge, ist es
+        // trotzdem vorbei, geht es mit einem neuen weiter
+        if (game == null || game.isGameover()) {
+            game = createReadyGame();
+            BenchmarkGames.playTurns(game, players * TURNS_PER_PLAYER);
+        }
+    }
+
+    private Game createReadyGame() throws Exception {
+        Settings settings = new Settings(0, players, 0, boardSize, 1, 1, 1, 1);
+        settings.setLargeBoard(true);
+        return BenchmarkGames.createReadyGame(settings);
+    }
+
+    /**
+     * Erzeugt ein Spiel und setzt die Schiffe aller Spieler
+     */
+    @Benchmark
+    public Game createGame() throws Exception {
+        return createReadyGame();
+    }
+
+    /**
+     * Ein Zug wie in SimulationEngine
+     */
+    @Benchmark
+    public void aiTurn() throws Exception {
+        BenchmarkGames.playTurns(game, 1);
+    }
+
+    /**
+     * Liest die Feldzustände des ersten Spielers seitenweise, wie sie ein
+     * Gegner sieht, jeder Aufruf eine Seite von PAGE_SIZE x PAGE_SIZE Feldern
+     */
+    @Benchmark
+    public FieldState[][] getFieldStatesOfPage() throws Exception {
+        Player player = game.getPlayers()[0];
+        int pagesPerRow = boardSize / PAGE_SIZE;
+        page = (page + 1) % (pagesPerRow * pagesPerRow);
+        return player.getFieldStates(false, page % pagesPerRow * PAGE_SIZE, page / pagesPerRow * PAGE_SIZE, PAGE_SIZE, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,101 @@
+package de.hsbremen.battleshipextreme.benchmark;
+
+import de.hsbremen.battleshipextreme.model.Orientation;
+import de.hsbremen.battleshipextreme.model.player.AIPlayer;
+import de.hsbremen.battleshipextreme.model.player.Player;
+import de.hsbremen.battleshipextreme.model.ship.Ship;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks für Player.placeShip und Player.isItPossibleToPlaceShip. Die
+ * Hälfte der Schiffe ist bereits gesetzt, geprüft wird das erste noch nicht
+ * gesetzte Schiff an jeder Position des Boards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayerBenchmark {
+    @Param({"5", "10", "20", "40"})
+    private int boardSize;
+
+    private Player player;
+    private Ship[] placedShips;
+    private int[] placedXPositions;
+    private int[] placedYPositions;
+    private Orientation[] placedOrientations;
+
+    @Setup
+    public void setUp() throws Exception {
+        player = BenchmarkGames.createReadyGame(boardSize, 2).getPlayers()[0];
+        Ship[] ships = player.getShips();
+        placedShips = new Ship[ships.length];
+        placedXPositions = new int[ships.length];
+        placedYPositions = new int[ships.length];
+        placedOrientations = new Orientation[ships.length];
+
+        // Positionen der von der KI gesetzten Schiffe merken
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x < boardSize; x++) {
+                Ship ship = player.getBoard().getShip(x, y);
+                if (ship == null) {
+                    continue;
+                }
+                for (int i = 0; i < ships.length; i++) {
+                    if (ships[i] == ship && placedShips[i] == null) {
+                        placedShips[i] = ship;
+                        placedXPositions[i] = x;
+                        placedYPositions[i] = y;
+                        boolean isHorizontal = x + 1 < boardSize && player.getBoard().getShip(x + 1, y) == ship;
+                        placedOrientations[i] = isHorizontal || ship.getSize() == 1 ? Orientation.HORIZONTAL : Orientation.VERTICAL;
+                    }
+                }
+            }
+        }
+        placeFirstHalf();
+    }
+
+    /**
+     * Prüft für jede Position des Boards, ob das aktuelle Schiff dort
+     * horizontal platziert werden kann.
+     */
+    @Benchmark
+    public void isItPossibleToPlaceShipOnEveryField(Blackhole blackhole) throws Exception {
+        int lastX = boardSize - player.getCurrentShip().getSize();
+        for (int y = 0; y < boardSize; y++) {
+            for (int x = 0; x <= lastX; x++) {
+                blackhole.consume(player.isItPossibleToPlaceShip(x, y, Orientation.HORIZONTAL));
+            }
+        }
+    }
+
+    /**
+     * Setzt die ganze Flotte an die Positionen, die die KI gefunden hat.
+     */
+    @Benchmark
+    public boolean placeAllShips() throws Exception {
+        player.resetBoard();
+        boolean isPlaced = true;
+        for (int i = 0; i < placedShips.length; i++) {
+            player.setCurrentShip(placedShips[i]);
+            isPlaced &= player.placeShip(placedXPositions[i], placedYPositions[i], placedOrientations[i]);
+        }
+        placeFirstHalf();
+        return isPlaced;
+    }
+
+    private void placeFirstHalf() throws Exception {
+        player.resetBoard();
+        int half = placedShips.length / 2;
+        for (int i = 0; i < half; i++) {
+            player.setCurrentShip(placedShips[i]);
+            player.placeShip(placedXPositions[i], placedYPositions[i], placedOrientations[i]);
+        }
+        player.setCurrentShip(placedShips[half]);
+    }
+}
@@ -0,0 +1,58 @@
+package de.hsbremen.battleshipextreme.benchmark;
+
+import de.hsbremen.battleshipextreme.model.Game;
+import de.hsbremen.battleshipextreme.model.player.Player;
+import de.hsbremen.battleshipextreme.model.ship.ShipType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark für die Abfragen, die Spiel, Server und Oberfläche in jedem Zug
+ * über den Zustand der Spieler und ihrer Flotten stellen. Jeder Spieler hat
+ * bereits boardSize Züge gemacht, es gibt also getroffene und nachladende
+ * Schiffe.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayerStatusBenchmark {
+    private static final ShipType[] SHIP_TYPES = ShipType.values();
+
+    @Param({"10", "40"})
+    private int boardSize;
+
+    @Param({"2", "6"})
+    private int players;
+
+    private Game game;
+
+    @Setup
+    public void setUp() throws Exception {
+        game = BenchmarkGames.createReadyGame(boardSize, players);
+        BenchmarkGames.playTurns(game, players * boardSize);
+    }
+
+    /**
+     * isGameover sowie für jeden Spieler hasLost, areAllShipsReloading und je
+     * Schifftyp getShipCount, isShipOfTypeAvailable und
+     * areAllShipsOfTypeReloading
+     */
+    @Benchmark
+    public void queryStatus(Blackhole blackhole) {
+        blackhole.consume(game.isGameover());
+        for (Player player : game.getPlayers()) {
+            blackhole.consume(player.hasLost());
+            blackhole.consume(player.areAllShipsReloading());
+            for (ShipType type : SHIP_TYPES) {
+                blackhole.consume(player.getShipCount(type));
+                blackhole.consume(player.isShipOfTypeAvailable(type));
+                blackhole.consume(player.areAllShipsOfTypeReloading(type));
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package de.hsbremen.battleshipextreme.benchmark;
+
+import de.hsbremen.battleshipextreme.model.Game;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks für Game.save und Game.load. Gespeichert wird ein KI-Spiel nach
+ * 50 Zügen pro Spieler, im Binärformat (unkomprimiert und komprimiert) und
+ * zum Vergleich wie früher mit ObjectOutputStream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SaveGameBenchmark {
+    @Param({"5", "10", "20", "40"})
+    private int boardSize;
+
+    @Param({"2", "4", "6"})
+    private int players;
+
+    @Param({"binary", "compressed", "serialized"})
+    private String format;
+
+    private Game game;
+    private byte[] savegame;
+
+    @Setup
+    public void setUp() throws Exception {
+        game = BenchmarkGames.createReadyGame(boardSize, players);
+        BenchmarkGames.playTurns(game, 50 * players);
+        savegame = save().toByteArray();
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream save() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        if (format.equals("serialized")) {
+            ObjectOutputStream objectOut = new ObjectOutputStream(out);
+            objectOut.writeObject(game);
+            objectOut.flush();
+        } else {
+            game.save(out, format.equals("compressed"));
+        }
+        return out;
+    }
+
+    /**
+     * Game.load erkennt das Format selbst, alte serialisierte Spielstände
+     * werden importiert.
+     */
+    @Benchmark
+    public Game load() throws Exception {
+        Game loaded = new Game();
+        loaded.load(new ByteArrayInputStream(savegame));
+        return loaded;
+    }
+}
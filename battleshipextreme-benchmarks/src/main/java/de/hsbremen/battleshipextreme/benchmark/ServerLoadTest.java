@@ -0,0 +1,134 @@
+package de.hsbremen.battleshipextreme.benchmark;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+import de.hsbremen.battleshipextreme.network.InfoSendingReason;
+import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
+import de.hsbremen.battleshipextreme.network.codec.FanOutStatistics;
+import de.hsbremen.battleshipextreme.server.OutboundStatistics;
+import de.hsbremen.battleshipextreme.server.Server;
+import de.hsbremen.battleshipextreme.server.ServerTransport;
+
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Lasttest für den Server. Startet einen Server im selben Prozess, verbindet
+ * die gewünschte Anzahl Clients und misst danach die Antwortzeit von
+ * GameList-Anfragen zufälliger Clients. Ausgegeben werden die Anzahl der
+ * Plattform-Threads, der belegte Heap und die Latenzen. Anschließend sendet
+ * ein Client Chatnachrichten, die der Server an alle Clients verteilt, und es
+ * wird ausgegeben, wie viel Serialisierung dabei eingespart wurde.
+ *
+ * Aufruf: ServerLoadTest [threads|virtual|nio] [Clients] [Anfragen] [Port]
+ *
+ * Jeder Client belegt im Prozess zwei Dateideskriptoren, bei 5000 Clients
+ * muss "ulimit -n" also über 10000 liegen.
+ */
+public class ServerLoadTest {
+    public static void main(String[] args) throws Exception {
+        ServerTransport transport = parseTransport(args.length > 0 ? args[0] : "threads");
+        int numberOfClients = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int numberOfRequests = args.length > 2 ? Integer.parseInt(args[2]) : 20000;
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 1338;
+
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        Server server = new Server(port);
+        server.setTransport(transport);
+        server.setMaxClients(numberOfClients + 1);
+        server.start();
+
+        Socket[] sockets = new Socket[numberOfClients];
+        ObjectOutputStream[] outputs = new ObjectOutputStream[numberOfClients];
+        ObjectInputStream[] inputs = new ObjectInputStream[numberOfClients];
+        long start = System.nanoTime();
+        for (int i = 0; i < numberOfClients; i++) {
+            sockets[i] = new Socket("localhost", port);
+            sockets[i].setTcpNoDelay(true);
+            outputs[i] = new ObjectOutputStream(sockets[i].getOutputStream());
+            outputs[i].flush();
+            inputs[i] = new ObjectInputStream(sockets[i].getInputStream());
+        }
+        while (server.getClients().size() < numberOfClients) {
+            Thread.sleep(10);
+        }
+        long connectMillis = (System.nanoTime() - start) / 1000000;
+
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeap = runtime.totalMemory() - runtime.freeMemory();
+        int threadsAfter = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        // Antwortzeiten messen
+        ITransferable request = TransferableObjectFactory.CreateServerInfo(InfoSendingReason.GameList);
+        long[] latencies = new long[numberOfRequests];
+        Random random = new Random(42);
+        for (int i = 0; i < numberOfRequests; i++) {
+            int client = random.nextInt(numberOfClients);
+            long requestStart = System.nanoTime();
+            outputs[client].reset();
+            outputs[client].writeObject(request);
+            outputs[client].flush();
+            inputs[client].readObject();
+            latencies[i] = System.nanoTime() - requestStart;
+        }
+        Arrays.sort(latencies);
+
+        // Broadcasts: jede Chatnachricht wird an alle Clients verteilt
+        int numberOfBroadcasts = 10;
+        ITransferable sender = TransferableObjectFactory.CreateClientInfo("client0", "127.0.0.1", sockets[0].getLocalPort());
+        for (int i = 0; i < numberOfBroadcasts; i++) {
+            outputs[0].reset();
+            outputs[0].writeObject(TransferableObjectFactory.CreateClientMessage("Broadcast " + i, sender));
+            outputs[0].flush();
+        }
+        FanOutStatistics statistics = server.getFanOutStatistics();
+        long expectedSends = (long) numberOfBroadcasts * numberOfClients;
+        long deadline = System.currentTimeMillis() + 30000;
+        while (statistics.getEncodings() + statistics.getReuses() < expectedSends && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        System.out.println("Transport:          " + transport);
+        System.out.println("Clients:            " + numberOfClients + " (connected in " + connectMillis + " ms)");
+        System.out.println("Platform threads:   " + threadsAfter + " (" + (threadsAfter - threadsBefore) + " more than before the server started)");
+        System.out.println("Used heap:          " + usedHeap / (1024 * 1024) + " MB");
+        System.out.println("Requests:           " + numberOfRequests);
+        System.out.println("Latency p50:        " + percentile(latencies, 0.50) + " us");
+        System.out.println("Latency p90:        " + percentile(latencies, 0.90) + " us");
+        System.out.println("Latency p99:        " + percentile(latencies, 0.99) + " us");
+        System.out.println("Latency max:        " + latencies[latencies.length - 1] / 1000 + " us");
+        System.out.println("Broadcasts:         " + statistics.getFanOuts() + " to " + statistics.getRecipients() + " recipients");
+        System.out.println("Encodings:          " + statistics.getEncodings() + " (" + statistics.getEncodingNanos() / 1000 + " us), reused " + statistics.getReuses() + " times");
+        System.out.println("Saved per broadcast: " + statistics.getSavedNanosPerFanOut() / 1000 + " us serialization, " + statistics.getSavedBytes() / Math.max(1, statistics.getFanOuts()) / 1024 + " KB");
+        OutboundStatistics outbound = server.getOutboundStatistics();
+        System.out.println("Outbound queues:    max depth " + outbound.getMaxQueueDepth() + ", coalesced " + outbound.getCoalesced() + ", dropped " + outbound.getDropped() + ", evicted " + outbound.getEvictions());
+
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        server.stop();
+        System.exit(0);
+    }
+
+    private static long percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.min(sortedLatencies.length - 1, Math.round(percentile * sortedLatencies.length));
+        return sortedLatencies[index] / 1000;
+    }
+
+    private static ServerTransport parseTransport(String name) {
+        if (name.equals("nio")) {
+            return ServerTransport.Nio;
+        }
+        if (name.equals("virtual")) {
+            return ServerTransport.VirtualThreads;
+        }
+        if (name.equals("threads")) {
+            return ServerTransport.ThreadPerClient;
+        }
+        throw new IllegalArgumentException("Unknown transport " + name + ", use threads, virtual or nio");
+    }
+}
@@ -0,0 +1,110 @@
+package de.hsbremen.battleshipextreme.benchmark;
+
+import de.hsbremen.battleshipextreme.model.Field;
+import de.hsbremen.battleshipextreme.model.ship.Destroyer;
+import de.hsbremen.battleshipextreme.model.ship.Ship;
+import de.hsbremen.battleshipextreme.model.ship.ShipType;
+import de.hsbremen.battleshipextreme.network.ITransferable;
+import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
+import de.hsbremen.battleshipextreme.network.codec.TransferableCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht Java-Serialisierung (wie im ClientSender: reset() vor jedem
+ * Objekt) mit dem Binärprotokoll. Die Größe der Nachrichten auf der Leitung
+ * wird beim Setup einmal ausgegeben.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransferableCodecBenchmark {
+    private static final byte[] STREAM_HEADER = {(byte) 0xAC, (byte) 0xED, 0x00, 0x05};
+
+    @Param({"CLIENT_TURN", "TURN", "CLIENT_MESSAGE"})
+    private String message;
+
+    @Param({"JAVA_SERIALIZATION", "BINARY"})
+    private String format;
+
+    private ITransferable transferableObject;
+    private ByteArrayOutputStream serializationBuffer;
+    private ObjectOutputStream out;
+    private TransferableCodec codec;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        transferableObject = createMessage();
+        serializationBuffer = new ByteArrayOutputStream(1024);
+        out = new ObjectOutputStream(serializationBuffer);
+        codec = new TransferableCodec();
+        encoded = encodeToArray();
+        System.out.println();
+        System.out.println(message + " " + format + ": " + encoded.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return encodeToArray();
+    }
+
+    @Benchmark
+    public ITransferable decode() throws Exception {
+        if (format.equals("BINARY")) {
+            return codec.decodeFrame(encoded, 0, encoded.length);
+        }
+        // jedes Objekt beginnt nach reset() mit TC_RESET und kann einzeln gelesen werden
+        ObjectInputStream in = new ObjectInputStream(new SequenceInputStream(new ByteArrayInputStream(STREAM_HEADER), new ByteArrayInputStream(encoded)));
+        return (ITransferable) in.readObject();
+    }
+
+    private byte[] encodeToArray() throws IOException {
+        if (format.equals("BINARY")) {
+            ByteBuffer frame = codec.encode(transferableObject);
+            return frame.array();
+        }
+        serializationBuffer.reset();
+        out.reset();
+        out.writeObject(transferableObject);
+        out.flush();
+        return serializationBuffer.toByteArray();
+    }
+
+    /**
+     * Typische Nachrichten eines Spielzugs: ein Schuss eines Zerstörers (3x3
+     * Felder, drei davon mit Schiff) und der Zug eines Clients, sowie eine
+     * Chatnachricht.
+     */
+    private ITransferable createMessage() {
+        if (message.equals("TURN")) {
+            return TransferableObjectFactory.CreateTurn("Player 1", "Player 2", 4, 5, true, ShipType.DESTROYER);
+        }
+        if (message.equals("CLIENT_MESSAGE")) {
+            ITransferable sender = TransferableObjectFactory.CreateClientInfo("Player 1", "127.0.0.1", 50123);
+            return TransferableObjectFactory.CreateClientMessage("Good luck, have fun!", sender);
+        }
+        Ship ship = new Destroyer();
+        Field[] fields = new Field[9];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = new Field(3 + i % 3, 4 + i / 3);
+            if (i < 3) {
+                fields[i].setShip(ship);
+                ship.decreaseSize();
+            }
+            fields[i].mark();
+        }
+        return TransferableObjectFactory.CreateClientTurn(fields, false, "Player 1", "Player 2");
+    }
+}
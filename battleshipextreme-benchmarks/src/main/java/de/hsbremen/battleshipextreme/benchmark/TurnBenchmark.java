@@ -0,0 +1,197 @@
+package de.hsbremen.battleshipextreme.benchmark;
+
+import de.hsbremen.battleshipextreme.model.Game;
+import de.hsbremen.battleshipextreme.model.Settings;
+import de.hsbremen.battleshipextreme.model.player.AIPlayer;
+import de.hsbremen.battleshipextreme.model.player.Player;
+import de.hsbremen.battleshipextreme.network.transfarableObject.NetGame;
+import de.hsbremen.battleshipextreme.network.transfarableObject.Turn;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks für einzelne Züge im laufenden Spiel, vor allem für die dabei
+ * erzeugten Objekte (gc.alloc.rate.norm). Jede Iteration spielt
+ * TURNS_PER_INVOCATION Züge, die Ergebnisse gelten je Zug. Die Spiele dafür
+ * werden vor der ersten Iteration erzeugt, weil der GC-Profiler auch die
+ * Objekte aus Setup-Methoden einer Iteration mitzählt. Ist ein Spiel vorbei,
+ * geht es mit dem nächsten weiter.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 5)
+@Fork(1)
+@OperationsPerInvocation(TurnBenchmark.TURNS_PER_INVOCATION)
+public class TurnBenchmark {
+    static final int TURNS_PER_INVOCATION = 2000;
+    private static final long SEED = 42;
+    private static final int STATE_VERSION = 3; // Version, in der Game.writeState schreibt
+
+    /**
+     * KI-Spiele wie in SimulationEngine. Gemessen wird jeweils die zweite
+     * Hälfte eines Spiels, bis dahin haben die KIs ihr Wissen über die Gegner
+     * aufgebaut.
+     */
+    @State(Scope.Thread)
+    public static class AiGames {
+        @Param({"10", "40"})
+        private int boardSize;
+
+        @Param({"2", "6"})
+        private int players;
+
+        private Game[] games;
+        private int gameIndex;
+
+        /**
+         * Erzeugt so viele Spiele, wie alle Iterationen zusammen brauchen. Ein
+         * Spiel verläuft mit demselben Seed immer gleich, deshalb wird jedes
+         * Spiel zuerst einmal zur Probe gespielt.
+         */
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkParams params) throws Exception {
+            long turns = getTurnsOfTrial(params);
+            ArrayList<Game> pool = new ArrayList<Game>();
+            for (long seed = SEED; turns > 0; seed++) {
+                int played = countTurns(createGame(seed));
+                Game game = createGame(seed);
+                BenchmarkGames.playTurns(game, played / 2);
+                pool.add(game);
+                turns -= played - played / 2;
+            }
+            games = pool.toArray(new Game[pool.size()]);
+            gameIndex = 0;
+        }
+
+        private Game createGame(long seed) throws Exception {
+            Game game = new Game();
+            game.initialize(BenchmarkGames.createSettings(boardSize, players), seed);
+            do {
+                ((AIPlayer) game.getCurrentPlayer()).placeShips();
+                game.nextPlayer();
+            } while (!game.isReady());
+            return game;
+        }
+
+        private static int countTurns(Game game) throws Exception {
+            int turns = 0;
+            while (!game.isGameover()) {
+                BenchmarkGames.playTurns(game, 1);
+                turns++;
+            }
+            return turns;
+        }
+
+        Game getGame() {
+            if (games[gameIndex].isGameover()) {
+                gameIndex++;
+            }
+            return games[gameIndex];
+        }
+    }
+
+    /**
+     * Netzwerkspiele mit KI-Spielern auf dem Server. Die Züge werden einmal
+     * von den KIs berechnet und danach auf Kopien des Spiels wie vom Client
+     * empfangene Züge angewendet.
+     */
+    @State(Scope.Thread)
+    public static class ServerGames {
+        @Param({"10", "40"})
+        private int boardSize;
+
+        @Param({"2", "6"})
+        private int players;
+
+        private NetGame[] games;
+        private Turn[] turns;
+        private int gameIndex;
+        private int turnIndex;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkParams params) throws Exception {
+            Settings settings = BenchmarkGames.createSettings(boardSize, players);
+            NetGame game = new NetGame("Benchmark", "", settings);
+            for (int i = 0; i < game.getPlayers().length; i++) {
+                ((AIPlayer) game.getPlayers()[game.nextInTurnOrder()]).placeShips();
+            }
+            game.setGameToReady();
+            ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+            game.writeState(new DataOutputStream(snapshot));
+
+            ArrayList<Turn> recorded = new ArrayList<Turn>();
+            boolean nextTurn = true;
+            while (nextTurn) {
+                Player player = game.getPlayers()[game.nextInTurnOrder()];
+                Turn turn = player.hasLost() || player.areAllShipsReloading() ? new Turn(player.getName()) : game.planAiTurn();
+                recorded.add(turn);
+                nextTurn = game.applyTurn(turn);
+            }
+            turns = recorded.toArray(new Turn[recorded.size()]);
+
+            games = new NetGame[(int) (getTurnsOfTrial(params) / turns.length) + 1];
+            for (int i = 0; i < games.length; i++) {
+                games[i] = NetGame.restore(new DataInputStream(new ByteArrayInputStream(snapshot.toByteArray())), STATE_VERSION);
+            }
+            gameIndex = 0;
+            turnIndex = 0;
+        }
+    }
+
+    private static long getTurnsOfTrial(BenchmarkParams params) {
+        IterationParams warmup = params.getWarmup();
+        IterationParams measurement = params.getMeasurement();
+        return ((long) warmup.getCount() * warmup.getBatchSize() + (long) measurement.getCount() * measurement.getBatchSize()) * TURNS_PER_INVOCATION;
+    }
+
+    /**
+     * Züge wie in SimulationEngine: Der Spieler, der an der Reihe ist,
+     * schießt, wenn er kann, danach ist der nächste Spieler dran.
+     */
+    @Benchmark
+    public void aiTurn(AiGames state) throws Exception {
+        for (int i = 0; i < TURNS_PER_INVOCATION; i++) {
+            Game game = state.getGame();
+            Player currentPlayer = game.getCurrentPlayer();
+            if (!currentPlayer.hasLost() && !currentPlayer.areAllShipsReloading()) {
+                game.makeAiTurn();
+            }
+            game.nextPlayer();
+        }
+    }
+
+    /**
+     * Züge wie in ServerDispatcher.handleTurn ohne Journal und Versand:
+     * prüfen, ausführen und den nächsten Platz der Zugreihenfolge bestimmen.
+     *
+     * @return die Anzahl der möglichen Züge
+     */
+    @Benchmark
+    public int serverTurn(ServerGames state) throws Exception {
+        int possibleTurns = 0;
+        for (int i = 0; i < TURNS_PER_INVOCATION; i++) {
+            if (state.turnIndex == state.turns.length) {
+                state.gameIndex++;
+                state.turnIndex = 0;
+            }
+            NetGame game = state.games[state.gameIndex];
+            Turn turn = state.turns[state.turnIndex++];
+            if (game.isTurnPossible(turn)) {
+                possibleTurns++;
+                if (game.applyTurn(turn)) {
+                    game.nextInTurnOrder();
+                }
+            }
+        }
+        return possibleTurns;
+    }
+}
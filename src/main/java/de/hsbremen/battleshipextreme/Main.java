@@ -8,6 +8,8 @@ import de.hsbremen.battleshipextreme.model.exception.*;
 import de.hsbremen.battleshipextreme.model.player.AIPlayer;
 import de.hsbremen.battleshipextreme.model.player.Player;
 import de.hsbremen.battleshipextreme.model.ship.Ship;
+import de.hsbremen.battleshipextreme.simulation.SimulationEngine;
+import de.hsbremen.battleshipextreme.simulation.SimulationSummary;
 
 import java.util.ArrayList;
 import java.util.Scanner;
@@ -39,7 +41,7 @@ class ConsoleGame {
 			System.out.println("(1) Erzeuge Spiel manuell");
 			System.out.println("(2) AI-Kampf (1 schlaue KI und 1 dumme KI)");
 			System.out.println("(3) AI-Kampf (1 schlaue KIs und 5 dumme KIs)");
-			System.out.println("(4) AI-Benchmark (Zeigt Runden-Durchschnitt von 1000 Spielen mit 2 schlauen KIs)");
+			System.out.println("(4) AI-Benchmark (Zeigt Runden-Durchschnitt von 1000 Spielen mit 1 schlauen KI und 1 dummen KI)");
 			System.out.println("(5) Zuletzt gespeichertes Spiel fortsetzen");
 			int choice = readIntegerWithMinMax(1, 5);
 			switch (choice) {
@@ -102,23 +104,11 @@ class ConsoleGame {
 		// eine AI die zufällig schießt, braucht im Schnitt ca. 77 Runden
 
 		int numberOfGames = 1000;
-		int[] roundNumbersOfEachGame = new int[numberOfGames];
-
-		for (int i = 0; i < numberOfGames; i++) {
-			System.out.println("Spiel-Nr" + i);
-			// Spiel mit zwei schlauen Ais erzeugen
-			createAiGame(1, 1);
-			gameLoop();
-			roundNumbersOfEachGame[i] = game.getRoundNumber();
-		}
-		// Durchschnitt ausrechnen
-		int sum = 0;
-		for (Integer i : roundNumbersOfEachGame) {
-			sum += i;
-		}
-		float average = (float) sum / (float) numberOfGames;
+		// Spiele mit einer schlauen und einer dummen Ai ohne Ausgabe parallel simulieren
+		SimulationEngine engine = new SimulationEngine(new Settings(0, 1, 1, 10, 1, 1, 1, 1));
+		SimulationSummary summary = engine.run(numberOfGames);
 		System.out.println("------------------------------------------------------------------------");
-		System.out.println("Durchschnittliche Rundenanzahl aus " + numberOfGames + ": " + average);
+		System.out.println("Durchschnittliche Rundenanzahl aus " + numberOfGames + ": " + summary.getAverageRounds());
 		System.exit(0);
 	}
 
@@ -218,6 +208,8 @@ class ConsoleGame {
 					e.printStackTrace();
 				} catch (ShipOutOfBoardException e) {
 					e.printStackTrace();
+				} catch (BoardTooSmallException e) {
+					e.printStackTrace();
 				}
 
 				System.out.println();
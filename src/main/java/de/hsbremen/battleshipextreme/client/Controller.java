@@ -316,11 +316,16 @@ public class Controller {
     }
 
     /**
-     * Prüft ob auf die gewünschte Position geschossen werden kann
+     * Prüft ob auf die gewünschte Position geschossen werden kann. Es wird nur
+     * der Zustand dieses einen Feldes gelesen.
      */
     public boolean isItPossibleToShoot(Board board, int startX, int startY) {
-        FieldState fs = board.getFieldStates(false)[startY][startX];
-        return fs == null;
+        try {
+            FieldState fs = board.getFieldStates(false, startX, startY, 1, 1)[0][0];
+            return fs == null;
+        } catch (FieldOutOfBoardException e) {
+            return false;
+        }
     }
 
     /**
@@ -1,10 +1,12 @@
 package de.hsbremen.battleshipextreme.client;
 
-import de.hsbremen.battleshipextreme.network.transfarableObject.NetGame;
+import de.hsbremen.battleshipextreme.network.transfarableObject.GameListChange;
+import de.hsbremen.battleshipextreme.network.transfarableObject.GameSummary;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
 import java.text.SimpleDateFormat;
+import java.util.List;
 import java.util.Vector;
 
 /**
@@ -14,7 +16,8 @@ import java.util.Vector;
 public class GameListModel extends AbstractTableModel {
 // ------------------------------ FIELDS ------------------------------
 
-    private Vector<NetGame> netGames;
+    private Vector<GameSummary> netGames;
+    private long version; // Version der Spieleliste des Servers, -1 solange kein GameListSnapshot empfangen wurde
     private String[] columns;
     private SimpleDateFormat timeFormatter = new SimpleDateFormat("dd.MM.yyyy HH:mm:ss");
     private ImageIcon iconIsPrivate = new ImageIcon(getClass().getResource("/privateGame.gif"));
@@ -23,7 +26,8 @@ public class GameListModel extends AbstractTableModel {
 // --------------------------- CONSTRUCTORS ---------------------------
 
     public GameListModel() {
-        this.netGames = new Vector<NetGame>();
+        this.netGames = new Vector<GameSummary>();
+        this.version = -1;
         this.columns = new String[]{"Name", "Player", "Created at", "PW"};
     }
 
@@ -43,7 +47,7 @@ public class GameListModel extends AbstractTableModel {
             case 0:
                 return netGames.get(rowIndex).getName();
             case 1:
-                return netGames.get(rowIndex).getJoinedPlayers().size() + " / " + netGames.get(rowIndex).getMaxPlayers();
+                return netGames.get(rowIndex).getJoinedPlayers() + " / " + netGames.get(rowIndex).getMaxPlayers();
 
             case 2:
                 return timeFormatter.format(netGames.get(rowIndex).getCreatedAt());
@@ -64,22 +68,81 @@ public class GameListModel extends AbstractTableModel {
 
 // -------------------------- OTHER METHODS --------------------------
 
-    public void addGame(NetGame netGame) {
-        this.netGames.add(netGame);
-        fireTableDataChanged();
+    public void addGame(GameSummary game) {
+        this.netGames.add(game);
+        fireTableRowsInserted(this.netGames.size() - 1, this.netGames.size() - 1);
     }
 
-    public NetGame getGame(int rowIndex) {
+    public GameSummary getGame(int rowIndex) {
         return this.netGames.get(rowIndex);
     }
 
     public void removeAllGames() {
         this.netGames.removeAllElements();
+        this.version = -1;
         fireTableDataChanged();
     }
 
-    public void removeGame(NetGame netGame) {
-        this.netGames.remove(netGame);
+    public void removeGame(String id) {
+        int rowIndex = indexOf(id);
+        if (rowIndex != -1) {
+            this.netGames.removeElementAt(rowIndex);
+            fireTableRowsDeleted(rowIndex, rowIndex);
+        }
+    }
+
+    /**
+     * Ersetzt alle Spiele durch den Stand eines GameListSnapshot
+     */
+    public void setGames(long version, List<GameSummary> games) {
+        this.netGames.removeAllElements();
+        this.netGames.addAll(games);
+        this.version = version;
         fireTableDataChanged();
     }
+
+    /**
+     * Übernimmt eine Änderung der Spieleliste. Bereits bekannte Versionen und Änderungen, die vor dem nächsten
+     * GameListSnapshot eintreffen, werden ignoriert
+     *
+     * @return false, wenn eine Version fehlt und ein neuer GameListSnapshot angefordert werden muss
+     */
+    public boolean applyChange(GameListChange change) {
+        if (this.version == -1 || change.getVersion() <= this.version) {
+            return true;
+        }
+        if (change.getVersion() != this.version + 1) {
+            this.version = -1;
+            return false;
+        }
+        this.version = change.getVersion();
+        GameSummary game = change.getGame();
+        int rowIndex = indexOf(game.getId());
+        switch (change.getChangeType()) {
+            case GameAdded:
+                if (rowIndex == -1) {
+                    addGame(game);
+                }
+                break;
+            case GameUpdated:
+                if (rowIndex != -1) {
+                    this.netGames.set(rowIndex, game);
+                    fireTableRowsUpdated(rowIndex, rowIndex);
+                }
+                break;
+            case GameRemoved:
+                removeGame(game.getId());
+                break;
+        }
+        return true;
+    }
+
+    private int indexOf(String id) {
+        for (int i = 0; i < this.netGames.size(); i++) {
+            if (this.netGames.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
 }
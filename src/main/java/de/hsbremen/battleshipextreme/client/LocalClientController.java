@@ -126,7 +126,7 @@ public class LocalClientController implements Serializable {
         initializeGameView();
 
         // wenn erster Spieler AI ist, automatisch anfangen
-        if (game.getCurrentPlayer().getType() == PlayerType.SMART_AI) {
+        if (game.getCurrentPlayer() instanceof AIPlayer) {
             placeAiShips();
         }
     }
@@ -325,6 +325,8 @@ public class LocalClientController implements Serializable {
         } catch (ShipOutOfBoardException e) {
             // TODO Auto-generated catch block
             e.printStackTrace();
+        } catch (BoardTooSmallException e) {
+            e.printStackTrace();
         }
         ctrl.setPlayerBoardEnabled(false);
         ctrl.setDoneButtonEnabled(true);
@@ -364,7 +366,7 @@ public class LocalClientController implements Serializable {
                 if (game.getCurrentPlayer().hasPlacedAllShips()) {
                     game.nextPlayer();
                     ctrl.setInfoLabelMessage(game.getCurrentPlayer() + " is placing ships");
-                    if (game.getCurrentPlayer().getType() == PlayerType.SMART_AI) {
+                    if (game.getCurrentPlayer() instanceof AIPlayer) {
                         placeAiShips();
                     } else {
                         ctrl.setPlayerBoardEnabled(true);
@@ -383,7 +385,7 @@ public class LocalClientController implements Serializable {
                     ctrl.setEnemyBoardEnabled(false);
                     ctrl.setShipSelectionEnabled(false);
                 } else {
-                    if (game.getCurrentPlayer().getType() == PlayerType.SMART_AI) {
+                    if (game.getCurrentPlayer() instanceof AIPlayer) {
                         gui.getPanelGame().getButtonShowYourShips().setEnabled(false);
                         makeAiTurn();
                     } else {
@@ -18,6 +18,7 @@ import de.hsbremen.battleshipextreme.network.ITransferable;
 import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
 import de.hsbremen.battleshipextreme.network.eventhandling.EventArgs;
 import de.hsbremen.battleshipextreme.network.transfarableObject.ClientTurn;
+import de.hsbremen.battleshipextreme.network.transfarableObject.GameSummary;
 import de.hsbremen.battleshipextreme.network.transfarableObject.NetGame;
 
 import javax.swing.*;
@@ -101,7 +102,7 @@ public class MultiPlayerClientController implements Serializable {
             public void actionPerformed(ActionEvent e) {
                 SettingsPanel panelSettings = gui.getPanelSettings();
                 int players = Integer.parseInt(panelSettings.getTextFieldPlayers().getText());
-                int aiPlayers = 0;// Integer.parseInt(panelSettings.getTextFieldAiPlayers().getText());
+                int aiPlayers = Integer.parseInt(panelSettings.getTextFieldAiPlayers().getText());
                 int dumbAiPlayers = 0;
                 int boardSize = Integer.parseInt(panelSettings.getTextFieldBoardSize().getText());
                 int destroyers = Integer.parseInt(panelSettings.getTextFieldDestroyers().getText());
@@ -390,7 +391,7 @@ public class MultiPlayerClientController implements Serializable {
                 int rowIndex = gui.getPanelServerConnection().getPnlServerGameBrowser().getTblGames().getSelectedRow();
                 if (rowIndex > -1) {
                     GameListModel model = (GameListModel) gui.getPanelServerConnection().getPnlServerGameBrowser().getTblGames().getModel();
-                    NetGame game = model.getGame(rowIndex);
+                    GameSummary game = model.getGame(rowIndex);
                     if (game.isPrivate()) {
                         createPasswordPrompt(game);
                     } else {
@@ -518,9 +519,10 @@ public class MultiPlayerClientController implements Serializable {
     private void setupSettingsPanelForMultiplayerGame() {
         // enable/disable controls for necessary game options
         SettingsPanel settings = gui.getPanelSettings();
-        settings.getTextFieldAiPlayers().setEnabled(false);
-        settings.getTextFieldAiPlayers().setVisible(false);
-        settings.getLabelAiPlayers().setVisible(false);
+        // KI-Spieler werden vom Server gespielt
+        settings.getTextFieldAiPlayers().setEnabled(true);
+        settings.getTextFieldAiPlayers().setVisible(true);
+        settings.getLabelAiPlayers().setVisible(true);
 
         settings.getLabelGameName().setEnabled(true);
         settings.getLabelGameName().setVisible(true);
@@ -539,7 +541,7 @@ public class MultiPlayerClientController implements Serializable {
      * Dient zur Passwort-Abfrage in einem passwortgeschützten
      * Multiplayer-Spiel.
      */
-    public void createPasswordPrompt(NetGame game) {
+    public void createPasswordPrompt(GameSummary game) {
         PasswordInputPanel panel = new PasswordInputPanel();
         String[] options = new String[]{"OK", "Cancel"};
         int option = JOptionPane.showOptionDialog(null, panel, "Password for " + game.getName(), JOptionPane.OK_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
@@ -548,11 +550,8 @@ public class MultiPlayerClientController implements Serializable {
             char[] password = panel.getTbxPassword().getPassword();
             String strPassword = new String(password);
 
-            if (strPassword.equals(game.getPassword())) {
-                join(game.getId());
-            } else {
-                JOptionPane.showMessageDialog(null, "Wrong password!", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            // das Passwort wird vom Server geprüft
+            network.join(game.getId(), strPassword);
         }
     }
 
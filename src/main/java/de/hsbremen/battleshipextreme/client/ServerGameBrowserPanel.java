@@ -1,6 +1,6 @@
 package de.hsbremen.battleshipextreme.client;
 
-import de.hsbremen.battleshipextreme.network.transfarableObject.NetGame;
+import de.hsbremen.battleshipextreme.network.transfarableObject.GameSummary;
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
@@ -50,8 +50,8 @@ public class ServerGameBrowserPanel extends JPanel {
         this.add(btnRefresh, "sg btn, growx, pushx");
     }
 
-    public void addGameToTable(NetGame netGame) {
-        tblModel.addGame(netGame);
+    public void addGameToTable(GameSummary game) {
+        tblModel.addGame(game);
     }
 
     public GameListModel getTblModel() {
@@ -3,7 +3,7 @@ package de.hsbremen.battleshipextreme.client.listener;
 import de.hsbremen.battleshipextreme.client.GameListModel;
 import de.hsbremen.battleshipextreme.client.MultiPlayerClientController;
 import de.hsbremen.battleshipextreme.model.network.NetworkClient;
-import de.hsbremen.battleshipextreme.network.transfarableObject.NetGame;
+import de.hsbremen.battleshipextreme.network.transfarableObject.GameSummary;
 
 import javax.swing.*;
 import javax.swing.event.ChangeEvent;
@@ -39,7 +39,7 @@ public class ServerGameBrowserListener implements TableColumnModelListener, Mous
             JTable target = (JTable) e.getSource();
             int rowIndex = target.getSelectedRow();
             GameListModel model = (GameListModel) target.getModel();
-            NetGame game = model.getGame(rowIndex);
+            GameSummary game = model.getGame(rowIndex);
             if (game.isPrivate()) {
                 ctrl.createPasswordPrompt(game);
             } else {
@@ -84,11 +84,25 @@ public class ServerObjectReceivedListener implements IServerObjectReceivedListen
         gui.getPanelServerConnection().getPnlServerGameBrowser().getTblModel().removeAllGames();
         GameList list = eventArgs.getItem();
         for (NetGame game : list.getNetGameList()) {
-            gui.getPanelServerConnection().getPnlServerGameBrowser().addGameToTable(game);
+            gui.getPanelServerConnection().getPnlServerGameBrowser().addGameToTable(new GameSummary(game));
         }
         ctrl.resizeServerGameListColumns();
     }
 
+    public void onGameListSnapshotObjectReceived(EventArgs<GameListSnapshot> eventArgs) {
+        GameListSnapshot snapshot = eventArgs.getItem();
+        gui.getPanelServerConnection().getPnlServerGameBrowser().getTblModel().setGames(snapshot.getVersion(), snapshot.getGames());
+        ctrl.resizeServerGameListColumns();
+    }
+
+    public void onGameListChangeObjectReceived(EventArgs<GameListChange> eventArgs) {
+        boolean applied = gui.getPanelServerConnection().getPnlServerGameBrowser().getTblModel().applyChange(eventArgs.getItem());
+        if (!applied) {
+            // eine Änderung fehlt, die komplette Liste neu anfordern
+            network.getSender().requestGameList();
+        }
+    }
+
     public void onServerInfoObjectReceived(EventArgs<ServerInfo> eventArgs) {
         ServerInfo info = eventArgs.getItem();
         switch (info.getReason()) {
@@ -0,0 +1,236 @@
+package de.hsbremen.battleshipextreme.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import de.hsbremen.battleshipextreme.model.exception.FieldOutOfBoardException;
+import de.hsbremen.battleshipextreme.model.ship.Ship;
+
+/**
+ * Board, das Schiffsbelegung und Treffer nicht in Field-Objekten, sondern in
+ * gepackten Bitsets speichert. Zu jedem Feld wird zusätzlich die ID des
+ * Schiffs in einem Array abgelegt (0 = kein Schiff). Field-Objekte werden nur
+ * noch bei Bedarf als Momentaufnahme erzeugt, Änderungen am Board müssen daher
+ * über die Methoden des Boards (setShip, mark) erfolgen.
+ *
+ * Ein Feld (x, y) liegt im Bitset an der Stelle y * size + x.
+ */
+
+public class BitBoard extends Board {
+	private static final long serialVersionUID = -3317043409946158208L;
+	private long[] shipBits;
+	private long[] hitBits;
+	private short[] shipIds;
+	private Ship[] shipsById;
+	private int numberOfShips;
+
+	/**
+	 * Erzeugt ein leeres BitBoard anhand der übergebenen Größe.
+	 *
+	 * @param size
+	 *            Boardgröße
+	 */
+	public BitBoard(int size) {
+		super(size, null);
+		int cells = size * size;
+		this.shipBits = new long[(cells + 63) >>> 6];
+		this.hitBits = new long[(cells + 63) >>> 6];
+		this.shipIds = new short[cells];
+		this.shipsById = new Ship[8];
+		this.numberOfShips = 0;
+	}
+
+	/**
+	 * Liefert eine Momentaufnahme aller Felder des Boards. Änderungen an den
+	 * gelieferten Feldern wirken sich nicht auf das Board aus.
+	 *
+	 * @return alle Felder
+	 */
+	@Override
+	public Field[][] getFields() {
+		int size = getSize();
+		Field[][] fields = new Field[size][size];
+		for (int row = 0; row < size; row++) {
+			for (int column = 0; column < size; column++) {
+				fields[row][column] = createField(column, row);
+			}
+		}
+		return fields;
+	}
+
+	/**
+	 * Liefert eine Momentaufnahme des Feldes an der Position x/y.
+	 *
+	 * @throws FieldOutOfBoardException
+	 *             wenn sich die Koordinaten nicht innerhalb des Feldes
+	 *             befinden.
+	 */
+	@Override
+	public Field getField(int x, int y) throws FieldOutOfBoardException {
+		if (!this.containsFieldAtPosition(x, y)) {
+			throw new FieldOutOfBoardException(new Field(x, y));
+		}
+		return createField(x, y);
+	}
+
+	@Override
+	public boolean hasShip(int x, int y) {
+		return isSet(shipBits, index(x, y));
+	}
+
+	@Override
+	public Ship getShip(int x, int y) {
+		return shipsById[shipIds[index(x, y)]];
+	}
+
+	@Override
+	public void setShip(int x, int y, Ship ship) {
+		int index = index(x, y);
+		if (ship == null || isSet(shipBits, index)) {
+			return;
+		}
+		shipIds[index] = (short) getShipId(ship);
+		shipBits[index >>> 6] |= 1L << index;
+	}
+
+	@Override
+	public boolean isHit(int x, int y) {
+		return isSet(hitBits, index(x, y));
+	}
+
+	@Override
+	public void mark(int x, int y) {
+		int index = index(x, y);
+		hitBits[index >>> 6] |= 1L << index;
+	}
+
+	@Override
+	public long getHitWord(int word) {
+		return hitBits[word];
+	}
+
+	@Override
+	public long getShipWord(int word) {
+		return shipBits[word];
+	}
+
+	@Override
+	public FieldState getState(int x, int y) {
+		return getState(index(x, y));
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(shipBits, 0L);
+		Arrays.fill(hitBits, 0L);
+		Arrays.fill(shipIds, (short) 0);
+		Arrays.fill(shipsById, null);
+		numberOfShips = 0;
+	}
+
+	/**
+	 * Liefert alle Feldzustände des Boards, ohne Field-Objekte zu erzeugen. Es
+	 * werden nur Feldzustände zurückgegeben, die der Spieler wissen darf.
+	 *
+	 * @param isOwnBoard
+	 *            gibt an, ob es sich um das eigene Board handelt
+	 */
+	@Override
+	public FieldState[][] getFieldStates(boolean isOwnBoard) {
+		int size = getSize();
+		FieldState[][] fieldStates = new FieldState[size][size];
+		int index = 0;
+		for (int i = 0; i < size; i++) {
+			FieldState[] row = fieldStates[i];
+			for (int j = 0; j < size; j++, index++) {
+				if (isSet(hitBits, index)) {
+					row[j] = getState(index);
+				} else if (isOwnBoard) {
+					row[j] = isSet(shipBits, index) ? FieldState.HAS_SHIP : FieldState.IS_EMPTY;
+				}
+			}
+		}
+		return fieldStates;
+	}
+
+	@Override
+	public ArrayList<Field> getFieldsOfShip(Field sourceField) {
+		ArrayList<Field> result = new ArrayList<Field>();
+		int id = findShipId(sourceField.getShip());
+		if (id == 0) {
+			return result;
+		}
+		int size = getSize();
+		for (int index = 0; index < shipIds.length; index++) {
+			if (shipIds[index] == id) {
+				result.add(createField(index % size, index / size));
+			}
+		}
+		return result;
+	}
+
+	private FieldState getState(int index) {
+		boolean hasShip = isSet(shipBits, index);
+		if (isSet(hitBits, index)) {
+			if (hasShip) {
+				return shipsById[shipIds[index]].isDestroyed() ? FieldState.DESTROYED : FieldState.HIT;
+			}
+			return FieldState.MISSED;
+		}
+		return hasShip ? FieldState.HAS_SHIP : FieldState.IS_EMPTY;
+	}
+
+	/**
+	 * Erzeugt ein Field-Objekt mit dem aktuellen Zustand der Position x/y.
+	 */
+	private Field createField(int x, int y) {
+		int index = index(x, y);
+		Field field = new Field(x, y);
+		if (isSet(shipBits, index)) {
+			field.setShip(shipsById[shipIds[index]]);
+		}
+		if (isSet(hitBits, index)) {
+			field.mark();
+		}
+		return field;
+	}
+
+	/**
+	 * Liefert die ID des übergebenen Schiffs. Ist das Schiff noch nicht auf dem
+	 * Board, wird ihm eine neue ID zugewiesen.
+	 */
+	private int getShipId(Ship ship) {
+		// Schiffe werden Feld für Feld gesetzt, meistens ist es also das
+		// zuletzt gesetzte Schiff
+		if (shipsById[numberOfShips] == ship) {
+			return numberOfShips;
+		}
+		int id = findShipId(ship);
+		if (id != 0) {
+			return id;
+		}
+		numberOfShips++;
+		if (numberOfShips >= shipsById.length) {
+			shipsById = Arrays.copyOf(shipsById, shipsById.length * 2);
+		}
+		shipsById[numberOfShips] = ship;
+		return numberOfShips;
+	}
+
+	private int findShipId(Ship ship) {
+		for (int id = 1; id <= numberOfShips; id++) {
+			if (shipsById[id] == ship) {
+				return id;
+			}
+		}
+		return 0;
+	}
+
+	private int index(int x, int y) {
+		return y * getSize() + x;
+	}
+
+	private static boolean isSet(long[] bits, int index) {
+		return (bits[index >>> 6] & (1L << index)) != 0;
+	}
+}
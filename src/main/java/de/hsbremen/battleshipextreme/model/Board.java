@@ -4,6 +4,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 
 import de.hsbremen.battleshipextreme.model.exception.FieldOutOfBoardException;
+import de.hsbremen.battleshipextreme.model.ship.Ship;
 
 /**
  * Die Klasse dient zum Erzeugen eines Boards.
@@ -23,12 +24,31 @@ public class Board implements Serializable {
 	 */
 	public Board(int size) {
 		this.size = size;
-		this.fields = new Field[size][size];
+		this.fields = createFields(size);
+	}
+
+	/**
+	 * Konstruktor für Unterklassen, die ihre Felder selbst verwalten.
+	 * 
+	 * @param size
+	 *            Boardgröße
+	 * @param fields
+	 *            die Felder des Boards, null wenn keine Field-Objekte
+	 *            benötigt werden
+	 */
+	protected Board(int size, Field[][] fields) {
+		this.size = size;
+		this.fields = fields;
+	}
+
+	private static Field[][] createFields(int size) {
+		Field[][] fields = new Field[size][size];
 		for (int row = 0; row < fields.length; row++) {
 			for (int column = 0; column < fields[row].length; column++) {
-				this.fields[row][column] = new Field(column, row);
+				fields[row][column] = new Field(column, row);
 			}
 		}
+		return fields;
 	}
 
 	/**
@@ -73,6 +93,157 @@ public class Board implements Serializable {
 		return size;
 	}
 
+	/**
+	 * Prüft ob sich auf dem Feld ein Schiff befindet. Die Koordinaten müssen
+	 * innerhalb des Boards liegen.
+	 * 
+	 * @param x
+	 * @param y
+	 * @return true, wenn sich auf dem Feld ein Schiff befindet
+	 */
+	public boolean hasShip(int x, int y) {
+		return fields[y][x].hasShip();
+	}
+
+	/**
+	 * Liefert das Schiff an der Position x/y. Die Koordinaten müssen innerhalb
+	 * des Boards liegen.
+	 * 
+	 * @param x
+	 * @param y
+	 * @return das Schiff, null wenn das Feld leer ist
+	 */
+	public Ship getShip(int x, int y) {
+		return fields[y][x].getShip();
+	}
+
+	/**
+	 * Setzt ein Schiff auf das Feld an der Position x/y. Ist das Feld bereits
+	 * belegt, passiert nichts.
+	 * 
+	 * @param x
+	 * @param y
+	 * @param ship
+	 *            das zu setzende Schiff
+	 */
+	public void setShip(int x, int y, Ship ship) {
+		fields[y][x].setShip(ship);
+	}
+
+	/**
+	 * Prüft ob das Feld an der Position x/y bereits beschossen wurde.
+	 * 
+	 * @param x
+	 * @param y
+	 * @return true, wenn das Feld beschossen wurde
+	 */
+	public boolean isHit(int x, int y) {
+		return fields[y][x].isHit();
+	}
+
+	/**
+	 * Markiert das Feld an der Position x/y als beschossen.
+	 * 
+	 * @param x
+	 * @param y
+	 */
+	public void mark(int x, int y) {
+		fields[y][x].mark();
+	}
+
+	/**
+	 * Liefert für 64 Felder ab dem Feld word * 64 als Bitmaske, ob sie
+	 * beschossen wurden. Die Felder sind zeilenweise nummeriert (y * size + x),
+	 * Bit 0 gehört zum ersten der 64 Felder.
+	 * 
+	 * @param word
+	 *            Nummer der 64 Felder
+	 * @return die beschossenen Felder als Bitmaske
+	 */
+	public long getHitWord(int word) {
+		long bits = 0;
+		int cells = size * size;
+		for (int bit = 0, index = word << 6; bit < 64 && index < cells; bit++, index++) {
+			if (isHit(index % size, index / size)) {
+				bits |= 1L << bit;
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Liefert wie getHitWord die Felder, auf denen ein Schiff liegt.
+	 * 
+	 * @param word
+	 *            Nummer der 64 Felder
+	 * @return die Felder mit Schiffen als Bitmaske
+	 */
+	public long getShipWord(int word) {
+		long bits = 0;
+		int cells = size * size;
+		for (int bit = 0, index = word << 6; bit < 64 && index < cells; bit++, index++) {
+			if (hasShip(index % size, index / size)) {
+				bits |= 1L << bit;
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Liefert die beschossenen Felder als aufsteigende Indizes y * size + x.
+	 * 
+	 * @return die Indizes der beschossenen Felder
+	 */
+	public int[] getHitIndices() {
+		return getIndices(true);
+	}
+
+	/**
+	 * Liefert die Felder, auf denen ein Schiff liegt, als aufsteigende Indizes
+	 * y * size + x.
+	 * 
+	 * @return die Indizes der Felder mit Schiffen
+	 */
+	public int[] getShipIndices() {
+		return getIndices(false);
+	}
+
+	private int[] getIndices(boolean hits) {
+		int words = (size * size + 63) >>> 6;
+		int count = 0;
+		for (int word = 0; word < words; word++) {
+			count += Long.bitCount(hits ? getHitWord(word) : getShipWord(word));
+		}
+		int[] indices = new int[count];
+		count = 0;
+		for (int word = 0; word < words; word++) {
+			long bits = hits ? getHitWord(word) : getShipWord(word);
+			while (bits != 0) {
+				indices[count++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+			}
+		}
+		return indices;
+	}
+
+	/**
+	 * Liefert den Zustand des Feldes an der Position x/y.
+	 * 
+	 * @param x
+	 * @param y
+	 * @return FieldState
+	 */
+	public FieldState getState(int x, int y) {
+		return fields[y][x].getState();
+	}
+
+	/**
+	 * Entfernt alle Schiffe und Treffer vom Board.
+	 */
+	public void clear() {
+		this.fields = createFields(size);
+	}
+
 	/**
 	 * Liefert alle Feldzustände eines Boards abhängig davon, ob es das eigene
 	 * Board oder das Board eines Gegners ist. Es werden nur Feldzustände
@@ -97,6 +268,52 @@ public class Board implements Serializable {
 		return fieldStates;
 	}
 
+	/**
+	 * Liefert wie getFieldStates(boolean) die Feldzustände eines Ausschnitts
+	 * des Boards. Große Boards werden so seitenweise gelesen, ohne eine Matrix
+	 * über alle Felder zu erzeugen.
+	 * 
+	 * @param isOwnBoard
+	 *            gibt an, ob es sich um das eigene Board handelt
+	 * @param x
+	 *            linke Spalte des Ausschnitts
+	 * @param y
+	 *            obere Zeile des Ausschnitts
+	 * @param width
+	 *            Breite des Ausschnitts
+	 * @param height
+	 *            Höhe des Ausschnitts
+	 * @return die Feldzustände, [0][0] gehört zum Feld x/y
+	 * @throws FieldOutOfBoardException
+	 *             wenn der Ausschnitt nicht ganz innerhalb des Boards liegt
+	 */
+	public FieldState[][] getFieldStates(boolean isOwnBoard, int x, int y, int width, int height) throws FieldOutOfBoardException {
+		if (width < 0 || height < 0 || !containsFieldAtPosition(x, y)) {
+			throw new FieldOutOfBoardException(new Field(x, y));
+		}
+		if (x + width > size || y + height > size) {
+			throw new FieldOutOfBoardException(new Field(x + width - 1, y + height - 1));
+		}
+		return getFieldStatesOfRegion(isOwnBoard, x, y, width, height);
+	}
+
+	/**
+	 * Liefert die Feldzustände eines Ausschnitts, der innerhalb des Boards
+	 * liegt, über getState.
+	 */
+	protected FieldState[][] getFieldStatesOfRegion(boolean isOwnBoard, int x, int y, int width, int height) {
+		FieldState[][] fieldStates = new FieldState[height][width];
+		for (int i = 0; i < height; i++) {
+			for (int j = 0; j < width; j++) {
+				FieldState state = getState(x + j, y + i);
+				if (isOwnBoard || (state != FieldState.HAS_SHIP && state != FieldState.IS_EMPTY)) {
+					fieldStates[i][j] = state;
+				}
+			}
+		}
+		return fieldStates;
+	}
+
 	public ArrayList<Field> getFieldsOfShip(Field sourceField) {
 
 		ArrayList<Field> result = new ArrayList<Field>();
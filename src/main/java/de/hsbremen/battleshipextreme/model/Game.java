@@ -8,28 +8,56 @@ import de.hsbremen.battleshipextreme.network.transfarableObject.TransferableObje
 
 import java.io.*;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 public class Game extends TransferableObject {
     private static final long serialVersionUID = -8672232283887859447L;
+    private static final int SAVEGAME_MAGIC = 0x42535847; // "BSXG"
+    private static final int SAVEGAME_VERSION = 3; // ab Version 2 mit Anzahl der starken KIs, ab 3 mit Modus für große Boards
+    private static final int SAVEGAME_COMPRESSED = 1; // Flag: Spielstand ist mit Deflate komprimiert
+    private static final int SERIALIZED_MAGIC = 0xACED; // Beginn alter, mit ObjectOutputStream gespeicherter Spielstände
     private Player[] players;
     private Player currentPlayer;
     private Player winner;
+    private int numberOfPlayersLeft; // Spieler, die noch nicht verloren haben
     private int turnNumber;
     private int roundNumber;
     private int boardSize;
     private boolean hasCurrentPlayerMadeTurn;
     private Settings settings;
-    private Field[] markedFieldOfLastTurn;
+    private Field[] markedFieldOfLastTurn; // wird erst bei Bedarf aus lastTurn erzeugt
+    private long seed;
+    private transient SplittableRandom random;
+    private transient int currentPlayerIndex;
+    private transient TurnResult lastTurn;
+    private transient Player enemyOfLastTurn;
 
     /**
      * Initialisiert die benötigten Objekte für das Spiel anhand der übergebenen
-     * Settings.
+     * Settings. Der Seed des Spiels wird zufällig gewählt.
      */
     public void initialize(Settings settings) {
+        initialize(settings, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Initialisiert die benötigten Objekte für das Spiel anhand der übergebenen
+     * Settings. Jeder KI-Spieler bekommt einen eigenen, aus dem Seed
+     * abgeleiteten Zufallsgenerator. Ein Spiel nur aus KI-Spielern verläuft mit
+     * denselben Settings und demselben Seed daher immer gleich.
+     * @param seed der Seed, über getSeed abfragbar
+     */
+    public void initialize(Settings settings, long seed) {
         this.settings = settings;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
         createPlayers(settings);
+        numberOfPlayersLeft = countPlayersLeft();
 
         // Spielernummern setzen
         for (int i = 0; i < players.length; i++) {
@@ -49,21 +77,32 @@ public class Game extends TransferableObject {
         int numberOfHumanPlayers = settings.getPlayers();
         int numberOfAIPlayers = settings.getSmartAiPlayers();
         int numberOfDumbAiPlayers = settings.getDumbAiPlayers();
-        int numberOfPlayers = numberOfAIPlayers + numberOfHumanPlayers + numberOfDumbAiPlayers;
+        int numberOfHardAiPlayers = settings.getHardAiPlayers();
+        int numberOfPlayers = numberOfAIPlayers + numberOfHumanPlayers + numberOfDumbAiPlayers + numberOfHardAiPlayers;
         players = new Player[numberOfPlayers];
         for (int i = 0; i < numberOfPlayers; i++) {
             if (i < numberOfHumanPlayers) {
-                players[i] = new HumanPlayer(settings.getBoardSize(), settings.getDestroyers(), settings.getFrigates(), settings.getCorvettes(), settings.getSubmarines());
+                players[i] = new HumanPlayer(settings.createBoard(), settings.getDestroyers(), settings.getFrigates(), settings.getCorvettes(), settings.getSubmarines());
             } else {
                 if (i < numberOfAIPlayers + numberOfHumanPlayers) {
-                    players[i] = new AIPlayer(settings.getBoardSize(), settings.getDestroyers(), settings.getFrigates(), settings.getCorvettes(), settings.getSubmarines(), PlayerType.SMART_AI);
+                    players[i] = new AIPlayer(settings.createBoard(), settings.getDestroyers(), settings.getFrigates(), settings.getCorvettes(), settings.getSubmarines(), PlayerType.SMART_AI);
+                } else if (i < numberOfAIPlayers + numberOfHumanPlayers + numberOfDumbAiPlayers) {
+                    players[i] = new AIPlayer(settings.createBoard(), settings.getDestroyers(), settings.getFrigates(), settings.getCorvettes(), settings.getSubmarines(), PlayerType.DUMB_AI);
                 } else {
-                    players[i] = new AIPlayer(settings.getBoardSize(), settings.getDestroyers(), settings.getFrigates(), settings.getCorvettes(), settings.getSubmarines(), PlayerType.DUMB_AI);
+                    players[i] = new AIPlayer(settings.createBoard(), settings.getDestroyers(), settings.getFrigates(), settings.getCorvettes(), settings.getSubmarines(), PlayerType.HARD_AI);
                 }
+                ((AIPlayer) players[i]).setRandom(getRandom().split());
             }
         }
     }
 
+    private SplittableRandom getRandom() {
+        if (random == null) {
+            random = new SplittableRandom();
+        }
+        return random;
+    }
+
     /**
      * Die Methode dient zum Ausführen eines Zugs. Sie bekommt den
      * anzugreifenden Gegner sowie die Position und Ausrichtung des Schusses.
@@ -76,15 +115,25 @@ public class Game extends TransferableObject {
      * @return true, wenn der Schuss möglich war, false wenn nicht
      */
     public boolean makeTurn(Player enemy, int xPos, int yPos, Orientation orientation) throws FieldOutOfBoardException {
-        Field[] markedFields = new Field[currentPlayer.getCurrentShip().getShootingRange()];
+        return makeTurn(enemy, xPos, yPos, orientation, getLastTurn());
+    }
+
+    /**
+     * Führt einen Zug wie makeTurn(Player, int, int, Orientation) aus und
+     * schreibt die markierten Felder in das übergebene Ergebnis. Wird dasselbe
+     * Ergebnis für jeden Zug verwendet, erzeugt ein Zug keine neuen Objekte.
+     * @param result erhält das Ergebnis, bleibt unverändert, wenn der Schuss
+     * nicht möglich war
+     * @return true, wenn der Schuss möglich war, false wenn nicht
+     */
+    public boolean makeTurn(Player enemy, int xPos, int yPos, Orientation orientation, TurnResult result) throws FieldOutOfBoardException {
+        boolean hadEnemyLost = enemy.hasLost();
+        int shootingRange = currentPlayer.getCurrentShip().getShootingRange();
         int xDirection = orientation == Orientation.HORIZONTAL ? 1 : 0;
         int yDirection = orientation == Orientation.VERTICAL ? 1 : 0;
-        int x;
-        int y;
-        for (int i = 0; i < currentPlayer.getCurrentShip().getShootingRange(); i++) {
-            x = xPos + i * xDirection;
-            y = yPos + i * yDirection;
-            boolean isShotPossible = enemy.markBoard(x, y);
+        long markedFields = 0; // Bit i: das i-te Feld des Schusses wurde markiert
+        for (int i = 0; i < shootingRange; i++) {
+            boolean isShotPossible = enemy.markBoard(xPos + i * xDirection, yPos + i * yDirection);
             if (i == 0) {
                 if (!isShotPossible) {
                     // erstes Feld belegt, Schuss nicht möglich
@@ -92,36 +141,100 @@ public class Game extends TransferableObject {
                 }
             }
             if (isShotPossible) {
-                markedFields[i] = enemy.getBoard().getField(x, y);
+                markedFields |= 1L << i;
             }
         }
-        boolean isDestroyed = false;
-        ArrayList<Field> missedFields = new ArrayList<Field>();
-        Field source = null;
-        for (int i = 0; i < markedFields.length; i++) {
-            if (markedFields[i] == null) {
+        // von versenkten Schiffen alle Felder liefern, von allen anderen nur
+        // die markierten
+        Board board = enemy.getBoard();
+        result.clear(indexOfPlayer(enemy));
+        for (int i = 0; i < shootingRange; i++) {
+            if ((markedFields >>> i & 1) == 0) {
                 continue;
             }
-            if (markedFields[i].hasShip()) {
-                if (markedFields[i].getShip().isDestroyed()) {
-                    source = markedFields[i];
-                    isDestroyed = true;
-                }
-            } else {
-                missedFields.add(markedFields[i]);
+            int x = xPos + i * xDirection;
+            int y = yPos + i * yDirection;
+            Ship ship = board.getShip(x, y);
+            if (ship == null) {
+                result.add(x, y, FieldState.MISSED);
+            } else if (!ship.isDestroyed()) {
+                result.add(x, y, FieldState.HIT);
+            } else if (isFirstMarkedFieldOfShip(board, xPos, yPos, xDirection, yDirection, markedFields, i)) {
+                addFieldsOfShip(board, x, y, result);
             }
         }
-        if (isDestroyed) {
-            ArrayList<Field> shipFields = enemy.getBoard().getFieldsOfShip(source);
-            shipFields.addAll(missedFields);
-            markedFields = shipFields.toArray(markedFields);
+        if (!hadEnemyLost && enemy.hasLost()) {
+            numberOfPlayersLeft--;
         }
         currentPlayer.getCurrentShip().shoot();
         hasCurrentPlayerMadeTurn = true;
-        this.markedFieldOfLastTurn = markedFields;
+        if (result != getLastTurn()) {
+            lastTurn.copyFrom(result);
+        }
+        this.enemyOfLastTurn = enemy;
+        this.markedFieldOfLastTurn = null;
+        informAiPlayers(result);
         return true;
     }
 
+    private TurnResult getLastTurn() {
+        if (lastTurn == null) {
+            lastTurn = new TurnResult();
+        }
+        return lastTurn;
+    }
+
+    /**
+     * Prüft, ob kein früher markiertes Feld des Schusses zum Schiff des
+     * index-ten Feldes gehört.
+     */
+    private static boolean isFirstMarkedFieldOfShip(Board board, int xPos, int yPos, int xDirection, int yDirection, long markedFields, int index) {
+        Ship ship = board.getShip(xPos + index * xDirection, yPos + index * yDirection);
+        for (int i = 0; i < index; i++) {
+            if ((markedFields >>> i & 1) != 0 && board.getShip(xPos + i * xDirection, yPos + i * yDirection) == ship) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hängt alle Felder des Schiffs an der Position x/y an das Ergebnis an.
+     * Die Felder ergeben sich aus der Lage des Schiffs, nur ohne bekannte Lage
+     * wird das Board durchsucht.
+     */
+    private static void addFieldsOfShip(Board board, int x, int y, TurnResult result) throws FieldOutOfBoardException {
+        Ship ship = board.getShip(x, y);
+        if (!ship.hasPosition()) {
+            for (Field field : board.getFieldsOfShip(board.getField(x, y))) {
+                result.add(field.getXPos(), field.getYPos(), FieldState.DESTROYED);
+            }
+            return;
+        }
+        int xDirection = ship.getOrientation() == Orientation.HORIZONTAL ? 1 : 0;
+        int yDirection = 1 - xDirection;
+        for (int i = 0; i < ship.getLength(); i++) {
+            result.add(ship.getXPos() + i * xDirection, ship.getYPos() + i * yDirection, FieldState.DESTROYED);
+        }
+    }
+
+    /**
+     * Teilt allen KI-Spielern die in einem Zug markierten Felder mit. So
+     * müssen sie ihr Wissen über den Gegner nicht vor jedem eigenen Zug aus
+     * dem ganzen Board neu aufbauen.
+     */
+    private void informAiPlayers(TurnResult result) {
+        if (result.getEnemyIndex() < 0) {
+            return;
+        }
+        Player enemy = players[result.getEnemyIndex()];
+        for (Player player : players) {
+            if (player != enemy && player instanceof AIPlayer) {
+                ((AIPlayer) player).observeTurn(result);
+            }
+        }
+    }
+
     /**
      * Die Methode dient zum Ausführen eines KI-Zugs. Sie liefert das
      * Angriffziel (bestehend aus Position und Ausrichtung des Schusses).
@@ -134,21 +247,43 @@ public class Game extends TransferableObject {
         Target shot = null;
 
         do {
-            Player currentEnemy = selectAiEnemy();
-            ai.selectShip(ai.getAvailableShips(true).get(0));
-            shot = ai.getTarget(currentEnemy.getFieldStates(false));
+            shot = planAiTarget();
+            Player currentEnemy = players[ai.getCurrentEnemyIndex()];
             wasShotPossible = makeTurn(currentEnemy, shot.getX(), shot.getY(), shot.getOrientation());
+            if (!wasShotPossible) {
+                // das Wissen der KI passt nicht zum Board, beim nächsten
+                // Versuch neu aufbauen
+                ai.discardKnowledge();
+            }
         } while (!wasShotPossible);
 
         return shot;
     }
 
+    /**
+     * Bestimmt das Ziel des KI-Spielers, der an der Reihe ist, ohne zu schießen.
+     * Die HARD_AI wählt Gegner und Schiff selbst, alle anderen KIs schießen mit
+     * dem ersten verfügbaren Schiff auf den Gegner aus selectAiEnemy. Danach ist
+     * der Gegner players[ai.getCurrentEnemyIndex()] und das Schiff das aktuelle
+     * Schiff der KI.
+     * @return das Angriffsziel
+     */
+    protected Target planAiTarget() throws Exception {
+        AIPlayer ai = (AIPlayer) currentPlayer;
+        if (ai.getType() == PlayerType.HARD_AI) {
+            return ai.getTarget(players);
+        }
+        Player currentEnemy = selectAiEnemy();
+        ai.selectShip(ai.getFirstAvailableShip());
+        return ai.getTarget(currentEnemy);
+    }
+
     /**
      * Die Methode dient zum Auswählen eines Gegners für die KI. Dabei wird
      * geprüft, ob die AI sich einen Gegner vorgemerkt hat. Wenn ja, wird er
      * beibehalten, wenn nicht, wird ein zufälliger neuer Gegner ausgesucht.
      */
-    private Player selectAiEnemy() {
+    protected Player selectAiEnemy() {
         AIPlayer ai = (AIPlayer) currentPlayer;
         Player currentEnemy;
         do {
@@ -164,51 +299,264 @@ public class Game extends TransferableObject {
     }
 
     /**
-     * Die Methode dient zum Speichern eines Spiels.
+     * Die Methode dient zum Speichern eines Spiels. Der Spielstand wird
+     * unkomprimiert im Binärformat von writeState gespeichert.
      * @throws Exception wenn das Spiel nicht gespeichert werden konnte
      */
     public void save(String destinationPath) throws Exception {
+        save(destinationPath, false);
+    }
+
+    /**
+     * Die Methode dient zum Speichern eines Spiels.
+     * @param compress gibt an, ob der Spielstand komprimiert werden soll
+     * @throws Exception wenn das Spiel nicht gespeichert werden konnte
+     */
+    public void save(String destinationPath, boolean compress) throws Exception {
         FileOutputStream saveFile = null;
-        ObjectOutputStream save = null;
         try {
             saveFile = new FileOutputStream(destinationPath);
-            save = new ObjectOutputStream(saveFile);
-            save.writeObject(this);
-            save.close();
-        } catch (Exception ex) {
-            throw ex;
+            save(saveFile, compress);
         } finally {
             closeQuietly(saveFile);
-            closeQuietly(save);
         }
     }
 
     /**
-     * Die Methode dient zum Laden eines Spiels.
+     * Schreibt das Spiel als Savegame in einen Stream: Kennung, Version und
+     * Flags, danach den Spielstand aus writeState. Der Stream wird nicht
+     * geschlossen.
+     * @param compress gibt an, ob der Spielstand komprimiert werden soll
+     */
+    public void save(OutputStream destination, boolean compress) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(destination);
+        DataOutputStream save = new DataOutputStream(buffered);
+        save.writeInt(SAVEGAME_MAGIC);
+        save.writeByte(SAVEGAME_VERSION);
+        save.writeByte(compress ? SAVEGAME_COMPRESSED : 0);
+        if (compress) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                DeflaterOutputStream compressed = new DeflaterOutputStream(buffered, deflater);
+                DataOutputStream compressedSave = new DataOutputStream(new BufferedOutputStream(compressed));
+                writeState(compressedSave);
+                compressedSave.flush();
+                compressed.finish();
+            } finally {
+                deflater.end();
+            }
+        } else {
+            writeState(save);
+        }
+        save.flush();
+    }
+
+    /**
+     * Die Methode dient zum Laden eines Spiels. Alte, mit ObjectOutputStream
+     * gespeicherte Spielstände werden ebenfalls gelesen und beim nächsten
+     * Speichern im neuen Format geschrieben.
      * @throws Exception wenn das Spiel nicht geladen werden konnte.
      */
     public void load(String destinationPath) throws Exception {
         FileInputStream saveFile = null;
-        ObjectInputStream save = null;
         try {
             saveFile = new FileInputStream(destinationPath);
-            save = new ObjectInputStream(saveFile);
-            Game game = (Game) save.readObject();
-            players = game.players;
-            currentPlayer = game.currentPlayer;
-            winner = game.winner;
-            turnNumber = game.turnNumber;
-            boardSize = game.boardSize;
-            hasCurrentPlayerMadeTurn = game.hasCurrentPlayerMadeTurn;
-            save.close();
-        } catch (Exception ex1) {
-            throw ex1;
+            load(saveFile);
         } finally {
             closeQuietly(saveFile);
-            closeQuietly(save);
         }
     }
 
+    /**
+     * Liest ein Savegame aus einem Stream. Der Spielstand wird erst
+     * übernommen, wenn er vollständig gelesen wurde. Der Stream wird nicht
+     * geschlossen.
+     * @throws IOException wenn der Stream kein gültiges Savegame enthält
+     */
+    public void load(InputStream source) throws IOException, ClassNotFoundException {
+        BufferedInputStream buffered = new BufferedInputStream(source);
+        DataInputStream load = new DataInputStream(buffered);
+        buffered.mark(4);
+        int magic = load.readInt();
+        Game game;
+        if (magic >>> 16 == SERIALIZED_MAGIC) {
+            buffered.reset();
+            game = (Game) new ObjectInputStream(buffered).readObject();
+        } else {
+            if (magic != SAVEGAME_MAGIC) {
+                throw new StreamCorruptedException("Not a savegame");
+            }
+            int version = load.readUnsignedByte();
+            if (version > SAVEGAME_VERSION) {
+                throw new StreamCorruptedException("Savegame version " + version + " is not supported");
+            }
+            int flags = load.readUnsignedByte();
+            game = new Game();
+            if ((flags & SAVEGAME_COMPRESSED) != 0) {
+                Inflater inflater = new Inflater();
+                try {
+                    game.readState(new DataInputStream(new BufferedInputStream(new InflaterInputStream(buffered, inflater))), version);
+                } finally {
+                    inflater.end();
+                }
+            } else {
+                game.readState(load, version);
+            }
+        }
+        players = game.players;
+        numberOfPlayersLeft = countPlayersLeft();
+        currentPlayer = game.currentPlayer;
+        winner = game.winner;
+        turnNumber = game.turnNumber;
+        roundNumber = game.roundNumber;
+        boardSize = game.boardSize;
+        hasCurrentPlayerMadeTurn = game.hasCurrentPlayerMadeTurn;
+        settings = game.settings;
+        markedFieldOfLastTurn = game.getMarkedFieldOfLastTurn();
+        enemyOfLastTurn = null;
+        seed = game.seed;
+        random = game.random;
+    }
+
+    /**
+     * Schreibt den Spielstand kompakt in einen Stream: Settings, den Zustand
+     * aller Spieler (Schiffe, Lage der Schiffe und beschossene Felder),
+     * Zug- und Rundenzähler sowie die im letzten Zug markierten Felder. Es
+     * werden keine Field-Objekte der Boards geschrieben. Das Format entspricht
+     * SAVEGAME_VERSION.
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(settings.getPlayers());
+        out.writeInt(settings.getSmartAiPlayers());
+        out.writeInt(settings.getDumbAiPlayers());
+        out.writeInt(settings.getHardAiPlayers());
+        out.writeInt(settings.getBoardSize());
+        out.writeInt(settings.getDestroyers());
+        out.writeInt(settings.getFrigates());
+        out.writeInt(settings.getCorvettes());
+        out.writeInt(settings.getSubmarines());
+        out.writeBoolean(settings.isLargeBoard());
+        out.writeByte(players.length);
+        for (Player player : players) {
+            player.writeState(out);
+        }
+        out.writeInt(turnNumber);
+        out.writeInt(roundNumber);
+        out.writeByte(indexOfPlayer(currentPlayer));
+        out.writeByte(indexOfPlayer(winner));
+        out.writeBoolean(hasCurrentPlayerMadeTurn);
+        Field[] markedFieldOfLastTurn = getMarkedFieldOfLastTurn();
+        out.writeShort(markedFieldOfLastTurn == null ? -1 : markedFieldOfLastTurn.length);
+        if (markedFieldOfLastTurn != null) {
+            for (Field field : markedFieldOfLastTurn) {
+                out.writeBoolean(field != null);
+                if (field != null) {
+                    writeField(out, field);
+                }
+            }
+        }
+    }
+
+    /**
+     * Liest einen mit writeState geschriebenen Spielstand. Die Spieler werden
+     * anhand der gelesenen Settings neu erzeugt.
+     */
+    public void readState(DataInput in) throws IOException {
+        readState(in, SAVEGAME_VERSION);
+    }
+
+    /**
+     * Liest einen Spielstand, den writeState im Format der übergebenen
+     * Version geschrieben hat. Vor Version 2 gab es keine starken KIs, vor
+     * Version 3 keine großen Boards.
+     */
+    public void readState(DataInput in, int version) throws IOException {
+        int[] values = new int[9];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i == 3 && version < 2 ? 0 : in.readInt();
+        }
+        settings = new Settings(values[0], values[1], values[2], values[3], values[4], values[5], values[6], values[7], values[8]);
+        settings.setLargeBoard(version >= 3 && in.readBoolean());
+        boardSize = settings.getBoardSize();
+        createPlayers(settings);
+        numberOfPlayersLeft = countPlayersLeft();
+        int numberOfPlayers = in.readUnsignedByte();
+        if (numberOfPlayers != players.length) {
+            throw new StreamCorruptedException("Expected " + players.length + " players but found " + numberOfPlayers);
+        }
+        for (Player player : players) {
+            player.readState(in);
+            if (player instanceof AIPlayer && ((AIPlayer) player).getCurrentEnemyIndex() >= players.length) {
+                throw new StreamCorruptedException("Invalid enemy index " + ((AIPlayer) player).getCurrentEnemyIndex());
+            }
+        }
+        numberOfPlayersLeft = countPlayersLeft();
+        turnNumber = in.readInt();
+        roundNumber = in.readInt();
+        currentPlayer = readPlayer(in);
+        winner = readPlayer(in);
+        hasCurrentPlayerMadeTurn = in.readBoolean();
+        int numberOfMarkedFields = in.readShort();
+        enemyOfLastTurn = null;
+        markedFieldOfLastTurn = numberOfMarkedFields < 0 ? null : new Field[numberOfMarkedFields];
+        for (int i = 0; i < numberOfMarkedFields; i++) {
+            if (in.readBoolean()) {
+                markedFieldOfLastTurn[i] = readField(in);
+            }
+        }
+    }
+
+    /**
+     * Schreibt ein markiertes Feld. Das Schiff darauf wird über den Index
+     * seines Spielers und seinen Index in dessen Schiffen referenziert.
+     */
+    private void writeField(DataOutput out, Field field) throws IOException {
+        out.writeInt(field.getXPos());
+        out.writeInt(field.getYPos());
+        out.writeBoolean(field.isHit());
+        int ownerIndex = -1;
+        int shipIndex = -1;
+        for (int i = 0; i < players.length && shipIndex < 0; i++) {
+            shipIndex = players[i].indexOfShip(field.getShip());
+            ownerIndex = i;
+        }
+        out.writeByte(shipIndex < 0 ? -1 : ownerIndex);
+        out.writeShort(shipIndex);
+    }
+
+    private Field readField(DataInput in) throws IOException {
+        Field field = new Field(in.readInt(), in.readInt());
+        if (in.readBoolean()) {
+            field.mark();
+        }
+        int ownerIndex = in.readByte();
+        int shipIndex = in.readShort();
+        if (ownerIndex >= 0) {
+            if (ownerIndex >= players.length || shipIndex < 0 || shipIndex >= players[ownerIndex].getShips().length) {
+                throw new StreamCorruptedException("Invalid ship reference " + ownerIndex + "/" + shipIndex);
+            }
+            field.setShip(players[ownerIndex].getShips()[shipIndex]);
+        }
+        return field;
+    }
+
+    private int indexOfPlayer(Player player) {
+        for (int i = 0; i < players.length; i++) {
+            if (players[i] == player) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Player readPlayer(DataInput in) throws IOException {
+        int index = in.readByte();
+        if (index >= players.length) {
+            throw new StreamCorruptedException("Invalid player index " + index);
+        }
+        return index < 0 ? null : players[index];
+    }
+
     /**
      * InputStream schließen
      */
@@ -243,10 +591,13 @@ public class Game extends TransferableObject {
     public void nextPlayer() {
         turnNumber++;
         decreaseCurrentReloadTimeOfShips(currentPlayer);
-        int currentPlayerIndex = Arrays.asList(players).indexOf(currentPlayer);
+        if (currentPlayerIndex >= players.length || players[currentPlayerIndex] != currentPlayer) {
+            // currentPlayer wurde von außen gesetzt oder geladen
+            currentPlayerIndex = indexOfPlayer(currentPlayer);
+        }
         // wenn letzter Spieler im Array, dann Index wieder auf 0 setzen,
         // ansonsten hochzählen
-        currentPlayerIndex = (currentPlayerIndex >= players.length - 1) ? currentPlayerIndex = 0 : currentPlayerIndex + 1;
+        currentPlayerIndex = (currentPlayerIndex >= players.length - 1) ? 0 : currentPlayerIndex + 1;
         if (currentPlayerIndex == 0) {
             roundNumber++;
         }
@@ -272,7 +623,7 @@ public class Game extends TransferableObject {
      */
     public ArrayList<Player> getEnemiesOfCurrentPlayer() {
         // angreifbare Gegner des currentPlayers zurückgeben
-        ArrayList<Player> enemies = new ArrayList<Player>();
+        ArrayList<Player> enemies = new ArrayList<Player>(numberOfPlayersLeft);
         for (int i = 0; i < players.length; i++) {
             if (!players[i].hasLost()) {
                 if (!currentPlayer.equals(players[i])) {
@@ -327,18 +678,45 @@ public class Game extends TransferableObject {
      * @return true wenn das Spiel vorbei ist, false wenn nicht
      */
     public boolean isGameover() {
-        int numberOfPlayersLeft = 0;
-        Player potentialWinner = null;
+        if (numberOfPlayersLeft > 1) {
+            return false;
+        }
+        winner = null;
         for (Player player : players) {
             if (!player.hasLost()) {
-                numberOfPlayersLeft++;
-                potentialWinner = player;
+                winner = player;
             }
         }
-        if (numberOfPlayersLeft <= 1) {
-            winner = potentialWinner;
+        return true;
+    }
+
+    /**
+     * Liefert die Anzahl der Spieler, die noch nicht verloren haben. Sie wird
+     * in makeTurn mitgezählt.
+     */
+    public int getNumberOfPlayersLeft() {
+        return numberOfPlayersLeft;
+    }
+
+    /**
+     * Setzt Board und Schiffe eines Spielers zurück, etwa wenn sein Platz
+     * frei wird. Seine Schiffe zählen danach wieder als nicht versenkt, daher
+     * wird die Anzahl der Spieler, die noch nicht verloren haben, neu gezählt.
+     */
+    protected void resetPlayer(Player player) {
+        player.resetBoard();
+        player.resetShips();
+        numberOfPlayersLeft = countPlayersLeft();
+    }
+
+    private int countPlayersLeft() {
+        int count = 0;
+        for (Player player : players) {
+            if (!player.hasLost()) {
+                count++;
+            }
         }
-        return numberOfPlayersLeft <= 1;
+        return count;
     }
 
     public Player[] getPlayers() {
@@ -385,6 +763,7 @@ public class Game extends TransferableObject {
             }
             players[i] = player;
         }
+        numberOfPlayersLeft = countPlayersLeft();
         currentPlayer = players[0];
     }
 
@@ -414,7 +793,40 @@ public class Game extends TransferableObject {
         return TransferableType.Game;
     }
 
+    /**
+     * Liefert die im letzten Zug markierten Felder des beschossenen Gegners.
+     * Das Array wird erst beim ersten Aufruf nach einem Zug erzeugt.
+     */
     public Field[] getMarkedFieldOfLastTurn() {
+        if (markedFieldOfLastTurn == null && enemyOfLastTurn != null) {
+            Board board = enemyOfLastTurn.getBoard();
+            Field[] fields = new Field[lastTurn.size()];
+            try {
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = board.getField(lastTurn.getX(i), lastTurn.getY(i));
+                }
+            } catch (FieldOutOfBoardException e) {
+                throw new IllegalStateException("Marked field is not on the board", e);
+            }
+            markedFieldOfLastTurn = fields;
+        }
         return markedFieldOfLastTurn;
     }
+
+    /**
+     * Erzeugt vor dem Serialisieren die markierten Felder des letzten Zugs,
+     * das Ergebnis des Zugs selbst wird nicht serialisiert.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getMarkedFieldOfLastTurn();
+        out.defaultWriteObject();
+    }
+
+    /**
+     * Liefert den Seed, mit dem das Spiel initialisiert wurde. Nach dem Laden
+     * eines Spielstands ist er 0, der Verlauf ab dort ist nicht reproduzierbar.
+     */
+    public long getSeed() {
+        return seed;
+    }
 }
@@ -20,17 +20,25 @@ public class Settings implements Serializable {
 	public static final int MAX_BOARD_SIZE = 40;
 	public static final int MIN_PLAYERS = 2;
 	public static final int MAX_PLAYERS = 6;
+	/**
+	 * Höchste Boardgröße im Modus für große Boards. Koordinaten passen so in
+	 * ein short und der Index y * size + x eines Feldes in ein int.
+	 */
+	public static final int MAX_LARGE_BOARD_SIZE = Short.MAX_VALUE;
+	public static final int MAX_LARGE_BOARD_PLAYERS = 64;
 	public static final String SAVEGAME_FILENAME = "savegame.sav";
 	private static final long serialVersionUID = 7869883437538019851L;
 	private static final float MIN_PERCENTAGE_OF_FIELDS_THAT_SHOULD_BE_EMPTY = 0.0f;
 	private int players;
 	private int smartAiPlayers;
 	private int dumbAiPlayers;
+	private int hardAiPlayers;
 	private int boardSize;
 	private int destroyers;
 	private int frigates;
 	private int corvettes;
 	private int submarines;
+	private boolean largeBoard;
 
 	/**
 	 * Konstruktor mit Default-Einstellungen
@@ -39,6 +47,7 @@ public class Settings implements Serializable {
 		this.players = 2;
 		this.smartAiPlayers = 0;
 		this.dumbAiPlayers = 0;
+		this.hardAiPlayers = 0;
 		this.boardSize = 10;
 		this.destroyers = 1;
 		this.frigates = 1;
@@ -67,9 +76,37 @@ public class Settings implements Serializable {
 	 *            Anzahl der U-Boote
 	 */
 	public Settings(int players, int smartAiPlayers, int dumbAiPlayers, int boardSize, int destroyers, int frigates, int corvettes, int submarines) {
+		this(players, smartAiPlayers, dumbAiPlayers, 0, boardSize, destroyers, frigates, corvettes, submarines);
+	}
+
+	/**
+	 * Konstruktor zum Erzeugen beliebiger Einstellungen mit starken
+	 * AI-Spielern
+	 * 
+	 * @param players
+	 *            Anzahl der Spieler
+	 * @param smartAiPlayers
+	 *            Anzahl der schlauen AI-Spieler
+	 * @param dumbAiPlayers
+	 *            Anzahl der dummen AI-Spieler
+	 * @param hardAiPlayers
+	 *            Anzahl der starken AI-Spieler
+	 * @param boardSize
+	 *            Boardgröße
+	 * @param destroyers
+	 *            Anzahl der Zerstörer
+	 * @param frigates
+	 *            Anzahl der Frigatten
+	 * @param corvettes
+	 *            Anzahl der Korvetten
+	 * @param submarines
+	 *            Anzahl der U-Boote
+	 */
+	public Settings(int players, int smartAiPlayers, int dumbAiPlayers, int hardAiPlayers, int boardSize, int destroyers, int frigates, int corvettes, int submarines) {
 		this.players = players;
 		this.smartAiPlayers = smartAiPlayers;
 		this.dumbAiPlayers = dumbAiPlayers;
+		this.hardAiPlayers = hardAiPlayers;
 		this.boardSize = boardSize;
 		this.destroyers = destroyers;
 		this.frigates = frigates;
@@ -118,7 +155,7 @@ public class Settings implements Serializable {
 	 *             bei ungültiger Boardgröße
 	 */
 	public void validate() throws InvalidPlayerNumberException, InvalidNumberOfShipsException, BoardTooSmallException {
-		validateNumberOfPlayers(players, smartAiPlayers, dumbAiPlayers);
+		validateNumberOfPlayers(players, smartAiPlayers + hardAiPlayers, dumbAiPlayers);
 		validateNumberOfShips(destroyers, corvettes, frigates, submarines);
 		validateFieldSize(boardSize, destroyers, corvettes, frigates, submarines);
 	}
@@ -131,6 +168,10 @@ public class Settings implements Serializable {
 		return dumbAiPlayers;
 	}
 
+	public int getHardAiPlayers() {
+		return hardAiPlayers;
+	}
+
 	public int getPlayers() {
 		return players;
 	}
@@ -179,6 +220,30 @@ public class Settings implements Serializable {
 		this.submarines = submarines;
 	}
 
+	/**
+	 * Gibt an, ob im Modus für große Boards gespielt wird. Dann speichern die
+	 * Spieler ihre Boards als SparseBoard, das nur Schiffe und beschossene
+	 * Felder enthält, und es sind bis zu MAX_LARGE_BOARD_SIZE Felder Breite
+	 * und MAX_LARGE_BOARD_PLAYERS Spieler erlaubt.
+	 */
+	public boolean isLargeBoard() {
+		return largeBoard;
+	}
+
+	public void setLargeBoard(boolean largeBoard) {
+		this.largeBoard = largeBoard;
+	}
+
+	/**
+	 * Erzeugt ein leeres Board für einen Spieler, im Modus für große Boards
+	 * ein SparseBoard, sonst ein BitBoard.
+	 *
+	 * @return das Board
+	 */
+	public Board createBoard() {
+		return largeBoard ? new SparseBoard(boardSize) : new BitBoard(boardSize);
+	}
+
 	public boolean isNumeric(String str) {
 		for (char c : str.toCharArray()) {
 			if (!Character.isDigit(c)) {
@@ -202,7 +267,8 @@ public class Settings implements Serializable {
 	private void validateFieldSize(int boardSize, int destroyers, int corvettes, int frigates, int submarines) throws BoardTooSmallException {
 		int requiredFields = getRequiredFields(destroyers, corvettes, frigates, submarines);
 		int requiredBoardSize = getRequiredBoardSize(requiredFields);
-		if ((boardSize < requiredBoardSize) || (boardSize < MIN_BOARD_SIZE) || (boardSize > MAX_BOARD_SIZE))
+		int maxBoardSize = largeBoard ? MAX_LARGE_BOARD_SIZE : MAX_BOARD_SIZE;
+		if ((boardSize < requiredBoardSize) || (boardSize < MIN_BOARD_SIZE) || (boardSize > maxBoardSize))
 			throw new BoardTooSmallException();
 	}
 
@@ -217,8 +283,9 @@ public class Settings implements Serializable {
 	 */
 	private void validateNumberOfPlayers(int players, int smartAiPlayers, int dumbAiPlayers) throws InvalidPlayerNumberException {
 		int numberOfPlayers = players + smartAiPlayers + dumbAiPlayers;
-		if ((numberOfPlayers < MIN_PLAYERS) || (numberOfPlayers > MAX_PLAYERS))
-			throw new InvalidPlayerNumberException(MIN_PLAYERS, MAX_PLAYERS);
+		int maxPlayers = largeBoard ? MAX_LARGE_BOARD_PLAYERS : MAX_PLAYERS;
+		if ((numberOfPlayers < MIN_PLAYERS) || (numberOfPlayers > maxPlayers))
+			throw new InvalidPlayerNumberException(MIN_PLAYERS, maxPlayers);
 	}
 
 	/**
@@ -0,0 +1,404 @@
+package de.hsbremen.battleshipextreme.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import de.hsbremen.battleshipextreme.model.exception.FieldOutOfBoardException;
+import de.hsbremen.battleshipextreme.model.ship.Ship;
+
+/**
+ * Board für sehr große Spielfelder, das nur die Felder speichert, auf denen
+ * ein Schiff liegt oder die beschossen wurden. Alle anderen Felder sind leer
+ * und nicht beschossen. Der Speicher wächst daher mit der Anzahl der Schiffe
+ * und Schüsse, nicht mit der Fläche des Boards.
+ *
+ * Beide liegen in Hashtabellen mit offener Adressierung und int-Schlüsseln.
+ * Die Felder mit Schiffen werden einzeln unter ihrem Index y * size + x mit
+ * der ID des Schiffs gespeichert. Die beschossenen Felder werden in Blöcken
+ * von 8x8 Feldern als long gespeichert, so bleibt das Board auch dann klein,
+ * wenn im Laufe eines Spiels ein großer Teil der Felder beschossen wird. Wie
+ * beim BitBoard werden Field-Objekte nur als Momentaufnahme erzeugt,
+ * Änderungen müssen über setShip und mark erfolgen.
+ *
+ * Große Boards sollten nicht über getFields oder getFieldStates(boolean)
+ * gelesen werden, die eine Matrix über alle Felder erzeugen, sondern
+ * ausschnittsweise über getFieldStates(boolean, int, int, int, int).
+ */
+
+public class SparseBoard extends Board {
+	private static final long serialVersionUID = 6204479318720535113L;
+	private static final int TILE_SHIFT = 3; // Blöcke von 8x8 Feldern
+	private static final int TILE_MASK = (1 << TILE_SHIFT) - 1;
+	private final int tilesPerRow;
+	private Cells shipCells; // Index des Feldes -> ID des Schiffs
+	private Cells hitTiles; // Index des Blocks -> beschossene Felder als Bitmaske
+	private Ship[] shipsById;
+	private int numberOfShips;
+
+	/**
+	 * Erzeugt ein leeres SparseBoard anhand der übergebenen Größe.
+	 *
+	 * @param size
+	 *            Boardgröße, höchstens Settings.MAX_LARGE_BOARD_SIZE
+	 */
+	public SparseBoard(int size) {
+		super(size, null);
+		if (size > Settings.MAX_LARGE_BOARD_SIZE) {
+			throw new IllegalArgumentException("Board size " + size + " is too big");
+		}
+		this.tilesPerRow = (size + TILE_MASK) >>> TILE_SHIFT;
+		this.shipCells = new Cells();
+		this.hitTiles = new Cells();
+		this.shipsById = new Ship[8];
+	}
+
+	/**
+	 * Liefert eine Momentaufnahme aller Felder des Boards. Bei großen Boards
+	 * sehr teuer.
+	 *
+	 * @return alle Felder
+	 */
+	@Override
+	public Field[][] getFields() {
+		int size = getSize();
+		Field[][] fields = new Field[size][size];
+		for (int row = 0; row < size; row++) {
+			for (int column = 0; column < size; column++) {
+				fields[row][column] = createField(column, row);
+			}
+		}
+		return fields;
+	}
+
+	/**
+	 * Liefert eine Momentaufnahme des Feldes an der Position x/y.
+	 *
+	 * @throws FieldOutOfBoardException
+	 *             wenn sich die Koordinaten nicht innerhalb des Feldes
+	 *             befinden.
+	 */
+	@Override
+	public Field getField(int x, int y) throws FieldOutOfBoardException {
+		if (!this.containsFieldAtPosition(x, y)) {
+			throw new FieldOutOfBoardException(new Field(x, y));
+		}
+		return createField(x, y);
+	}
+
+	@Override
+	public boolean hasShip(int x, int y) {
+		return shipCells.get(index(x, y)) != 0;
+	}
+
+	@Override
+	public Ship getShip(int x, int y) {
+		return shipsById[(int) shipCells.get(index(x, y))];
+	}
+
+	@Override
+	public void setShip(int x, int y, Ship ship) {
+		int index = index(x, y);
+		if (ship == null || shipCells.get(index) != 0) {
+			return;
+		}
+		shipCells.put(index, getShipId(ship));
+	}
+
+	@Override
+	public boolean isHit(int x, int y) {
+		return (hitTiles.get(tile(x, y)) & bit(x, y)) != 0;
+	}
+
+	@Override
+	public void mark(int x, int y) {
+		int tile = tile(x, y);
+		hitTiles.put(tile, hitTiles.get(tile) | bit(x, y));
+	}
+
+	@Override
+	public FieldState getState(int x, int y) {
+		if (isHit(x, y)) {
+			return getHitState(x, y);
+		}
+		return hasShip(x, y) ? FieldState.HAS_SHIP : FieldState.IS_EMPTY;
+	}
+
+	/**
+	 * Liefert den Zustand eines beschossenen Feldes
+	 */
+	private FieldState getHitState(int x, int y) {
+		Ship ship = getShip(x, y);
+		if (ship == null) {
+			return FieldState.MISSED;
+		}
+		return ship.isDestroyed() ? FieldState.DESTROYED : FieldState.HIT;
+	}
+
+	@Override
+	public void clear() {
+		shipCells = new Cells();
+		hitTiles = new Cells();
+		Arrays.fill(shipsById, null);
+		numberOfShips = 0;
+	}
+
+	/**
+	 * Liefert alle Feldzustände des Boards als Matrix. Bei großen Boards sehr
+	 * teuer, siehe getFieldStates(boolean, int, int, int, int).
+	 *
+	 * @param isOwnBoard
+	 *            gibt an, ob es sich um das eigene Board handelt
+	 */
+	@Override
+	public FieldState[][] getFieldStates(boolean isOwnBoard) {
+		return getFieldStatesOfRegion(isOwnBoard, 0, 0, getSize(), getSize());
+	}
+
+	/**
+	 * Liefert die Feldzustände eines Ausschnitts, ohne jedes Feld einzeln
+	 * nachzuschlagen: Die beschossenen Felder werden blockweise gelesen, die
+	 * Felder mit Schiffen über die gespeicherten Schiffsfelder.
+	 */
+	@Override
+	protected FieldState[][] getFieldStatesOfRegion(boolean isOwnBoard, int x, int y, int width, int height) {
+		FieldState[][] fieldStates = new FieldState[height][width];
+		if (width == 0 || height == 0) {
+			return fieldStates;
+		}
+		if (isOwnBoard) {
+			for (FieldState[] row : fieldStates) {
+				Arrays.fill(row, FieldState.IS_EMPTY);
+			}
+			if (shipCells.size <= width * height) {
+				int size = getSize();
+				for (int slot = 0; slot < shipCells.keys.length; slot++) {
+					if (shipCells.keys[slot] != 0) {
+						int index = shipCells.keys[slot] - 1;
+						setState(fieldStates, x, y, index % size, index / size, FieldState.HAS_SHIP);
+					}
+				}
+			} else {
+				for (int i = 0; i < height; i++) {
+					for (int j = 0; j < width; j++) {
+						if (hasShip(x + j, y + i)) {
+							fieldStates[i][j] = FieldState.HAS_SHIP;
+						}
+					}
+				}
+			}
+		}
+		for (int tileY = y >>> TILE_SHIFT; tileY <= (y + height - 1) >>> TILE_SHIFT; tileY++) {
+			for (int tileX = x >>> TILE_SHIFT; tileX <= (x + width - 1) >>> TILE_SHIFT; tileX++) {
+				long bits = hitTiles.get(tileY * tilesPerRow + tileX);
+				while (bits != 0) {
+					int bit = Long.numberOfTrailingZeros(bits);
+					bits &= bits - 1;
+					int fieldX = (tileX << TILE_SHIFT) + (bit & TILE_MASK);
+					int fieldY = (tileY << TILE_SHIFT) + (bit >>> TILE_SHIFT);
+					setState(fieldStates, x, y, fieldX, fieldY, getHitState(fieldX, fieldY));
+				}
+			}
+		}
+		return fieldStates;
+	}
+
+	/**
+	 * Trägt den Zustand des Feldes fieldX/fieldY ein, wenn es im Ausschnitt
+	 * ab x/y liegt
+	 */
+	private static void setState(FieldState[][] fieldStates, int x, int y, int fieldX, int fieldY, FieldState state) {
+		int row = fieldY - y;
+		int column = fieldX - x;
+		if (row >= 0 && row < fieldStates.length && column >= 0 && column < fieldStates[row].length) {
+			fieldStates[row][column] = state;
+		}
+	}
+
+	@Override
+	public int[] getHitIndices() {
+		int size = getSize();
+		int count = 0;
+		for (int slot = 0; slot < hitTiles.keys.length; slot++) {
+			if (hitTiles.keys[slot] != 0) {
+				count += Long.bitCount(hitTiles.values[slot]);
+			}
+		}
+		int[] indices = new int[count];
+		count = 0;
+		for (int slot = 0; slot < hitTiles.keys.length; slot++) {
+			if (hitTiles.keys[slot] == 0) {
+				continue;
+			}
+			int tile = hitTiles.keys[slot] - 1;
+			int left = (tile % tilesPerRow) << TILE_SHIFT;
+			int top = (tile / tilesPerRow) << TILE_SHIFT;
+			long bits = hitTiles.values[slot];
+			while (bits != 0) {
+				int bit = Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+				indices[count++] = (top + (bit >>> TILE_SHIFT)) * size + left + (bit & TILE_MASK);
+			}
+		}
+		Arrays.sort(indices);
+		return indices;
+	}
+
+	@Override
+	public int[] getShipIndices() {
+		int[] indices = new int[shipCells.size];
+		int count = 0;
+		for (int slot = 0; slot < shipCells.keys.length; slot++) {
+			if (shipCells.keys[slot] != 0) {
+				indices[count++] = shipCells.keys[slot] - 1;
+			}
+		}
+		Arrays.sort(indices);
+		return indices;
+	}
+
+	@Override
+	public ArrayList<Field> getFieldsOfShip(Field sourceField) {
+		ArrayList<Field> result = new ArrayList<Field>();
+		int id = findShipId(sourceField.getShip());
+		if (id == 0) {
+			return result;
+		}
+		int size = getSize();
+		for (int index : getShipIndices()) {
+			if (shipCells.get(index) == id) {
+				result.add(createField(index % size, index / size));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Erzeugt ein Field-Objekt mit dem aktuellen Zustand der Position x/y.
+	 */
+	private Field createField(int x, int y) {
+		Field field = new Field(x, y);
+		Ship ship = getShip(x, y);
+		if (ship != null) {
+			field.setShip(ship);
+		}
+		if (isHit(x, y)) {
+			field.mark();
+		}
+		return field;
+	}
+
+	/**
+	 * Liefert die ID des übergebenen Schiffs. Ist das Schiff noch nicht auf dem
+	 * Board, wird ihm eine neue ID zugewiesen.
+	 */
+	private int getShipId(Ship ship) {
+		// Schiffe werden Feld für Feld gesetzt, meistens ist es also das
+		// zuletzt gesetzte Schiff
+		if (shipsById[numberOfShips] == ship) {
+			return numberOfShips;
+		}
+		int id = findShipId(ship);
+		if (id != 0) {
+			return id;
+		}
+		numberOfShips++;
+		if (numberOfShips >= shipsById.length) {
+			shipsById = Arrays.copyOf(shipsById, shipsById.length * 2);
+		}
+		shipsById[numberOfShips] = ship;
+		return numberOfShips;
+	}
+
+	private int findShipId(Ship ship) {
+		for (int id = 1; id <= numberOfShips; id++) {
+			if (shipsById[id] == ship) {
+				return id;
+			}
+		}
+		return 0;
+	}
+
+	private int index(int x, int y) {
+		return y * getSize() + x;
+	}
+
+	private int tile(int x, int y) {
+		return (y >>> TILE_SHIFT) * tilesPerRow + (x >>> TILE_SHIFT);
+	}
+
+	private static long bit(int x, int y) {
+		return 1L << (((y & TILE_MASK) << TILE_SHIFT) | (x & TILE_MASK));
+	}
+
+	/**
+	 * Hashtabelle mit offener Adressierung von int-Schlüsseln auf long-Werte.
+	 * Nicht gespeicherte Schlüssel haben den Wert 0, entfernt wird nichts.
+	 */
+	private static final class Cells implements Serializable {
+		private static final long serialVersionUID = -5205781693734318409L;
+		private static final int INITIAL_CAPACITY = 16;
+		private int[] keys; // Schlüssel + 1, 0 = freier Platz
+		private long[] values;
+		private int size;
+
+		Cells() {
+			this.keys = new int[INITIAL_CAPACITY];
+			this.values = new long[INITIAL_CAPACITY];
+		}
+
+		long get(int key) {
+			int mask = keys.length - 1;
+			for (int slot = slot(key, mask); keys[slot] != 0; slot = (slot + 1) & mask) {
+				if (keys[slot] == key + 1) {
+					return values[slot];
+				}
+			}
+			return 0;
+		}
+
+		void put(int key, long value) {
+			int mask = keys.length - 1;
+			int slot = slot(key, mask);
+			while (keys[slot] != 0 && keys[slot] != key + 1) {
+				slot = (slot + 1) & mask;
+			}
+			values[slot] = value;
+			if (keys[slot] == 0) {
+				keys[slot] = key + 1;
+				size++;
+				// höchstens zu drei Vierteln voll, sonst werden die Ketten lang
+				if (size * 4 > keys.length * 3) {
+					grow();
+				}
+			}
+		}
+
+		private void grow() {
+			int[] oldKeys = keys;
+			long[] oldValues = values;
+			keys = new int[oldKeys.length * 2];
+			values = new long[oldValues.length * 2];
+			int mask = keys.length - 1;
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != 0) {
+					int slot = slot(oldKeys[i] - 1, mask);
+					while (keys[slot] != 0) {
+						slot = (slot + 1) & mask;
+					}
+					keys[slot] = oldKeys[i];
+					values[slot] = oldValues[i];
+				}
+			}
+		}
+
+		/**
+		 * Streut den Schlüssel, damit benachbarte Felder und Blöcke nicht auf
+		 * aufeinander folgende Plätze fallen
+		 */
+		private static int slot(int key, int mask) {
+			int hash = key * 0x9E3779B9;
+			return (hash ^ (hash >>> 16)) & mask;
+		}
+	}
+}
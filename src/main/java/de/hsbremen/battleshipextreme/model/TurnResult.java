@@ -0,0 +1,103 @@
+package de.hsbremen.battleshipextreme.model;
+
+/**
+ * Das Ergebnis eines Zugs: der beschossene Gegner und für jedes im Zug
+ * markierte Feld Position und Zustand (MISSED, HIT oder DESTROYED). Von einem
+ * versenkten Schiff sind alle Felder enthalten. Game.makeTurn schreibt das
+ * Ergebnis in ein übergebenes Objekt, das für jeden Zug wiederverwendet werden
+ * kann. Die Arrays wachsen nur, wenn ein Zug mehr Felder markiert als jeder
+ * vorherige.
+ */
+public final class TurnResult {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private int enemyIndex = -1;
+	private int size;
+	private int[] xPositions;
+	private int[] yPositions;
+	private FieldState[] states;
+
+	public TurnResult() {
+		this.xPositions = new int[INITIAL_CAPACITY];
+		this.yPositions = new int[INITIAL_CAPACITY];
+		this.states = new FieldState[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Leert das Ergebnis für einen neuen Zug
+	 *
+	 * @param enemyIndex
+	 *            der Index des beschossenen Gegners im Spiel, -1 wenn er nicht
+	 *            zum Spiel gehört
+	 */
+	void clear(int enemyIndex) {
+		this.enemyIndex = enemyIndex;
+		this.size = 0;
+	}
+
+	/**
+	 * Hängt ein markiertes Feld an
+	 */
+	void add(int x, int y, FieldState state) {
+		if (size == states.length) {
+			grow();
+		}
+		xPositions[size] = x;
+		yPositions[size] = y;
+		states[size] = state;
+		size++;
+	}
+
+	/**
+	 * Übernimmt das übergebene Ergebnis
+	 */
+	void copyFrom(TurnResult other) {
+		clear(other.enemyIndex);
+		for (int i = 0; i < other.size; i++) {
+			add(other.xPositions[i], other.yPositions[i], other.states[i]);
+		}
+	}
+
+	private void grow() {
+		int capacity = states.length * 2;
+		int[] grownX = new int[capacity];
+		int[] grownY = new int[capacity];
+		FieldState[] grownStates = new FieldState[capacity];
+		System.arraycopy(xPositions, 0, grownX, 0, size);
+		System.arraycopy(yPositions, 0, grownY, 0, size);
+		System.arraycopy(states, 0, grownStates, 0, size);
+		xPositions = grownX;
+		yPositions = grownY;
+		states = grownStates;
+	}
+
+	/**
+	 * Liefert den Index des beschossenen Gegners im Spiel, -1 wenn er nicht
+	 * zum Spiel gehört oder noch kein Zug gemacht wurde
+	 */
+	public int getEnemyIndex() {
+		return enemyIndex;
+	}
+
+	/**
+	 * Liefert die Anzahl der markierten Felder
+	 */
+	public int size() {
+		return size;
+	}
+
+	public int getX(int index) {
+		return xPositions[index];
+	}
+
+	public int getY(int index) {
+		return yPositions[index];
+	}
+
+	/**
+	 * Liefert den Zustand des Feldes direkt nach dem Zug
+	 */
+	public FieldState getState(int index) {
+		return states[index];
+	}
+}
@@ -15,6 +15,8 @@ public interface IServerObjectReceivedListener extends EventListener{
     void onGameObjectReceived(EventArgs<NetGame> eventArgs);
     void onTurnObjectReceived(EventArgs<Turn> eventArgs);
     void onGameListObjectReceived(EventArgs<GameList> eventArgs);
+    void onGameListSnapshotObjectReceived(EventArgs<GameListSnapshot> eventArgs);
+    void onGameListChangeObjectReceived(EventArgs<GameListChange> eventArgs);
     void onServerInfoObjectReceived(EventArgs<ServerInfo> eventArgs);
     void onPlayerNamesObjectReceived(EventArgs<PlayerNames> eventArgs);
     void onClientTurnObjectReceived(EventArgs<ClientTurn> eventArgs);
@@ -3,6 +3,7 @@ package de.hsbremen.battleshipextreme.model.network;
 import de.hsbremen.battleshipextreme.network.IDisposable;
 import de.hsbremen.battleshipextreme.network.ITransferable;
 import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
+import de.hsbremen.battleshipextreme.network.codec.ITransferableInput;
 import de.hsbremen.battleshipextreme.network.eventhandling.ErrorHandler;
 import de.hsbremen.battleshipextreme.network.eventhandling.EventArgs;
 import de.hsbremen.battleshipextreme.network.transfarableObject.*;
@@ -10,7 +11,6 @@ import de.hsbremen.battleshipextreme.network.transfarableObject.Error;
 
 import javax.swing.event.EventListenerList;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 
 /**
  * Created on 15.05.2015.
@@ -18,10 +18,10 @@ import java.io.ObjectInputStream;
 public class Listener extends Thread implements IDisposable {
     protected EventListenerList listeners;
     private ErrorHandler errorHandler;
-    private ObjectInputStream in;
+    private ITransferableInput in;
     private boolean disposed;
 
-    public Listener(ObjectInputStream in, ErrorHandler errorHandler) {
+    public Listener(ITransferableInput in, ErrorHandler errorHandler) {
         this.setName("Client-Listenerthread");
         this.listeners = new EventListenerList();
         this.errorHandler = errorHandler;
@@ -33,7 +33,7 @@ public class Listener extends Thread implements IDisposable {
         try {
             ITransferable receivedObj;
             while (!isInterrupted() && !this.disposed) {
-                receivedObj = (ITransferable) in.readObject();
+                receivedObj = in.read();
                 objectReceived(new EventArgs<ITransferable>(this, receivedObj));
                 switch (receivedObj.getType()) {
                     case Message:
@@ -64,6 +64,16 @@ public class Listener extends Thread implements IDisposable {
                         gameListObjectReceived(new EventArgs<GameList>(this, gameList));
                         break;
 
+                    case GameListSnapshot:
+                        GameListSnapshot snapshot = (GameListSnapshot) receivedObj;
+                        gameListSnapshotObjectReceived(new EventArgs<GameListSnapshot>(this, snapshot));
+                        break;
+
+                    case GameListChange:
+                        GameListChange change = (GameListChange) receivedObj;
+                        gameListChangeObjectReceived(new EventArgs<GameListChange>(this, change));
+                        break;
+
                     case PlayerNames:
                         PlayerNames playerNames = (PlayerNames) receivedObj;
                         playerNamesObjectReceived(new EventArgs<PlayerNames>(this, playerNames));
@@ -145,6 +155,24 @@ public class Listener extends Thread implements IDisposable {
         }
     }
 
+    private void gameListSnapshotObjectReceived(EventArgs<GameListSnapshot> eventArgs) {
+        Object[] listeners = this.listeners.getListenerList();
+        for (int i = 0; i < listeners.length; i = i + 2) {
+            if (listeners[i] == IServerObjectReceivedListener.class) {
+                ((IServerObjectReceivedListener) listeners[i + 1]).onGameListSnapshotObjectReceived(eventArgs);
+            }
+        }
+    }
+
+    private void gameListChangeObjectReceived(EventArgs<GameListChange> eventArgs) {
+        Object[] listeners = this.listeners.getListenerList();
+        for (int i = 0; i < listeners.length; i = i + 2) {
+            if (listeners[i] == IServerObjectReceivedListener.class) {
+                ((IServerObjectReceivedListener) listeners[i + 1]).onGameListChangeObjectReceived(eventArgs);
+            }
+        }
+    }
+
     private void clientTurnObjectReceived(EventArgs<ClientTurn> eventArgs) {
         Object[] listeners = this.listeners.getListenerList();
         for (int i = 0; i < listeners.length; i = i + 2) {
@@ -3,31 +3,36 @@ package de.hsbremen.battleshipextreme.model.network;
 import de.hsbremen.battleshipextreme.network.IDisposable;
 import de.hsbremen.battleshipextreme.network.ITransferable;
 import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
+import de.hsbremen.battleshipextreme.network.codec.CodecRegistry;
+import de.hsbremen.battleshipextreme.network.codec.ITransferableInput;
+import de.hsbremen.battleshipextreme.network.codec.ITransferableOutput;
+import de.hsbremen.battleshipextreme.network.codec.ProtocolHandshake;
 import de.hsbremen.battleshipextreme.network.eventhandling.ErrorHandler;
 import de.hsbremen.battleshipextreme.network.eventhandling.EventArgs;
 import de.hsbremen.battleshipextreme.network.eventhandling.listener.IErrorListener;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
 import java.util.ArrayList;
 
 public class NetworkClient implements IDisposable {
     private String serverIp;
     private int serverPort;
-    private ObjectInputStream in;
-    private ObjectOutputStream out;
+    private ITransferableInput in;
+    private ITransferableOutput out;
     private Socket socket;
     private Sender sender;
     private Listener listener;
     private ErrorHandler errorHandler;
     private ArrayList<IServerObjectReceivedListener> tempServerObjectReceivedListeners;
     private boolean isConnected;
+    private boolean useBinaryProtocol;
+    private boolean isBinaryProtocol;
 
     public NetworkClient() {
         serverIp = "localhost";
         serverPort = 1337;
+        useBinaryProtocol = true;
         this.errorHandler = new ErrorHandler();
         this.tempServerObjectReceivedListeners = new ArrayList<IServerObjectReceivedListener>();
         addErrorListener(new IErrorListener() {
@@ -80,17 +85,34 @@ public class NetworkClient implements IDisposable {
      */
     public void connect() {
         try {
-            socket = new Socket(serverIp, serverPort);
-            in = new ObjectInputStream(socket.getInputStream());
-            out = new ObjectOutputStream(socket.getOutputStream());
+            ProtocolHandshake handshake = null;
+            if (useBinaryProtocol) {
+                socket = new Socket(serverIp, serverPort);
+                try {
+                    handshake = ProtocolHandshake.connectBinary(socket, CodecRegistry.getDefault(), ProtocolHandshake.DEFAULT_TIMEOUT);
+                } catch (IOException e) {
+                    // alter Server ohne Binärprotokoll, die Verbindung ist verbraucht
+                    socket.close();
+                }
+            }
+            if (handshake == null) {
+                socket = new Socket(serverIp, serverPort);
+                handshake = ProtocolHandshake.connectLegacy(socket);
+            }
+            in = handshake.getInput();
+            out = handshake.getOutput();
+            isBinaryProtocol = handshake.isBinary();
             isConnected = true;
         } catch (Exception e) {
             isConnected = false;
+            isBinaryProtocol = false;
             errorHandler.errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Can not establish connection to " + serverIp + ":" + serverPort)));
         }
 
         // Create and start Sender thread
         this.sender = new Sender(socket, out);
+        // nur Server mit Binärprotokoll kennen Snapshots und Änderungen der Spieleliste
+        this.sender.setUseGameListSnapshots(isBinaryProtocol);
         this.sender.start();
 
         this.listener = new Listener(in, this.errorHandler);
@@ -135,6 +157,21 @@ public class NetworkClient implements IDisposable {
         this.serverPort = port;
     }
 
+    /**
+     * Legt fest, ob beim Verbinden zuerst das Binärprotokoll versucht wird (Standard). Ohne wird sofort
+     * Java-Serialisierung verwendet
+     */
+    public void setUseBinaryProtocol(boolean useBinaryProtocol) {
+        this.useBinaryProtocol = useBinaryProtocol;
+    }
+
+    /**
+     * Gibt an, ob mit dem Server das Binärprotokoll ausgehandelt wurde
+     */
+    public boolean isBinaryProtocol() {
+        return isBinaryProtocol;
+    }
+
     public boolean isConnected() {
         return isConnected;
     }
@@ -146,4 +183,8 @@ public class NetworkClient implements IDisposable {
     public void join(String id) {
         this.sender.sendJoin(id);
     }
+
+    public void join(String id, String password) {
+        this.sender.sendJoin(id, password);
+    }
 }
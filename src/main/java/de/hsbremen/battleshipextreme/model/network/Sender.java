@@ -7,20 +7,21 @@ import de.hsbremen.battleshipextreme.network.IDisposable;
 import de.hsbremen.battleshipextreme.network.ITransferable;
 import de.hsbremen.battleshipextreme.network.InfoSendingReason;
 import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
+import de.hsbremen.battleshipextreme.network.codec.ITransferableOutput;
 
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
 
 /**
  * Created on 15.05.2015.
  */
 public class Sender extends Thread implements IDisposable {
-    private ObjectOutputStream out;
+    private ITransferableOutput out;
     private Socket socket;
     private boolean disposed;
+    private boolean useGameListSnapshots;
 
-    public Sender(Socket socket, ObjectOutputStream out) {
+    public Sender(Socket socket, ITransferableOutput out) {
         this.setName("Client-Senderthread");
         this.disposed = false;
         this.socket = socket;
@@ -48,8 +49,17 @@ public class Sender extends Thread implements IDisposable {
         send(object);
     }
 
+    /**
+     * Legt fest, ob die Spieleliste als GameListSnapshot mit anschließenden Änderungen angefordert wird. Nur
+     * Server mit Binärprotokoll kennen diese Anforderung
+     */
+    public void setUseGameListSnapshots(boolean useGameListSnapshots) {
+        this.useGameListSnapshots = useGameListSnapshots;
+    }
+
     public void requestGameList() {
-        ITransferable object = TransferableObjectFactory.CreateServerInfo(InfoSendingReason.GameList);
+        InfoSendingReason reason = useGameListSnapshots ? InfoSendingReason.GameListSnapshot : InfoSendingReason.GameList;
+        ITransferable object = TransferableObjectFactory.CreateServerInfo(reason);
         send(object);
     }
 
@@ -63,11 +73,14 @@ public class Sender extends Thread implements IDisposable {
         send(object);
     }
 
+    public void sendJoin(String id, String password) {
+        ITransferable object = TransferableObjectFactory.CreateJoin(id, password);
+        send(object);
+    }
+
     public void send(ITransferable object) {
         try {
-            this.out.reset();
-            this.out.writeObject(object);
-            this.out.flush();
+            this.out.write(object);
         } catch (IOException e) {
             this.dispose();
         }
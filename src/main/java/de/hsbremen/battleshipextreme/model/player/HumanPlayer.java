@@ -3,6 +3,7 @@ package de.hsbremen.battleshipextreme.model.player;
 import java.util.ArrayList;
 import java.util.HashMap;
 
+import de.hsbremen.battleshipextreme.model.Board;
 import de.hsbremen.battleshipextreme.model.Field;
 import de.hsbremen.battleshipextreme.model.ship.Ship;
 
@@ -16,6 +17,13 @@ public class HumanPlayer extends Player {
 		this.type = PlayerType.HUMAN;
 	}
 
+	public HumanPlayer(Board board, int destroyers, int frigates,
+			int corvettes, int submarines) {
+		super(board, destroyers, frigates, corvettes, submarines);
+		this.name = "Player";
+		this.type = PlayerType.HUMAN;
+	}
+
 	public HumanPlayer(int boardSize, HashMap<Ship, ArrayList<Field>> shipMap) {
 		super(boardSize, shipMap);
 		this.type = PlayerType.HUMAN;
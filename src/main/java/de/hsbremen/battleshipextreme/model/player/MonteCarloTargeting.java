@@ -0,0 +1,783 @@
+package de.hsbremen.battleshipextreme.model.player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+import de.hsbremen.battleshipextreme.model.Orientation;
+import de.hsbremen.battleshipextreme.model.exception.FieldOutOfBoardException;
+import de.hsbremen.battleshipextreme.model.ship.Ship;
+
+/**
+ * Zielauswahl der HARD_AI über eine Monte-Carlo-Suche: Für jeden Gegner
+ * werden viele Aufstellungen seiner noch nicht versenkten Schiffe gezogen,
+ * die zu den bekannten Feldzuständen passen. Zuerst wird jeder getroffene,
+ * noch nicht erklärte Treffer von einem Schiff abgedeckt, danach werden die
+ * übrigen Schiffe wie in ShipPlacement in die freien Felder gesetzt. Eine
+ * Aufstellung, bei der ein Schiff keinen Platz findet, wird verworfen.
+ * Gezogen wird nur für Gegner mit getroffenen, nicht versenkten Feldern.
+ * Ohne Treffer ergeben sich die Wahrscheinlichkeiten der Felder genauer aus
+ * den Lagen, die ProbabilityTargeting ohnehin zählt, als aus einer Stichprobe.
+ *
+ * Für jede Aufstellung wird gezählt, welche unbeschossenen Felder belegt sind
+ * und welcher Schuss ein Schiff versenken würde. Bewertet wird jeder Schuss
+ * jedes verfügbaren Schiffstyps auf jeden Gegner mit den erwarteten Treffern
+ * plus der gewichteten Wahrscheinlichkeit, ein Schiff zu versenken. Eine
+ * größere Schussweite lohnt sich fast immer, da in jeder Runde ohnehin nur
+ * ein Schiff schießt. Bringt sie nichts (etwa am Rand oder neben
+ * beschossenen Feldern), schießt das Schiff mit der kürzeren Nachladezeit
+ * und das andere bleibt verfügbar.
+ *
+ * Die Aufstellungen werden parallel gezogen: Jeder Gegner wird auf mehrere
+ * Aufgaben verteilt, die im ForkJoinPool des Aufrufers laufen (in der
+ * Simulation in deren Pool, sonst im commonPool), eine KI startet also nie
+ * mehr Threads als der Pool hat. Jede Aufgabe hat eigene, von Zug zu Zug
+ * wiederverwendete Bitmasken und Zähler und einen eigenen, vorher
+ * abgeleiteten Zufallsgenerator. Gezogen wird, bis MAX_SAMPLES Aufstellungen
+ * je Gegner gezogen sind oder das Zeitbudget abgelaufen ist. Reicht das
+ * Budget, wählt die KI mit demselben Zufallsgenerator immer dasselbe Ziel.
+ *
+ * Das Wissen über die Gegner wird wie bei der SMART_AI in
+ * ProbabilityTargeting gemerkt und vor jeder Suche kopiert.
+ */
+
+final class MonteCarloTargeting {
+
+	/**
+	 * Zeitbudget eines Zugs, wenn keins gesetzt wurde
+	 */
+	static final long DEFAULT_MOVE_BUDGET_MILLIS = 30;
+
+	/**
+	 * Höchstzahl der Aufstellungen je Gegner und Zug
+	 */
+	private static final int MAX_SAMPLES = 2048;
+
+	/**
+	 * Höchstzahl der Versuche je geforderter Aufstellung, bevor eine Aufgabe
+	 * aufgibt
+	 */
+	private static final int ATTEMPTS_PER_SAMPLE = 4;
+
+	/**
+	 * Aufgaben je Thread des Pools, damit schnell fertige Threads anderen
+	 * Arbeit abnehmen können
+	 */
+	private static final int TASKS_PER_THREAD = 2;
+
+	/**
+	 * Anzahl der Versuche zwischen zwei Blicken auf die Uhr
+	 */
+	private static final int DEADLINE_CHECK_INTERVAL = 16;
+
+	/**
+	 * Anzahl der zufälligen Positionen, die für ein Schiff geprüft werden,
+	 * bevor alle freien Anfangsfelder berechnet werden
+	 */
+	private static final int RANDOM_ANCHORS = 8;
+
+	/**
+	 * Gewicht eines versenkten Schiffs gegenüber einem Treffer. Ein
+	 * versenktes Schiff schießt nicht mehr und sperrt die Felder um sich
+	 */
+	private static final double SINK_WEIGHT = 0.5;
+
+	/**
+	 * Bewertungen, die sich um weniger unterscheiden, gelten als gleich
+	 */
+	private static final double SCORE_TOLERANCE = 1e-9;
+
+	private final int size;
+	private final int[] fleet;
+	private final int numberOfShips;
+	private final int maxRange;
+	private final ProbabilityTargeting knowledge;
+	private final SplittableRandom random;
+	private final long moveBudgetNanos;
+	private EnemyKnowledge[] enemies;
+	private Sampler[] samplers;
+	private final ArrayList<Sampler> tasks;
+	private int enemyIndex;
+	private Ship ship;
+
+	/**
+	 * @param size
+	 *            die Boardgröße, höchstens 64
+	 * @param ships
+	 *            die Schiffe des eigenen Spielers, die Gegner haben dieselbe
+	 *            Flotte
+	 * @param knowledge
+	 *            das Wissen der KI über die Gegner
+	 * @param random
+	 *            der Zufallsgenerator der KI
+	 * @param moveBudgetMillis
+	 *            die Zeit, nach der die Suche spätestens aufhört zu ziehen
+	 */
+	MonteCarloTargeting(int size, Ship[] ships, ProbabilityTargeting knowledge, SplittableRandom random, long moveBudgetMillis) {
+		if (size > Long.SIZE) {
+			throw new IllegalArgumentException("Board size " + size + " is too big");
+		}
+		this.size = size;
+		int maxLength = 0;
+		int range = 1;
+		for (Ship ship : ships) {
+			maxLength = Math.max(maxLength, ship.getLength());
+			range = Math.max(range, ship.getShootingRange());
+		}
+		this.fleet = new int[maxLength + 1];
+		for (Ship ship : ships) {
+			fleet[ship.getLength()]++;
+		}
+		this.numberOfShips = ships.length;
+		this.maxRange = range;
+		this.knowledge = knowledge;
+		this.random = random;
+		this.moveBudgetNanos = TimeUnit.MILLISECONDS.toNanos(moveBudgetMillis);
+		this.enemies = new EnemyKnowledge[0];
+		this.samplers = new Sampler[0];
+		this.tasks = new ArrayList<Sampler>();
+	}
+
+	/**
+	 * Sucht Gegner, Schiff und Ziel des nächsten Schusses. Gegner und Schiff
+	 * sind danach über getEnemyIndex und getShip abfragbar.
+	 *
+	 * @param players
+	 *            alle Spieler des Spiels
+	 * @param self
+	 *            der Spieler der KI, wird nicht angegriffen
+	 * @param availableShips
+	 *            die Schiffe, die schießen können, mindestens eins
+	 * @return das Ziel
+	 * @throws FieldOutOfBoardException
+	 */
+	Target getTarget(Player[] players, Player self, List<Ship> availableShips) throws FieldOutOfBoardException {
+		long deadline = System.nanoTime() + moveBudgetNanos;
+		int numberOfEnemies = 0;
+		for (int i = 0; i < players.length; i++) {
+			if (players[i] != self && !players[i].hasLost()) {
+				EnemyKnowledge enemy = getEnemy(numberOfEnemies++);
+				enemy.index = i;
+				enemy.player = players[i];
+				knowledge.copyKnowledge(i, players[i], enemy.shotRows, enemy.blockedRows, enemy.hitRows, enemy.remaining);
+				enemy.tracking = false;
+				for (long row : enemy.hitRows) {
+					enemy.tracking |= row != 0;
+				}
+				if (!enemy.tracking) {
+					knowledge.copyCellProbabilities(i, enemy.cells);
+				}
+			}
+		}
+		if (numberOfEnemies == 0) {
+			throw new IllegalStateException("No enemy left");
+		}
+		sample(numberOfEnemies, deadline);
+
+		Selection selection = new Selection();
+		for (int e = 0; e < numberOfEnemies; e++) {
+			EnemyKnowledge enemy = enemies[e];
+			if (!enemy.tracking) {
+				evaluate(enemy, null, 0, availableShips, selection);
+				continue;
+			}
+			Sampler counts = merge(enemy);
+			if (counts.samples > 0) {
+				double samples = counts.samples;
+				for (int index = 0; index < enemy.cells.length; index++) {
+					enemy.cells[index] = counts.cells[index] / samples;
+				}
+				evaluate(enemy, counts.sinks, 1 / samples, availableShips, selection);
+			}
+		}
+		if (selection.ship == null) {
+			// keine Aufstellung passt zu den Feldzuständen, wie die SMART_AI
+			// auf einen zufälligen Gegner schießen
+			EnemyKnowledge enemy = enemies[random.nextInt(numberOfEnemies)];
+			enemyIndex = enemy.index;
+			ship = availableShips.get(0);
+			return knowledge.getTarget(enemy.index, enemy.player, ship.getShootingRange());
+		}
+		enemyIndex = selection.enemyIndex;
+		ship = selection.ship;
+		return new Target(selection.x, selection.y, selection.orientation);
+	}
+
+	/**
+	 * Der Index des Gegners der letzten Suche
+	 */
+	int getEnemyIndex() {
+		return enemyIndex;
+	}
+
+	/**
+	 * Das Schiff, das in der letzten Suche gewählt wurde
+	 */
+	Ship getShip() {
+		return ship;
+	}
+
+	private EnemyKnowledge getEnemy(int slot) {
+		if (slot >= enemies.length) {
+			enemies = Arrays.copyOf(enemies, slot + 1);
+		}
+		if (enemies[slot] == null) {
+			enemies[slot] = new EnemyKnowledge(size, fleet.length);
+		}
+		return enemies[slot];
+	}
+
+	/**
+	 * Verteilt die Gegner mit Treffern auf die Aufgaben und wartet, bis alle
+	 * fertig sind.
+	 */
+	private void sample(int numberOfEnemies, long deadline) {
+		int trackedEnemies = 0;
+		for (int e = 0; e < numberOfEnemies; e++) {
+			if (enemies[e].tracking) {
+				trackedEnemies++;
+			}
+		}
+		if (trackedEnemies == 0) {
+			return;
+		}
+		int parallelism = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool().getParallelism() : ForkJoinPool.getCommonPoolParallelism();
+		int tasksPerEnemy = Math.max(1, (parallelism * TASKS_PER_THREAD + trackedEnemies - 1) / trackedEnemies);
+		int numberOfTasks = trackedEnemies * tasksPerEnemy;
+		if (numberOfTasks > samplers.length) {
+			samplers = Arrays.copyOf(samplers, numberOfTasks);
+		}
+		tasks.clear();
+		for (int e = 0; e < numberOfEnemies; e++) {
+			EnemyKnowledge enemy = enemies[e];
+			if (!enemy.tracking) {
+				continue;
+			}
+			enemy.firstTask = tasks.size();
+			enemy.numberOfTasks = tasksPerEnemy;
+			for (int t = 0; t < tasksPerEnemy; t++) {
+				int slot = tasks.size();
+				if (samplers[slot] == null) {
+					samplers[slot] = new Sampler(size, numberOfShips, fleet.length, maxRange);
+				}
+				Sampler sampler = samplers[slot];
+				int quota = MAX_SAMPLES / tasksPerEnemy + (t < MAX_SAMPLES % tasksPerEnemy ? 1 : 0);
+				sampler.prepare(enemy, quota, deadline, random.split());
+				tasks.add(sampler);
+			}
+		}
+		ForkJoinTask.invokeAll(tasks);
+	}
+
+	/**
+	 * Addiert die Zähler aller Aufgaben eines Gegners in die der ersten.
+	 */
+	private Sampler merge(EnemyKnowledge enemy) {
+		Sampler first = samplers[enemy.firstTask];
+		for (int t = 1; t < enemy.numberOfTasks; t++) {
+			first.add(samplers[enemy.firstTask + t]);
+		}
+		return first;
+	}
+
+	/**
+	 * Bewertet alle Schüsse jedes verfügbaren Schiffstyps auf einen Gegner.
+	 *
+	 * @param sinks
+	 *            die gezählten versenkenden Schüsse, null wenn nicht gezogen
+	 *            wurde
+	 * @param sinkScale
+	 *            rechnet die Zähler in Wahrscheinlichkeiten um
+	 */
+	private void evaluate(EnemyKnowledge enemy, int[][] sinks, double sinkScale, List<Ship> availableShips, Selection selection) {
+		double[] cells = enemy.cells;
+		for (int s = 0; s < availableShips.size(); s++) {
+			Ship candidate = availableShips.get(s);
+			if (isTypeBefore(availableShips, s)) {
+				continue;
+			}
+			int range = candidate.getShootingRange();
+			int[] horizontalSinks = sinks == null ? null : sinks[2 * range];
+			int[] verticalSinks = sinks == null ? null : sinks[2 * range + 1];
+			for (int y = 0; y < size; y++) {
+				long shotRow = enemy.shotRows[y];
+				for (int x = 0; x < size; x++) {
+					if ((shotRow >>> x & 1) != 0) {
+						continue;
+					}
+					int index = y * size + x;
+					double hits = 0;
+					for (int i = index; i < y * size + Math.min(x + range, size); i++) {
+						hits += cells[i];
+					}
+					if (horizontalSinks != null) {
+						hits += SINK_WEIGHT * sinkScale * horizontalSinks[index];
+					}
+					selection.offer(hits, enemy.index, candidate, x, y, Orientation.HORIZONTAL);
+					if (range > 1) {
+						hits = 0;
+						for (int i = index; i < Math.min(y + range, size) * size; i += size) {
+							hits += cells[i];
+						}
+						if (verticalSinks != null) {
+							hits += SINK_WEIGHT * sinkScale * verticalSinks[index];
+						}
+						selection.offer(hits, enemy.index, candidate, x, y, Orientation.VERTICAL);
+					}
+				}
+			}
+		}
+	}
+
+	private static boolean isTypeBefore(List<Ship> ships, int position) {
+		for (int i = 0; i < position; i++) {
+			if (ships.get(i).getType() == ships.get(position).getType()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Merkt sich den besten Schuss. Bei gleicher Bewertung gewinnt das Schiff
+	 * mit der kürzeren Nachladezeit, sonst wird zufällig gewählt.
+	 */
+	private final class Selection {
+		private double bestScore = Double.NEGATIVE_INFINITY;
+		private int bestReloadTime;
+		private int ties;
+		private int enemyIndex;
+		private Ship ship;
+		private int x;
+		private int y;
+		private Orientation orientation;
+
+		void offer(double score, int enemyIndex, Ship ship, int x, int y, Orientation orientation) {
+			int reloadTime = ship.getMaxReloadTime();
+			if (score < bestScore - SCORE_TOLERANCE || score <= bestScore + SCORE_TOLERANCE && reloadTime > bestReloadTime) {
+				return;
+			}
+			if (score > bestScore + SCORE_TOLERANCE || reloadTime < bestReloadTime) {
+				bestScore = score;
+				bestReloadTime = reloadTime;
+				ties = 1;
+			} else if (random.nextInt(++ties) != 0) {
+				return;
+			}
+			this.enemyIndex = enemyIndex;
+			this.ship = ship;
+			this.x = x;
+			this.y = y;
+			this.orientation = orientation;
+		}
+	}
+
+	/**
+	 * Die vor der Suche kopierte Sicht auf einen Gegner, wird von den
+	 * Aufgaben nur gelesen.
+	 */
+	private static final class EnemyKnowledge {
+		private final long[] shotRows;
+		private final long[] blockedRows;
+		private final long[] hitRows;
+		private final int[] remaining;
+		private final double[] cells;
+		private boolean tracking;
+		private int index;
+		private Player player;
+		private int firstTask;
+		private int numberOfTasks;
+
+		EnemyKnowledge(int size, int lengths) {
+			this.shotRows = new long[size];
+			this.blockedRows = new long[size];
+			this.hitRows = new long[size];
+			this.remaining = new int[lengths];
+			this.cells = new double[size * size];
+		}
+	}
+
+	/**
+	 * Zieht Aufstellungen der Schiffe eines Gegners und zählt für jede, welche
+	 * unbeschossenen Felder belegt sind und welche Schüsse ein Schiff
+	 * versenken würden. sinks[2 * Schussweite] zählt horizontale,
+	 * sinks[2 * Schussweite + 1] vertikale Schüsse je Anfangsfeld.
+	 */
+	private static final class Sampler extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int size;
+		private final long rowMask;
+		private final long[] blocked;
+		private final long[] open;
+		private final long[] anchors;
+		private final int[] left;
+		private final int[] shipLine;
+		private final int[] shipStart;
+		private final int[] shipLength;
+		private final boolean[] shipVertical;
+		private final int[] cells;
+		private final int[][] sinks;
+		private int ships;
+		private int samples;
+		private EnemyKnowledge enemy;
+		private int quota;
+		private long deadline;
+		private SplittableRandom random;
+
+		Sampler(int size, int numberOfShips, int lengths, int maxRange) {
+			this.size = size;
+			this.rowMask = size == Long.SIZE ? -1L : (1L << size) - 1;
+			this.blocked = new long[size];
+			this.open = new long[size];
+			this.anchors = new long[2 * size];
+			this.left = new int[lengths];
+			this.shipLine = new int[numberOfShips];
+			this.shipStart = new int[numberOfShips];
+			this.shipLength = new int[numberOfShips];
+			this.shipVertical = new boolean[numberOfShips];
+			this.cells = new int[size * size];
+			this.sinks = new int[2 * (maxRange + 1)][size * size];
+		}
+
+		void prepare(EnemyKnowledge enemy, int quota, long deadline, SplittableRandom random) {
+			reinitialize();
+			this.enemy = enemy;
+			this.quota = quota;
+			this.deadline = deadline;
+			this.random = random;
+		}
+
+		@Override
+		protected void compute() {
+			Arrays.fill(cells, 0);
+			for (int[] counts : sinks) {
+				Arrays.fill(counts, 0);
+			}
+			samples = 0;
+			for (int attempt = 0; samples < quota && attempt < quota * ATTEMPTS_PER_SAMPLE; attempt++) {
+				if (attempt % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+					break;
+				}
+				if (sampleLayout()) {
+					count();
+					samples++;
+				}
+			}
+		}
+
+		void add(Sampler other) {
+			samples += other.samples;
+			for (int index = 0; index < cells.length; index++) {
+				cells[index] += other.cells[index];
+			}
+			for (int i = 0; i < sinks.length; i++) {
+				int[] counts = sinks[i];
+				int[] otherCounts = other.sinks[i];
+				for (int index = 0; index < counts.length; index++) {
+					counts[index] += otherCounts[index];
+				}
+			}
+		}
+
+		/**
+		 * Zieht eine Aufstellung der noch nicht versenkten Schiffe.
+		 *
+		 * @return false, wenn ein Treffer oder ein Schiff keinen Platz fand
+		 */
+		private boolean sampleLayout() {
+			System.arraycopy(enemy.blockedRows, 0, blocked, 0, size);
+			System.arraycopy(enemy.hitRows, 0, open, 0, size);
+			System.arraycopy(enemy.remaining, 0, left, 0, left.length);
+			ships = 0;
+			for (int y = 0; y < size; y++) {
+				while (open[y] != 0) {
+					if (!coverHit(Long.numberOfTrailingZeros(open[y]), y)) {
+						return false;
+					}
+				}
+			}
+			// alle Treffer sind abgedeckt und mit ihren Schiffen gesperrt,
+			// frei sind nur noch unbeschossene Felder
+			for (int length = left.length - 1; length > 0; length--) {
+				while (left[length] > 0) {
+					int anchor = sampleAnchor(length);
+					if (anchor < 0) {
+						int count = findAnchors(length);
+						if (count == 0) {
+							return false;
+						}
+						anchor = selectAnchor(random.nextInt(count));
+					}
+					int row = anchor / size;
+					if (row >= size) {
+						place(anchor % size, row - size, length, true);
+					} else {
+						place(row, anchor % size, length, false);
+					}
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Setzt ein Schiff, das den Treffer abdeckt. Jede Lage zählt so oft,
+		 * wie noch Schiffe ihrer Länge übrig sind.
+		 */
+		private boolean coverHit(int x, int y) {
+			int total = 0;
+			int chosenLine = 0;
+			int chosenStart = 0;
+			int chosenLength = 0;
+			boolean chosenVertical = false;
+			for (int length = 1; length < left.length; length++) {
+				int weight = left[length];
+				if (weight == 0 || length > size) {
+					continue;
+				}
+				for (int start = Math.max(0, x - length + 1); start <= x && start + length <= size; start++) {
+					if (fitsHorizontal(y, start, length)) {
+						total += weight;
+						if (random.nextInt(total) < weight) {
+							chosenLine = y;
+							chosenStart = start;
+							chosenLength = length;
+							chosenVertical = false;
+						}
+					}
+				}
+				if (length == 1) {
+					continue;
+				}
+				for (int start = Math.max(0, y - length + 1); start <= y && start + length <= size; start++) {
+					if (fitsVertical(x, start, length)) {
+						total += weight;
+						if (random.nextInt(total) < weight) {
+							chosenLine = x;
+							chosenStart = start;
+							chosenLength = length;
+							chosenVertical = true;
+						}
+					}
+				}
+			}
+			if (total == 0) {
+				return false;
+			}
+			place(chosenLine, chosenStart, chosenLength, chosenVertical);
+			return true;
+		}
+
+		/**
+		 * Prüft eine Lage über einen Treffer: Sie liegt auf keinem gesperrten
+		 * Feld, hat noch ein unbeschossenes Feld (sonst wäre das Schiff
+		 * versenkt) und berührt keinen Treffer, den sie nicht abdeckt.
+		 */
+		private boolean fitsHorizontal(int y, int start, int length) {
+			long mask = ((1L << length) - 1) << start;
+			if ((blocked[y] & mask) != 0 || (mask & ~enemy.shotRows[y]) == 0) {
+				return false;
+			}
+			long ring = widen(mask);
+			return (open[y] & ring & ~mask) == 0 && (y == 0 || (open[y - 1] & ring) == 0) && (y == size - 1 || (open[y + 1] & ring) == 0);
+		}
+
+		private boolean fitsVertical(int x, int start, int length) {
+			long bit = 1L << x;
+			boolean unshot = false;
+			for (int r = start; r < start + length; r++) {
+				if ((blocked[r] & bit) != 0) {
+					return false;
+				}
+				unshot |= (enemy.shotRows[r] & bit) == 0;
+			}
+			if (!unshot) {
+				return false;
+			}
+			long ring = widen(bit);
+			for (int r = Math.max(0, start - 1); r <= Math.min(size - 1, start + length); r++) {
+				long neighbours = r >= start && r < start + length ? ring & ~bit : ring;
+				if ((open[r] & neighbours) != 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private long widen(long mask) {
+			return (mask | mask << 1 | mask >>> 1) & rowMask;
+		}
+
+		/**
+		 * Merkt sich ein Schiff und sperrt seine Felder und alle angrenzenden
+		 * Felder. Abgedeckte Treffer sind danach erklärt.
+		 *
+		 * @param line
+		 *            die Zeile eines horizontalen, die Spalte eines vertikalen
+		 *            Schiffs
+		 */
+		private void place(int line, int start, int length, boolean vertical) {
+			shipLine[ships] = line;
+			shipStart[ships] = start;
+			shipLength[ships] = length;
+			shipVertical[ships] = vertical;
+			ships++;
+			left[length]--;
+			int x = vertical ? line : start;
+			int y = vertical ? start : line;
+			long shipMask = vertical ? 1L << x : ((1L << length) - 1) << x;
+			long ring = widen(shipMask);
+			int bottom = vertical ? y + length : y + 1;
+			for (int r = Math.max(0, y - 1); r <= Math.min(size - 1, bottom); r++) {
+				blocked[r] |= ring;
+				open[r] &= ~ring;
+			}
+		}
+
+		/**
+		 * Zieht einige Positionen und liefert die erste freie, wie in
+		 * ShipPlacement.
+		 *
+		 * @return die Position, -1 wenn keine der gezogenen Positionen frei
+		 *         war
+		 */
+		private int sampleAnchor(int length) {
+			long shipMask = (1L << length) - 1;
+			for (int i = 0; i < RANDOM_ANCHORS; i++) {
+				int x = random.nextInt(size - length + 1);
+				int y = random.nextInt(size);
+				if (random.nextBoolean()) {
+					if ((blocked[y] >>> x & shipMask) == 0) {
+						return y * size + x;
+					}
+				} else {
+					// vertikal sind x und y vertauscht
+					boolean free = true;
+					for (int r = x; r < x + length && free; r++) {
+						free = (blocked[r] >>> y & 1) == 0;
+					}
+					if (free) {
+						return (size + x) * size + y;
+					}
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Berechnet alle freien Anfangsfelder eines Schiffs, horizontale in
+		 * anchors[y], vertikale in anchors[size + y].
+		 *
+		 * @return die Anzahl der Anfangsfelder
+		 */
+		private int findAnchors(int length) {
+			int count = 0;
+			for (int y = 0; y < size; y++) {
+				long free = ~blocked[y] & rowMask;
+				long horizontal = free;
+				for (int i = 1; i < length; i++) {
+					horizontal &= free >>> i;
+				}
+				long vertical = 0;
+				if (length > 1 && y + length <= size) {
+					vertical = free;
+					for (int i = 1; i < length; i++) {
+						vertical &= ~blocked[y + i];
+					}
+				}
+				anchors[y] = horizontal;
+				anchors[size + y] = vertical;
+				count += Long.bitCount(horizontal) + Long.bitCount(vertical);
+			}
+			return count;
+		}
+
+		private int selectAnchor(int n) {
+			for (int r = 0; r < 2 * size; r++) {
+				int bits = Long.bitCount(anchors[r]);
+				if (n < bits) {
+					long mask = anchors[r];
+					for (int i = 0; i < n; i++) {
+						mask &= mask - 1;
+					}
+					return r * size + Long.numberOfTrailingZeros(mask);
+				}
+				n -= bits;
+			}
+			throw new IllegalStateException("No anchor " + n);
+		}
+
+		/**
+		 * Zählt die unbeschossenen Felder der Schiffe und die Schüsse, die
+		 * alle unbeschossenen Felder eines Schiffs treffen.
+		 */
+		private void count() {
+			long[] shotRows = enemy.shotRows;
+			for (int s = 0; s < ships; s++) {
+				int line = shipLine[s];
+				int start = shipStart[s];
+				int length = shipLength[s];
+				if (shipVertical[s]) {
+					int first = -1;
+					int last = -1;
+					for (int r = start; r < start + length; r++) {
+						if ((shotRows[r] >>> line & 1) == 0) {
+							cells[r * size + line]++;
+							if (first < 0) {
+								first = r;
+							}
+							last = r;
+						}
+					}
+					countSinks(line, first, last, true);
+				} else {
+					long unshot = ((1L << length) - 1) << start & ~shotRows[line];
+					long remainingCells = unshot;
+					while (remainingCells != 0) {
+						cells[line * size + Long.numberOfTrailingZeros(remainingCells)]++;
+						remainingCells &= remainingCells - 1;
+					}
+					countSinks(line, Long.numberOfTrailingZeros(unshot), Long.SIZE - 1 - Long.numberOfLeadingZeros(unshot), false);
+				}
+			}
+		}
+
+		/**
+		 * Zählt die Schüsse, die die unbeschossenen Felder first bis last
+		 * eines Schiffs in Zeile bzw. Spalte line treffen. Der Anfang eines
+		 * Schusses muss unbeschossen sein.
+		 */
+		private void countSinks(int line, int first, int last, boolean vertical) {
+			long[] shotRows = enemy.shotRows;
+			for (int range = 1; 2 * range < sinks.length; range++) {
+				// Schüsse entlang des Schiffs
+				if (last - first < range && (range > 1 || !vertical)) {
+					int[] counts = sinks[2 * range + (vertical && range > 1 ? 1 : 0)];
+					for (int start = Math.max(0, last - range + 1); start <= first; start++) {
+						int x = vertical ? line : start;
+						int y = vertical ? start : line;
+						if ((shotRows[y] >>> x & 1) == 0) {
+							counts[y * size + x]++;
+						}
+					}
+				}
+				// Schüsse quer zum Schiff treffen nur ein Feld
+				if (first == last && (range > 1 || vertical)) {
+					int[] counts = sinks[2 * range + (vertical || range == 1 ? 0 : 1)];
+					for (int start = Math.max(0, line - range + 1); start <= line; start++) {
+						int x = vertical ? start : first;
+						int y = vertical ? first : start;
+						if ((shotRows[y] >>> x & 1) == 0) {
+							counts[y * size + x]++;
+						}
+					}
+				}
+			}
+		}
+	}
+}
@@ -1,15 +1,22 @@
 package de.hsbremen.battleshipextreme.model.player;
 
+import de.hsbremen.battleshipextreme.model.BitBoard;
 import de.hsbremen.battleshipextreme.model.Board;
 import de.hsbremen.battleshipextreme.model.Field;
 import de.hsbremen.battleshipextreme.model.FieldState;
 import de.hsbremen.battleshipextreme.model.Orientation;
+import de.hsbremen.battleshipextreme.model.SparseBoard;
 import de.hsbremen.battleshipextreme.model.exception.FieldOutOfBoardException;
 import de.hsbremen.battleshipextreme.model.exception.ShipAlreadyPlacedException;
 import de.hsbremen.battleshipextreme.model.exception.ShipOutOfBoardException;
 import de.hsbremen.battleshipextreme.model.ship.*;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.io.StreamCorruptedException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -27,6 +34,7 @@ public abstract class Player implements Serializable {
     protected Ship currentShip;
     protected PlayerType type;
     protected Board board;
+    private transient FleetCounters fleetCounters;
 
     /**
      * Dient zum Initialisieren der Schiffe und des Boards anhand der
@@ -38,58 +46,48 @@ public abstract class Player implements Serializable {
      * @param submarines Anzahl der U-Boote
      */
     public Player(int boardSize, int destroyers, int frigates, int corvettes, int submarines) {
+        this(new BitBoard(boardSize), destroyers, frigates, corvettes, submarines);
+    }
+
+    /**
+     * Dient zum Initialisieren der Schiffe anhand der übergebenen Parameter
+     * auf dem übergebenen, leeren Board (siehe Settings.createBoard).
+     * @param board das Board des Spielers
+     * @param destroyers Anzahl der Zerstörer
+     * @param frigates Anzahl der Frigatten
+     * @param corvettes Anzahl der Korvetten
+     * @param submarines Anzahl der U-Boote
+     */
+    public Player(Board board, int destroyers, int frigates, int corvettes, int submarines) {
         initShips(destroyers, frigates, corvettes, submarines);
-        this.board = new Board(boardSize);
+        this.board = board;
         this.currentShip = this.ships[0];
+        this.fleetCounters = new FleetCounters(ships);
     }
 
     public Player(int boardSize, HashMap<Ship, ArrayList<Field>> shipMap) {
-        this.board = new Board(boardSize);
+        this.board = new BitBoard(boardSize);
         ships = new Ship[shipMap.size()];
         int counter = 0;
         for (Map.Entry<Ship, ArrayList<Field>> entry : shipMap.entrySet()) {
-            Ship key = entry.getKey();
+            Ship ship = createShip(entry.getKey().getType());
             ArrayList<Field> value = entry.getValue();
-            switch (key.getType()) {
-                case DESTROYER:
-                    Ship destroyer = new Destroyer();
-                    ships[counter] = destroyer;
-                    for (int fieldIndex = 0; fieldIndex < value.size(); fieldIndex++) {
-                        Field field = value.get(fieldIndex);
-                        board.getFields()[field.getYPos()][field.getXPos()].setShip(destroyer);
-                    }
-                    break;
-
-                case FRIGATE:
-                    Frigate frigate = new Frigate();
-                    ships[counter] = frigate;
-                    for (int fieldIndex = 0; fieldIndex < value.size(); fieldIndex++) {
-                        Field field = value.get(fieldIndex);
-                        board.getFields()[field.getYPos()][field.getXPos()].setShip(frigate);
-                    }
-                    break;
-
-                case CORVETTE:
-                    Corvette corvette = new Corvette();
-                    ships[counter] = corvette;
-                    for (int fieldIndex = 0; fieldIndex < value.size(); fieldIndex++) {
-                        Field field = value.get(fieldIndex);
-                        board.getFields()[field.getYPos()][field.getXPos()].setShip(corvette);
-                    }
-                    break;
-
-                case SUBMARINE:
-                    Submarine submarine = new Submarine();
-                    ships[counter] = submarine;
-                    for (int fieldIndex = 0; fieldIndex < value.size(); fieldIndex++) {
-                        Field field = value.get(fieldIndex);
-                        board.getFields()[field.getYPos()][field.getXPos()].setShip(submarine);
-                    }
-                    break;
+            ships[counter] = ship;
+            int xPos = board.getSize();
+            int yPos = board.getSize();
+            for (int fieldIndex = 0; fieldIndex < value.size(); fieldIndex++) {
+                Field field = value.get(fieldIndex);
+                board.setShip(field.getXPos(), field.getYPos(), ship);
+                xPos = Math.min(xPos, field.getXPos());
+                yPos = Math.min(yPos, field.getYPos());
             }
+            // die Felder liegen in einer Zeile oder Spalte
+            boolean horizontal = value.size() < 2 || value.get(0).getYPos() == value.get(1).getYPos();
+            ship.place(xPos, yPos, horizontal ? Orientation.HORIZONTAL : Orientation.VERTICAL);
             counter++;
         }
         this.currentShip = this.ships[0];
+        this.fleetCounters = new FleetCounters(ships);
     }
 
     /**
@@ -114,8 +112,7 @@ public abstract class Player implements Serializable {
      * Dient zum Zurücksetzen eines Boards.
      */
     public void resetBoard() {
-        int size = board.getSize();
-        board = new Board(size);
+        board.clear();
         for (Ship ship : ships) {
             ship.setPlaced(false);
         }
@@ -129,19 +126,22 @@ public abstract class Player implements Serializable {
      * @param isOwnBoard gibt an, ob es sich um das eigene Board handelt
      */
     public FieldState[][] getFieldStates(boolean isOwnBoard) throws FieldOutOfBoardException {
-        int size = board.getSize();
-        FieldState[][] fieldStates = new FieldState[size][size];
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                FieldState state = board.getField(j, i).getState();
-                if ((state == FieldState.HAS_SHIP || state == FieldState.IS_EMPTY) && (!isOwnBoard)) {
-                    fieldStates[i][j] = null;
-                } else {
-                    fieldStates[i][j] = state;
-                }
-            }
-        }
-        return fieldStates;
+        return board.getFieldStates(isOwnBoard);
+    }
+
+    /**
+     * Liefert wie getFieldStates(boolean) die Feldzustände eines Ausschnitts
+     * des Playerboards. Große Boards sollten nur so gelesen werden.
+     * @param isOwnBoard gibt an, ob es sich um das eigene Board handelt
+     * @param x linke Spalte des Ausschnitts
+     * @param y obere Zeile des Ausschnitts
+     * @param width Breite des Ausschnitts
+     * @param height Höhe des Ausschnitts
+     * @throws FieldOutOfBoardException wenn der Ausschnitt nicht ganz innerhalb
+     * des Boards liegt
+     */
+    public FieldState[][] getFieldStates(boolean isOwnBoard, int x, int y, int width, int height) throws FieldOutOfBoardException {
+        return board.getFieldStates(isOwnBoard, x, y, width, height);
     }
 
     public FieldState[][] getFieldWithStateEmpty() {
@@ -207,8 +207,8 @@ public abstract class Player implements Serializable {
      * @return das erste belegte Feld, das gefunden wurde, null wenn es kein
      * belegtes Feld gibt
      */
-    private Field findOccupiedField(Ship ship, int xPos, int yPos, Orientation orientation) {
-        Field[][] fields = this.board.getFields();
+    private Field findOccupiedField(Ship ship, int xPos, int yPos, Orientation orientation) throws FieldOutOfBoardException {
+        int size = this.board.getSize();
         // Orientation Horizontal
         if (orientation == Orientation.HORIZONTAL) {
 
@@ -216,9 +216,9 @@ public abstract class Player implements Serializable {
             for (int y = yPos - 1; y <= yPos + 1; y++)
                 for (int x = xPos - 1; x <= xPos + ship.getSize(); x++)
                     // x und y innerhalb des Spielfeldes
-                    if (x >= 0 && y >= 0 && x < fields.length && y < fields.length) {
-                        if (fields[y][x].getShip() != null) {
-                            return (fields[y][x]);
+                    if (x >= 0 && y >= 0 && x < size && y < size) {
+                        if (board.hasShip(x, y)) {
+                            return board.getField(x, y);
                         }
                     }
         }
@@ -229,10 +229,10 @@ public abstract class Player implements Serializable {
             for (int y = yPos - 1; y <= yPos + ship.getSize(); y++)
                 for (int x = xPos - 1; x <= xPos + 1; x++)
                     // x und y innerhalb des Spielfeldes
-                    if (x >= 0 && y >= 0 && x < fields.length && y < fields.length) {
-                        if (fields[y][x].getShip() != null) // Feld hat Schiff
+                    if (x >= 0 && y >= 0 && x < size && y < size) {
+                        if (board.hasShip(x, y)) // Feld hat Schiff
                         {
-                            return (fields[y][x]);
+                            return board.getField(x, y);
                         }
                     }
         }
@@ -259,9 +259,9 @@ public abstract class Player implements Serializable {
         int xDirection = orientation == Orientation.HORIZONTAL ? 1 : 0;
         int yDirection = orientation == Orientation.VERTICAL ? 1 : 0;
         for (int i = 0; i < ship.getSize(); i++) {
-            board.getFields()[yPos + i * yDirection][xPos + i * xDirection].setShip(ship);
+            board.setShip(xPos + i * xDirection, yPos + i * yDirection, ship);
         }
-        ship.place();
+        ship.place(xPos, yPos, orientation);
     }
 
     /**
@@ -286,7 +286,7 @@ public abstract class Player implements Serializable {
      * @return gibt true zurück, wenn ja, false wenn nicht.
      */
     private boolean possessesShip(Ship ship) {
-        return Arrays.asList(this.getShips()).contains(ship);
+        return indexOfShip(ship) >= 0;
     }
 
     /**
@@ -307,7 +307,7 @@ public abstract class Player implements Serializable {
      * @return eine Liste von Schiffen die benutzbar sind
      */
     public ArrayList<Ship> getAvailableShips(boolean excludeReloadingShips) {
-        ArrayList<Ship> availableShips = new ArrayList<Ship>();
+        ArrayList<Ship> availableShips = new ArrayList<Ship>(excludeReloadingShips ? fleetCounters.getAvailableShips() : fleetCounters.getAliveShips());
         for (Ship ship : ships) {
             if (!ship.isDestroyed()) {
                 if (excludeReloadingShips) {
@@ -341,14 +341,13 @@ public abstract class Player implements Serializable {
     public boolean markBoard(int x, int y) throws FieldOutOfBoardException {
         // Schüsse ignorieren, die außerhalb des Feldes liegen
         if (board.containsFieldAtPosition(x, y)) {
-            Field fieldShotAt = board.getField(x, y);
             // wenn Board schon beschossen wurde, dann Schuss ignorieren
-            if (!fieldShotAt.isHit()) {
-                board.getField(x, y).mark();
+            if (!board.isHit(x, y)) {
+                board.mark(x, y);
                 // wenn das Feld auf das geschossen wurde ein Schiff hat,
                 // dann ein Leben vom Schiff abziehen
-                if (fieldShotAt.hasShip()) {
-                    Ship ship = fieldShotAt.getShip();
+                Ship ship = board.getShip(x, y);
+                if (ship != null) {
                     ship.decreaseSize();
                 }
             } else {
@@ -365,8 +364,7 @@ public abstract class Player implements Serializable {
      * @return true wenn alle Schiffe nachladen, false wenn nicht
      */
     public boolean areAllShipsReloading() {
-        ArrayList<Ship> availableShips = this.getAvailableShips(true);
-        return availableShips.size() <= 0;
+        return fleetCounters.getAvailableShips() <= 0;
     }
 
     public Ship getCurrentShip() {
@@ -391,6 +389,14 @@ public abstract class Player implements Serializable {
 
     public void setShips(Ship[] ships) {
         this.ships = ships;
+        this.fleetCounters = new FleetCounters(ships);
+    }
+
+    /**
+     * Liefert die laufend mitgezählten Schiffe des Spielers je Schifftyp
+     */
+    public FleetCounters getFleetCounters() {
+        return fleetCounters;
     }
 
     public String toString() {
@@ -398,12 +404,7 @@ public abstract class Player implements Serializable {
     }
 
     public boolean hasLost() {
-        for (Ship ship : ships) {
-            if (!ship.isDestroyed()) {
-                return false;
-            }
-        }
-        return true;
+        return fleetCounters.getAliveShips() == 0;
     }
 
     public PlayerType getType() {
@@ -419,15 +420,7 @@ public abstract class Player implements Serializable {
      * @return die Anzahl der Schiffe des übergebenen Typs
      */
     public int getShipCount(ShipType shipType) {
-        int numberOfOccurences = 0;
-        for (Ship ship : ships) {
-            if (ship.getType() == shipType) {
-                if (!ship.isDestroyed() && ship.isPlaced()) {
-                    numberOfOccurences++;
-                }
-            }
-        }
-        return numberOfOccurences;
+        return fleetCounters.getPlacedShips(shipType);
     }
 
     /**
@@ -436,9 +429,8 @@ public abstract class Player implements Serializable {
      * @return das erste gefundene Schiff, das dem übergebenem Schifftyp gleicht
      */
     public boolean setCurrentShipByType(ShipType shipType) {
-        ArrayList<Ship> availableShips = getAvailableShips(true);
-        for (Ship ship : availableShips) {
-            if (ship.getType() == shipType) {
+        for (Ship ship : ships) {
+            if (ship.getType() == shipType && !ship.isDestroyed() && !ship.isReloading()) {
                 currentShip = ship;
                 return true;
             }
@@ -452,19 +444,24 @@ public abstract class Player implements Serializable {
      * @return true, wenn Schiffe vom Schifftyp vorhanden sind, false wenn nicht
      */
     public boolean isShipOfTypeAvailable(ShipType shipType) {
-        ArrayList<Ship> availableshShips = getAvailableShips(true);
-        for (Ship ship : availableshShips) {
-            if (ship.getType() == shipType) {
-                return true;
-            }
-        }
-        return false;
+        return fleetCounters.getAvailableShips(shipType) > 0;
     }
 
     public ShipType getTypeOFirstAvailableShip() {
-        ArrayList<Ship> availableshShips = getAvailableShips(true);
-        for (Ship ship : availableshShips) {
-            return ship.getType();
+        Ship ship = getFirstAvailableShip();
+        return ship == null ? null : ship.getType();
+    }
+
+    /**
+     * Liefert das erste Schiff, das weder zerstört ist noch nachlädt, also
+     * das erste Schiff aus getAvailableShips(true), ohne die Liste zu erzeugen.
+     * @return das Schiff oder null, wenn kein Schiff schießen kann
+     */
+    public Ship getFirstAvailableShip() {
+        for (Ship ship : ships) {
+            if (!ship.isDestroyed() && !ship.isReloading()) {
+                return ship;
+            }
         }
         return null;
     }
@@ -481,13 +478,7 @@ public abstract class Player implements Serializable {
     }
 
     public boolean areAllShipsOfTypeReloading(ShipType type) {
-        ArrayList<Ship> availableshShips = getAvailableShips(true);
-        for (Ship ship : availableshShips) {
-            if (ship.getType() == type && !ship.isReloading() && !ship.isDestroyed()) {
-                return false;
-            }
-        }
-        return true;
+        return fleetCounters.getAvailableShips(type) == 0;
     }
 
     public void resetShips() {
@@ -495,4 +486,188 @@ public abstract class Player implements Serializable {
             ship.reset();
         }
     }
+
+    /**
+     * Schreibt den Zustand des Spielers kompakt: Name, je Schiff Typ,
+     * Nachladezeit und Lage (Startfeld, Ausrichtung, Länge), das aktuelle
+     * Schiff sowie die beschossenen Felder als Bitmap. Die verbleibende Größe der Schiffe ergibt
+     * sich beim Lesen aus den Treffern. Bei einem SparseBoard werden statt der
+     * Bitmap die Anzahl und die Indizes der beschossenen Felder geschrieben.
+     */
+    public void writeState(DataOutput out) throws IOException {
+        int size = board.getSize();
+        int[] anchors = new int[ships.length];
+        int[] lengths = new int[ships.length];
+        boolean[] horizontal = new boolean[ships.length];
+        Arrays.fill(anchors, -1);
+        Ship lastShip = null;
+        int shipIndex = -1;
+        // nur die belegten Felder besuchen, zeilenweise aufsteigend
+        for (int index : board.getShipIndices()) {
+            // Felder eines waagerechten Schiffs folgen aufeinander
+            Ship ship = board.getShip(index % size, index / size);
+            if (ship != lastShip) {
+                lastShip = ship;
+                shipIndex = indexOfShip(ship);
+            }
+            if (shipIndex < 0) {
+                continue;
+            }
+            if (anchors[shipIndex] < 0) {
+                anchors[shipIndex] = index;
+            } else if (anchors[shipIndex] / size == index / size) {
+                horizontal[shipIndex] = true;
+            }
+            lengths[shipIndex]++;
+        }
+
+        out.writeBoolean(name != null);
+        if (name != null) {
+            out.writeUTF(name);
+        }
+        out.writeShort(ships.length);
+        for (int i = 0; i < ships.length; i++) {
+            out.writeByte(ships[i].getType().ordinal());
+            out.writeByte(ships[i].getCurrentReloadTime());
+            out.writeBoolean(ships[i].isPlaced());
+            out.writeInt(anchors[i]);
+            if (anchors[i] >= 0) {
+                out.writeBoolean(horizontal[i]);
+                out.writeByte(lengths[i]);
+            }
+        }
+        out.writeShort(indexOfShip(currentShip));
+        if (board instanceof SparseBoard) {
+            int[] hits = board.getHitIndices();
+            out.writeInt(hits.length);
+            for (int index : hits) {
+                out.writeInt(index);
+            }
+        } else {
+            int words = (size * size + 63) >>> 6;
+            for (int word = 0; word < words; word++) {
+                out.writeLong(board.getHitWord(word));
+            }
+        }
+    }
+
+    /**
+     * Liest einen mit writeState geschriebenen Zustand. Schiffe und Board des
+     * Spielers werden dabei ersetzt, die Boardgröße muss übereinstimmen.
+     */
+    public void readState(DataInput in) throws IOException {
+        int size = board.getSize();
+        name = in.readBoolean() ? in.readUTF() : null;
+        ShipType[] shipTypes = ShipType.values();
+        ships = new Ship[in.readUnsignedShort()];
+        board.clear();
+        for (int i = 0; i < ships.length; i++) {
+            int type = in.readUnsignedByte();
+            if (type >= shipTypes.length) {
+                throw new StreamCorruptedException("Invalid ship type " + type);
+            }
+            ships[i] = createShip(shipTypes[type]);
+            ships[i].setCurrentReloadTime(in.readUnsignedByte());
+            ships[i].setPlaced(in.readBoolean());
+            int anchor = in.readInt();
+            if (anchor >= 0) {
+                int xDirection = in.readBoolean() ? 1 : 0;
+                int yDirection = 1 - xDirection;
+                int length = in.readUnsignedByte();
+                int x = anchor % size;
+                int y = anchor / size;
+                if (anchor >= size * size || x + (length - 1) * xDirection >= size || y + (length - 1) * yDirection >= size) {
+                    throw new StreamCorruptedException("Ship out of board at " + x + "/" + y);
+                }
+                for (int cell = 0; cell < length; cell++) {
+                    board.setShip(x + cell * xDirection, y + cell * yDirection, ships[i]);
+                }
+                if (ships[i].isPlaced()) {
+                    ships[i].place(x, y, xDirection == 1 ? Orientation.HORIZONTAL : Orientation.VERTICAL);
+                }
+            }
+        }
+        int currentShipIndex = in.readShort();
+        if (currentShipIndex >= ships.length) {
+            throw new StreamCorruptedException("Invalid current ship " + currentShipIndex);
+        }
+        int cells = size * size;
+        if (board instanceof SparseBoard) {
+            int numberOfHits = in.readInt();
+            if (numberOfHits < 0 || numberOfHits > cells) {
+                throw new StreamCorruptedException("Invalid number of hits " + numberOfHits);
+            }
+            for (int i = 0; i < numberOfHits; i++) {
+                markHit(in.readInt(), cells);
+            }
+        } else {
+            int words = (cells + 63) >>> 6;
+            for (int word = 0; word < words; word++) {
+                long hitBits = in.readLong();
+                while (hitBits != 0) {
+                    int index = (word << 6) + Long.numberOfTrailingZeros(hitBits);
+                    hitBits &= hitBits - 1;
+                    markHit(index, cells);
+                }
+            }
+        }
+        currentShip = currentShipIndex >= 0 ? ships[currentShipIndex] : null;
+        fleetCounters = new FleetCounters(ships);
+    }
+
+    /**
+     * Markiert ein gelesenes beschossenes Feld
+     */
+    private void markHit(int index, int cells) throws StreamCorruptedException {
+        if (index < 0 || index >= cells) {
+            throw new StreamCorruptedException("Hit out of board at field " + index);
+        }
+        int x = index % board.getSize();
+        int y = index / board.getSize();
+        if (board.isHit(x, y)) {
+            throw new StreamCorruptedException("Duplicate hit at field " + index);
+        }
+        board.mark(x, y);
+        Ship ship = board.getShip(x, y);
+        if (ship != null) {
+            ship.decreaseSize();
+        }
+    }
+
+    /**
+     * Die Zähler werden nicht serialisiert, sondern aus den Schiffen neu
+     * aufgebaut
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        fleetCounters = new FleetCounters(ships);
+    }
+
+    /**
+     * Liefert den Index eines Schiffes des Spielers, -1 wenn es ihm nicht
+     * gehört.
+     */
+    public int indexOfShip(Ship ship) {
+        if (ship != null) {
+            for (int i = 0; i < ships.length; i++) {
+                if (ships[i] == ship) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static Ship createShip(ShipType type) {
+        switch (type) {
+            case DESTROYER:
+                return new Destroyer();
+            case FRIGATE:
+                return new Frigate();
+            case CORVETTE:
+                return new Corvette();
+            default:
+                return new Submarine();
+        }
+    }
 }
@@ -0,0 +1,704 @@
+package de.hsbremen.battleshipextreme.model.player;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import de.hsbremen.battleshipextreme.model.FieldState;
+import de.hsbremen.battleshipextreme.model.Orientation;
+import de.hsbremen.battleshipextreme.model.TurnResult;
+import de.hsbremen.battleshipextreme.model.Settings;
+import de.hsbremen.battleshipextreme.model.exception.FieldOutOfBoardException;
+import de.hsbremen.battleshipextreme.model.ship.Ship;
+
+/**
+ * Zielauswahl der SMART_AI über eine Wahrscheinlichkeitsdichte: Für jedes
+ * noch nicht beschossene Feld wird gezählt, wie viele Lagen der noch nicht
+ * versenkten gegnerischen Schiffe das Feld abdecken. Gibt es getroffene, aber
+ * noch nicht versenkte Felder, zählen nur Lagen, die diese Treffer erklären,
+ * und zwar umso stärker, je mehr Treffer sie abdecken. Geschossen wird dann
+ * auf die Position und Ausrichtung, deren Schussfelder zusammen die höchste
+ * Dichte haben.
+ *
+ * Das Wissen über jeden Gegner wird pro Gegner gemerkt. Es wird einmal aus
+ * den Feldzuständen des Gegners aufgebaut und danach nur noch um die Felder
+ * ergänzt, die in einem Zug markiert wurden (siehe observe). Wie viele
+ * mögliche Lagen jedes Feld abdecken, wird dabei ebenfalls nur für die Lagen
+ * nachgeführt, die ein neu gesperrtes Feld berühren. Lagen um Treffer herum
+ * werden bei jedem Ziel neu gezählt, das sind nur wenige. Das gelieferte
+ * Ziel wird für jedes Ziel wiederverwendet.
+ *
+ * Jede Zeile und jede Spalte des Boards ist ein long, ein Board darf also
+ * höchstens 64 Felder breit sein. Zwischen zwei Schiffen liegt immer
+ * mindestens ein freies Feld, deshalb sind die Felder um ein versenktes
+ * Schiff herum leer und eine Lage darf keinen fremden Treffer berühren.
+ */
+
+final class ProbabilityTargeting {
+
+	private static final byte UNKNOWN = 0;
+	private static final byte MISSED = 1;
+	private static final byte HIT = 2;
+	private static final byte DESTROYED = 3;
+
+	private static final int UNCHANGED = 0;
+	private static final int CHANGED = 1;
+	private static final int CHANGED_TO_DESTROYED = 2;
+	private static final int INCONSISTENT = 3;
+
+	/**
+	 * Eine Lage, die k Treffer abdeckt, zählt 2^(k * HIT_WEIGHT_SHIFT) mal
+	 */
+	private static final int HIT_WEIGHT_SHIFT = 4;
+
+	private final int size;
+	private final int[] fleet;
+	private final long[] density;
+	private final int[] touchedCells;
+	private int numberOfTouchedCells;
+	private final SplittableRandom random;
+	private final Selection selection;
+	private EnemyView[] views;
+	private boolean tracking;
+
+	/**
+	 * @param size
+	 *            die Boardgröße
+	 * @param ships
+	 *            die Schiffe des eigenen Spielers, die Gegner haben dieselbe
+	 *            Flotte
+	 * @param random
+	 *            der Zufallsgenerator der KI, entscheidet zwischen gleich guten
+	 *            Zielen
+	 */
+	ProbabilityTargeting(int size, Ship[] ships, SplittableRandom random) {
+		if (size > Long.SIZE) {
+			throw new IllegalArgumentException("Board size " + size + " is too big");
+		}
+		this.size = size;
+		this.fleet = new int[Settings.DESTROYER_SIZE + 1];
+		for (Ship ship : ships) {
+			fleet[ship.getLength()]++;
+		}
+		this.density = new long[size * size];
+		this.touchedCells = new int[size * size];
+		this.random = random;
+		this.selection = new Selection();
+		this.views = new EnemyView[0];
+	}
+
+	/**
+	 * Liefert das Ziel mit der höchsten Trefferwahrscheinlichkeit. Das Wissen
+	 * über den Gegner wird vorher mit allen übergebenen Feldzuständen
+	 * abgeglichen.
+	 *
+	 * @param enemyIndex
+	 *            der Index des Gegners, unter dem das Wissen über ihn gemerkt
+	 *            wird
+	 * @param fieldStates
+	 *            die bekannten Feldzustände des Gegners
+	 * @param shootingRange
+	 *            die Schussweite des ausgewählten Schiffs
+	 * @return das Ziel
+	 */
+	Target getTarget(int enemyIndex, FieldState[][] fieldStates, int shootingRange) {
+		EnemyView view = getView(enemyIndex);
+		view.update(fieldStates);
+		return getTarget(view, shootingRange);
+	}
+
+	/**
+	 * Liefert das Ziel mit der höchsten Trefferwahrscheinlichkeit. Die
+	 * Feldzustände des Gegners werden nur gelesen, wenn noch kein Wissen über
+	 * ihn vorliegt oder ein mitgeteilter Zug nicht zum Wissen gepasst hat.
+	 *
+	 * @param enemyIndex
+	 *            der Index des Gegners
+	 * @param enemy
+	 *            der Gegner
+	 * @param shootingRange
+	 *            die Schussweite des ausgewählten Schiffs
+	 * @return das Ziel
+	 * @throws FieldOutOfBoardException
+	 */
+	Target getTarget(int enemyIndex, Player enemy, int shootingRange) throws FieldOutOfBoardException {
+		EnemyView view = getView(enemyIndex);
+		if (!view.upToDate) {
+			view.update(enemy.getFieldStates(false));
+		}
+		return getTarget(view, shootingRange);
+	}
+
+	/**
+	 * Ergänzt das Wissen über einen Gegner um die in einem Zug markierten
+	 * Felder. Gegner, über die noch nichts bekannt ist, werden übergangen.
+	 *
+	 * @param result
+	 *            das Ergebnis des Zugs mit dem Index des beschossenen Gegners
+	 */
+	void observe(TurnResult result) {
+		int enemyIndex = result.getEnemyIndex();
+		if (enemyIndex >= 0 && enemyIndex < views.length && views[enemyIndex] != null) {
+			views[enemyIndex].observe(result);
+		}
+	}
+
+	/**
+	 * Kopiert das Wissen über einen Gegner in die übergebenen Arrays. Die
+	 * Feldzustände des Gegners werden wie bei getTarget(int, Player, int) nur
+	 * gelesen, wenn nötig.
+	 *
+	 * @param shotRows
+	 *            erhält je Zeile die beschossenen Felder
+	 * @param blockedRows
+	 *            erhält je Zeile die Felder, in denen kein Schiff liegen kann
+	 * @param hitRows
+	 *            erhält je Zeile die getroffenen, nicht versenkten Felder
+	 * @param remaining
+	 *            erhält je Länge die Anzahl der nicht versenkten Schiffe
+	 * @throws FieldOutOfBoardException
+	 */
+	void copyKnowledge(int enemyIndex, Player enemy, long[] shotRows, long[] blockedRows, long[] hitRows, int[] remaining) throws FieldOutOfBoardException {
+		EnemyView view = getView(enemyIndex);
+		if (!view.upToDate) {
+			view.update(enemy.getFieldStates(false));
+		}
+		System.arraycopy(view.shotRows, 0, shotRows, 0, size);
+		System.arraycopy(view.blockedRows, 0, blockedRows, 0, size);
+		System.arraycopy(view.hitRows, 0, hitRows, 0, size);
+		System.arraycopy(view.remaining, 0, remaining, 0, view.remaining.length);
+	}
+
+	/**
+	 * Berechnet für jedes Feld, wie wahrscheinlich dort ein nicht versenktes
+	 * Schiff liegt, wenn es keine Treffer gibt: Für jede Länge der Anteil der
+	 * Lagen durch das Feld an allen Lagen dieser Länge, mal Länge und Anzahl
+	 * der Schiffe. Das Wissen muss mit copyKnowledge aktualisiert sein.
+	 *
+	 * @param probabilities
+	 *            erhält die Wahrscheinlichkeiten, beschossene Felder haben 0
+	 */
+	void copyCellProbabilities(int enemyIndex, double[] probabilities) {
+		EnemyView view = getView(enemyIndex);
+		Arrays.fill(probabilities, 0);
+		for (int length = 1; length < view.remaining.length; length++) {
+			int[] lengthCoverage = view.coverage[length];
+			if (view.remaining[length] == 0 || lengthCoverage == null) {
+				continue;
+			}
+			long covered = 0;
+			for (int index = 0; index < lengthCoverage.length; index++) {
+				covered += lengthCoverage[index];
+			}
+			if (covered == 0) {
+				continue;
+			}
+			double factor = (double) view.remaining[length] * length / covered;
+			for (int index = 0; index < lengthCoverage.length; index++) {
+				probabilities[index] += factor * lengthCoverage[index];
+			}
+		}
+		for (int y = 0; y < size; y++) {
+			long row = view.shotRows[y];
+			while (row != 0) {
+				probabilities[y * size + Long.numberOfTrailingZeros(row)] = 0;
+				row &= row - 1;
+			}
+		}
+	}
+
+	/**
+	 * Gibt an, ob beim letzten Ziel getroffene, aber noch nicht versenkte
+	 * Felder verfolgt wurden.
+	 */
+	boolean isTracking() {
+		return tracking;
+	}
+
+	private EnemyView getView(int enemyIndex) {
+		if (enemyIndex >= views.length) {
+			EnemyView[] grown = new EnemyView[enemyIndex + 1];
+			System.arraycopy(views, 0, grown, 0, views.length);
+			views = grown;
+		}
+		if (views[enemyIndex] == null) {
+			views[enemyIndex] = new EnemyView(size, fleet);
+		}
+		return views[enemyIndex];
+	}
+
+	private Target getTarget(EnemyView view, int shootingRange) {
+		tracking = view.hits > 0;
+		if (tracking && computeHitDensity(view)) {
+			return selectTargetAroundHits(view, shootingRange);
+		}
+		// keine Treffer oder die Treffer passen zu keiner Lage
+		return selectTarget(view, shootingRange);
+	}
+
+	/**
+	 * Zählt die gewichteten Lagen, die mindestens einen Treffer abdecken, in
+	 * density. Die berührten Felder stehen danach in touchedCells.
+	 *
+	 * @return false, wenn keine einzige Lage gefunden wurde
+	 */
+	private boolean computeHitDensity(EnemyView view) {
+		numberOfTouchedCells = 0;
+		for (int y = 0; y < size; y++) {
+			long row = view.hitRows[y];
+			while (row != 0) {
+				int x = Long.numberOfTrailingZeros(row);
+				row &= row - 1;
+				for (int length = 1; length < view.remaining.length; length++) {
+					int count = view.remaining[length];
+					if (count > 0 && length <= size) {
+						addHitPlacements(view.blockedRows, view.hitRows, view.shotRows, y, x, length, count, size, 1);
+						if (length > 1) {
+							addHitPlacements(view.blockedColumns, view.hitColumns, view.shotColumns, x, y, length, count, 1, size);
+						}
+					}
+				}
+			}
+		}
+		return numberOfTouchedCells > 0;
+	}
+
+	/**
+	 * Addiert die Lagen eines Schiffs in einer Ausrichtung, die den Treffer
+	 * an Position pos der Zeile bzw. Spalte line abdecken. Jede Lage wird nur
+	 * bei ihrem ersten Treffer gezählt. lineStep und cellStep rechnen
+	 * Zeile/Spalte und Position darin in den Index der Dichte um.
+	 */
+	private void addHitPlacements(long[] blocked, long[] hits, long[] shot, int line, int pos, int length, int count, int lineStep, int cellStep) {
+		long shipMask = (1L << length) - 1;
+		long ringMask = (1L << (length + 2)) - 1;
+		long lineBlocked = blocked[line];
+		long lineHits = hits[line];
+		long neighbourHits = (line > 0 ? hits[line - 1] : 0) | (line < size - 1 ? hits[line + 1] : 0);
+		for (int start = Math.max(0, pos - length + 1); start <= pos && start + length <= size; start++) {
+			long mask = shipMask << start;
+			if ((lineBlocked & mask) != 0 || Long.numberOfTrailingZeros(lineHits & mask) != pos) {
+				continue;
+			}
+			// Ring um das Schiff, Bit start - 1 fällt bei start = 0 heraus
+			long ring = (ringMask << start) >>> 1;
+			if ((neighbourHits & ring) != 0 || (lineHits & ring & ~mask) != 0) {
+				continue;
+			}
+			long weight = (long) count << (Long.bitCount(lineHits & mask) * HIT_WEIGHT_SHIFT);
+			long free = mask & ~shot[line];
+			while (free != 0) {
+				int index = line * lineStep + Long.numberOfTrailingZeros(free) * cellStep;
+				if (density[index] == 0) {
+					touchedCells[numberOfTouchedCells++] = index;
+				}
+				density[index] += weight;
+				free &= free - 1;
+			}
+		}
+	}
+
+	/**
+	 * Wählt unter den Schüssen, die ein Feld aus touchedCells treffen, den mit
+	 * der höchsten Dichte und setzt density danach wieder auf 0.
+	 */
+	private Target selectTargetAroundHits(EnemyView view, int shootingRange) {
+		selection.reset();
+		for (int t = 0; t < numberOfTouchedCells; t++) {
+			int x = touchedCells[t] % size;
+			int y = touchedCells[t] / size;
+			for (int i = 0; i < shootingRange; i++) {
+				if (x - i >= 0 && !view.isShot(x - i, y)) {
+					selection.offer(scoreHorizontal(density, x - i, y, shootingRange), x - i, y, Orientation.HORIZONTAL);
+				}
+				if (y - i >= 0 && !view.isShot(x, y - i)) {
+					selection.offer(scoreVertical(density, x, y - i, shootingRange), x, y - i, Orientation.VERTICAL);
+				}
+			}
+		}
+		for (int t = 0; t < numberOfTouchedCells; t++) {
+			density[touchedCells[t]] = 0;
+		}
+		numberOfTouchedCells = 0;
+		return selection.getTarget();
+	}
+
+	/**
+	 * Wählt unter allen Schüssen auf ein unbeschossenes Feld den, dessen
+	 * Schussfelder zusammen von den meisten Lagen der verbleibenden Schiffe
+	 * abgedeckt werden.
+	 */
+	private Target selectTarget(EnemyView view, int shootingRange) {
+		long[] cellDensity = view.getDensity();
+		selection.reset();
+		for (int y = 0; y < size; y++) {
+			long shotRow = view.shotRows[y];
+			for (int x = 0; x < size; x++) {
+				if ((shotRow >>> x & 1) == 0) {
+					selection.offer(scoreHorizontal(cellDensity, x, y, shootingRange), x, y, Orientation.HORIZONTAL);
+					selection.offer(scoreVertical(cellDensity, x, y, shootingRange), x, y, Orientation.VERTICAL);
+				}
+			}
+		}
+		return selection.getTarget();
+	}
+
+	private long scoreHorizontal(long[] cellDensity, int x, int y, int shootingRange) {
+		long score = 0;
+		int end = y * size + Math.min(x + shootingRange, size);
+		for (int index = y * size + x; index < end; index++) {
+			score += cellDensity[index];
+		}
+		return score;
+	}
+
+	private long scoreVertical(long[] cellDensity, int x, int y, int shootingRange) {
+		long score = 0;
+		int end = Math.min(y + shootingRange, size) * size;
+		for (int index = y * size + x; index < end; index += size) {
+			score += cellDensity[index];
+		}
+		return score;
+	}
+
+	/**
+	 * Merkt sich das beste Ziel. Gleich gute Ziele werden zufällig gewählt.
+	 * Auswahl und Ziel werden für jedes Ziel wiederverwendet.
+	 */
+	private final class Selection {
+		private final Target target = new Target(0, 0, Orientation.HORIZONTAL);
+		private long bestScore;
+		private int ties;
+		private int x;
+		private int y;
+		private Orientation orientation;
+
+		void reset() {
+			bestScore = -1;
+			ties = 0;
+			x = 0;
+			y = 0;
+			orientation = Orientation.HORIZONTAL;
+		}
+
+		void offer(long score, int x, int y, Orientation orientation) {
+			if (score < bestScore) {
+				return;
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				ties = 1;
+			} else if (random.nextInt(++ties) != 0) {
+				return;
+			}
+			this.x = x;
+			this.y = y;
+			this.orientation = orientation;
+		}
+
+		Target getTarget() {
+			target.set(x, y, orientation);
+			return target;
+		}
+	}
+
+	/**
+	 * Das Wissen über einen Gegner: der Zustand jedes Feldes, Bitmasken je
+	 * Zeile und Spalte, die Anzahl der noch nicht versenkten Schiffe je Länge
+	 * und für jede Länge, wie viele Lagen ohne gesperrtes Feld jedes Feld
+	 * abdecken.
+	 */
+	private static final class EnemyView {
+		private final int size;
+		private final int[] fleet;
+		private final byte[] cells;
+		private final long[] shotRows;
+		private final long[] shotColumns;
+		private final long[] blockedRows;
+		private final long[] blockedColumns;
+		private final long[] hitRows;
+		private final long[] hitColumns;
+		private final long[] sunkRows;
+		private final int[] remaining;
+		private final int[][] coverage;
+		private final long[] density;
+		private final int[] newlyDestroyed;
+		private final int[] shipCells;
+		private int hits;
+		private boolean upToDate;
+
+		EnemyView(int size, int[] fleet) {
+			this.size = size;
+			this.fleet = fleet;
+			this.cells = new byte[size * size];
+			this.shotRows = new long[size];
+			this.shotColumns = new long[size];
+			this.blockedRows = new long[size];
+			this.blockedColumns = new long[size];
+			this.hitRows = new long[size];
+			this.hitColumns = new long[size];
+			this.sunkRows = new long[size];
+			this.remaining = fleet.clone();
+			this.coverage = new int[fleet.length][];
+			for (int length = 1; length < fleet.length; length++) {
+				if (fleet[length] > 0 && length <= size) {
+					coverage[length] = new int[size * size];
+				}
+			}
+			this.density = new long[size * size];
+			this.newlyDestroyed = new int[size * size];
+			this.shipCells = new int[size * size];
+			countPlacements();
+		}
+
+		/**
+		 * Übernimmt alle Felder, deren Zustand sich seit dem letzten Aufruf
+		 * geändert hat. Passt ein Zustand nicht zum bisherigen Wissen (etwa
+		 * nach dem Laden eines Spiels), wird alles neu aufgebaut.
+		 */
+		void update(FieldState[][] fieldStates) {
+			if (!apply(fieldStates)) {
+				reset();
+				apply(fieldStates);
+			}
+			upToDate = true;
+		}
+
+		/**
+		 * Übernimmt die in einem Zug markierten Felder. Passt ein Feld nicht
+		 * zum bisherigen Wissen, wird das Wissen beim nächsten Ziel aus den
+		 * Feldzuständen neu aufgebaut.
+		 */
+		void observe(TurnResult turn) {
+			if (!upToDate) {
+				return;
+			}
+			int destroyedCells = 0;
+			for (int i = 0; i < turn.size(); i++) {
+				int x = turn.getX(i);
+				int y = turn.getY(i);
+				int result = set(x, y, toCell(turn.getState(i)));
+				if (result == INCONSISTENT) {
+					upToDate = false;
+					return;
+				}
+				if (result == CHANGED_TO_DESTROYED) {
+					newlyDestroyed[destroyedCells++] = y * size + x;
+				}
+			}
+			sinkAll(destroyedCells);
+		}
+
+		boolean isShot(int x, int y) {
+			return (shotRows[y] >>> x & 1) != 0;
+		}
+
+		/**
+		 * Liefert für jedes Feld die Anzahl der Lagen der verbleibenden
+		 * Schiffe, die es abdecken, beschossene Felder haben die Dichte 0.
+		 */
+		long[] getDensity() {
+			Arrays.fill(density, 0);
+			for (int length = 1; length < remaining.length; length++) {
+				int count = remaining[length];
+				int[] lengthCoverage = coverage[length];
+				if (count == 0 || lengthCoverage == null) {
+					continue;
+				}
+				for (int index = 0; index < density.length; index++) {
+					density[index] += (long) count * lengthCoverage[index];
+				}
+			}
+			for (int y = 0; y < size; y++) {
+				long row = shotRows[y];
+				while (row != 0) {
+					density[y * size + Long.numberOfTrailingZeros(row)] = 0;
+					row &= row - 1;
+				}
+			}
+			return density;
+		}
+
+		private boolean apply(FieldState[][] fieldStates) {
+			int destroyedCells = 0;
+			for (int y = 0; y < size; y++) {
+				FieldState[] row = fieldStates[y];
+				for (int x = 0; x < size; x++) {
+					int result = set(x, y, toCell(row[x]));
+					if (result == INCONSISTENT) {
+						return false;
+					}
+					if (result == CHANGED_TO_DESTROYED) {
+						newlyDestroyed[destroyedCells++] = y * size + x;
+					}
+				}
+			}
+			sinkAll(destroyedCells);
+			return true;
+		}
+
+		/**
+		 * Setzt den Zustand eines Feldes samt Bitmasken.
+		 *
+		 * @return UNCHANGED, CHANGED, CHANGED_TO_DESTROYED oder INCONSISTENT,
+		 *         wenn der Zustand nicht auf den bisherigen folgen kann
+		 */
+		private int set(int x, int y, byte state) {
+			int index = y * size + x;
+			byte old = cells[index];
+			if (state == old) {
+				return UNCHANGED;
+			}
+			if (old != UNKNOWN && !(old == HIT && state == DESTROYED)) {
+				return INCONSISTENT;
+			}
+			cells[index] = state;
+			shotRows[y] |= 1L << x;
+			shotColumns[x] |= 1L << y;
+			if (state == HIT) {
+				hitRows[y] |= 1L << x;
+				hitColumns[x] |= 1L << y;
+				hits++;
+				return CHANGED;
+			}
+			if (old == HIT) {
+				hitRows[y] &= ~(1L << x);
+				hitColumns[x] &= ~(1L << y);
+				hits--;
+			}
+			block(x, y);
+			return state == DESTROYED ? CHANGED_TO_DESTROYED : CHANGED;
+		}
+
+		/**
+		 * Sperrt ein Feld, in dem kein Schiff mehr liegen kann, und zieht alle
+		 * bisher möglichen Lagen durch dieses Feld von coverage ab.
+		 */
+		private void block(int x, int y) {
+			if ((blockedRows[y] >>> x & 1) != 0) {
+				return;
+			}
+			for (int length = 1; length < coverage.length; length++) {
+				if (coverage[length] != null) {
+					removePlacements(coverage[length], blockedRows[y], y, x, length, size, 1);
+					if (length > 1) {
+						removePlacements(coverage[length], blockedColumns[x], x, y, length, 1, size);
+					}
+				}
+			}
+			blockedRows[y] |= 1L << x;
+			blockedColumns[x] |= 1L << y;
+		}
+
+		private void removePlacements(int[] lengthCoverage, long lineBlocked, int line, int pos, int length, int lineStep, int cellStep) {
+			long shipMask = (1L << length) - 1;
+			for (int start = Math.max(0, pos - length + 1); start <= pos && start + length <= size; start++) {
+				if ((lineBlocked & (shipMask << start)) == 0) {
+					for (int i = start; i < start + length; i++) {
+						lengthCoverage[line * lineStep + i * cellStep]--;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Zählt für ein Board ohne gesperrte Felder, wie viele Lagen jedes
+		 * Feld abdecken.
+		 */
+		private void countPlacements() {
+			for (int length = 1; length < coverage.length; length++) {
+				int[] lengthCoverage = coverage[length];
+				if (lengthCoverage == null) {
+					continue;
+				}
+				for (int y = 0; y < size; y++) {
+					for (int x = 0; x < size; x++) {
+						int placements = Math.min(x, size - length) - Math.max(0, x - length + 1) + 1;
+						if (length > 1) {
+							placements += Math.min(y, size - length) - Math.max(0, y - length + 1) + 1;
+						}
+						lengthCoverage[y * size + x] = placements;
+					}
+				}
+			}
+		}
+
+		private void sinkAll(int destroyedCells) {
+			for (int i = 0; i < destroyedCells; i++) {
+				sink(newlyDestroyed[i]);
+			}
+		}
+
+		/**
+		 * Sperrt die Felder um ein versenktes Schiff und zieht es von den
+		 * verbleibenden Schiffen ab. Die Felder eines Schiffs hängen
+		 * zusammen, es wird ab dem übergebenen Feld gesucht. Jedes Schiff
+		 * wird nur einmal gezählt.
+		 */
+		private void sink(int start) {
+			if (isSunk(start)) {
+				return;
+			}
+			int length = 0;
+			int top = 0;
+			shipCells[top++] = start;
+			markSunk(start);
+			while (top > 0) {
+				int index = shipCells[--top];
+				length++;
+				int x = index % size;
+				int y = index / size;
+				for (int ny = Math.max(y - 1, 0); ny <= Math.min(y + 1, size - 1); ny++) {
+					for (int nx = Math.max(x - 1, 0); nx <= Math.min(x + 1, size - 1); nx++) {
+						block(nx, ny);
+						int neighbour = ny * size + nx;
+						if (cells[neighbour] == DESTROYED && !isSunk(neighbour)) {
+							markSunk(neighbour);
+							shipCells[top++] = neighbour;
+						}
+					}
+				}
+			}
+			if (length < remaining.length && remaining[length] > 0) {
+				remaining[length]--;
+			}
+		}
+
+		private boolean isSunk(int index) {
+			return (sunkRows[index / size] >>> (index % size) & 1) != 0;
+		}
+
+		private void markSunk(int index) {
+			sunkRows[index / size] |= 1L << (index % size);
+		}
+
+		private void reset() {
+			Arrays.fill(cells, UNKNOWN);
+			Arrays.fill(shotRows, 0);
+			Arrays.fill(shotColumns, 0);
+			Arrays.fill(blockedRows, 0);
+			Arrays.fill(blockedColumns, 0);
+			Arrays.fill(hitRows, 0);
+			Arrays.fill(hitColumns, 0);
+			Arrays.fill(sunkRows, 0);
+			System.arraycopy(fleet, 0, remaining, 0, remaining.length);
+			countPlacements();
+			hits = 0;
+		}
+
+		private static byte toCell(FieldState state) {
+			if (state == null) {
+				return UNKNOWN;
+			}
+			switch (state) {
+			case MISSED:
+				return MISSED;
+			case HIT:
+				return HIT;
+			case DESTROYED:
+				return DESTROYED;
+			default:
+				return UNKNOWN;
+			}
+		}
+	}
+}
@@ -0,0 +1,424 @@
+package de.hsbremen.battleshipextreme.model.player;
+
+import java.util.SplittableRandom;
+
+import de.hsbremen.battleshipextreme.model.Orientation;
+import de.hsbremen.battleshipextreme.model.ship.Ship;
+
+/**
+ * Erzeugt eine gültige Aufstellung einer Flotte, ohne Positionen auszuwürfeln
+ * und zu verwerfen. Für jede Zeile des Boards wird als long gemerkt, welche
+ * Felder belegt sind oder an ein Schiff grenzen. Daraus ergeben sich für ein
+ * Schiff mit wenigen Und- und Schiebeoperationen alle Felder, an denen es
+ * horizontal oder vertikal beginnen darf. Aus diesen wird gleichverteilt
+ * gezogen, danach werden die Felder des Schiffs und seine Nachbarfelder
+ * gesperrt.
+ *
+ * Die Schiffe werden vom längsten zum kürzesten gesetzt. Findet ein Schiff
+ * keinen Platz mehr, wird die Aufstellung einige Male neu gezogen. Gelingt das
+ * nicht, wird gesucht: Ein Schiff, das nirgends mehr passt, nimmt dem
+ * vorherigen Schiff die zuletzt gewählte Position. Gleich lange Schiffe sind
+ * austauschbar und beginnen dabei immer an aufsteigenden Positionen, so wird
+ * jede Aufstellung nur einmal versucht. Eine Suche, die sich in einem Teil
+ * der Aufstellungen festläuft, wird nach einer Anzahl gesetzter Schiffe mit
+ * anderen Zufallszahlen und doppelt so vielen Schritten neu begonnen.
+ *
+ * Passt die Flotte nachweislich nicht auf das Board, wird gar nicht erst
+ * gesucht: Jedes Schiff belegt zusammen mit den Feldern rechts und unter ihm
+ * ein eigenes Rechteck von 2 * (Länge + 1) Feldern in einem um eine Zeile und
+ * Spalte vergrößerten Board, da sich Schiffe nicht berühren dürfen. Alle
+ * Suchen zusammen setzen höchstens MAX_SEARCH_STEPS Schiffe, danach gilt die
+ * Flotte als zu groß für das Board.
+ */
+
+final class ShipPlacement {
+
+	/**
+	 * Anzahl der zufälligen Aufstellungen, bevor alle Aufstellungen durchsucht
+	 * werden
+	 */
+	private static final int RANDOM_ATTEMPTS = 16;
+
+	/**
+	 * Anzahl der zufälligen Positionen, die für ein Schiff geprüft werden,
+	 * bevor alle freien Anfangsfelder berechnet werden
+	 */
+	private static final int SAMPLES = 8;
+
+	/**
+	 * Anzahl der Schiffe, die bei der ersten Suche höchstens gesetzt werden.
+	 * Jede weitere Suche darf doppelt so viele setzen.
+	 */
+	private static final int FIRST_SEARCH_STEPS = 1000;
+
+	/**
+	 * Höchstzahl der Schiffe, die bei allen Suchen zusammen gesetzt werden
+	 */
+	private static final int MAX_SEARCH_STEPS = 1000000;
+
+	private final int size;
+	private final long rowMask;
+	private final int[] order;
+	private final int[] lengths;
+	private final long[] blocked;
+	private final long[] anchors;
+	private final int[] chosen;
+	private long[][] blockedBefore;
+	private long[][] anchorsPerLevel;
+	private final SplittableRandom random;
+
+	/**
+	 * @param size
+	 *            die Boardgröße, höchstens 64
+	 * @param ships
+	 *            die zu setzenden Schiffe
+	 * @param random
+	 *            der Zufallsgenerator, aus dem die Positionen gezogen werden
+	 */
+	ShipPlacement(int size, Ship[] ships, SplittableRandom random) {
+		if (size > Long.SIZE) {
+			throw new IllegalArgumentException("Board size " + size + " is too big");
+		}
+		this.size = size;
+		this.rowMask = size == Long.SIZE ? -1L : (1L << size) - 1;
+		this.random = random;
+		this.order = new int[ships.length];
+		this.lengths = new int[ships.length];
+		// nach Länge absteigend sortieren, gleich lange Schiffe behalten ihre
+		// Reihenfolge
+		int index = 0;
+		for (int length = maxLength(ships); length > 0; length--) {
+			for (int i = 0; i < ships.length; i++) {
+				if (ships[i].getSize() == length) {
+					order[index] = i;
+					lengths[index] = length;
+					index++;
+				}
+			}
+		}
+		this.blocked = new long[size];
+		this.anchors = new long[2 * size];
+		this.chosen = new int[ships.length];
+	}
+
+	private static int maxLength(Ship[] ships) {
+		int max = 0;
+		for (Ship ship : ships) {
+			max = Math.max(max, ship.getSize());
+		}
+		return max;
+	}
+
+	/**
+	 * Erzeugt eine Aufstellung der Flotte.
+	 *
+	 * @return für jedes Schiff (in der Reihenfolge des übergebenen Arrays) die
+	 *         Position und Ausrichtung, null wenn die Flotte nicht auf das Board
+	 *         passt
+	 */
+	Target[] createLayout() {
+		if (!fitsArea() || !findLayout()) {
+			return null;
+		}
+		return toTargets(chosen);
+	}
+
+	/**
+	 * Erzeugt mehrere Aufstellungen und liefert die, deren Felder auf einem
+	 * leeren Board von den wenigsten Lagen der Flotte abgedeckt werden. Eine
+	 * KI, die wie ProbabilityTargeting nach Lagen sucht, beschießt solche
+	 * Felder, etwa am Rand, erst spät. Nach der ersten Aufstellung wird nicht
+	 * mehr gesucht, eine Aufstellung, die zufällig nicht aufgeht, zählt als
+	 * Versuch.
+	 *
+	 * @param candidates
+	 *            die Anzahl der gezogenen Aufstellungen, mindestens 1
+	 * @return wie createLayout()
+	 */
+	Target[] createHiddenLayout(int candidates) {
+		if (!fitsArea() || !findLayout()) {
+			return null;
+		}
+		int[] best = chosen.clone();
+		long bestCoverage = coverage(best);
+		for (int candidate = 1; candidate < candidates; candidate++) {
+			if (!placeRandomly()) {
+				continue;
+			}
+			long coverage = coverage(chosen);
+			if (coverage < bestCoverage) {
+				bestCoverage = coverage;
+				System.arraycopy(chosen, 0, best, 0, best.length);
+			}
+		}
+		return toTargets(best);
+	}
+
+	/**
+	 * Zieht Aufstellungen und durchsucht danach alle Aufstellungen, bis eine
+	 * gefunden ist. Die Positionen stehen danach in chosen.
+	 *
+	 * @return false, wenn keine Aufstellung gefunden wurde
+	 */
+	private boolean findLayout() {
+		boolean found = false;
+		for (int attempt = 0; attempt < RANDOM_ATTEMPTS && !found; attempt++) {
+			found = placeRandomly();
+		}
+		int steps = FIRST_SEARCH_STEPS;
+		for (int total = 0; total < MAX_SEARCH_STEPS && !found; total += steps, steps *= 2) {
+			found = search(Math.min(steps, MAX_SEARCH_STEPS - total));
+		}
+		return found;
+	}
+
+	private Target[] toTargets(int[] anchors) {
+		Target[] targets = new Target[order.length];
+		for (int level = 0; level < order.length; level++) {
+			targets[order[level]] = toTarget(anchors[level]);
+		}
+		return targets;
+	}
+
+	/**
+	 * Zählt für alle Felder einer Aufstellung, wie viele Lagen der Schiffe
+	 * der Flotte sie auf einem leeren Board abdecken.
+	 */
+	private long coverage(int[] anchors) {
+		long coverage = 0;
+		for (int level = 0; level < order.length; level++) {
+			int row = anchors[level] / size;
+			boolean vertical = row >= size;
+			int x = anchors[level] % size;
+			int y = vertical ? row - size : row;
+			for (int i = 0; i < lengths[level]; i++) {
+				for (int length : lengths) {
+					coverage += countPlacements(x, length) + countPlacements(y, length);
+				}
+				if (vertical) {
+					y++;
+				} else {
+					x++;
+				}
+			}
+		}
+		return coverage;
+	}
+
+	/**
+	 * Die Anzahl der Lagen eines Schiffs in einer Zeile oder Spalte, die die
+	 * Position abdecken.
+	 */
+	private int countPlacements(int position, int length) {
+		return Math.max(0, Math.min(position, size - length) - Math.max(0, position - length + 1) + 1);
+	}
+
+	/**
+	 * Prüft die notwendige Bedingung, dass die Rechtecke aus Schiff und den
+	 * Feldern rechts und unter ihm in das vergrößerte Board passen.
+	 */
+	private boolean fitsArea() {
+		int area = 0;
+		for (int length : lengths) {
+			area += 2 * (length + 1);
+		}
+		return area <= (size + 1) * (size + 1);
+	}
+
+	/**
+	 * Setzt alle Schiffe nacheinander an zufällige freie Positionen, ohne bei
+	 * einer Sackgasse zurückzugehen.
+	 *
+	 * @return true, wenn alle Schiffe gesetzt wurden
+	 */
+	private boolean placeRandomly() {
+		clear();
+		for (int level = 0; level < order.length; level++) {
+			int anchor = sampleAnchor(lengths[level]);
+			if (anchor < 0) {
+				int count = findAnchors(anchors, lengths[level], -1);
+				if (count == 0) {
+					return false;
+				}
+				anchor = selectAnchor(anchors, random.nextInt(count));
+			}
+			chosen[level] = anchor;
+			block(anchor, lengths[level]);
+		}
+		return true;
+	}
+
+	/**
+	 * Zieht einige Positionen auf dem Board und liefert die erste freie. Auf
+	 * einem leeren Board ist das schneller, als alle Anfangsfelder zu
+	 * berechnen, und ebenfalls gleichverteilt.
+	 *
+	 * @return die Position, -1 wenn keine der gezogenen Positionen frei war
+	 */
+	private int sampleAnchor(int length) {
+		long shipMask = (1L << length) - 1;
+		for (int i = 0; i < SAMPLES; i++) {
+			int x = random.nextInt(size - length + 1);
+			int y = random.nextInt(size);
+			if (random.nextBoolean()) {
+				if ((blocked[y] >>> x & shipMask) == 0) {
+					return y * size + x;
+				}
+			} else {
+				// vertikal sind x und y vertauscht
+				boolean free = true;
+				for (int r = x; r < x + length && free; r++) {
+					free = (blocked[r] >>> y & 1) == 0;
+				}
+				if (free) {
+					return (size + x) * size + y;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Durchsucht die Aufstellungen in zufälliger Reihenfolge (Tiefensuche).
+	 *
+	 * @param maxSteps
+	 *            die Anzahl der Schiffe, die höchstens gesetzt werden
+	 * @return true, wenn eine Aufstellung gefunden wurde
+	 */
+	private boolean search(int maxSteps) {
+		if (order.length == 0) {
+			return true;
+		}
+		if (anchorsPerLevel == null) {
+			anchorsPerLevel = new long[order.length][2 * size];
+			blockedBefore = new long[order.length][size];
+		}
+		clear();
+		int level = 0;
+		int[] counts = new int[order.length];
+		counts[0] = findAnchors(anchorsPerLevel[0], lengths[0], -1);
+		for (int step = 0; step < maxSteps && level >= 0; step++) {
+			if (counts[level] == 0) {
+				// keine Position mehr frei, das vorherige Schiff umsetzen
+				level--;
+				if (level >= 0) {
+					System.arraycopy(blockedBefore[level], 0, blocked, 0, size);
+				}
+				continue;
+			}
+			int anchor = selectAnchor(anchorsPerLevel[level], random.nextInt(counts[level]));
+			removeAnchor(anchorsPerLevel[level], anchor);
+			counts[level]--;
+			chosen[level] = anchor;
+			System.arraycopy(blocked, 0, blockedBefore[level], 0, size);
+			block(anchor, lengths[level]);
+			if (level == order.length - 1) {
+				return true;
+			}
+			level++;
+			boolean sameLength = lengths[level] == lengths[level - 1];
+			counts[level] = findAnchors(anchorsPerLevel[level], lengths[level], sameLength ? chosen[level - 1] : -1);
+		}
+		return false;
+	}
+
+	private void clear() {
+		for (int y = 0; y < size; y++) {
+			blocked[y] = 0;
+		}
+	}
+
+	/**
+	 * Berechnet die freien Anfangsfelder für ein Schiff. masks[y] enthält die
+	 * horizontalen, masks[size + y] die vertikalen Anfangsfelder der Zeile y.
+	 *
+	 * @param masks
+	 *            wird mit den Anfangsfeldern gefüllt
+	 * @param length
+	 *            die Länge des Schiffs
+	 * @param after
+	 *            nur Anfangsfelder nach dieser Position zulassen, -1 für alle
+	 * @return die Anzahl der Anfangsfelder
+	 */
+	private int findAnchors(long[] masks, int length, int after) {
+		int count = 0;
+		for (int y = 0; y < size; y++) {
+			long free = ~blocked[y] & rowMask;
+			long horizontal = free;
+			for (int i = 1; i < length; i++) {
+				horizontal &= free >>> i;
+			}
+			long vertical = 0;
+			if (length > 1 && y + length <= size) {
+				vertical = free;
+				for (int i = 1; i < length; i++) {
+					vertical &= ~blocked[y + i];
+				}
+			}
+			masks[y] = horizontal;
+			masks[size + y] = vertical;
+		}
+		if (after >= 0) {
+			// alle Positionen bis einschließlich after streichen
+			int row = after / size;
+			int x = after % size;
+			for (int r = 0; r < row; r++) {
+				masks[r] = 0;
+			}
+			masks[row] &= x == Long.SIZE - 1 ? 0 : -1L << (x + 1);
+		}
+		for (int r = 0; r < 2 * size; r++) {
+			count += Long.bitCount(masks[r]);
+		}
+		return count;
+	}
+
+	/**
+	 * Liefert das n-te freie Anfangsfeld als Position
+	 * (Zeile * size + x, vertikale Zeilen liegen hinter den horizontalen).
+	 */
+	private int selectAnchor(long[] masks, int n) {
+		for (int r = 0; r < 2 * size; r++) {
+			int bits = Long.bitCount(masks[r]);
+			if (n < bits) {
+				long mask = masks[r];
+				for (int i = 0; i < n; i++) {
+					mask &= mask - 1;
+				}
+				return r * size + Long.numberOfTrailingZeros(mask);
+			}
+			n -= bits;
+		}
+		throw new IllegalStateException("No anchor " + n);
+	}
+
+	private void removeAnchor(long[] masks, int anchor) {
+		masks[anchor / size] &= ~(1L << (anchor % size));
+	}
+
+	/**
+	 * Sperrt die Felder des Schiffs und alle angrenzenden Felder.
+	 */
+	private void block(int anchor, int length) {
+		int row = anchor / size;
+		int x = anchor % size;
+		boolean vertical = row >= size;
+		int y = vertical ? row - size : row;
+		int width = vertical ? 1 : length;
+		int height = vertical ? length : 1;
+		long cells = x == 0 ? (1L << (width + 1)) - 1 : ((1L << (width + 2)) - 1) << (x - 1);
+		cells &= rowMask;
+		for (int r = Math.max(0, y - 1); r <= Math.min(size - 1, y + height); r++) {
+			blocked[r] |= cells;
+		}
+	}
+
+	private Target toTarget(int anchor) {
+		int row = anchor / size;
+		int x = anchor % size;
+		if (row >= size) {
+			return new Target(x, row - size, Orientation.VERTICAL);
+		}
+		return new Target(x, row, Orientation.HORIZONTAL);
+	}
+}
@@ -0,0 +1,344 @@
+package de.hsbremen.battleshipextreme.model.player;
+
+import java.util.SplittableRandom;
+
+import de.hsbremen.battleshipextreme.model.Board;
+import de.hsbremen.battleshipextreme.model.FieldState;
+import de.hsbremen.battleshipextreme.model.Orientation;
+import de.hsbremen.battleshipextreme.model.TurnResult;
+
+/**
+ * Zielauswahl der SMART_AI und HARD_AI auf Boards, deren Zeilen nicht in ein
+ * long passen und für die ProbabilityTargeting daher nicht geht. Auf so
+ * großen Boards ist fast jedes Feld leer, eine Dichte über alle Felder wäre
+ * teuer und brächte kaum etwas.
+ *
+ * Gemerkt werden je Gegner nur die getroffenen, noch nicht versenkten Felder.
+ * Gibt es solche Felder, wird neben ihnen weitergeschossen, liegen zwei davon
+ * nebeneinander, in ihrer Richtung. Sonst wird auf ein zufälliges, noch nicht
+ * beschossenes Feld geschossen. Ob ein Feld beschossen wurde, wird beim Board
+ * des Gegners nachgesehen. Der Speicher wächst so mit den Treffern, nicht mit
+ * der Größe des Boards. Das gelieferte Ziel wird für jedes Ziel
+ * wiederverwendet.
+ */
+
+final class SparseTargeting {
+
+	/**
+	 * Anzahl der zufälligen Felder, die geprüft werden, bevor das nächste
+	 * freie Feld gesucht wird
+	 */
+	private static final int RANDOM_ATTEMPTS = 64;
+
+	/**
+	 * Richtungen: rechts, unten, links, oben
+	 */
+	private static final int[] X_DIRECTIONS = { 1, 0, -1, 0 };
+	private static final int[] Y_DIRECTIONS = { 0, 1, 0, -1 };
+
+	private final int size;
+	private final SplittableRandom random;
+	private final Target target;
+	private EnemyView[] views;
+	private boolean tracking;
+	// beschossene Felder des Gegners, für den gerade ein Ziel gesucht wird
+	private Board board;
+	private FieldState[][] fieldStates;
+
+	/**
+	 * @param size
+	 *            die Boardgröße
+	 * @param random
+	 *            der Zufallsgenerator der KI
+	 */
+	SparseTargeting(int size, SplittableRandom random) {
+		this.size = size;
+		this.random = random;
+		this.target = new Target(0, 0, Orientation.HORIZONTAL);
+		this.views = new EnemyView[0];
+	}
+
+	/**
+	 * Liefert das Ziel für einen Gegner. Das Wissen über den Gegner wird
+	 * vorher aus allen übergebenen Feldzuständen neu aufgebaut.
+	 *
+	 * @param enemyIndex
+	 *            der Index des Gegners
+	 * @param fieldStates
+	 *            die bekannten Feldzustände des Gegners
+	 * @param shootingRange
+	 *            die Schussweite des ausgewählten Schiffs
+	 * @return das Ziel
+	 */
+	Target getTarget(int enemyIndex, FieldState[][] fieldStates, int shootingRange) {
+		EnemyView view = getView(enemyIndex);
+		view.update(fieldStates);
+		this.board = null;
+		this.fieldStates = fieldStates;
+		return getTarget(view, shootingRange);
+	}
+
+	/**
+	 * Liefert das Ziel für einen Gegner. Die beschossenen Felder des Gegners
+	 * werden nur gelesen, wenn noch kein Wissen über ihn vorliegt.
+	 *
+	 * @param enemyIndex
+	 *            der Index des Gegners
+	 * @param enemy
+	 *            der Gegner
+	 * @param shootingRange
+	 *            die Schussweite des ausgewählten Schiffs
+	 * @return das Ziel
+	 */
+	Target getTarget(int enemyIndex, Player enemy, int shootingRange) {
+		EnemyView view = getView(enemyIndex);
+		if (!view.upToDate) {
+			view.update(enemy.getBoard());
+		}
+		this.board = enemy.getBoard();
+		this.fieldStates = null;
+		return getTarget(view, shootingRange);
+	}
+
+	/**
+	 * Ergänzt das Wissen über einen Gegner um die in einem Zug markierten
+	 * Felder. Gegner, über die noch nichts bekannt ist, werden übergangen.
+	 *
+	 * @param result
+	 *            das Ergebnis des Zugs mit dem Index des beschossenen Gegners
+	 */
+	void observe(TurnResult result) {
+		int enemyIndex = result.getEnemyIndex();
+		if (enemyIndex >= 0 && enemyIndex < views.length && views[enemyIndex] != null) {
+			views[enemyIndex].observe(result);
+		}
+	}
+
+	/**
+	 * Liefert die Anzahl der getroffenen, nicht versenkten Felder eines
+	 * Gegners, 0 wenn über ihn noch nichts bekannt ist.
+	 */
+	int getOpenHits(int enemyIndex) {
+		return enemyIndex < views.length && views[enemyIndex] != null ? views[enemyIndex].count : 0;
+	}
+
+	/**
+	 * Gibt an, ob beim letzten Ziel getroffene, aber noch nicht versenkte
+	 * Felder verfolgt wurden.
+	 */
+	boolean isTracking() {
+		return tracking;
+	}
+
+	private EnemyView getView(int enemyIndex) {
+		if (enemyIndex >= views.length) {
+			EnemyView[] grown = new EnemyView[enemyIndex + 1];
+			System.arraycopy(views, 0, grown, 0, views.length);
+			views = grown;
+		}
+		if (views[enemyIndex] == null) {
+			views[enemyIndex] = new EnemyView(size);
+		}
+		return views[enemyIndex];
+	}
+
+	private Target getTarget(EnemyView view, int shootingRange) {
+		tracking = view.count > 0;
+		for (int i = 0; i < view.count; i++) {
+			if (selectTargetNextToHit(view, view.openHits[i], shootingRange)) {
+				return target;
+			}
+		}
+		return selectRandomTarget();
+	}
+
+	/**
+	 * Sucht ein freies Feld neben einem Treffer. Liegt ein weiterer Treffer
+	 * daneben, wird die Linie der Treffer an einem Ende verlängert.
+	 *
+	 * @return true, wenn ein Ziel gesetzt wurde
+	 */
+	private boolean selectTargetNextToHit(EnemyView view, int index, int shootingRange) {
+		int x = index % size;
+		int y = index / size;
+		for (int direction = 0; direction < 2; direction++) {
+			int dx = X_DIRECTIONS[direction];
+			int dy = Y_DIRECTIONS[direction];
+			if (view.contains(x + dx, y + dy) || view.contains(x - dx, y - dy)) {
+				return extendLine(view, x, y, direction, shootingRange) || extendLine(view, x, y, direction + 2, shootingRange);
+			}
+		}
+		int first = random.nextInt(X_DIRECTIONS.length);
+		for (int i = 0; i < X_DIRECTIONS.length; i++) {
+			int direction = (first + i) % X_DIRECTIONS.length;
+			if (isFree(x + X_DIRECTIONS[direction], y + Y_DIRECTIONS[direction])) {
+				aim(x + X_DIRECTIONS[direction], y + Y_DIRECTIONS[direction], direction, shootingRange);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Zielt auf das erste Feld hinter den Treffern, die von x/y aus in der
+	 * übergebenen Richtung aufeinander folgen, wenn es frei ist
+	 */
+	private boolean extendLine(EnemyView view, int x, int y, int direction, int shootingRange) {
+		int dx = X_DIRECTIONS[direction];
+		int dy = Y_DIRECTIONS[direction];
+		while (view.contains(x + dx, y + dy)) {
+			x += dx;
+			y += dy;
+		}
+		if (!isFree(x + dx, y + dy)) {
+			return false;
+		}
+		aim(x + dx, y + dy, direction, shootingRange);
+		return true;
+	}
+
+	/**
+	 * Setzt das Ziel so, dass der Schuss das freie Feld x/y und die Felder
+	 * dahinter in der übergebenen Richtung trifft. Nach links und oben beginnt
+	 * der Schuss daher vor dem Feld, aber nie auf einem beschossenen Feld.
+	 */
+	private void aim(int x, int y, int direction, int shootingRange) {
+		Orientation orientation = X_DIRECTIONS[direction] != 0 ? Orientation.HORIZONTAL : Orientation.VERTICAL;
+		if (direction >= 2) {
+			int dx = X_DIRECTIONS[direction];
+			int dy = Y_DIRECTIONS[direction];
+			for (int i = 1; i < shootingRange && isFree(x + dx, y + dy); i++) {
+				x += dx;
+				y += dy;
+			}
+		}
+		target.set(x, y, orientation);
+	}
+
+	/**
+	 * Wählt ein zufälliges freies Feld. Ist nach einigen Versuchen keines
+	 * gefunden, wird ab einem zufälligen Feld das nächste freie gesucht.
+	 */
+	private Target selectRandomTarget() {
+		Orientation orientation = random.nextInt(2) == 0 ? Orientation.HORIZONTAL : Orientation.VERTICAL;
+		for (int i = 0; i < RANDOM_ATTEMPTS; i++) {
+			int x = random.nextInt(size);
+			int y = random.nextInt(size);
+			if (!isShot(x, y)) {
+				target.set(x, y, orientation);
+				return target;
+			}
+		}
+		int cells = size * size;
+		int start = random.nextInt(cells);
+		for (int i = 0; i < cells; i++) {
+			int index = (start + i) % cells;
+			if (!isShot(index % size, index / size)) {
+				target.set(index % size, index / size, orientation);
+				return target;
+			}
+		}
+		// alle Felder beschossen, der Gegner hat dann verloren
+		target.set(0, 0, orientation);
+		return target;
+	}
+
+	private boolean isFree(int x, int y) {
+		return x >= 0 && y >= 0 && x < size && y < size && !isShot(x, y);
+	}
+
+	private boolean isShot(int x, int y) {
+		return fieldStates != null ? fieldStates[y][x] != null : board.isHit(x, y);
+	}
+
+	/**
+	 * Das Wissen über einen Gegner: die getroffenen, nicht versenkten Felder
+	 * als Indizes y * size + x.
+	 */
+	private static final class EnemyView {
+		private final int size;
+		private int[] openHits;
+		private int count;
+		private boolean upToDate;
+
+		EnemyView(int size) {
+			this.size = size;
+			this.openHits = new int[8];
+		}
+
+		/**
+		 * Baut das Wissen aus den beschossenen Feldern des Boards auf
+		 */
+		void update(Board board) {
+			count = 0;
+			for (int index : board.getHitIndices()) {
+				if (board.getState(index % size, index / size) == FieldState.HIT) {
+					add(index);
+				}
+			}
+			upToDate = true;
+		}
+
+		/**
+		 * Baut das Wissen aus den Feldzuständen auf
+		 */
+		void update(FieldState[][] fieldStates) {
+			count = 0;
+			for (int y = 0; y < size; y++) {
+				for (int x = 0; x < size; x++) {
+					if (fieldStates[y][x] == FieldState.HIT) {
+						add(y * size + x);
+					}
+				}
+			}
+			upToDate = true;
+		}
+
+		void observe(TurnResult turn) {
+			for (int i = 0; i < turn.size(); i++) {
+				int index = turn.getY(i) * size + turn.getX(i);
+				if (turn.getState(i) == FieldState.HIT) {
+					add(index);
+				} else if (turn.getState(i) == FieldState.DESTROYED) {
+					remove(index);
+				}
+			}
+		}
+
+		boolean contains(int x, int y) {
+			if (x < 0 || y < 0 || x >= size || y >= size) {
+				return false;
+			}
+			return indexOf(y * size + x) >= 0;
+		}
+
+		private int indexOf(int index) {
+			for (int i = 0; i < count; i++) {
+				if (openHits[i] == index) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private void add(int index) {
+			if (indexOf(index) >= 0) {
+				return;
+			}
+			if (count == openHits.length) {
+				int[] grown = new int[count * 2];
+				System.arraycopy(openHits, 0, grown, 0, count);
+				openHits = grown;
+			}
+			openHits[count++] = index;
+		}
+
+		private void remove(int index) {
+			int i = indexOf(index);
+			if (i >= 0) {
+				System.arraycopy(openHits, i + 1, openHits, i, count - i - 1);
+				count--;
+			}
+		}
+	}
+}
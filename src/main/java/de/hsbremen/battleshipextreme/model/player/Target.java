@@ -18,6 +18,16 @@ public class Target {
 		this.orientation = orientation;
 	}
 
+	/**
+	 * Überschreibt das Ziel, damit die KI nicht für jeden Schuss ein neues
+	 * Ziel erzeugen muss.
+	 */
+	void set(int x, int y, Orientation orientation) {
+		this.x = x;
+		this.y = y;
+		this.orientation = orientation;
+	}
+
 	public int getX() {
 		return x;
 	}
@@ -0,0 +1,123 @@
+package de.hsbremen.battleshipextreme.model.ship;
+
+/**
+ * Zählt für eine Flotte je Schifftyp die nicht zerstörten, davon die
+ * nachladenden und die gesetzten Schiffe. Die Schiffe melden jede Änderung
+ * selbst (Treffer, Schuss, Nachladen, Setzen), Abfragen wie "hat der Spieler
+ * verloren" oder "laden alle Schiffe nach" brauchen daher keine Schleife über
+ * die Schiffe.
+ */
+public final class FleetCounters {
+    private final int[] ships;
+    private final int[] alive;
+    private final int[] reloading;
+    private final int[] placed;
+    private int aliveTotal;
+    private int reloadingTotal;
+
+    /**
+     * Zählt die übergebenen Schiffe und meldet sie bei diesen Zählern an. Ein
+     * Schiff kann nur bei einer Flotte angemeldet sein.
+     */
+    public FleetCounters(Ship[] fleet) {
+        int types = ShipType.values().length;
+        this.ships = new int[types];
+        this.alive = new int[types];
+        this.reloading = new int[types];
+        this.placed = new int[types];
+        for (Ship ship : fleet) {
+            ships[ship.getType().ordinal()]++;
+            add(ship.getType(), !ship.isDestroyed(), ship.isReloading(), ship.isPlaced(), 1);
+            ship.setFleetCounters(this);
+        }
+    }
+
+    /**
+     * Übernimmt die Änderung eines Schiffs
+     */
+    void update(ShipType type, boolean wasAlive, boolean wasReloading, boolean wasPlaced, boolean isAlive, boolean isReloading, boolean isPlaced) {
+        add(type, wasAlive, wasReloading, wasPlaced, -1);
+        add(type, isAlive, isReloading, isPlaced, 1);
+    }
+
+    private void add(ShipType type, boolean isAlive, boolean isReloading, boolean isPlaced, int delta) {
+        if (!isAlive) {
+            return;
+        }
+        int index = type.ordinal();
+        alive[index] += delta;
+        aliveTotal += delta;
+        if (isReloading) {
+            reloading[index] += delta;
+            reloadingTotal += delta;
+        }
+        if (isPlaced) {
+            placed[index] += delta;
+        }
+    }
+
+    /**
+     * Liefert die Anzahl der nicht zerstörten Schiffe
+     */
+    public int getAliveShips() {
+        return aliveTotal;
+    }
+
+    /**
+     * Liefert die Anzahl der nicht zerstörten Schiffe, die gerade nachladen
+     */
+    public int getReloadingShips() {
+        return reloadingTotal;
+    }
+
+    /**
+     * Liefert die Anzahl der nicht zerstörten Schiffe, die schießen können
+     */
+    public int getAvailableShips() {
+        return aliveTotal - reloadingTotal;
+    }
+
+    /**
+     * Liefert die Anzahl der Schiffe eines Typs
+     */
+    public int getShips(ShipType type) {
+        return ships[type.ordinal()];
+    }
+
+    /**
+     * Liefert die Anzahl der nicht zerstörten Schiffe eines Typs
+     */
+    public int getAliveShips(ShipType type) {
+        return alive[type.ordinal()];
+    }
+
+    /**
+     * Liefert die Anzahl der zerstörten Schiffe eines Typs
+     */
+    public int getDestroyedShips(ShipType type) {
+        return ships[type.ordinal()] - alive[type.ordinal()];
+    }
+
+    /**
+     * Liefert die Anzahl der nicht zerstörten Schiffe eines Typs, die gerade
+     * nachladen
+     */
+    public int getReloadingShips(ShipType type) {
+        return reloading[type.ordinal()];
+    }
+
+    /**
+     * Liefert die Anzahl der nicht zerstörten Schiffe eines Typs, die
+     * schießen können
+     */
+    public int getAvailableShips(ShipType type) {
+        return alive[type.ordinal()] - reloading[type.ordinal()];
+    }
+
+    /**
+     * Liefert die Anzahl der gesetzten, nicht zerstörten Schiffe eines Typs
+     */
+    public int getPlacedShips(ShipType type) {
+        return placed[type.ordinal()];
+    }
+}
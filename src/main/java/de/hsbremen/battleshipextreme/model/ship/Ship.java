@@ -1,11 +1,18 @@
 package de.hsbremen.battleshipextreme.model.ship;
 
+import de.hsbremen.battleshipextreme.model.Orientation;
 import de.hsbremen.battleshipextreme.model.Settings;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 /**
  * Die abstrakte Klasse Ship dient als Grundlage für spezielle Schiffklassen.
+ * Ein gesetztes Schiff kennt sein Startfeld und seine Ausrichtung, seine
+ * Felder lassen sich also ohne Suche auf dem Board bestimmen. Jede Änderung
+ * an Größe, Nachladezeit oder Setzen wird den FleetCounters der Flotte
+ * gemeldet, zu der das Schiff gehört.
  */
 
 public abstract class Ship implements Serializable {
@@ -16,12 +23,18 @@ public abstract class Ship implements Serializable {
     protected int currentReloadTime;
     protected ShipType type;
     protected boolean isPlaced;
+    protected int xPos = -1;
+    protected int yPos = -1;
+    protected Orientation orientation;
+    private transient FleetCounters fleetCounters;
 
     /**
      * Setzt die Nachladezeit auf den Maximalwert.
      */
     public void shoot() {
+        boolean wasReloading = isReloading();
         currentReloadTime = maxReloadTime + 1;
+        changed(!isDestroyed(), wasReloading, isPlaced);
     }
 
     /**
@@ -30,6 +43,9 @@ public abstract class Ship implements Serializable {
     public void decreaseCurrentReloadTime() {
         if (currentReloadTime > 0) {
             currentReloadTime--;
+            if (currentReloadTime == 0) {
+                changed(!isDestroyed(), true, isPlaced);
+            }
         }
     }
 
@@ -42,7 +58,43 @@ public abstract class Ship implements Serializable {
     }
 
     public void place() {
+        boolean wasPlaced = isPlaced;
         this.isPlaced = true;
+        changed(!isDestroyed(), isReloading(), wasPlaced);
+    }
+
+    /**
+     * Setzt das Schiff und merkt sich seine Lage auf dem Board.
+     * @param xPos X-Koordinate des Startfelds
+     * @param yPos Y-Koordinate des Startfelds
+     * @param orientation Ausrichtung
+     */
+    public void place(int xPos, int yPos, Orientation orientation) {
+        place();
+        this.xPos = xPos;
+        this.yPos = yPos;
+        this.orientation = orientation;
+    }
+
+    /**
+     * Gibt an, ob die Lage des Schiffs bekannt ist. Schiffe, die nur über
+     * setPlaced als gesetzt markiert wurden, und Schiffe aus alten
+     * Spielständen kennen sie nicht.
+     */
+    public boolean hasPosition() {
+        return isPlaced && xPos >= 0 && orientation != null;
+    }
+
+    public int getXPos() {
+        return xPos;
+    }
+
+    public int getYPos() {
+        return yPos;
+    }
+
+    public Orientation getOrientation() {
+        return orientation;
     }
 
     public boolean isPlaced() {
@@ -50,7 +102,14 @@ public abstract class Ship implements Serializable {
     }
 
     public void setPlaced(boolean isPlaced) {
+        boolean wasPlaced = this.isPlaced;
         this.isPlaced = isPlaced;
+        changed(!isDestroyed(), isReloading(), wasPlaced);
+        if (!isPlaced) {
+            this.xPos = -1;
+            this.yPos = -1;
+            this.orientation = null;
+        }
     }
 
     public boolean isDestroyed() {
@@ -60,6 +119,9 @@ public abstract class Ship implements Serializable {
     public void decreaseSize() {
         if (size > 0) {
             size--;
+            if (size == 0) {
+                changed(true, isReloading(), isPlaced);
+            }
         }
     }
 
@@ -67,6 +129,27 @@ public abstract class Ship implements Serializable {
         return size;
     }
 
+    /**
+     * Liefert die Anzahl der Felder, die das Schiff belegt. Anders als getSize
+     * nimmt sie bei Treffern nicht ab.
+     */
+    public int getLength() {
+        return getLength(type);
+    }
+
+    private static int getLength(ShipType type) {
+        switch (type) {
+            case DESTROYER:
+                return Settings.DESTROYER_SIZE;
+            case FRIGATE:
+                return Settings.FRIGATE_SIZE;
+            case CORVETTE:
+                return Settings.CORVETTE_SIZE;
+            default:
+                return Settings.SUBMARINE_SIZE;
+        }
+    }
+
     public int getShootingRange() {
         return shootingRange;
     }
@@ -79,6 +162,16 @@ public abstract class Ship implements Serializable {
         return currentReloadTime;
     }
 
+    /**
+     * Setzt die verbleibende Nachladezeit, z.B. beim Wiederherstellen eines
+     * gespeicherten Spielstands.
+     */
+    public void setCurrentReloadTime(int currentReloadTime) {
+        boolean wasReloading = isReloading();
+        this.currentReloadTime = currentReloadTime;
+        changed(!isDestroyed(), wasReloading, isPlaced);
+    }
+
     public ShipType getType() {
         return type;
     }
@@ -91,22 +184,41 @@ public abstract class Ship implements Serializable {
      * Resetet die Eigenschaften auf Anfang
      */
     public void reset() {
-        this.isPlaced = false;
+        setPlaced(false);
+        boolean wasAlive = !isDestroyed();
+        boolean wasReloading = isReloading();
         this.currentReloadTime = 0;
+        this.size = getLength(type);
+        changed(wasAlive, wasReloading, false);
+    }
 
-        switch (type) {
-            case DESTROYER:
-                this.size = Settings.DESTROYER_SIZE;
-                break;
-            case FRIGATE:
-                this.size = Settings.FRIGATE_SIZE;
-                break;
-            case CORVETTE:
-                this.size = Settings.CORVETTE_SIZE;
-                break;
-            case SUBMARINE:
-                this.size = Settings.SUBMARINE_SIZE;
-                break;
+    /**
+     * Schiffe aus Spielständen, die vor der Lage gespeichert wurden, bekommen
+     * für xPos und yPos 0 statt -1, weil die Initialisierung der Felder beim
+     * Deserialisieren nicht ausgeführt wird
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (orientation == null) {
+            xPos = -1;
+            yPos = -1;
+        }
+    }
+
+    /**
+     * Meldet das Schiff bei den Zählern seiner Flotte an
+     */
+    void setFleetCounters(FleetCounters fleetCounters) {
+        this.fleetCounters = fleetCounters;
+    }
+
+    /**
+     * Meldet den Zustand vor einer Änderung und den aktuellen Zustand an die
+     * Zähler der Flotte
+     */
+    private void changed(boolean wasAlive, boolean wasReloading, boolean wasPlaced) {
+        if (fleetCounters != null) {
+            fleetCounters.update(type, wasAlive, wasReloading, wasPlaced, !isDestroyed(), isReloading(), isPlaced);
         }
     }
 }
@@ -1,6 +1,7 @@
 package de.hsbremen.battleshipextreme.network;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 
@@ -9,6 +10,7 @@ import java.util.LinkedList;
  * Queue, welche für das Verwalten der nächsten Spielzügen zuständig ist
  */
 public class ClientGameIndexQueue<T> implements Iterator<T>, Serializable {
+    private static final long serialVersionUID = -2420993618690867888L; // berechneter Wert vor dem ersten Ändern der Klasse, damit alte Clients sie weiter lesen können
     private LinkedList<T> elements;
 
     public ClientGameIndexQueue() {
@@ -72,6 +74,17 @@ public class ClientGameIndexQueue<T> implements Iterator<T>, Serializable {
         return elements.removeFirst();
     }
 
+    /**
+     * Entfernt das nächste Element und stellt es hinten an. Anders als next und add wird dabei kein neues Element
+     * der Liste erzeugt
+     *
+     * @return das umgestellte Element
+     */
+    public T rotate() {
+        Collections.rotate(elements, -1);
+        return elements.getLast();
+    }
+
     /**
      * Entfernt das erste Element der Warteschlange
      */
@@ -0,0 +1,9 @@
+package de.hsbremen.battleshipextreme.network;
+
+/**
+ * Created on 18.10.2026.
+ * Art einer Änderung an der Spieleliste der Lobby
+ */
+public enum GameListChangeType {
+    GameAdded, GameUpdated, GameRemoved
+}
@@ -4,5 +4,6 @@ package de.hsbremen.battleshipextreme.network;
  * Created on 25.04.2015.
  */
 public enum InfoSendingReason {
-    Connect, Default, GameClosed, GameList, GameReady, ReadyForPlacement, PlaceYourShips, Disconnect, MakeTurn, PlayerIsReloading, PlayerWon, PlayerNames, GameOver
+    Connect, Default, GameClosed, GameList, GameReady, ReadyForPlacement, PlaceYourShips, Disconnect, MakeTurn, PlayerIsReloading, PlayerWon, PlayerNames, GameOver,
+    GameListSnapshot // Anforderung eines GameListSnapshot, der Client erhält danach nur noch Änderungen der Spieleliste
 }
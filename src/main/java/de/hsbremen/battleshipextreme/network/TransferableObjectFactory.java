@@ -64,6 +64,15 @@ public class TransferableObjectFactory {
         return new Join(id);
     }
 
+    /**
+     * Erzeugt ein Join für ein passwortgeschütztes Spiel
+     **/
+    public static ITransferable CreateJoin(String id, String password) {
+        Join join = new Join(id);
+        join.setPassword(password);
+        return join;
+    }
+
     /**
      * Erzeugt eine GameList
      **/
@@ -71,6 +80,20 @@ public class TransferableObjectFactory {
         return new GameList(gameList);
     }
 
+    /**
+     * Erzeugt einen GameListSnapshot
+     **/
+    public static ITransferable CreateGameListSnapshot(long version, ArrayList<GameSummary> games) {
+        return new GameListSnapshot(version, games);
+    }
+
+    /**
+     * Erzeugt eine GameListChange
+     **/
+    public static ITransferable CreateGameListChange(long version, GameListChangeType changeType, GameSummary game) {
+        return new GameListChange(version, changeType, game);
+    }
+
     /**
      * Erzeugt einen Turn
      **/
@@ -5,6 +5,38 @@ package de.hsbremen.battleshipextreme.network;
  * Informationen für Clients
  */
 public enum TransferableType {
-    TransferInfo, ClientInfo, Message, Settings, Game, Turn, ClientHandler, Join, ServerInfo, GameList,
-    ClientMessage, PlayerNames, Error, ClientTurn, ShipPlacedInformation
+    TransferInfo(1), ClientInfo(2), Message(3), Settings(4), Game(5), Turn(6), ClientHandler(7), Join(8), ServerInfo(9), GameList(10),
+    ClientMessage(11), PlayerNames(12), Error(13), ClientTurn(14), ShipPlacedInformation(15),
+    GameListSnapshot(16), GameListChange(17);
+
+    private static final TransferableType[] TYPES_BY_ID = new TransferableType[18];
+
+    static {
+        for (TransferableType type : values()) {
+            TYPES_BY_ID[type.id] = type;
+        }
+    }
+
+    private final int id; // feste ID für das Binärprotokoll, darf sich nicht ändern
+
+    TransferableType(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Liefert den Typ zu einer ID des Binärprotokolls oder null, wenn die ID unbekannt ist
+     */
+    public static TransferableType getById(int id) {
+        if (id < 0 || id >= TYPES_BY_ID.length) {
+            return null;
+        }
+        return TYPES_BY_ID[id];
+    }
+
+    /**
+     * ID des Typs im Binärprotokoll
+     */
+    public int getId() {
+        return id;
+    }
 }
@@ -0,0 +1,75 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
+/**
+ * Created on 18.10.2026.
+ * Hilfsmethoden für das Binärprotokoll. Zahlen, die meist klein sind, werden als VarInt geschrieben
+ * (7 Bit pro Byte, das höchste Bit zeigt an, dass ein weiteres Byte folgt). Strings und Enums dürfen null sein
+ */
+public final class BinaryFormat {
+
+    private BinaryFormat() {
+    }
+
+    /**
+     * Schreibt eine nicht negative Zahl als VarInt
+     */
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Liest eine mit writeVarInt geschriebene Zahl
+     */
+    public static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("VarInt is too long");
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return in.readUTF();
+    }
+
+    /**
+     * Schreibt einen Enum-Wert als Ordinalzahl, null wird als 0 geschrieben
+     */
+    public static void writeEnum(DataOutput out, Enum<?> value) throws IOException {
+        out.writeByte(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    public static <E extends Enum<E>> E readEnum(DataInput in, E[] values) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal == 0) {
+            return null;
+        }
+        if (ordinal > values.length) {
+            throw new StreamCorruptedException("Invalid enum ordinal " + (ordinal - 1));
+        }
+        return values[ordinal - 1];
+    }
+}
@@ -0,0 +1,45 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Created on 18.10.2026.
+ * Binärprotokoll: liest Frames des TransferableCodec
+ */
+public class BinaryTransferableInput implements ITransferableInput {
+    private static final int MAX_KEPT_BUFFER_SIZE = 64 * 1024;
+
+    private DataInputStream in;
+    private TransferableCodec codec;
+    private byte[] buffer;
+
+    public BinaryTransferableInput(InputStream in, CodecRegistry registry) {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        this.codec = new TransferableCodec(registry);
+        this.buffer = new byte[256];
+    }
+
+    public ITransferable read() throws IOException {
+        int frameLength = BinaryFormat.readVarInt(this.in);
+        TransferableCodec.checkFrameLength(frameLength);
+        byte[] data = this.buffer;
+        if (data.length < frameLength) {
+            data = new byte[frameLength];
+            // sehr große Frames (z.B. serialisierte Spiele) sollen keinen dauerhaft großen Puffer hinterlassen
+            if (frameLength <= MAX_KEPT_BUFFER_SIZE) {
+                this.buffer = data;
+            }
+        }
+        this.in.readFully(data, 0, frameLength);
+        return this.codec.decode(data, 0, frameLength);
+    }
+
+    public void close() throws IOException {
+        this.in.close();
+    }
+}
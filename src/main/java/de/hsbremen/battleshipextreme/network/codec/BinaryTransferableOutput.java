@@ -0,0 +1,39 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Created on 18.10.2026.
+ * Binärprotokoll: schreibt jedes Objekt als Frame des TransferableCodec
+ */
+public class BinaryTransferableOutput implements ITransferableOutput {
+    private OutputStream out;
+    private TransferableCodec codec;
+
+    public BinaryTransferableOutput(OutputStream out, CodecRegistry registry) {
+        // gepuffert, damit Längenangabe und Inhalt zusammen gesendet werden
+        this.out = new BufferedOutputStream(out);
+        this.codec = new TransferableCodec(registry);
+    }
+
+    public void write(ITransferable transferableObject) throws IOException {
+        this.append(transferableObject);
+        this.flush();
+    }
+
+    public void append(ITransferable transferableObject) throws IOException {
+        this.codec.write(transferableObject, this.out);
+    }
+
+    public void flush() throws IOException {
+        this.out.flush();
+    }
+
+    public void close() throws IOException {
+        this.out.close();
+    }
+}
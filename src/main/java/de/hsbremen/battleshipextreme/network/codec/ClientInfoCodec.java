@@ -0,0 +1,30 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.InfoSendingReason;
+import de.hsbremen.battleshipextreme.network.transfarableObject.ClientInfo;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Created on 18.10.2026.
+ * Codec für die Informationen über einen Client
+ */
+public class ClientInfoCodec implements ITransferableCodec<ClientInfo> {
+
+    public void write(ClientInfo clientInfo, DataOutput out) throws IOException {
+        BinaryFormat.writeString(out, clientInfo.getUsername());
+        BinaryFormat.writeString(out, clientInfo.getIp());
+        BinaryFormat.writeVarInt(out, clientInfo.getPort());
+        BinaryFormat.writeEnum(out, clientInfo.getReason());
+    }
+
+    public ClientInfo read(DataInput in) throws IOException {
+        String username = BinaryFormat.readString(in);
+        String ip = BinaryFormat.readString(in);
+        int port = BinaryFormat.readVarInt(in);
+        InfoSendingReason reason = BinaryFormat.readEnum(in, InfoSendingReason.values());
+        return new ClientInfo(username, ip, port, reason);
+    }
+}
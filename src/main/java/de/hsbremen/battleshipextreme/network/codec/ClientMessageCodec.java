@@ -0,0 +1,48 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.transfarableObject.ClientInfo;
+import de.hsbremen.battleshipextreme.network.transfarableObject.ClientMessage;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.sql.Timestamp;
+
+/**
+ * Created on 18.10.2026.
+ * Codec für eine Chatnachricht samt Informationen über den sendenden Client
+ */
+public class ClientMessageCodec implements ITransferableCodec<ClientMessage> {
+// ------------------------------ FIELDS ------------------------------
+
+    private ClientInfoCodec clientInfoCodec;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public ClientMessageCodec(ClientInfoCodec clientInfoCodec) {
+        this.clientInfoCodec = clientInfoCodec;
+    }
+
+// --------------------- Interface ITransferableCodec ---------------------
+
+    public void write(ClientMessage clientMessage, DataOutput out) throws IOException {
+        BinaryFormat.writeString(out, clientMessage.getMessage());
+        ClientInfo info = clientMessage.getInfo();
+        out.writeBoolean(info != null);
+        if (info != null) {
+            out.writeLong(info.getCreatedAt().getTime());
+            this.clientInfoCodec.write(info, out);
+        }
+    }
+
+    public ClientMessage read(DataInput in) throws IOException {
+        String message = BinaryFormat.readString(in);
+        ClientInfo info = null;
+        if (in.readBoolean()) {
+            long createdAt = in.readLong();
+            info = this.clientInfoCodec.read(in);
+            info.setCreatedAt(new Timestamp(createdAt));
+        }
+        return new ClientMessage(message, info);
+    }
+}
@@ -0,0 +1,165 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.model.Field;
+import de.hsbremen.battleshipextreme.model.ship.Corvette;
+import de.hsbremen.battleshipextreme.model.ship.Destroyer;
+import de.hsbremen.battleshipextreme.model.ship.Frigate;
+import de.hsbremen.battleshipextreme.model.ship.Ship;
+import de.hsbremen.battleshipextreme.model.ship.ShipType;
+import de.hsbremen.battleshipextreme.model.ship.Submarine;
+import de.hsbremen.battleshipextreme.network.transfarableObject.ClientTurn;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
+/**
+ * Created on 18.10.2026.
+ * Codec für einen Spielzug, den der Server an die Clients sendet. Von den beschossenen Feldern werden nur
+ * Position, Treffer und das Schiff übertragen. Vom Schiff reichen Typ und verbleibende Größe, damit der
+ * Client den Zustand des Feldes bestimmen kann. Liegt ein Schiff auf mehreren Feldern, wird es nur einmal
+ * geschrieben und beim Lesen wieder von allen Feldern geteilt
+ */
+public class ClientTurnCodec implements ITransferableCodec<ClientTurn> {
+// ------------------------------ FIELDS ------------------------------
+
+    private static final int FIELD_IS_HIT = 1;
+    private static final int FIELD_HAS_SHIP = 2;
+    private static final int FIELD_HAS_NEW_SHIP = 4;
+
+// --------------------- Interface ITransferableCodec ---------------------
+
+    public void write(ClientTurn clientTurn, DataOutput out) throws IOException {
+        out.writeBoolean(clientTurn.isReloading());
+        out.writeBoolean(clientTurn.isWinner());
+        BinaryFormat.writeString(out, clientTurn.getWinnerName());
+        BinaryFormat.writeString(out, clientTurn.getAttackingPlayerName());
+        BinaryFormat.writeString(out, clientTurn.getAttackedPlayerName());
+        this.writeFields(clientTurn.getFields(), out);
+    }
+
+    public ClientTurn read(DataInput in) throws IOException {
+        boolean isReloading = in.readBoolean();
+        boolean isWinner = in.readBoolean();
+        String winnerName = BinaryFormat.readString(in);
+        String attackingPlayerName = BinaryFormat.readString(in);
+        String attackedPlayerName = BinaryFormat.readString(in);
+        Field[] fields = this.readFields(in);
+        ClientTurn clientTurn = new ClientTurn(fields, isReloading, attackingPlayerName, attackedPlayerName);
+        clientTurn.setIsWinner(isWinner);
+        clientTurn.setWinnerName(winnerName);
+        return clientTurn;
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    private void writeFields(Field[] fields, DataOutput out) throws IOException {
+        // 0 steht für null, sonst Anzahl + 1
+        BinaryFormat.writeVarInt(out, fields == null ? 0 : fields.length + 1);
+        if (fields == null) {
+            return;
+        }
+        Ship[] writtenShips = new Ship[fields.length];
+        int numberOfShips = 0;
+        for (Field field : fields) {
+            // null-Felder (außerhalb des Boards) bleiben erhalten, der Client überspringt sie
+            out.writeBoolean(field != null);
+            if (field == null) {
+                continue;
+            }
+            Ship ship = field.getShip();
+            int shipIndex = indexOf(writtenShips, numberOfShips, ship);
+            int flags = field.isHit() ? FIELD_IS_HIT : 0;
+            if (ship != null) {
+                flags |= shipIndex < 0 ? FIELD_HAS_NEW_SHIP : FIELD_HAS_SHIP;
+            }
+            out.writeByte(flags);
+            BinaryFormat.writeVarInt(out, field.getXPos());
+            BinaryFormat.writeVarInt(out, field.getYPos());
+            if (ship == null) {
+                continue;
+            }
+            if (shipIndex < 0) {
+                writtenShips[numberOfShips++] = ship;
+                BinaryFormat.writeEnum(out, ship.getType());
+                BinaryFormat.writeVarInt(out, ship.getSize());
+            } else {
+                BinaryFormat.writeVarInt(out, shipIndex);
+            }
+        }
+    }
+
+    private Field[] readFields(DataInput in) throws IOException {
+        int count = BinaryFormat.readVarInt(in) - 1;
+        if (count < 0) {
+            return null;
+        }
+        Field[] fields = new Field[count];
+        Ship[] readShips = new Ship[count];
+        int numberOfShips = 0;
+        for (int i = 0; i < count; i++) {
+            if (!in.readBoolean()) {
+                continue;
+            }
+            int flags = in.readUnsignedByte();
+            Field field = new Field(BinaryFormat.readVarInt(in), BinaryFormat.readVarInt(in));
+            if ((flags & FIELD_HAS_NEW_SHIP) != 0) {
+                Ship ship = createShip(BinaryFormat.readEnum(in, ShipType.values()), BinaryFormat.readVarInt(in));
+                readShips[numberOfShips++] = ship;
+                field.setShip(ship);
+            } else if ((flags & FIELD_HAS_SHIP) != 0) {
+                int shipIndex = BinaryFormat.readVarInt(in);
+                if (shipIndex >= numberOfShips) {
+                    throw new StreamCorruptedException("Invalid ship reference " + shipIndex);
+                }
+                field.setShip(readShips[shipIndex]);
+            }
+            if ((flags & FIELD_IS_HIT) != 0) {
+                field.mark();
+            }
+            fields[i] = field;
+        }
+        return fields;
+    }
+
+    /**
+     * Erzeugt ein Schiff des Typs mit der übergebenen verbleibenden Größe
+     */
+    private static Ship createShip(ShipType type, int size) throws IOException {
+        Ship ship;
+        if (type == null) {
+            throw new StreamCorruptedException("Ship without type");
+        }
+        switch (type) {
+            case DESTROYER:
+                ship = new Destroyer();
+                break;
+            case FRIGATE:
+                ship = new Frigate();
+                break;
+            case CORVETTE:
+                ship = new Corvette();
+                break;
+            default:
+                ship = new Submarine();
+                break;
+        }
+        while (ship.getSize() > size) {
+            ship.decreaseSize();
+        }
+        return ship;
+    }
+
+    private static int indexOf(Ship[] ships, int numberOfShips, Ship ship) {
+        if (ship == null) {
+            return -1;
+        }
+        for (int i = 0; i < numberOfShips; i++) {
+            if (ships[i] == ship) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,84 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+import de.hsbremen.battleshipextreme.network.TransferableType;
+
+/**
+ * Created on 18.10.2026.
+ * Ordnet jeder Typ-ID des Binärprotokolls einen Codec zu. Typen ohne eigenen Codec werden mit dem
+ * Rückfall-Codec (Java-Serialisierung) übertragen. Die Codecs sind zustandslos, eine Registry kann also
+ * von beliebig vielen Verbindungen gleichzeitig verwendet werden
+ */
+public class CodecRegistry {
+// ------------------------------ FIELDS ------------------------------
+
+    private static final CodecRegistry DEFAULT_REGISTRY = createDefault();
+
+    private ITransferableCodec<?>[] codecsById;
+    private ITransferableCodec<ITransferable> fallbackCodec;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public CodecRegistry() {
+        this.codecsById = new ITransferableCodec<?>[TransferableType.values().length + 1];
+        this.fallbackCodec = new SerializedTransferableCodec();
+    }
+
+// -------------------------- STATIC METHODS --------------------------
+
+    /**
+     * Liefert die Registry mit allen Codecs des Spiels
+     */
+    public static CodecRegistry getDefault() {
+        return DEFAULT_REGISTRY;
+    }
+
+    private static CodecRegistry createDefault() {
+        CodecRegistry registry = new CodecRegistry();
+        ClientInfoCodec clientInfoCodec = new ClientInfoCodec();
+        GameSummaryCodec gameSummaryCodec = new GameSummaryCodec();
+        registry.register(TransferableType.Message, new MessageCodec());
+        registry.register(TransferableType.Error, new ErrorCodec());
+        registry.register(TransferableType.ClientInfo, clientInfoCodec);
+        registry.register(TransferableType.ClientMessage, new ClientMessageCodec(clientInfoCodec));
+        registry.register(TransferableType.ServerInfo, new ServerInfoCodec());
+        registry.register(TransferableType.Join, new JoinCodec());
+        registry.register(TransferableType.Turn, new TurnCodec());
+        registry.register(TransferableType.ClientTurn, new ClientTurnCodec());
+        registry.register(TransferableType.PlayerNames, new PlayerNamesCodec());
+        registry.register(TransferableType.ShipPlacedInformation, new ShipPlacedInformationCodec());
+        registry.register(TransferableType.GameListSnapshot, new GameListSnapshotCodec(gameSummaryCodec));
+        registry.register(TransferableType.GameListChange, new GameListChangeCodec(gameSummaryCodec));
+        // Game und GameList enthalten komplette Spiele und werden vorerst weiterhin serialisiert, die Lobby
+        // verwendet stattdessen GameListSnapshot und GameListChange
+        return registry;
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    /**
+     * Registriert einen Codec für einen Typ, ein bereits registrierter Codec wird ersetzt
+     */
+    public void register(TransferableType type, ITransferableCodec<?> codec) {
+        this.codecsById[type.getId()] = codec;
+    }
+
+    /**
+     * Gibt an, ob für den Typ ein eigener Codec registriert ist
+     */
+    public boolean hasCodec(TransferableType type) {
+        return this.codecsById[type.getId()] != null;
+    }
+
+    /**
+     * Liefert den Codec für einen Typ, ohne eigenen Codec den Rückfall-Codec
+     */
+    @SuppressWarnings("unchecked")
+    public ITransferableCodec<ITransferable> getCodec(TransferableType type) {
+        ITransferableCodec<?> codec = this.codecsById[type.getId()];
+        if (codec == null) {
+            return this.fallbackCodec;
+        }
+        return (ITransferableCodec<ITransferable>) codec;
+    }
+}
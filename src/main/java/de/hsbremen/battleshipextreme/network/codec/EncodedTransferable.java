@@ -0,0 +1,136 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+import de.hsbremen.battleshipextreme.network.TransferableType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Created on 18.10.2026.
+ * Hülle für ein Objekt, das an viele Clients gesendet wird. Das Objekt wird pro Protokoll nur beim ersten
+ * Senden codiert, alle weiteren Sender verwenden dieselben Bytes. Da Clients unterschiedliche Protokolle
+ * ausgehandelt haben können, gibt es je eine Codierung für Java-Serialisierung und für das Binärprotokoll.
+ * Alle Empfänger erhalten den Stand des Objektes beim ersten Codieren
+ */
+public class EncodedTransferable implements ITransferable {
+// ------------------------------ FIELDS ------------------------------
+
+    private ITransferable transferableObject;
+    private FanOutStatistics statistics;
+    private volatile byte[] objectStreamBytes;
+    private volatile byte[] binaryFrame;
+    private long objectStreamNanos;
+    private long binaryNanos;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public EncodedTransferable(ITransferable transferableObject, FanOutStatistics statistics) {
+        this.transferableObject = transferableObject;
+        this.statistics = statistics;
+    }
+
+// --------------------- GETTER / SETTER METHODS ---------------------
+
+    /**
+     * Gibt das eingehüllte Objekt zurück
+     */
+    public ITransferable getTransferableObject() {
+        return transferableObject;
+    }
+
+// --------------------- Interface ITransferable ---------------------
+
+    public TransferableType getType() {
+        return this.transferableObject.getType();
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    /**
+     * Liefert das Objekt so, wie es ObjectOutputStream nach einem reset() schreibt (beginnt mit TC_RESET)
+     */
+    public ByteBuffer getObjectStreamBytes() throws IOException {
+        return ByteBuffer.wrap(this.getObjectStreamEncoding()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Liefert den Frame des Objektes im Binärprotokoll
+     */
+    public ByteBuffer getBinaryFrame() throws IOException {
+        return ByteBuffer.wrap(this.getBinaryEncoding()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Schreibt das Objekt so, wie es ObjectOutputStream nach einem reset() schreibt, ohne zu flushen
+     */
+    public void writeObjectStreamBytes(OutputStream out) throws IOException {
+        out.write(this.getObjectStreamEncoding());
+    }
+
+    /**
+     * Schreibt den Frame des Objektes im Binärprotokoll, ohne zu flushen
+     */
+    public void writeBinaryFrame(OutputStream out) throws IOException {
+        out.write(this.getBinaryEncoding());
+    }
+
+    /**
+     * Liefert die Länge des codierten Objektes im jeweiligen Protokoll. Ist es noch nicht codiert, wird es
+     * jetzt codiert, beim Senden wird die Codierung dann wiederverwendet
+     */
+    public int getEncodedLength(boolean binary) throws IOException {
+        return binary ? this.encodeBinary().length : this.encodeObjectStream().length;
+    }
+
+    private byte[] getObjectStreamEncoding() throws IOException {
+        byte[] bytes = this.objectStreamBytes;
+        if (bytes != null) {
+            this.statistics.recordReuse(this.objectStreamNanos, bytes.length);
+            return bytes;
+        }
+        return this.encodeObjectStream();
+    }
+
+    private byte[] getBinaryEncoding() throws IOException {
+        byte[] bytes = this.binaryFrame;
+        if (bytes != null) {
+            this.statistics.recordReuse(this.binaryNanos, bytes.length);
+            return bytes;
+        }
+        return this.encodeBinary();
+    }
+
+    /**
+     * Codiert das Objekt, falls das noch nicht geschehen ist. Zählt nur die Codierung, nicht die Verwendung
+     */
+    private synchronized byte[] encodeObjectStream() throws IOException {
+        if (this.objectStreamBytes == null) {
+            long start = System.nanoTime();
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+            ObjectOutputStream out = new ObjectOutputStream(buffer);
+            buffer.reset(); // Kopf des Streams verwerfen
+            out.reset();
+            out.writeObject(this.transferableObject);
+            out.flush();
+            this.objectStreamNanos = System.nanoTime() - start;
+            this.objectStreamBytes = buffer.toByteArray();
+            this.statistics.recordEncoding(this.objectStreamNanos);
+        }
+        return this.objectStreamBytes;
+    }
+
+    private synchronized byte[] encodeBinary() throws IOException {
+        if (this.binaryFrame == null) {
+            long start = System.nanoTime();
+            ByteBuffer frame = new TransferableCodec().encode(this.transferableObject);
+            this.binaryNanos = System.nanoTime() - start;
+            this.binaryFrame = frame.array();
+            this.statistics.recordEncoding(this.binaryNanos);
+        }
+        return this.binaryFrame;
+    }
+}
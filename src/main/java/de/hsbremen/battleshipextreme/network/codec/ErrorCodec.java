@@ -0,0 +1,22 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.transfarableObject.Error;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Created on 18.10.2026.
+ * Codec für eine Fehlernachricht
+ */
+public class ErrorCodec implements ITransferableCodec<Error> {
+
+    public void write(Error error, DataOutput out) throws IOException {
+        BinaryFormat.writeString(out, error.getMessage());
+    }
+
+    public Error read(DataInput in) throws IOException {
+        return new Error(BinaryFormat.readString(in));
+    }
+}
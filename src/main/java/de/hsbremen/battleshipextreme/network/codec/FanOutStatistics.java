@@ -0,0 +1,117 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created on 18.10.2026.
+ * Zählt, wie oft Objekte an mehrere Clients gleichzeitig gesendet wurden (broadcast, multicast) und wie viel
+ * Serialisierung dabei eingespart wurde. Jedes Objekt wird pro Protokoll nur einmal codiert, jeder weitere
+ * Empfänger spart die dafür gemessene Zeit
+ */
+public class FanOutStatistics {
+// ------------------------------ FIELDS ------------------------------
+
+    private AtomicLong fanOuts;
+    private AtomicLong recipients;
+    private AtomicLong encodings;
+    private AtomicLong encodingNanos;
+    private AtomicLong reuses;
+    private AtomicLong savedNanos;
+    private AtomicLong savedBytes;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public FanOutStatistics() {
+        this.fanOuts = new AtomicLong();
+        this.recipients = new AtomicLong();
+        this.encodings = new AtomicLong();
+        this.encodingNanos = new AtomicLong();
+        this.reuses = new AtomicLong();
+        this.savedNanos = new AtomicLong();
+        this.savedBytes = new AtomicLong();
+    }
+
+// --------------------- GETTER / SETTER METHODS ---------------------
+
+    /**
+     * Anzahl der Objekte, die an mehrere Clients gesendet wurden
+     */
+    public long getFanOuts() {
+        return fanOuts.get();
+    }
+
+    /**
+     * Anzahl der Empfänger aller Broad- und Multicasts
+     */
+    public long getRecipients() {
+        return recipients.get();
+    }
+
+    /**
+     * Anzahl der tatsächlich durchgeführten Codierungen
+     */
+    public long getEncodings() {
+        return encodings.get();
+    }
+
+    /**
+     * Zeit, die für die Codierungen benötigt wurde
+     */
+    public long getEncodingNanos() {
+        return encodingNanos.get();
+    }
+
+    /**
+     * Anzahl der Sendevorgänge, die eine bereits vorhandene Codierung verwendet haben
+     */
+    public long getReuses() {
+        return reuses.get();
+    }
+
+    /**
+     * Geschätzte eingesparte Zeit: pro Wiederverwendung die Zeit der ursprünglichen Codierung
+     */
+    public long getSavedNanos() {
+        return savedNanos.get();
+    }
+
+    /**
+     * Bytes, die nicht erneut erzeugt werden mussten
+     */
+    public long getSavedBytes() {
+        return savedBytes.get();
+    }
+
+    /**
+     * Eingesparte Zeit pro Broad- bzw. Multicast
+     */
+    public long getSavedNanosPerFanOut() {
+        long count = this.fanOuts.get();
+        return count == 0 ? 0 : this.savedNanos.get() / count;
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    public void recordFanOut(int numberOfRecipients) {
+        this.fanOuts.incrementAndGet();
+        this.recipients.addAndGet(numberOfRecipients);
+    }
+
+    public void recordEncoding(long nanos) {
+        this.encodings.incrementAndGet();
+        this.encodingNanos.addAndGet(nanos);
+    }
+
+    public void recordReuse(long nanos, int bytes) {
+        this.reuses.incrementAndGet();
+        this.savedNanos.addAndGet(nanos);
+        this.savedBytes.addAndGet(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return "Fan-outs: " + getFanOuts() + ", recipients: " + getRecipients() + ", encodings: " + getEncodings()
+                + " (" + getEncodingNanos() / 1000 + " us), reused: " + getReuses() + ", saved: " + getSavedNanos() / 1000
+                + " us / " + getSavedBytes() / 1024 + " KB, saved per fan-out: " + getSavedNanosPerFanOut() / 1000 + " us";
+    }
+}
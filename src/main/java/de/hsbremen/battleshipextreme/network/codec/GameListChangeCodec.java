@@ -0,0 +1,38 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.GameListChangeType;
+import de.hsbremen.battleshipextreme.network.transfarableObject.GameListChange;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Created on 18.10.2026.
+ * Codec für eine einzelne Änderung an der Spieleliste der Lobby
+ */
+public class GameListChangeCodec implements ITransferableCodec<GameListChange> {
+// ------------------------------ FIELDS ------------------------------
+
+    private GameSummaryCodec gameSummaryCodec;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public GameListChangeCodec(GameSummaryCodec gameSummaryCodec) {
+        this.gameSummaryCodec = gameSummaryCodec;
+    }
+
+// --------------------- Interface ITransferableCodec ---------------------
+
+    public void write(GameListChange change, DataOutput out) throws IOException {
+        out.writeLong(change.getVersion());
+        BinaryFormat.writeEnum(out, change.getChangeType());
+        this.gameSummaryCodec.write(change.getGame(), out);
+    }
+
+    public GameListChange read(DataInput in) throws IOException {
+        long version = in.readLong();
+        GameListChangeType changeType = BinaryFormat.readEnum(in, GameListChangeType.values());
+        return new GameListChange(version, changeType, this.gameSummaryCodec.read(in));
+    }
+}
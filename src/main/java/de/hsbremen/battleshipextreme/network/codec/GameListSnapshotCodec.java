@@ -0,0 +1,46 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.transfarableObject.GameListSnapshot;
+import de.hsbremen.battleshipextreme.network.transfarableObject.GameSummary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Created on 18.10.2026.
+ * Codec für den Stand der Spieleliste der Lobby
+ */
+public class GameListSnapshotCodec implements ITransferableCodec<GameListSnapshot> {
+// ------------------------------ FIELDS ------------------------------
+
+    private GameSummaryCodec gameSummaryCodec;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public GameListSnapshotCodec(GameSummaryCodec gameSummaryCodec) {
+        this.gameSummaryCodec = gameSummaryCodec;
+    }
+
+// --------------------- Interface ITransferableCodec ---------------------
+
+    public void write(GameListSnapshot snapshot, DataOutput out) throws IOException {
+        out.writeLong(snapshot.getVersion());
+        ArrayList<GameSummary> games = snapshot.getGames();
+        BinaryFormat.writeVarInt(out, games.size());
+        for (GameSummary game : games) {
+            this.gameSummaryCodec.write(game, out);
+        }
+    }
+
+    public GameListSnapshot read(DataInput in) throws IOException {
+        long version = in.readLong();
+        int count = BinaryFormat.readVarInt(in);
+        ArrayList<GameSummary> games = new ArrayList<GameSummary>(count);
+        for (int i = 0; i < count; i++) {
+            games.add(this.gameSummaryCodec.read(in));
+        }
+        return new GameListSnapshot(version, games);
+    }
+}
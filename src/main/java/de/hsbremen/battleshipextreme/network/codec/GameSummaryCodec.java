@@ -0,0 +1,38 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.transfarableObject.GameSummary;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.sql.Timestamp;
+
+/**
+ * Created on 18.10.2026.
+ * Schreibt und liest die Zusammenfassung eines Spiels, wird von den Codecs für GameListSnapshot und
+ * GameListChange verwendet
+ */
+public class GameSummaryCodec {
+
+    public void write(GameSummary game, DataOutput out) throws IOException {
+        BinaryFormat.writeString(out, game.getId());
+        BinaryFormat.writeString(out, game.getName());
+        BinaryFormat.writeVarInt(out, game.getJoinedPlayers());
+        BinaryFormat.writeVarInt(out, game.getMaxPlayers());
+        out.writeBoolean(game.isPrivate());
+        out.writeBoolean(game.getCreatedAt() != null);
+        if (game.getCreatedAt() != null) {
+            out.writeLong(game.getCreatedAt().getTime());
+        }
+    }
+
+    public GameSummary read(DataInput in) throws IOException {
+        String id = BinaryFormat.readString(in);
+        String name = BinaryFormat.readString(in);
+        int joinedPlayers = BinaryFormat.readVarInt(in);
+        int maxPlayers = BinaryFormat.readVarInt(in);
+        boolean isPrivate = in.readBoolean();
+        Timestamp createdAt = in.readBoolean() ? new Timestamp(in.readLong()) : null;
+        return new GameSummary(id, name, joinedPlayers, maxPlayers, isPrivate, createdAt);
+    }
+}
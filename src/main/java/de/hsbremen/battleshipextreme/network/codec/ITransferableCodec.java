@@ -0,0 +1,25 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Created on 18.10.2026.
+ * Schreibt und liest die Nutzdaten eines Objekttyps im Binärprotokoll. Typ-ID, Länge und Zeitstempel
+ * schreibt der TransferableCodec, ein ITransferableCodec kümmert sich nur um die Felder des Objektes
+ */
+public interface ITransferableCodec<T extends ITransferable> {
+
+    /**
+     * Schreibt die Felder des Objektes
+     */
+    void write(T transferableObject, DataOutput out) throws IOException;
+
+    /**
+     * Liest die Felder und erzeugt daraus ein neues Objekt
+     */
+    T read(DataInput in) throws IOException;
+}
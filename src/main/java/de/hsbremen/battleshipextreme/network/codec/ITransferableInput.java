@@ -0,0 +1,18 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Created on 18.10.2026.
+ * Liest Objekte aus einer Verbindung, unabhängig davon welches Protokoll ausgehandelt wurde
+ */
+public interface ITransferableInput extends Closeable {
+
+    /**
+     * Wartet auf das nächste Objekt
+     */
+    ITransferable read() throws IOException, ClassNotFoundException;
+}
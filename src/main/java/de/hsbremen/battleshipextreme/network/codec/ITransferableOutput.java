@@ -0,0 +1,30 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Created on 18.10.2026.
+ * Schreibt Objekte in eine Verbindung, unabhängig davon welches Protokoll ausgehandelt wurde
+ */
+public interface ITransferableOutput extends Closeable, Flushable {
+
+    /**
+     * Schreibt ein Objekt und flusht den Stream
+     */
+    void write(ITransferable transferableObject) throws IOException;
+
+    /**
+     * Schreibt ein Objekt in den Puffer, ohne zu flushen. Mehrere Objekte werden so mit einem flush()
+     * zusammen gesendet
+     */
+    void append(ITransferable transferableObject) throws IOException;
+
+    /**
+     * Sendet alle mit append() geschriebenen Objekte
+     */
+    void flush() throws IOException;
+}
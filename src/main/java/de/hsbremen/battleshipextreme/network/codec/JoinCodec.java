@@ -0,0 +1,27 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.transfarableObject.Join;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Created on 18.10.2026.
+ * Codec für eine Beitrittsanfrage
+ */
+public class JoinCodec implements ITransferableCodec<Join> {
+
+    public void write(Join join, DataOutput out) throws IOException {
+        BinaryFormat.writeString(out, join.getGameId());
+        BinaryFormat.writeString(out, join.getClient());
+        BinaryFormat.writeString(out, join.getPassword());
+    }
+
+    public Join read(DataInput in) throws IOException {
+        Join join = new Join(BinaryFormat.readString(in));
+        join.setClient(BinaryFormat.readString(in));
+        join.setPassword(BinaryFormat.readString(in));
+        return join;
+    }
+}
@@ -0,0 +1,22 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.transfarableObject.Message;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Created on 18.10.2026.
+ * Codec für eine einfache Nachricht
+ */
+public class MessageCodec implements ITransferableCodec<Message> {
+
+    public void write(Message message, DataOutput out) throws IOException {
+        BinaryFormat.writeString(out, message.getMessage());
+    }
+
+    public Message read(DataInput in) throws IOException {
+        return new Message(BinaryFormat.readString(in));
+    }
+}
@@ -0,0 +1,33 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Created on 18.10.2026.
+ * Reicht alle Bytes weiter, ignoriert aber flush(). ObjectOutputStream flusht bei jedem flush() auch den Stream
+ * darunter, so bleiben die Objekte im Puffer darunter, bis dieser selbst geflusht wird
+ */
+class NonFlushingOutputStream extends FilterOutputStream {
+
+    NonFlushingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        // FilterOutputStream würde jedes Byte einzeln schreiben
+        this.out.write(data, offset, length);
+    }
+
+    @Override
+    public void flush() {
+        // wird erst mit dem Puffer darunter geflusht
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+}
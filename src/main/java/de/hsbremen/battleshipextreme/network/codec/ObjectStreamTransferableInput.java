@@ -0,0 +1,26 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+
+/**
+ * Created on 18.10.2026.
+ * Bisheriges Protokoll: Java-Serialisierung über einen ObjectInputStream
+ */
+public class ObjectStreamTransferableInput implements ITransferableInput {
+    private ObjectInputStream in;
+
+    public ObjectStreamTransferableInput(ObjectInputStream in) {
+        this.in = in;
+    }
+
+    public ITransferable read() throws IOException, ClassNotFoundException {
+        return (ITransferable) this.in.readObject();
+    }
+
+    public void close() throws IOException {
+        this.in.close();
+    }
+}
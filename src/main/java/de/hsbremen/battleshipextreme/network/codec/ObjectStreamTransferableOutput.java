@@ -0,0 +1,50 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * Created on 18.10.2026.
+ * Bisheriges Protokoll: Java-Serialisierung über einen ObjectOutputStream. Bereits serialisierte Objekte
+ * (EncodedTransferable) werden direkt in den darunterliegenden Stream geschrieben. Das ist möglich, da jedes
+ * Objekt mit TC_RESET beginnt und der ObjectOutputStream nach flush() nichts mehr gepuffert hat.
+ * Damit mehrere Objekte zusammen gesendet werden können, liegt auf dem Server zwischen ObjectOutputStream und
+ * Socket ein NonFlushingOutputStream, erst flush() leert dann den Puffer darunter (rawOut)
+ */
+public class ObjectStreamTransferableOutput implements ITransferableOutput {
+    private ObjectOutputStream out;
+    private OutputStream rawOut;
+
+    public ObjectStreamTransferableOutput(ObjectOutputStream out, OutputStream rawOut) {
+        this.out = out;
+        this.rawOut = rawOut;
+    }
+
+    public void write(ITransferable transferableObject) throws IOException {
+        this.append(transferableObject);
+        this.flush();
+    }
+
+    public void append(ITransferable transferableObject) throws IOException {
+        if (transferableObject instanceof EncodedTransferable) {
+            // Reste des ObjectOutputStreams müssen vor den fertigen Bytes im Stream stehen
+            this.out.flush();
+            ((EncodedTransferable) transferableObject).writeObjectStreamBytes(this.rawOut);
+            return;
+        }
+        this.out.reset(); // wird benötig damit alte Objekte vom Stream gelöscht werden
+        this.out.writeObject(transferableObject);
+    }
+
+    public void flush() throws IOException {
+        this.out.flush();
+        this.rawOut.flush();
+    }
+
+    public void close() throws IOException {
+        this.out.close();
+    }
+}
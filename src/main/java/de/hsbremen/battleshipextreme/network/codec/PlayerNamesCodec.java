@@ -0,0 +1,38 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.transfarableObject.PlayerNames;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Created on 18.10.2026.
+ * Codec für die Liste der Spielernamen
+ */
+public class PlayerNamesCodec implements ITransferableCodec<PlayerNames> {
+
+    public void write(PlayerNames playerNames, DataOutput out) throws IOException {
+        ArrayList<String> names = playerNames.getNames();
+        // 0 steht für null, sonst Anzahl + 1
+        BinaryFormat.writeVarInt(out, names == null ? 0 : names.size() + 1);
+        if (names != null) {
+            for (String name : names) {
+                BinaryFormat.writeString(out, name);
+            }
+        }
+    }
+
+    public PlayerNames read(DataInput in) throws IOException {
+        int count = BinaryFormat.readVarInt(in) - 1;
+        ArrayList<String> names = null;
+        if (count >= 0) {
+            names = new ArrayList<String>(count);
+            for (int i = 0; i < count; i++) {
+                names.add(BinaryFormat.readString(in));
+            }
+        }
+        return new PlayerNames(names);
+    }
+}
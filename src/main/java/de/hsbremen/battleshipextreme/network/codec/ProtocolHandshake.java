@@ -0,0 +1,158 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.StreamCorruptedException;
+import java.net.Socket;
+
+/**
+ * Created on 18.10.2026.
+ * Handelt beim Verbindungsaufbau das Protokoll zwischen Client und Server aus.
+ * Der Server sendet wie bisher zuerst den Kopf eines Objektstreams. Ein alter Client antwortet mit seinem
+ * Objektstream-Kopf und es bleibt bei Java-Serialisierung. Ein neuer Client antwortet stattdessen mit
+ * BINARY_HELLO, der Server bestätigt mit BINARY_HELLO und beide verwenden ab dann das Binärprotokoll.
+ * Ein alter Server kann mit BINARY_HELLO nichts anfangen und antwortet nicht, der Client baut die
+ * Verbindung dann neu mit Java-Serialisierung auf
+ */
+public class ProtocolHandshake {
+// ------------------------------ FIELDS ------------------------------
+
+    /**
+     * Kopf eines Objektstreams (STREAM_MAGIC und STREAM_VERSION)
+     */
+    public static final byte[] STREAM_HEADER = {(byte) 0xAC, (byte) 0xED, 0x00, 0x05};
+
+    /**
+     * Kennung des Binärprotokolls, das letzte Byte ist die Version
+     */
+    public static final byte[] BINARY_HELLO = {'B', 'S', 'X', 0x01};
+
+    /**
+     * Wartezeit des Clients auf die Bestätigung des Servers in Millisekunden
+     */
+    public static final int DEFAULT_TIMEOUT = 3000;
+
+    private ITransferableInput input;
+    private ITransferableOutput output;
+    private boolean binary;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    private ProtocolHandshake(ITransferableInput input, ITransferableOutput output, boolean binary) {
+        this.input = input;
+        this.output = output;
+        this.binary = binary;
+    }
+
+// -------------------------- STATIC METHODS --------------------------
+
+    /**
+     * Serverseite: sendet den Kopf des Objektstreams und wählt anhand der Antwort des Clients das Protokoll
+     */
+    public static ProtocolHandshake acceptClient(Socket socket, CodecRegistry registry) throws IOException {
+        // der ObjectOutputStream flusht nach jedem Objekt, gesendet wird erst beim flush() des Puffers darunter
+        BufferedOutputStream bufferedOut = new BufferedOutputStream(socket.getOutputStream());
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(new NonFlushingOutputStream(bufferedOut));
+        objectOutputStream.flush();
+        bufferedOut.flush();
+        PushbackInputStream in = new PushbackInputStream(socket.getInputStream(), STREAM_HEADER.length);
+        byte[] head = new byte[STREAM_HEADER.length];
+        readFully(in, head);
+        if (isBinaryHello(head, 0)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(BINARY_HELLO);
+            out.flush();
+            return new ProtocolHandshake(new BinaryTransferableInput(in, registry), new BinaryTransferableOutput(out, registry), true);
+        }
+        // alter Client, der ObjectInputStream soll den Kopf selbst lesen
+        in.unread(head);
+        return new ProtocolHandshake(new ObjectStreamTransferableInput(new ObjectInputStream(in)), new ObjectStreamTransferableOutput(objectOutputStream, bufferedOut), false);
+    }
+
+    /**
+     * Clientseite: versucht das Binärprotokoll auszuhandeln. Antwortet der Server nicht rechtzeitig oder
+     * trennt er die Verbindung, wird eine IOException geworfen und die Verbindung ist nicht mehr verwendbar
+     */
+    public static ProtocolHandshake connectBinary(Socket socket, CodecRegistry registry, int timeout) throws IOException {
+        InputStream in = socket.getInputStream();
+        byte[] head = new byte[STREAM_HEADER.length];
+        readFully(in, head);
+        if (!isStreamHeader(head, 0)) {
+            throw new StreamCorruptedException("Invalid stream header");
+        }
+        OutputStream out = socket.getOutputStream();
+        out.write(BINARY_HELLO);
+        out.flush();
+        int previousTimeout = socket.getSoTimeout();
+        socket.setSoTimeout(timeout);
+        try {
+            readFully(in, head);
+        } finally {
+            socket.setSoTimeout(previousTimeout);
+        }
+        if (!isBinaryHello(head, 0)) {
+            throw new StreamCorruptedException("Server does not support the binary protocol");
+        }
+        return new ProtocolHandshake(new BinaryTransferableInput(in, registry), new BinaryTransferableOutput(out, registry), true);
+    }
+
+    /**
+     * Clientseite: bisheriges Protokoll mit Java-Serialisierung
+     */
+    public static ProtocolHandshake connectLegacy(Socket socket) throws IOException {
+        ObjectInputStream in = new ObjectInputStream(socket.getInputStream());
+        ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+        return new ProtocolHandshake(new ObjectStreamTransferableInput(in), new ObjectStreamTransferableOutput(out, socket.getOutputStream()), false);
+    }
+
+    public static boolean isStreamHeader(byte[] data, int offset) {
+        return startsWith(data, offset, STREAM_HEADER);
+    }
+
+    public static boolean isBinaryHello(byte[] data, int offset) {
+        return startsWith(data, offset, BINARY_HELLO);
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void readFully(InputStream in, byte[] data) throws IOException {
+        int offset = 0;
+        while (offset < data.length) {
+            int count = in.read(data, offset, data.length - offset);
+            if (count < 0) {
+                throw new EOFException("Connection closed during handshake");
+            }
+            offset += count;
+        }
+    }
+
+// --------------------- GETTER / SETTER METHODS ---------------------
+
+    public ITransferableInput getInput() {
+        return input;
+    }
+
+    public ITransferableOutput getOutput() {
+        return output;
+    }
+
+    /**
+     * Gibt an, ob das Binärprotokoll ausgehandelt wurde
+     */
+    public boolean isBinary() {
+        return binary;
+    }
+}
@@ -0,0 +1,40 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+
+/**
+ * Created on 18.10.2026.
+ * Rückfall für Typen ohne eigenen Codec (z.B. NetGame): das Objekt wird wie bisher mit Java-Serialisierung
+ * geschrieben und als Block mit vorangestellter Länge in den Frame eingebettet
+ */
+public class SerializedTransferableCodec implements ITransferableCodec<ITransferable> {
+
+    public void write(ITransferable transferableObject, DataOutput out) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(buffer);
+        objectOutputStream.writeObject(transferableObject);
+        objectOutputStream.close();
+        BinaryFormat.writeVarInt(out, buffer.size());
+        out.write(buffer.toByteArray());
+    }
+
+    public ITransferable read(DataInput in) throws IOException {
+        byte[] data = new byte[BinaryFormat.readVarInt(in)];
+        in.readFully(data);
+        ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(data));
+        try {
+            return (ITransferable) objectInputStream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new StreamCorruptedException("Unknown class " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.InfoSendingReason;
+import de.hsbremen.battleshipextreme.network.transfarableObject.ServerInfo;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Created on 18.10.2026.
+ * Codec für eine ServerInfo, es wird nur der Grund übertragen
+ */
+public class ServerInfoCodec implements ITransferableCodec<ServerInfo> {
+
+    public void write(ServerInfo serverInfo, DataOutput out) throws IOException {
+        BinaryFormat.writeEnum(out, serverInfo.getReason());
+    }
+
+    public ServerInfo read(DataInput in) throws IOException {
+        return new ServerInfo(BinaryFormat.readEnum(in, InfoSendingReason.values()));
+    }
+}
@@ -0,0 +1,31 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.model.Orientation;
+import de.hsbremen.battleshipextreme.model.ship.ShipType;
+import de.hsbremen.battleshipextreme.network.transfarableObject.ShipPlacedInformation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Created on 18.10.2026.
+ * Codec für das Setzen eines Schiffes
+ */
+public class ShipPlacedInformationCodec implements ITransferableCodec<ShipPlacedInformation> {
+
+    public void write(ShipPlacedInformation information, DataOutput out) throws IOException {
+        out.writeShort(information.getX());
+        out.writeShort(information.getY());
+        BinaryFormat.writeEnum(out, information.getOrientation());
+        BinaryFormat.writeEnum(out, information.getShipType());
+    }
+
+    public ShipPlacedInformation read(DataInput in) throws IOException {
+        int xPos = in.readShort();
+        int yPos = in.readShort();
+        Orientation orientation = BinaryFormat.readEnum(in, Orientation.values());
+        ShipType shipType = BinaryFormat.readEnum(in, ShipType.values());
+        return new ShipPlacedInformation(xPos, yPos, orientation, shipType);
+    }
+}
@@ -0,0 +1,201 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+import de.hsbremen.battleshipextreme.network.TransferableType;
+import de.hsbremen.battleshipextreme.network.transfarableObject.TransferableObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+
+/**
+ * Created on 18.10.2026.
+ * Schreibt und liest Objekte im Binärprotokoll. Jedes Objekt wird als Frame übertragen:
+ * Länge (VarInt), Typ-ID (1 Byte), Zeitpunkt der Erzeugung (long) und die Felder, die der Codec des Typs
+ * schreibt. Die Puffer werden wiederverwendet, eine Instanz darf daher nur von einem Thread verwendet werden
+ */
+public class TransferableCodec {
+// ------------------------------ FIELDS ------------------------------
+
+    /**
+     * Größte erlaubte Länge eines Frames, schützt vor unsinnigen Längenangaben
+     */
+    public static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    private CodecRegistry registry;
+    private ReusableByteArrayOutputStream body;
+    private DataOutputStream bodyOut;
+    private ReusableByteArrayInputStream frame;
+    private DataInputStream frameIn;
+    private byte[] lengthPrefix;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public TransferableCodec() {
+        this(CodecRegistry.getDefault());
+    }
+
+    public TransferableCodec(CodecRegistry registry) {
+        this.registry = registry;
+        this.body = new ReusableByteArrayOutputStream(256);
+        this.bodyOut = new DataOutputStream(this.body);
+        this.frame = new ReusableByteArrayInputStream();
+        this.frameIn = new DataInputStream(this.frame);
+        this.lengthPrefix = new byte[5];
+    }
+
+// -------------------------- STATIC METHODS --------------------------
+
+    /**
+     * Liefert die Gesamtlänge (Längenangabe und Inhalt) des Frames, der an der Stelle offset beginnt,
+     * oder -1, wenn der Frame noch nicht vollständig empfangen wurde
+     */
+    public static int getFrameLength(byte[] data, int offset, int length) throws IOException {
+        int frameLength = 0;
+        for (int i = 0; i < 5; i++) {
+            if (i >= length) {
+                return -1;
+            }
+            int b = data[offset + i] & 0xFF;
+            frameLength |= (b & 0x7F) << (7 * i);
+            if ((b & 0x80) == 0) {
+                checkFrameLength(frameLength);
+                int total = i + 1 + frameLength;
+                return total <= length ? total : -1;
+            }
+        }
+        throw new StreamCorruptedException("Invalid frame length");
+    }
+
+    static void checkFrameLength(int frameLength) throws IOException {
+        if (frameLength <= 0 || frameLength > MAX_FRAME_LENGTH) {
+            throw new StreamCorruptedException("Invalid frame length " + frameLength);
+        }
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    /**
+     * Erzeugt den kompletten Frame eines Objektes. Bei einem EncodedTransferable wird der gemeinsame,
+     * schreibgeschützte Frame geliefert
+     */
+    public ByteBuffer encode(ITransferable transferableObject) throws IOException {
+        if (transferableObject instanceof EncodedTransferable) {
+            return ((EncodedTransferable) transferableObject).getBinaryFrame();
+        }
+        this.encodeBody(transferableObject);
+        int prefixLength = this.writeLengthPrefix();
+        byte[] result = new byte[prefixLength + this.body.size()];
+        System.arraycopy(this.lengthPrefix, 0, result, 0, prefixLength);
+        System.arraycopy(this.body.getBuffer(), 0, result, prefixLength, this.body.size());
+        return ByteBuffer.wrap(result);
+    }
+
+    /**
+     * Schreibt den Frame eines Objektes in den Stream, ohne ihn zu flushen
+     */
+    public void write(ITransferable transferableObject, OutputStream out) throws IOException {
+        if (transferableObject instanceof EncodedTransferable) {
+            ((EncodedTransferable) transferableObject).writeBinaryFrame(out);
+            return;
+        }
+        this.encodeBody(transferableObject);
+        out.write(this.lengthPrefix, 0, this.writeLengthPrefix());
+        out.write(this.body.getBuffer(), 0, this.body.size());
+    }
+
+    /**
+     * Liest ein Objekt aus dem Inhalt eines Frames (ohne Längenangabe)
+     */
+    public ITransferable decode(byte[] data, int offset, int length) throws IOException {
+        this.frame.setBuffer(data, offset, length);
+        int typeId = this.frameIn.readUnsignedByte();
+        TransferableType type = TransferableType.getById(typeId);
+        if (type == null) {
+            throw new StreamCorruptedException("Unknown type id " + typeId);
+        }
+        long createdAt = this.frameIn.readLong();
+        ITransferable transferableObject = this.registry.getCodec(type).read(this.frameIn);
+        if (this.frame.available() > 0) {
+            throw new StreamCorruptedException("Frame of type " + type + " has " + this.frame.available() + " unread bytes");
+        }
+        if (transferableObject instanceof TransferableObject) {
+            ((TransferableObject) transferableObject).setCreatedAt(new Timestamp(createdAt));
+        }
+        return transferableObject;
+    }
+
+    /**
+     * Liest den Frame, der an der Stelle offset beginnt. getFrameLength muss vorher bestätigt haben,
+     * dass er vollständig ist
+     */
+    public ITransferable decodeFrame(byte[] data, int offset, int frameLength) throws IOException {
+        int prefixLength = 1;
+        while ((data[offset + prefixLength - 1] & 0x80) != 0) {
+            prefixLength++;
+        }
+        return this.decode(data, offset + prefixLength, frameLength - prefixLength);
+    }
+
+    private void encodeBody(ITransferable transferableObject) throws IOException {
+        TransferableType type = transferableObject.getType();
+        this.body.reset();
+        this.bodyOut.writeByte(type.getId());
+        if (transferableObject instanceof TransferableObject && ((TransferableObject) transferableObject).getCreatedAt() != null) {
+            this.bodyOut.writeLong(((TransferableObject) transferableObject).getCreatedAt().getTime());
+        } else {
+            this.bodyOut.writeLong(System.currentTimeMillis());
+        }
+        this.registry.getCodec(type).write(transferableObject, this.bodyOut);
+        this.bodyOut.flush();
+        checkFrameLength(this.body.size());
+    }
+
+    private int writeLengthPrefix() {
+        int value = this.body.size();
+        int length = 0;
+        while ((value & ~0x7F) != 0) {
+            this.lengthPrefix[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.lengthPrefix[length++] = (byte) value;
+        return length;
+    }
+
+    /**
+     * ByteArrayOutputStream, dessen Puffer ohne Kopie gelesen werden kann
+     */
+    private static class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+        public ReusableByteArrayOutputStream(int size) {
+            super(size);
+        }
+
+        public byte[] getBuffer() {
+            return buf;
+        }
+    }
+
+    /**
+     * ByteArrayInputStream, der auf einen neuen Bereich gesetzt werden kann
+     */
+    private static class ReusableByteArrayInputStream extends ByteArrayInputStream {
+
+        public ReusableByteArrayInputStream() {
+            super(new byte[0]);
+        }
+
+        public void setBuffer(byte[] data, int offset, int length) {
+            this.buf = data;
+            this.pos = offset;
+            this.count = offset + length;
+            this.mark = offset;
+        }
+    }
+}
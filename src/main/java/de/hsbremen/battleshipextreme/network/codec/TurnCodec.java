@@ -0,0 +1,48 @@
+package de.hsbremen.battleshipextreme.network.codec;
+
+import de.hsbremen.battleshipextreme.model.ship.ShipType;
+import de.hsbremen.battleshipextreme.network.transfarableObject.Turn;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Created on 18.10.2026.
+ * Codec für einen Spielzug, den ein Client an den Server sendet
+ */
+public class TurnCodec implements ITransferableCodec<Turn> {
+
+    public void write(Turn turn, DataOutput out) throws IOException {
+        out.writeBoolean(turn.isReloading());
+        BinaryFormat.writeString(out, turn.getGameId());
+        BinaryFormat.writeString(out, turn.getAttackingPlayerName());
+        if (turn.isReloading()) {
+            return;
+        }
+        BinaryFormat.writeString(out, turn.getAttackedPlayerName());
+        out.writeShort(turn.getFieldX());
+        out.writeShort(turn.getFieldY());
+        out.writeBoolean(turn.isHorizontal());
+        BinaryFormat.writeEnum(out, turn.getShipType());
+    }
+
+    public Turn read(DataInput in) throws IOException {
+        boolean isReloading = in.readBoolean();
+        String gameId = BinaryFormat.readString(in);
+        String attackingPlayerName = BinaryFormat.readString(in);
+        Turn turn;
+        if (isReloading) {
+            turn = new Turn(attackingPlayerName);
+        } else {
+            String attackedPlayerName = BinaryFormat.readString(in);
+            int fieldX = in.readShort();
+            int fieldY = in.readShort();
+            boolean isHorizontal = in.readBoolean();
+            ShipType shipType = BinaryFormat.readEnum(in, ShipType.values());
+            turn = new Turn(attackingPlayerName, attackedPlayerName, fieldX, fieldY, isHorizontal, shipType);
+        }
+        turn.setGameId(gameId);
+        return turn;
+    }
+}
@@ -16,6 +16,13 @@ public class ClientMessage extends Message {
         this.info = (ClientInfo) sender;
     }
 
+    /**
+     * Gibt die Informationen über den Client zurück, welcher die Nachricht sendet
+     */
+    public ClientInfo getInfo() {
+        return info;
+    }
+
     @Override
     public TransferableType getType() {
         return TransferableType.ClientMessage;
@@ -0,0 +1,37 @@
+package de.hsbremen.battleshipextreme.network.transfarableObject;
+
+import de.hsbremen.battleshipextreme.network.GameListChangeType;
+import de.hsbremen.battleshipextreme.network.TransferableType;
+
+/**
+ * Created on 18.10.2026.
+ * Einzelne Änderung an der Spieleliste der Lobby. Jede Änderung erhöht die Version um eins, fehlt beim
+ * Client eine Version, muss er einen neuen GameListSnapshot anfordern
+ */
+public class GameListChange extends TransferableObject {
+    private long version; // Version der Spieleliste nach dieser Änderung
+    private GameListChangeType changeType;
+    private GameSummary game; // betroffenes Spiel
+
+    public GameListChange(long version, GameListChangeType changeType, GameSummary game) {
+        this.version = version;
+        this.changeType = changeType;
+        this.game = game;
+    }
+
+    public TransferableType getType() {
+        return TransferableType.GameListChange;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public GameListChangeType getChangeType() {
+        return changeType;
+    }
+
+    public GameSummary getGame() {
+        return game;
+    }
+}
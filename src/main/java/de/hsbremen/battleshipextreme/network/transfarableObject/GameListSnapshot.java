@@ -0,0 +1,32 @@
+package de.hsbremen.battleshipextreme.network.transfarableObject;
+
+import de.hsbremen.battleshipextreme.network.TransferableType;
+
+import java.util.ArrayList;
+
+/**
+ * Created on 18.10.2026.
+ * Stand der Spieleliste der Lobby zu einer bestimmten Version. Alle folgenden Änderungen werden nur noch
+ * als GameListChange mit fortlaufender Version übertragen
+ */
+public class GameListSnapshot extends TransferableObject {
+    private long version; // Version der Spieleliste
+    private ArrayList<GameSummary> games; // Zusammenfassungen aller Spiele
+
+    public GameListSnapshot(long version, ArrayList<GameSummary> games) {
+        this.version = version;
+        this.games = games;
+    }
+
+    public TransferableType getType() {
+        return TransferableType.GameListSnapshot;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public ArrayList<GameSummary> getGames() {
+        return games;
+    }
+}
@@ -0,0 +1,63 @@
+package de.hsbremen.battleshipextreme.network.transfarableObject;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * Created on 18.10.2026.
+ * Zusammenfassung eines Spiels für die Lobby. Enthält nur die Angaben, die im Spielebrowser angezeigt
+ * werden, und nicht das komplette Spiel mit Spielern, Boards und Spielzügen
+ */
+public class GameSummary implements Serializable {
+    private String id; // Spiel ID
+    private String name; // Name des Spiels
+    private int joinedPlayers; // Anzahl der gejointen Spieler
+    private int maxPlayers; // maximale Anzahl der möglichen Spieler im Spiel
+    private boolean isPrivate; // Spiel ist passwortgeschützt
+    private Timestamp createdAt;
+
+    public GameSummary(String id, String name, int joinedPlayers, int maxPlayers, boolean isPrivate, Timestamp createdAt) {
+        this.id = id;
+        this.name = name;
+        this.joinedPlayers = joinedPlayers;
+        this.maxPlayers = maxPlayers;
+        this.isPrivate = isPrivate;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Erzeugt die Zusammenfassung eines Spiels mit dem aktuellen Stand der gejointen Spieler
+     */
+    public GameSummary(NetGame game) {
+        this(game.getId(), game.getName(), game.getJoinedPlayers().size(), game.getMaxPlayers(), game.isPrivate(), game.getCreatedAt());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getJoinedPlayers() {
+        return joinedPlayers;
+    }
+
+    public int getMaxPlayers() {
+        return maxPlayers;
+    }
+
+    public boolean isPrivate() {
+        return isPrivate;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return getName() + " (" + getJoinedPlayers() + "/ " + getMaxPlayers() + ")";
+    }
+}
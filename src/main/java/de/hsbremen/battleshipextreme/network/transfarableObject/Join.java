@@ -7,8 +7,11 @@ import de.hsbremen.battleshipextreme.network.TransferableType;
  * Beinhaltet alle Informationen die für das Joinen eines Clients in ein Spiel notwendig sind
  */
 public class Join extends TransferableObject {
+    // fest, damit Clients und Server vor dem Passwortfeld diese Klasse weiterhin deserialisieren können
+    private static final long serialVersionUID = 9097934296182406471L;
     private String client; // Name des Clients
     private String gameId; // ID des Spiels, in welches gejoint werden soll
+    private String password; // Passwort für private Spiele, null bei Clients, die es noch selbst prüfen
 
     public Join(String gameId) {
         this.gameId = gameId;
@@ -29,4 +32,12 @@ public class Join extends TransferableObject {
     public void setClient(String client) {
         this.client = client;
     }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
 }
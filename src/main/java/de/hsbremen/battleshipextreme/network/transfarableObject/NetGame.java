@@ -1,15 +1,28 @@
 package de.hsbremen.battleshipextreme.network.transfarableObject;
 
+import de.hsbremen.battleshipextreme.model.Board;
 import de.hsbremen.battleshipextreme.model.Game;
+import de.hsbremen.battleshipextreme.model.Orientation;
 import de.hsbremen.battleshipextreme.model.Settings;
+import de.hsbremen.battleshipextreme.model.exception.FieldOutOfBoardException;
+import de.hsbremen.battleshipextreme.model.exception.ShipAlreadyPlacedException;
+import de.hsbremen.battleshipextreme.model.exception.ShipOutOfBoardException;
+import de.hsbremen.battleshipextreme.model.player.AIPlayer;
 import de.hsbremen.battleshipextreme.model.player.Player;
+import de.hsbremen.battleshipextreme.model.player.Target;
 import de.hsbremen.battleshipextreme.network.ClientGameIndexQueue;
 import de.hsbremen.battleshipextreme.network.TransferableType;
 import de.hsbremen.battleshipextreme.server.ClientHandler;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Random;
 import java.util.UUID;
 
 /**
@@ -17,16 +30,18 @@ import java.util.UUID;
  * Die Spiellogik innerhalb des Netzwerkspiels
  */
 public class NetGame extends Game {
+    private static final long serialVersionUID = 3742292620736409827L; // Wert vor dem ersten Ändern der Klasse, damit alte Clients sie weiter lesen können
     private String id; // Spiel ID
     private String name; // Name des Spiels
     private HashMap<Integer, ClientHandler> playersMap; // Spieler und ihre Reihenfolge(Setzten, Spielzug) im Spiel
     private ArrayList<Integer> clientIds; // verf�gbare Reihenfolge-IDs
     private ClientGameIndexQueue<Integer> clientTurnOrder; // Queue, die verwendet wird um den nächsten Spieler zu finden, der am Zug ist
-    private int maxPlayers; // maximale Anzahl der möglichen Spieler im Spiel
+    private int maxPlayers; // maximale Anzahl der möglichen Spieler im Spiel, die KI-Spieler sitzen auf den Plätzen dahinter
     private String password; // Password für das Spiel
     private boolean isPrivate;
-    private ArrayList<Turn> turns; // alle Spielzüge, die gemacht wurden
     private boolean ready;
+    private transient String[] seatNames; // Namen der Spieler je Platz, bleiben nach einer Wiederherstellung für die Spieler reserviert
+    private transient boolean recovered; // wiederhergestelltes Spiel, das bei vollständiger Besetzung fortgesetzt wird
 
     public NetGame(String name, String password, Settings settings) {
         super.initialize(settings);
@@ -36,63 +51,115 @@ public class NetGame extends Game {
         this.maxPlayers = settings.getPlayers();
         this.password = password;
         this.isPrivate = !password.equals("");
-        this.turns = new ArrayList<Turn>();
         this.clientIds = new ArrayList<Integer>();
         this.clientTurnOrder = new ClientGameIndexQueue<Integer>();
         this.ready = false;
 
         for (int i = 0; i < maxPlayers; i++) {
-            clientTurnOrder.add(i);
             clientIds.add(i);
             playersMap.put(i, null);
         }
+        // KI-Spieler setzen und schießen wie Menschen in der Reihenfolge ihrer Plätze
+        for (int i = 0; i < getPlayers().length; i++) {
+            clientTurnOrder.add(i);
+        }
     }
 
-    public TransferableType getType() {
-        return TransferableType.Game;
+    private NetGame() {
     }
 
     /**
-     * Fügt einen Spielzug hinzu
+     * Stellt ein Spiel aus einem mit writeState geschriebenen Stand wieder her. Die Plätze der Spieler sind danach
+     * frei, aber für ihre Namen reserviert
+     *
+     * @param version Version des Spielstands wie bei Savegames
      */
-    public void addTurn(Turn turn) {
-        this.turns.add(turn);
+    public static NetGame restore(DataInput in, int version) throws IOException {
+        NetGame game = new NetGame();
+        game.readState(in, version);
+        return game;
+    }
+
+    public TransferableType getType() {
+        return TransferableType.Game;
     }
 
     /**
      * Gibt eine Liste aller gejointen Spieler zurück
      */
     public ArrayList<ClientHandler> getJoinedPlayers() {
-        ArrayList<ClientHandler> result = new ArrayList<ClientHandler>();
-        for (int clientIndex : playersMap.keySet()) {
-            if (playersMap.get(clientIndex) != null) {
-                result.add(playersMap.get(clientIndex));
+        ArrayList<ClientHandler> result = new ArrayList<ClientHandler>(maxPlayers);
+        for (ClientHandler player : playersMap.values()) {
+            if (player != null) {
+                result.add(player);
             }
         }
         return result;
     }
 
     /**
-     * Fügt einen Spieler dem Spiel hinzu
+     * Fügt einen Spieler dem Spiel hinzu. Ist ein Platz für seinen Namen reserviert, erhält er diesen, sonst den
+     * nächsten freien, nicht reservierten Platz
+     *
+     * @return false, wenn kein Platz für den Spieler frei ist
      */
-    public void addPlayer(ClientHandler player) {
-        if (!this.isGameFull()) {
-            this.playersMap.put(clientIds.get(0), player);
-            this.clientIds.remove(clientIds.get(0));
+    public boolean addPlayer(ClientHandler player) {
+        if (this.isGameFull()) {
+            return false;
         }
+        String[] names = this.getSeatNames();
+        Integer seat = null;
+        for (Integer clientId : this.clientIds) {
+            if (player.getUsername() != null && player.getUsername().equals(names[clientId])) {
+                seat = clientId;
+                break;
+            }
+            if (seat == null && names[clientId] == null) {
+                seat = clientId;
+            }
+        }
+        if (seat == null) {
+            return false;
+        }
+        this.playersMap.put(seat, player);
+        this.clientIds.remove(seat);
+        names[seat] = player.getUsername();
+        return true;
     }
 
     /**
-     * Gibt an on das Spiel voll ist
+     * Belegt einen Platz mit einem Spieler, der nicht verbunden ist. Wird beim Wiederherstellen verwendet
      */
-    private boolean isGameFull() {
-        int number = 0;
-        for (int clientIndex : playersMap.keySet()) {
-            if (playersMap.get(clientIndex) != null) {
-                number++;
+    public void occupySeat(int seat, String playerName) {
+        this.clientIds.remove(Integer.valueOf(seat));
+        this.getSeatNames()[seat] = playerName;
+    }
+
+    /**
+     * Gibt den Namen des Spielers auf einem Platz zurück, null wenn der Platz frei ist
+     */
+    public String getSeatName(int seat) {
+        return this.getSeatNames()[seat];
+    }
+
+    /**
+     * Gibt an, ob alle Plätze belegt sind, auch von Spielern, die nach einer Wiederherstellung noch nicht wieder
+     * verbunden sind
+     */
+    public boolean areAllSeatsTaken() {
+        for (String seatName : this.getSeatNames()) {
+            if (seatName == null) {
+                return false;
             }
         }
-        return number >= maxPlayers;
+        return true;
+    }
+
+    /**
+     * Gibt an on das Spiel voll ist
+     */
+    private boolean isGameFull() {
+        return clientIds.isEmpty();
     }
 
     /**
@@ -101,12 +168,274 @@ public class NetGame extends Game {
     public void removePlayer(ClientHandler player) {
         int index = getIndexByClient(player);
         if (index > -1) {
-            playersMap.put(index, null);
+            vacateSeat(index);
+        }
+    }
+
+    /**
+     * Gibt einen Platz frei und setzt Board und Schiffe des Spielers zurück
+     */
+    public void vacateSeat(int index) {
+        playersMap.put(index, null);
+        if (!clientIds.contains(index)) {
             clientIds.add(index);
-            getPlayers()[index].resetBoard();
-            getPlayers()[index].setName("Player " + (index + 1));
-            getPlayers()[index].resetShips();
         }
+        getSeatNames()[index] = null;
+        getPlayers()[index].setName("Player " + (index + 1));
+        resetPlayer(getPlayers()[index]);
+    }
+
+    /**
+     * Gibt nach dem Wiederherstellen alle Plätze für ihre Spieler frei, die Plätze bleiben für deren Namen
+     * reserviert. War das Spiel voll besetzt, wird es fortgesetzt, sobald alle Spieler wieder beigetreten sind
+     */
+    public void releaseSeatsForRejoin() {
+        this.recovered = this.areAllSeatsTaken();
+        String[] names = this.getSeatNames();
+        for (int seat = 0; seat < names.length; seat++) {
+            if (names[seat] != null && !this.clientIds.contains(seat)) {
+                this.clientIds.add(seat);
+            }
+        }
+    }
+
+    /**
+     * Gibt an, ob das Spiel wiederhergestellt wurde und fortgesetzt werden muss, sobald alle Spieler beigetreten
+     * sind
+     */
+    public boolean isRecovered() {
+        return recovered;
+    }
+
+    public void setRecovered(boolean recovered) {
+        this.recovered = recovered;
+    }
+
+    /**
+     * Liefert den Platz, der als nächstes setzen oder schießen darf, und stellt ihn in der Reihenfolge hinten an
+     */
+    public int nextInTurnOrder() {
+        return this.clientTurnOrder.rotate();
+    }
+
+    /**
+     * Liefert den Platz, der zuletzt setzen oder schießen durfte
+     */
+    public int getLastInTurnOrder() {
+        int last = -1;
+        Iterator<Integer> iterator = this.clientTurnOrder.iterator();
+        while (iterator.hasNext()) {
+            last = iterator.next();
+        }
+        return last;
+    }
+
+    /**
+     * Gibt an, ob auf dem Platz ein KI-Spieler sitzt. KI-Spieler werden vom Server gespielt
+     */
+    public boolean isAiSeat(int seat) {
+        return seat >= maxPlayers && seat < getPlayers().length;
+    }
+
+    /**
+     * Gibt die Namen der KI-Spieler zurück
+     */
+    public ArrayList<String> getAiPlayerNames() {
+        ArrayList<String> names = new ArrayList<String>();
+        for (int seat = maxPlayers; seat < getPlayers().length; seat++) {
+            names.add(getPlayers()[seat].getName());
+        }
+        return names;
+    }
+
+    /**
+     * Berechnet den Zug des KI-Spielers, der an der Reihe ist, ohne ihn auszuführen. Läuft in einem Thread des
+     * AiTurnExecutor. Die KI ändert dabei ihren Zustand und liest die Boards der Gegner, das Postfach des Spiels
+     * ist deshalb bis zum Ergebnis angehalten
+     */
+    public Turn planAiTurn() throws Exception {
+        AIPlayer ai = (AIPlayer) this.getCurrentPlayer();
+        Target target = this.planAiTarget();
+        Player enemy = this.getPlayers()[ai.getCurrentEnemyIndex()];
+        return new Turn(ai.getName(), enemy.getName(), target.getX(), target.getY(), target.getOrientation() == Orientation.HORIZONTAL, ai.getCurrentShip().getType());
+    }
+
+    /**
+     * Prüft, ob der Spieler, der an der Reihe ist, den Spielzug so ausführen kann
+     */
+    public boolean isTurnPossible(Turn turn) {
+        Player attacker = this.getCurrentPlayer();
+        if (!attacker.getName().equals(turn.getAttackingPlayerName())) {
+            return false;
+        }
+        if (turn.isReloading()) {
+            return true;
+        }
+        Player enemy = this.getPlayerByName(turn.getAttackedPlayerName());
+        if (enemy == null || enemy == attacker || enemy.hasLost() || !attacker.isShipOfTypeAvailable(turn.getShipType())) {
+            return false;
+        }
+        Board board = enemy.getBoard();
+        return board.containsFieldAtPosition(turn.getFieldX(), turn.getFieldY()) && !board.isHit(turn.getFieldX(), turn.getFieldY());
+    }
+
+    /**
+     * Erzeugt für den Spieler, der an der Reihe ist, einen zufälligen möglichen Spielzug: Das erste verfügbare
+     * Schiff schießt auf ein noch nicht beschossenes Feld eines zufälligen Gegners. Wird verwendet, wenn die KI
+     * ihren Zug nicht rechtzeitig berechnet hat
+     *
+     * @return der Spielzug, ein Nachladezug, wenn der Spieler nicht schießen kann
+     */
+    public Turn createFallbackTurn(Random random) {
+        Player attacker = this.getCurrentPlayer();
+        ArrayList<Player> enemies = this.getEnemiesOfCurrentPlayer();
+        if (attacker.hasLost() || attacker.areAllShipsReloading() || enemies.isEmpty()) {
+            return new Turn(attacker.getName());
+        }
+        Player enemy = enemies.get(random.nextInt(enemies.size()));
+        Board board = enemy.getBoard();
+        // jedes freie Feld mit gleicher Wahrscheinlichkeit wählen, ohne sie zu sammeln. Ein Gegner, der nicht
+        // verloren hat, hat noch unbeschossene Felder
+        int fieldX = 0;
+        int fieldY = 0;
+        int freeFields = 0;
+        for (int y = 0; y < board.getSize(); y++) {
+            for (int x = 0; x < board.getSize(); x++) {
+                if (!board.isHit(x, y) && random.nextInt(++freeFields) == 0) {
+                    fieldX = x;
+                    fieldY = y;
+                }
+            }
+        }
+        return new Turn(attacker.getName(), enemy.getName(), fieldX, fieldY, random.nextBoolean(), attacker.getTypeOFirstAvailableShip());
+    }
+
+    /**
+     * Setzt ein Schiff des Spielers, solange die Schiffe noch gesetzt werden
+     *
+     * @return true, wenn der Spieler damit alle Schiffe gesetzt hat und der nächste Spieler setzen darf oder, falls
+     * alle Spieler fertig sind, das Spiel beginnt
+     */
+    public boolean placeShip(String playerName, ShipPlacedInformation info) {
+        Player player = this.getPlayerByName(playerName);
+        player.setCurrentShipByType(info.getShipType());
+        if (this.ready || this.haveAllPlayersSetTheirShips()) {
+            return false;
+        }
+        if (!player.hasPlacedAllShips()) {
+            try {
+                player.placeShip(info.getX(), info.getY(), info.getOrientation());
+            } catch (ShipAlreadyPlacedException e) {
+                e.printStackTrace();
+            } catch (FieldOutOfBoardException e) {
+                e.printStackTrace();
+            } catch (ShipOutOfBoardException e) {
+                e.printStackTrace();
+            }
+        }
+        if (this.haveAllPlayersSetTheirShips()) {
+            this.setGameToReady();
+            return true;
+        }
+        return player.hasPlacedAllShips();
+    }
+
+    /**
+     * Führt einen Spielzug aus. Ist das Spiel danach nicht vorbei, ist der nächste Spieler an der Reihe
+     *
+     * @return true, wenn danach der nächste Spielzug angestoßen werden muss
+     */
+    public boolean applyTurn(Turn turn) throws FieldOutOfBoardException {
+        if (!turn.isReloading()) {
+            Orientation orientation = turn.isHorizontal() ? Orientation.HORIZONTAL : Orientation.VERTICAL;
+            this.getCurrentPlayer().setCurrentShipByType(turn.getShipType());
+            this.makeTurn(this.getPlayerByName(turn.getAttackedPlayerName()), turn.getFieldX(), turn.getFieldY(), orientation);
+        }
+        if (this.isGameover()) {
+            return false;
+        }
+        this.nextPlayer();
+        return turn.isReloading() || this.isReady();
+    }
+
+    /**
+     * Schreibt den Spielstand und zusätzlich ID, Name, Passwort, Plätze und Zugreihenfolge des Netzwerkspiels
+     */
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        super.writeState(out);
+        out.writeUTF(id);
+        out.writeUTF(name);
+        out.writeUTF(password);
+        for (String seatName : this.getSeatNames()) {
+            out.writeBoolean(seatName != null);
+            if (seatName != null) {
+                out.writeUTF(seatName);
+            }
+        }
+        out.writeByte(clientIds.size());
+        for (int clientId : clientIds) {
+            out.writeByte(clientId);
+        }
+        out.writeByte(clientTurnOrder.size());
+        Iterator<Integer> iterator = clientTurnOrder.iterator();
+        while (iterator.hasNext()) {
+            out.writeByte(iterator.next());
+        }
+        out.writeBoolean(ready);
+    }
+
+    @Override
+    public void readState(DataInput in, int version) throws IOException {
+        super.readState(in, version);
+        this.id = in.readUTF();
+        this.name = in.readUTF();
+        this.password = in.readUTF();
+        this.isPrivate = !password.equals("");
+        this.maxPlayers = getSettings().getPlayers();
+        this.playersMap = new HashMap<Integer, ClientHandler>();
+        this.seatNames = new String[maxPlayers];
+        for (int i = 0; i < maxPlayers; i++) {
+            playersMap.put(i, null);
+            if (in.readBoolean()) {
+                seatNames[i] = in.readUTF();
+            }
+        }
+        this.clientIds = new ArrayList<Integer>();
+        int numberOfClientIds = in.readUnsignedByte();
+        for (int i = 0; i < numberOfClientIds; i++) {
+            clientIds.add(readSeat(in, maxPlayers));
+        }
+        this.clientTurnOrder = new ClientGameIndexQueue<Integer>();
+        int numberOfTurnOrderEntries = in.readUnsignedByte();
+        for (int i = 0; i < numberOfTurnOrderEntries; i++) {
+            clientTurnOrder.add(readSeat(in, getPlayers().length));
+        }
+        this.ready = in.readBoolean();
+    }
+
+    private int readSeat(DataInput in, int seats) throws IOException {
+        int seat = in.readUnsignedByte();
+        if (seat >= seats) {
+            throw new StreamCorruptedException("Invalid seat " + seat);
+        }
+        return seat;
+    }
+
+    /**
+     * Namen der Spieler je Platz. Vom Client empfangene Spiele wurden deserialisiert, das Feld wird daher erst
+     * bei Bedarf angelegt
+     */
+    private String[] getSeatNames() {
+        if (seatNames == null) {
+            seatNames = new String[maxPlayers];
+            for (Map.Entry<Integer, ClientHandler> entry : playersMap.entrySet()) {
+                if (entry.getValue() != null) {
+                    seatNames[entry.getKey()] = entry.getValue().getUsername();
+                }
+            }
+        }
+        return seatNames;
     }
 
     /**
@@ -202,10 +531,11 @@ public class NetGame extends Game {
      * Synchronisiert die Soielernamen der gejointen und den spielenden Spielern
      */
     public void updatePlayerNames() {
+        String[] names = getSeatNames();
         for (Map.Entry<Integer, ClientHandler> entry : getPlayersMap().entrySet()) {
             ClientHandler value = entry.getValue();
             Integer index = entry.getKey();
-            getPlayers()[index].setName(value.getUsername());
+            getPlayers()[index].setName(value != null ? value.getUsername() : names[index]);
         }
     }
 }
@@ -0,0 +1,237 @@
+package de.hsbremen.battleshipextreme.server;
+
+import de.hsbremen.battleshipextreme.network.IDisposable;
+import de.hsbremen.battleshipextreme.network.transfarableObject.Turn;
+import de.hsbremen.battleshipextreme.server.listener.IAiTurnListener;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created on 18.10.2026.
+ * Berechnet die Züge der KI-Spieler in Netzwerkspielen auf einem eigenen Threadpool. Die Postfächer der Spiele und
+ * die I/O-Threads warten nie auf eine KI: Sie übergeben die Berechnung und erhalten das Ergebnis später als Aufgabe
+ * in ihrem Postfach. Der Pool hat weniger Threads als der Rechner Kerne, viele KI-Spieler bremsen die Postfächer der
+ * Spiele mit Menschen daher nicht aus, sondern warten in einer begrenzten Warteschlange.
+ *
+ * Jede Berechnung hat ein Zeitbudget. Ist die Warteschlange voll, wirft die Berechnung eine Exception oder ist das
+ * Budget abgelaufen, erhält das Postfach null und macht einen Ersatzzug. Jede Berechnung wird genau einmal
+ * beantwortet, und zwar erst, wenn sie nicht mehr läuft: Eine begonnene Berechnung wird bei Ablauf des Budgets
+ * unterbrochen und erst nach ihrer Rückkehr mit null beantwortet, eine noch wartende wird gar nicht mehr begonnen.
+ * Bis zur Antwort arbeitet die Berechnung also allein mit dem Spiel
+ */
+public class AiTurnExecutor implements IDisposable {
+// ------------------------------ FIELDS ------------------------------
+
+    public static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    public static final long DEFAULT_MOVE_BUDGET_MILLIS = 2000;
+    private static final int QUEUED_TURNS_PER_THREAD = 256;
+    // Zustände einer übergebenen Berechnung
+    private static final int WAITING = 0;
+    private static final int RUNNING = 1;
+    private static final int COMPUTED = 2;
+    private static final int EXPIRED = 3;
+
+    private ThreadPoolExecutor workers;
+    private ScheduledThreadPoolExecutor timer; // beantwortet Berechnungen, deren Zeitbudget abgelaufen ist
+    private long moveBudgetMillis;
+    private AtomicLong computedTurns;
+    private AtomicLong failedTurns;
+    private AtomicLong timedOutTurns;
+    private AtomicLong rejectedTurns;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    /**
+     * @param threads          Anzahl der Threads, die gleichzeitig KI-Züge berechnen
+     * @param moveBudgetMillis Zeit, nach der ein Zug spätestens beantwortet wird
+     */
+    public AiTurnExecutor(int threads, long moveBudgetMillis) {
+        this.moveBudgetMillis = moveBudgetMillis;
+        // Threads werden erst beim ersten Zug gestartet
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(threads * QUEUED_TURNS_PER_THREAD), new ThreadFactory() {
+            private AtomicInteger threadNumber = new AtomicInteger();
+
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "AI-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "AI-Timer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+        this.computedTurns = new AtomicLong();
+        this.failedTurns = new AtomicLong();
+        this.timedOutTurns = new AtomicLong();
+        this.rejectedTurns = new AtomicLong();
+    }
+
+// --------------------- GETTER / SETTER METHODS ---------------------
+
+    public long getMoveBudgetMillis() {
+        return moveBudgetMillis;
+    }
+
+    /**
+     * Anzahl der rechtzeitig berechneten Züge
+     */
+    public long getComputedTurns() {
+        return computedTurns.get();
+    }
+
+    /**
+     * Anzahl der Berechnungen, die mit einer Exception abgebrochen sind
+     */
+    public long getFailedTurns() {
+        return failedTurns.get();
+    }
+
+    /**
+     * Anzahl der Berechnungen, deren Zeitbudget abgelaufen ist
+     */
+    public long getTimedOutTurns() {
+        return timedOutTurns.get();
+    }
+
+    /**
+     * Anzahl der Berechnungen, die wegen voller Warteschlange nicht angenommen wurden
+     */
+    public long getRejectedTurns() {
+        return rejectedTurns.get();
+    }
+
+// --------------------- Interface IDisposable ---------------------
+
+    /**
+     * Beendet die Threads, laufende Berechnungen werden nicht mehr beantwortet
+     */
+    public void dispose() {
+        this.workers.shutdownNow();
+        this.timer.shutdownNow();
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    /**
+     * Übergibt die Berechnung eines Zugs, blockiert nie. Das Ergebnis wird dem Listener genau einmal als Aufgabe im
+     * übergebenen Postfach übergeben, nachdem die Berechnung zurückgekehrt ist oder feststeht, dass sie nicht mehr
+     * beginnt
+     *
+     * @param computation berechnet den Zug, läuft in einem Thread des Pools
+     * @param mailbox     Postfach des Spiels
+     * @param listener    erhält den Zug oder null
+     */
+    public void submit(Callable<Turn> computation, Executor mailbox, IAiTurnListener listener) {
+        PendingTurn pendingTurn = new PendingTurn(computation, mailbox, listener);
+        try {
+            pendingTurn.future = this.workers.submit(pendingTurn);
+        } catch (RejectedExecutionException e) {
+            this.rejectedTurns.incrementAndGet();
+            pendingTurn.answer(null);
+            return;
+        }
+        try {
+            pendingTurn.timeout = this.timer.schedule(new Runnable() {
+                public void run() {
+                    pendingTurn.expire();
+                }
+            }, this.moveBudgetMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return; // Server wird beendet
+        }
+        if (pendingTurn.state.get() == COMPUTED) {
+            // schon fertig, bevor der Timer gesetzt war
+            pendingTurn.timeout.cancel(false);
+        }
+    }
+
+// -------------------------- INNER CLASSES --------------------------
+
+    /**
+     * Eine übergebene Berechnung. Ihr Zustand entscheidet, wer sie beantwortet: der Pool, wenn sie fertig wird,
+     * bevor das Budget abläuft, sonst der Timer, wenn sie noch nicht begonnen hat, sonst der Pool nach ihrer
+     * Rückkehr mit null
+     */
+    private final class PendingTurn implements Runnable {
+        private final Callable<Turn> computation;
+        private final Executor mailbox;
+        private final IAiTurnListener listener;
+        private final AtomicInteger state;
+        private volatile Future<?> future;
+        private volatile ScheduledFuture<?> timeout;
+
+        private PendingTurn(Callable<Turn> computation, Executor mailbox, IAiTurnListener listener) {
+            this.computation = computation;
+            this.mailbox = mailbox;
+            this.listener = listener;
+            this.state = new AtomicInteger(WAITING);
+        }
+
+        public void run() {
+            if (!this.state.compareAndSet(WAITING, RUNNING)) {
+                return; // Budget schon vor dem Beginn abgelaufen
+            }
+            Turn turn;
+            try {
+                turn = this.computation.call();
+            } catch (Exception e) {
+                failedTurns.incrementAndGet();
+                turn = null;
+            }
+            if (this.state.compareAndSet(RUNNING, COMPUTED)) {
+                if (turn != null) {
+                    computedTurns.incrementAndGet();
+                }
+                ScheduledFuture<?> scheduledTimeout = this.timeout;
+                if (scheduledTimeout != null) {
+                    scheduledTimeout.cancel(false);
+                }
+                this.answer(turn);
+            } else {
+                this.answer(null);
+            }
+        }
+
+        /**
+         * Das Zeitbudget ist abgelaufen. Eine wartende Berechnung wird nicht mehr begonnen und sofort mit null
+         * beantwortet, eine laufende wird unterbrochen
+         */
+        private void expire() {
+            if (this.state.compareAndSet(WAITING, EXPIRED)) {
+                timedOutTurns.incrementAndGet();
+                this.future.cancel(false);
+                this.answer(null);
+            } else if (this.state.compareAndSet(RUNNING, EXPIRED)) {
+                timedOutTurns.incrementAndGet();
+                this.future.cancel(true);
+            }
+        }
+
+        /**
+         * Übergibt das Ergebnis dem Postfach, wird für jede Berechnung genau einmal aufgerufen
+         */
+        private void answer(final Turn turn) {
+            this.mailbox.execute(new Runnable() {
+                public void run() {
+                    listener.onTurnComputed(turn);
+                }
+            });
+        }
+    }
+}
@@ -3,30 +3,61 @@ package de.hsbremen.battleshipextreme.server;
 import de.hsbremen.battleshipextreme.network.IDisposable;
 import de.hsbremen.battleshipextreme.network.ITransferable;
 import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
+import de.hsbremen.battleshipextreme.network.codec.CodecRegistry;
+import de.hsbremen.battleshipextreme.network.codec.ProtocolHandshake;
 import de.hsbremen.battleshipextreme.network.eventhandling.EventArgs;
 
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Created on 25.04.2015.
  * Wartet auf Client Verbindungsanfragen. Erstellt dann für jeden Client einen Thread für das
  * Senden und Empfangen von Objekten. Anschließend wird er der Clientlist des Server hinzugefügt.
+ * Die Threads liefert eine ClientThreadFactory, es können also auch virtuelle Threads sein.
+ * Vorher wird mit dem Client ausgehandelt, ob Java-Serialisierung oder das Binärprotokoll verwendet wird.
  */
 public class ClientAccepter extends Thread implements IDisposable {
 // ------------------------------ FIELDS ------------------------------
 
     private ServerSocket serverSocket;
     private ServerDispatcher serverDispatcher;
-    private boolean disposed;
+    private ThreadFactory threadFactory;
+    private int maxBatchSize;
+    private long lingerMicros;
+    private volatile boolean disposed;
 
 // --------------------------- CONSTRUCTORS ---------------------------
 
     public ClientAccepter(ServerSocket serverSocket, ServerDispatcher serverDispatcher) {
+        this(serverSocket, serverDispatcher, new ClientThreadFactory(false));
+    }
+
+    public ClientAccepter(ServerSocket serverSocket, ServerDispatcher serverDispatcher, ThreadFactory threadFactory) {
         this.disposed = false;
         this.serverSocket = serverSocket;
         this.serverDispatcher = serverDispatcher;
+        this.threadFactory = threadFactory;
+        this.maxBatchSize = ClientSender.DEFAULT_MAX_BATCH_SIZE;
+        this.lingerMicros = 0;
+    }
+
+// --------------------- GETTER / SETTER METHODS ---------------------
+
+    /**
+     * Maximale Anzahl Objekte, die ein ClientSender mit einem flush sendet
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Wartezeit eines ClientSenders auf weitere Objekte, bevor er sendet. 0 sendet sofort
+     */
+    public void setLingerMicros(long lingerMicros) {
+        this.lingerMicros = lingerMicros;
     }
 
 // --------------------- Interface IDisposable ---------------------
@@ -48,29 +79,34 @@ public class ClientAccepter extends Thread implements IDisposable {
             try {
                 Socket socket = serverSocket.accept();
                 // Prüfe ob die Maximale Anzahl von Clients auf dem Server erreicht wurde
-                if (serverDispatcher.getClients().size() >= serverDispatcher.getMaxPlayers()) {
+                if (serverDispatcher.isFull()) {
                     socket.close();
+                    continue;
                 }
+                // die ClientSender bündeln selbst, Nagle würde nur zusätzlich verzögern
+                socket.setTcpNoDelay(true);
                 ClientHandler clientHandler = new ClientHandler(socket);
+                ProtocolHandshake handshake;
+                try {
+                    handshake = ProtocolHandshake.acceptClient(socket, CodecRegistry.getDefault());
+                } catch (IOException e) {
+                    this.serverDispatcher.getErrorHandler().errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Handshake with " + socket.getInetAddress().getHostAddress() + ":" + socket.getPort() + " failed")));
+                    socket.close();
+                    continue;
+                }
                 // Erstellt Thread für das Senden von Daten an den Server
-                ClientSender clientSender = new ClientSender(clientHandler, serverDispatcher);
+                clientHandler.setBinaryProtocol(handshake.isBinary());
+                ClientSender clientSender = new ClientSender(clientHandler, serverDispatcher, handshake.getOutput(), this.maxBatchSize, this.lingerMicros);
                 // Erstellt Thread für das Empfangen von Daten vom Server
-                ClientListener clientListener = new ClientListener(clientHandler, serverDispatcher);
+                ClientListener clientListener = new ClientListener(clientHandler, serverDispatcher, handshake.getInput());
 
                 clientHandler.setClientListener(clientListener);
                 clientHandler.setClientSender(clientSender);
-                // Starte Threads
-                clientListener.start();
-                clientSender.start();
-
-                // Füge den neunen Client dem Server hinzu
-                serverDispatcher.addClient(clientHandler);
-                // Prüfe ob der Client gebannt ist
-                boolean isBanned = serverDispatcher.isBanned(socket.getInetAddress().getHostAddress());
-                if (isBanned) {
-                    serverDispatcher.unicast(TransferableObjectFactory.CreateError("You are banned from this server!"), clientHandler);
-                    serverDispatcher.removeClient(clientHandler);
-                }
+                this.threadFactory.newThread(clientSender).start();
+                // Füge den neunen Client dem Server hinzu, bevor Objekte von ihm gelesen werden. Sonst kann die
+                // Antwort auf den Login verloren gehen, da unicast nur an bekannte Clients sendet
+                serverDispatcher.connectClient(clientHandler);
+                this.threadFactory.newThread(clientListener).start();
             } catch (IOException e) {
                 this.serverDispatcher.getErrorHandler().errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Stopped listening for clients")));
             }
@@ -16,10 +16,13 @@ import java.net.Socket;
 public class ClientHandler extends TransferableObject implements IDisposable, Serializable {
 // ------------------------------ FIELDS ------------------------------
 
+    private static final long serialVersionUID = 7202692164675713396L; // Wert der ursprünglichen Klasse, ClientHandler werden mit NetGame an alte Clients gesendet
     private transient Socket socket;
-    private transient ClientSender clientSender;
-    private transient ClientListener clientListener;
+    private transient IClientSender clientSender;
+    private transient IDisposable clientListener;
     private String username;
+    private transient volatile boolean lobbySubscriber; // erhält Änderungen der Spieleliste statt ganzer GameLists
+    private transient volatile boolean binaryProtocol;
 
 // --------------------------- CONSTRUCTORS ---------------------------
 
@@ -33,14 +36,14 @@ public class ClientHandler extends TransferableObject implements IDisposable, Se
      * Gets the ClientListener
      * @return ClientListener object
      */
-    public ClientListener getClientListener() {
+    public IDisposable getClientListener() {
         return clientListener;
     }
 
     /**
      * Sets the ClientListener for receive data from the client
      */
-    public void setClientListener(ClientListener listener) {
+    public void setClientListener(IDisposable listener) {
         this.clientListener = listener;
     }
 
@@ -48,14 +51,14 @@ public class ClientHandler extends TransferableObject implements IDisposable, Se
      * Gets the ClientSender object
      * @return ClientSender object
      */
-    public ClientSender getClientSender() {
+    public IClientSender getClientSender() {
         return clientSender;
     }
 
     /**
      * Sets the ClientSender for sending data to the client
      */
-    public void setClientSender(ClientSender sender) {
+    public void setClientSender(IClientSender sender) {
         this.clientSender = sender;
     }
 
@@ -82,6 +85,28 @@ public class ClientHandler extends TransferableObject implements IDisposable, Se
         this.username = username;
     }
 
+    /**
+     * Gibt an, ob der Client die Spieleliste abonniert hat
+     */
+    public boolean isLobbySubscriber() {
+        return lobbySubscriber;
+    }
+
+    public void setLobbySubscriber(boolean lobbySubscriber) {
+        this.lobbySubscriber = lobbySubscriber;
+    }
+
+    /**
+     * Gibt an, ob mit dem Client das Binärprotokoll ausgehandelt wurde
+     */
+    public boolean isBinaryProtocol() {
+        return binaryProtocol;
+    }
+
+    public void setBinaryProtocol(boolean binaryProtocol) {
+        this.binaryProtocol = binaryProtocol;
+    }
+
 
 // --------------------- Interface IDisposable ---------------------
 
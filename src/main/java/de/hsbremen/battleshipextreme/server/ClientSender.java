@@ -1,39 +1,57 @@
 package de.hsbremen.battleshipextreme.server;
 
-import de.hsbremen.battleshipextreme.network.IDisposable;
 import de.hsbremen.battleshipextreme.network.ITransferable;
 import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
+import de.hsbremen.battleshipextreme.network.codec.ITransferableOutput;
 import de.hsbremen.battleshipextreme.network.eventhandling.EventArgs;
 
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.net.Socket;
-import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Created on 26.04.2015.
  * Wird zum Senden vom Objekten an den Client verwendet, dabei werden alle Objekte in eine Warteschlange
- * eingereiht und und run nach und nach abgearbeitet
+ * eingereiht und und run nach und nach abgearbeitet.
+ * Die Warteschlange kommt ohne Locks aus: beliebig viele Threads (Postfächer der Spiele, Lobby, Broadcasts)
+ * fügen Objekte hinzu, nur der Thread des ClientSenders entnimmt sie. Er entnimmt bei jedem Aufwachen alle
+ * vorhandenen Objekte (höchstens maxBatchSize) und sendet sie mit einem einzigen flush, z.B. einen ClientTurn
+ * zusammen mit dem folgenden GameOver und MakeTurn.
+ * Die Warteschlange ist begrenzt (OutboundQueue), liest der Client nicht schnell genug, wird er getrennt
  */
-public class ClientSender extends Thread implements IDisposable, Serializable {
+public class ClientSender implements Runnable, IClientSender, Serializable {
 // ------------------------------ FIELDS ------------------------------
 
-    private Vector<ITransferable> objectQueue;
+    /**
+     * Maximale Anzahl Objekte, die standardmäßig mit einem flush gesendet werden
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+    private OutboundQueue objectQueue;
     private ServerDispatcher serverDispatcher;
     private ClientHandler clientHandler;
-    private ObjectOutputStream out;
-    private boolean disposed;
+    private ITransferableOutput out;
+    private int maxBatchSize;
+    private long lingerNanos; // so lange wird nach dem ersten Objekt auf weitere gewartet
+    private volatile Thread thread;
+    private volatile boolean waiting; // der Thread wartet auf neue Objekte und muss geweckt werden
+    private volatile boolean disposed;
 
 // --------------------------- CONSTRUCTORS ---------------------------
 
-    public ClientSender(ClientHandler clientHandler, ServerDispatcher serverDispatcher) throws IOException {
+    public ClientSender(ClientHandler clientHandler, ServerDispatcher serverDispatcher, ITransferableOutput out) {
+        this(clientHandler, serverDispatcher, out, DEFAULT_MAX_BATCH_SIZE, 0);
+    }
+
+    public ClientSender(ClientHandler clientHandler, ServerDispatcher serverDispatcher, ITransferableOutput out, int maxBatchSize, long lingerMicros) {
         this.disposed = false;
-        this.objectQueue = new Vector<ITransferable>();
+        this.objectQueue = serverDispatcher.createOutboundQueue(clientHandler);
         this.clientHandler = clientHandler;
         this.serverDispatcher = serverDispatcher;
-        Socket socket = clientHandler.getSocket();
-        this.out = new ObjectOutputStream(socket.getOutputStream());
+        this.out = out;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, lingerMicros));
     }
 
 
@@ -43,17 +61,18 @@ public class ClientSender extends Thread implements IDisposable, Serializable {
      * Hole dir nach und nach die Items aus der Warteschlange
      */
     public void run() {
+        this.thread = Thread.currentThread();
         try {
-            while (!isInterrupted() && !this.disposed) {
-                ITransferable message = this.getNextObjectFromQueue();
-                this.send(message);
+            while (!this.thread.isInterrupted() && !this.disposed) {
+                this.awaitObjects();
+                this.sendBatch();
             }
         } catch (Exception e) {
             this.dispose();
         }
 
-        // Communication is broken. Interrupt both listener and sender threads
-        this.clientHandler.getClientListener().interrupt();
+        // Communication is broken. Stop both listener and sender
+        this.clientHandler.getClientListener().dispose();
         this.serverDispatcher.removeClient(this.clientHandler);
     }
 
@@ -62,30 +81,64 @@ public class ClientSender extends Thread implements IDisposable, Serializable {
     /**
      * Für ein Objekt in die Warteschlange hinzu
      */
-    public synchronized void addObjectToQueue(ITransferable transferableObject) {
-        this.objectQueue.add(transferableObject);
-        notify();
+    public void addObjectToQueue(ITransferable transferableObject) {
+        if (this.disposed) {
+            return;
+        }
+        if (!this.objectQueue.offer(transferableObject)) {
+            // nicht selbst dispose() aufrufen: der Thread kann beim Schreiben blockiert sein und hält dann den
+            // Stream, erst das Schließen des Sockets durch den ClientHandler gibt ihn frei
+            this.disposed = true;
+            this.serverDispatcher.evictClient(this.clientHandler);
+            return;
+        }
+        // nur wecken, wenn der Thread wirklich wartet, ein Burst weckt ihn also nur einmal
+        if (this.waiting) {
+            LockSupport.unpark(this.thread);
+        }
     }
 
     /**
-     * Liefert das nächste Objekt von der Warteschlange, welches versendet werden soll
+     * Wartet, bis mindestens ein Objekt in der Warteschlange liegt. LockSupport statt Locks, damit virtuelle
+     * Threads beim Warten nicht an ihren Trägerthread gebunden werden
      */
-    private synchronized ITransferable getNextObjectFromQueue() throws InterruptedException {
-        while (this.objectQueue.size() == 0) {
-            wait();
+    private void awaitObjects() throws InterruptedException {
+        while (this.objectQueue.isEmpty()) {
+            this.waiting = true;
+            // ein Objekt kann hinzugekommen sein, bevor waiting gesetzt war
+            if (this.objectQueue.isEmpty()) {
+                LockSupport.park(this);
+                // der Absender des ersten Objekts hat meist gleich weitere, die noch in diesen Batch sollen
+                Thread.yield();
+            }
+            this.waiting = false;
+            if (Thread.interrupted() || this.disposed) {
+                throw new InterruptedException();
+            }
         }
-        ITransferable transferableObject = this.objectQueue.get(0);
-        this.objectQueue.removeElementAt(0);
-        return transferableObject;
     }
 
     /**
-     * Sendet on Objekt vom type ITransferable zum CLient
+     * Schreibt alle vorhandenen Objekte, höchstens aber maxBatchSize, und sendet sie mit einem flush
      */
-    private void send(ITransferable transferableObject) {
+    private void sendBatch() {
         try {
-            this.out.reset(); // wird benötig damit alte Objekte vom Stream gelöscht werden
-            this.out.writeObject(transferableObject);
+            boolean lingered = this.lingerNanos == 0;
+            int count = 0;
+            while (count < this.maxBatchSize) {
+                ITransferable transferableObject = this.objectQueue.poll();
+                if (transferableObject == null) {
+                    if (lingered) {
+                        break;
+                    }
+                    // einmalig kurz auf weitere Objekte warten, die noch im selben flush gesendet werden können
+                    LockSupport.parkNanos(this, this.lingerNanos);
+                    lingered = true;
+                    continue;
+                }
+                this.out.append(transferableObject);
+                count++;
+            }
             this.out.flush();
         } catch (IOException e) {
             dispose();
@@ -97,6 +150,12 @@ public class ClientSender extends Thread implements IDisposable, Serializable {
      */
     public void dispose() {
         this.disposed = true;
+        this.objectQueue.clear();
+        // weckt den Thread auf, falls er auf neue Objekte wartet
+        Thread thread = this.thread;
+        if (thread != null) {
+            thread.interrupt();
+        }
         try {
             this.out.close();
         } catch (IOException e) {
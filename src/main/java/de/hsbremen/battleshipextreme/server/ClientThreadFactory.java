@@ -0,0 +1,63 @@
+package de.hsbremen.battleshipextreme.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created on 18.10.2026.
+ * Erzeugt die Threads für ClientListener und ClientSender. Auf Wunsch werden virtuelle Threads verwendet.
+ * Diese gibt es erst ab Java 21, deshalb werden sie per Reflection erzeugt. Auf älteren Laufzeitumgebungen
+ * werden wie bisher Plattform-Threads erzeugt, isVirtual() liefert dann false.
+ */
+public class ClientThreadFactory implements ThreadFactory {
+// ------------------------------ FIELDS ------------------------------
+
+    private ThreadFactory virtualThreadFactory;
+    private AtomicInteger threadNumber;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public ClientThreadFactory(boolean useVirtualThreads) {
+        this.threadNumber = new AtomicInteger();
+        if (useVirtualThreads) {
+            this.virtualThreadFactory = createVirtualThreadFactory();
+        }
+    }
+
+// -------------------------- STATIC METHODS --------------------------
+
+    /**
+     * Liefert Thread.ofVirtual().name("Client-", 0).factory() oder null, wenn die Laufzeitumgebung keine
+     * virtuellen Threads kennt
+     */
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtual.invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "Client-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+// --------------------- GETTER / SETTER METHODS ---------------------
+
+    /**
+     * Gibt an, ob tatsächlich virtuelle Threads erzeugt werden
+     */
+    public boolean isVirtual() {
+        return virtualThreadFactory != null;
+    }
+
+// --------------------- Interface ThreadFactory ---------------------
+
+    public Thread newThread(Runnable runnable) {
+        if (this.virtualThreadFactory != null) {
+            return this.virtualThreadFactory.newThread(runnable);
+        }
+        return new Thread(runnable, "Client-" + this.threadNumber.getAndIncrement());
+    }
+}
@@ -16,6 +16,7 @@ public class CommandLineInterface {
 
     public static void main(String[] args) {
         Server server = new Server(1337);
+        ServerOptions.parse(args).applyTo(server);
         server.addErrorListener(new IErrorListener() {
             public void onError(EventArgs<ITransferable> eventArgs) {
                 System.out.println(eventArgs.getItem());
@@ -0,0 +1,16 @@
+package de.hsbremen.battleshipextreme.server;
+
+import de.hsbremen.battleshipextreme.network.IDisposable;
+import de.hsbremen.battleshipextreme.network.ITransferable;
+
+/**
+ * Created on 18.10.2026.
+ * Versendet Objekte an einen Client. Wird vom ServerDispatcher verwendet, ohne zu wissen ob der Client
+ * über einen eigenen Thread (ClientSender) oder über NIO (NioConnection) angebunden ist
+ */
+public interface IClientSender extends IDisposable {
+    /**
+     * Fügt ein Objekt der Warteschlange hinzu, das an den Client gesendet werden soll
+     */
+    void addObjectToQueue(ITransferable transferableObject);
+}
@@ -0,0 +1,128 @@
+package de.hsbremen.battleshipextreme.server;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
+import de.hsbremen.battleshipextreme.network.eventhandling.ErrorHandler;
+import de.hsbremen.battleshipextreme.network.eventhandling.EventArgs;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Created on 18.10.2026.
+ * Postfach eines Actors (z.B. eines Spiels oder der Lobby). Die Aufgaben eines Postfachs werden in der
+ * Reihenfolge ihres Eingangs und nie gleichzeitig ausgeführt, brauchen untereinander also keine Locks.
+ * Verschiedene Postfächer laufen parallel auf einem gemeinsamen Executor, ein Postfach belegt dabei nur
+ * einen Thread, solange es Aufgaben hat.
+ *
+ * Eine Aufgabe kann das Postfach anhalten, wenn ein anderer Thread bis zu einer Antwort allein mit dem Zustand
+ * des Actors arbeitet. Neue Aufgaben werden dann gesammelt und erst ausgeführt, nachdem die mit resume übergebene
+ * Antwort gelaufen ist
+ */
+public class Mailbox implements Executor {
+// ------------------------------ FIELDS ------------------------------
+
+    private static final int MAX_TASKS_PER_RUN = 64; // danach kommen erst andere Postfächer an die Reihe
+
+    private String name;
+    private Executor executor;
+    private ErrorHandler errorHandler;
+    private ConcurrentLinkedQueue<Runnable> tasks;
+    private ConcurrentLinkedQueue<Runnable> resumingTasks; // laufen auch im angehaltenen Postfach und setzen es fort
+    private volatile boolean paused; // nur von Aufgaben des Postfachs geändert
+    private AtomicBoolean scheduled;
+    private Runnable runner;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public Mailbox(String name, Executor executor, ErrorHandler errorHandler) {
+        this.name = name;
+        this.executor = executor;
+        this.errorHandler = errorHandler;
+        this.tasks = new ConcurrentLinkedQueue<Runnable>();
+        this.resumingTasks = new ConcurrentLinkedQueue<Runnable>();
+        this.scheduled = new AtomicBoolean(false);
+        this.runner = new Runnable() {
+            public void run() {
+                runTasks();
+            }
+        };
+    }
+
+// --------------------- Interface Executor ---------------------
+
+    /**
+     * Legt eine Aufgabe in das Postfach. Sie wird nach allen vorher eingegangenen Aufgaben ausgeführt
+     */
+    public void execute(Runnable task) {
+        this.tasks.add(task);
+        this.schedule();
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Hält das Postfach nach der laufenden Aufgabe an, bis eine mit resume übergebene Aufgabe ausgeführt wurde.
+     * Darf nur aus einer Aufgabe des Postfachs aufgerufen werden
+     */
+    public void pause() {
+        this.paused = true;
+    }
+
+    /**
+     * Legt eine Aufgabe in das Postfach, die auch im angehaltenen Postfach vor allen gesammelten Aufgaben
+     * ausgeführt wird. Danach läuft das Postfach weiter
+     */
+    public void resume(Runnable task) {
+        this.resumingTasks.add(task);
+        this.schedule();
+    }
+
+    private boolean hasRunnableTasks() {
+        return !this.resumingTasks.isEmpty() || (!this.paused && !this.tasks.isEmpty());
+    }
+
+    private void schedule() {
+        if (this.hasRunnableTasks() && this.scheduled.compareAndSet(false, true)) {
+            try {
+                this.executor.execute(this.runner);
+            } catch (RejectedExecutionException e) {
+                // Server wird beendet, verbleibende Aufgaben verfallen
+                this.tasks.clear();
+                this.resumingTasks.clear();
+                this.scheduled.set(false);
+            }
+        }
+    }
+
+    private void runTasks() {
+        try {
+            for (int i = 0; i < MAX_TASKS_PER_RUN; i++) {
+                Runnable task = this.resumingTasks.poll();
+                if (task != null) {
+                    this.paused = false;
+                } else if (!this.paused) {
+                    task = this.tasks.poll();
+                }
+                if (task == null) {
+                    break;
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    ITransferable message = TransferableObjectFactory.CreateMessage("Error in " + this.name + ": " + e);
+                    this.errorHandler.errorHasOccurred(new EventArgs<ITransferable>(this, message));
+                }
+            }
+        } finally {
+            this.scheduled.set(false);
+            this.schedule();
+        }
+    }
+}
@@ -12,6 +12,7 @@ public class Main {
     public static void main(String[] args) {
         Gui gui = new Gui();
         Server server = new Server(1337);
+        ServerOptions.parse(args).applyTo(server);
         ServerController controller = new ServerController(gui, server);
     }
 }
@@ -0,0 +1,89 @@
+package de.hsbremen.battleshipextreme.server;
+
+import de.hsbremen.battleshipextreme.network.IDisposable;
+import de.hsbremen.battleshipextreme.network.ITransferable;
+import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
+import de.hsbremen.battleshipextreme.network.eventhandling.EventArgs;
+
+import java.io.IOException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Created on 18.10.2026.
+ * Wartet auf Client Verbindungsanfragen und verteilt die Verbindungen reihum auf eine feste Anzahl von
+ * NioWorkern. Anders als beim ClientAccepter werden keine Threads pro Client erzeugt.
+ */
+public class NioClientAccepter extends Thread implements IDisposable {
+// ------------------------------ FIELDS ------------------------------
+
+    private ServerSocketChannel serverSocketChannel;
+    private ServerDispatcher serverDispatcher;
+    private NioWorker[] workers;
+    private int nextWorker;
+    private volatile boolean disposed;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public NioClientAccepter(ServerSocketChannel serverSocketChannel, ServerDispatcher serverDispatcher, int numberOfWorkers) throws IOException {
+        this.setName("NioClientAccepter");
+        this.disposed = false;
+        this.serverSocketChannel = serverSocketChannel;
+        this.serverDispatcher = serverDispatcher;
+        this.workers = new NioWorker[numberOfWorkers];
+        for (int i = 0; i < numberOfWorkers; i++) {
+            this.workers[i] = new NioWorker("NioWorker-" + i, serverDispatcher);
+        }
+    }
+
+// --------------------- Interface IDisposable ---------------------
+
+    /**
+     * Beendet den Thread und alle NioWorker
+     */
+    public void dispose() {
+        this.disposed = true;
+        for (NioWorker worker : this.workers) {
+            worker.dispose();
+        }
+    }
+
+// --------------------- Interface Runnable ---------------------
+
+    /**
+     * Läuft solange nicht disposed wurde und wartet auf Clientverbindungsanfragen
+     */
+    public void run() {
+        for (NioWorker worker : this.workers) {
+            worker.start();
+        }
+        while (!this.disposed) {
+            try {
+                SocketChannel channel = this.serverSocketChannel.accept();
+                // Prüfe ob die Maximale Anzahl von Clients auf dem Server erreicht wurde
+                if (this.serverDispatcher.isFull()) {
+                    channel.close();
+                    continue;
+                }
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+
+                ClientHandler clientHandler = new ClientHandler(channel.socket());
+                NioWorker worker = this.workers[this.nextWorker];
+                this.nextWorker = (this.nextWorker + 1) % this.workers.length;
+                NioConnection connection = new NioConnection(channel, clientHandler, worker, this.serverDispatcher);
+                clientHandler.setClientListener(connection);
+                clientHandler.setClientSender(connection);
+
+                // Client erst hinzufügen, dann lesen, damit keine Objekte eines unbekannten Clients ankommen
+                this.serverDispatcher.connectClient(clientHandler);
+                worker.addConnection(connection);
+            } catch (IOException e) {
+                this.serverDispatcher.getErrorHandler().errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Stopped listening for clients")));
+                if (!this.serverSocketChannel.isOpen()) {
+                    break;
+                }
+            }
+        }
+    }
+}
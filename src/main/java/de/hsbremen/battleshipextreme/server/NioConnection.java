@@ -0,0 +1,322 @@
+package de.hsbremen.battleshipextreme.server;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
+import de.hsbremen.battleshipextreme.network.codec.ProtocolHandshake;
+import de.hsbremen.battleshipextreme.network.codec.TransferableCodec;
+import de.hsbremen.battleshipextreme.network.eventhandling.EventArgs;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.SequenceInputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Created on 18.10.2026.
+ * Verbindung zu einem Client über einen nicht blockierenden SocketChannel. Ersetzt ClientListener und
+ * ClientSender, wenn der Server mit NIO läuft. Lesen und Schreiben übernimmt der zugewiesene NioWorker.
+ * Das Protokoll wird wie bei ClientAccepter anhand der ersten 4 Bytes des Clients ausgehandelt (siehe
+ * ProtocolHandshake): entweder dasselbe Format wie bei ObjectInputStream/ObjectOutputStream oder Frames des
+ * Binärprotokolls. Eine untätige Verbindung hält keine Puffer.
+ */
+public class NioConnection implements IClientSender {
+// ------------------------------ FIELDS ------------------------------
+
+    /**
+     * Kopf eines Objektstreams (STREAM_MAGIC und STREAM_VERSION), wird vom Server einmal zu Beginn gesendet
+     */
+    private static final byte[] STREAM_HEADER = ProtocolHandshake.STREAM_HEADER;
+
+    private SocketChannel channel;
+    private ClientHandler clientHandler;
+    private ServerDispatcher serverDispatcher;
+    private NioWorker worker;
+    private SelectionKey key;
+    private OutboundQueue objectQueue;
+    private AtomicBoolean isWriteScheduled;
+    private ByteBuffer pendingOutput;
+    private ByteBuffer handshakeReply;
+    private byte[] input;
+    private int inputLength;
+    private boolean isHeaderRead;
+    private boolean isBinary;
+    private volatile boolean disposed;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public NioConnection(SocketChannel channel, ClientHandler clientHandler, NioWorker worker, ServerDispatcher serverDispatcher) {
+        this.disposed = false;
+        this.channel = channel;
+        this.clientHandler = clientHandler;
+        this.worker = worker;
+        this.serverDispatcher = serverDispatcher;
+        this.objectQueue = serverDispatcher.createOutboundQueue(clientHandler);
+        this.isWriteScheduled = new AtomicBoolean(false);
+        // der Client wartet zuerst auf den Kopf des Objektstreams
+        this.pendingOutput = ByteBuffer.wrap(STREAM_HEADER.clone());
+    }
+
+// --------------------- GETTER / SETTER METHODS ---------------------
+
+    public ClientHandler getClientHandler() {
+        return clientHandler;
+    }
+
+    public SocketChannel getChannel() {
+        return channel;
+    }
+
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+// --------------------- Interface IClientSender ---------------------
+
+    /**
+     * Fügt ein Objekt der Warteschlange hinzu und beauftragt den NioWorker es zu senden
+     */
+    public void addObjectToQueue(ITransferable transferableObject) {
+        if (this.disposed) {
+            return;
+        }
+        if (!this.objectQueue.offer(transferableObject)) {
+            // liest nicht schnell genug, der Worker bemerkt das Schließen des Channels
+            this.dispose();
+            this.serverDispatcher.evictClient(this.clientHandler);
+            return;
+        }
+        if (this.isWriteScheduled.compareAndSet(false, true)) {
+            this.worker.scheduleWrite(this);
+        }
+    }
+
+// --------------------- Interface IDisposable ---------------------
+
+    /**
+     * Schließt die Verbindung
+     */
+    public void dispose() {
+        if (this.disposed) {
+            return;
+        }
+        this.disposed = true;
+        this.objectQueue.clear();
+        if (this.key != null) {
+            this.key.cancel();
+        }
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            this.serverDispatcher.getErrorHandler().errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Channel of " + clientHandler.getUsername() + " could not been closed!")));
+        }
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    /**
+     * Registriert die Verbindung am Selector des Workers und sendet alles, was bis dahin angefallen ist.
+     * Wird im Thread des Workers aufgerufen
+     */
+    void register(Selector selector) throws IOException {
+        try {
+            this.key = this.channel.register(selector, SelectionKey.OP_READ, this);
+        } catch (ClosedChannelException e) {
+            // wurde bereits vor der Registrierung getrennt (z.B. gebannt)
+            return;
+        }
+        this.flush();
+    }
+
+    /**
+     * Liest die verfügbaren Daten und leitet alle vollständig empfangenen Objekte an den ServerDispatcher
+     * weiter. Wird im Thread des Workers aufgerufen
+     */
+    void read(ByteBuffer readBuffer) throws IOException {
+        readBuffer.clear();
+        int count = this.channel.read(readBuffer);
+        if (count < 0) {
+            throw new EOFException("Connection closed by client");
+        }
+        readBuffer.flip();
+        this.append(readBuffer);
+
+        int offset = 0;
+        if (!this.isHeaderRead) {
+            if (this.inputLength < STREAM_HEADER.length) {
+                return;
+            }
+            if (ProtocolHandshake.isBinaryHello(this.input, 0)) {
+                // Client unterstützt das Binärprotokoll, bestätigen und ab jetzt Frames senden
+                this.isBinary = true;
+                this.clientHandler.setBinaryProtocol(true);
+                this.handshakeReply = ByteBuffer.wrap(ProtocolHandshake.BINARY_HELLO.clone());
+            } else if (!ProtocolHandshake.isStreamHeader(this.input, 0)) {
+                throw new StreamCorruptedException("Invalid stream header");
+            }
+            this.isHeaderRead = true;
+            offset = STREAM_HEADER.length;
+            // bis jetzt zurückgehaltene Objekte können nun gesendet werden
+            this.flush();
+        }
+
+        while (offset < this.inputLength && !this.disposed) {
+            if (this.isBinary) {
+                int frameLength = TransferableCodec.getFrameLength(this.input, offset, this.inputLength - offset);
+                if (frameLength < 0) {
+                    break;
+                }
+                ITransferable receivedObject = this.worker.getCodec().decodeFrame(this.input, offset, frameLength);
+                offset += frameLength;
+                this.serverDispatcher.processObject(this.clientHandler, receivedObject);
+            } else {
+                BoundedInputStream in = new BoundedInputStream(this.input, offset, this.inputLength - offset);
+                ITransferable receivedObject = this.readObject(in);
+                if (receivedObject == null) {
+                    break;
+                }
+                offset = this.inputLength - in.available();
+                this.serverDispatcher.processObject(this.clientHandler, receivedObject);
+            }
+        }
+        this.consume(offset);
+    }
+
+    /**
+     * Sendet so viele Objekte aus der Warteschlange, wie der Channel annimmt. Kann nicht alles gesendet werden,
+     * wird auf OP_WRITE gewartet. Solange das Protokoll nicht ausgehandelt ist, bleiben die Objekte in der
+     * Warteschlange. Wird im Thread des Workers aufgerufen
+     */
+    void flush() throws IOException {
+        if (this.key == null || this.disposed) {
+            return;
+        }
+        while (true) {
+            if (this.pendingOutput == null && this.handshakeReply != null) {
+                this.pendingOutput = this.handshakeReply;
+                this.handshakeReply = null;
+            }
+            if (this.pendingOutput == null) {
+                if (!this.isHeaderRead) {
+                    break;
+                }
+                ITransferable transferableObject = this.objectQueue.poll();
+                if (transferableObject == null) {
+                    this.isWriteScheduled.set(false);
+                    // es könnte gerade ein Objekt hinzugekommen sein, ohne dass der Worker beauftragt wurde
+                    if (this.objectQueue.isEmpty() || !this.isWriteScheduled.compareAndSet(false, true)) {
+                        break;
+                    }
+                    continue;
+                }
+                this.pendingOutput = this.isBinary ? this.worker.encode(transferableObject) : this.worker.serialize(transferableObject);
+            }
+            this.channel.write(this.pendingOutput);
+            if (this.pendingOutput.hasRemaining()) {
+                this.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+            this.pendingOutput = null;
+        }
+        this.key.interestOps(SelectionKey.OP_READ);
+    }
+
+    /**
+     * Trennt die Verbindung nach einem Fehler und entfernt den Client vom Server
+     */
+    void close() {
+        if (this.disposed) {
+            return;
+        }
+        this.serverDispatcher.getErrorHandler().errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Connection to " + clientHandler.getSocket().getInetAddress().getHostAddress() + ":" + clientHandler.getSocket().getPort() + " -> " + clientHandler.getUsername() + " has closed")));
+        this.dispose();
+        this.serverDispatcher.removeClient(this.clientHandler);
+    }
+
+    /**
+     * Liest ein Objekt aus den empfangenen Daten. Liefert null, wenn das Objekt noch nicht vollständig
+     * empfangen wurde
+     */
+    private ITransferable readObject(BoundedInputStream in) throws IOException {
+        try {
+            // jedes Objekt beginnt mit TC_RESET, kann also ohne die vorherigen Objekte gelesen werden
+            ObjectInputStream objectInputStream = new ObjectInputStream(new SequenceInputStream(new ByteArrayInputStream(STREAM_HEADER), in));
+            return (ITransferable) objectInputStream.readObject();
+        } catch (IOException e) {
+            if (in.isExhausted()) {
+                return null;
+            }
+            throw e;
+        } catch (ClassNotFoundException e) {
+            throw new StreamCorruptedException("Unknown class " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hängt die gelesenen Daten an die bisher empfangenen an
+     */
+    private void append(ByteBuffer data) {
+        int required = this.inputLength + data.remaining();
+        if (this.input == null) {
+            this.input = new byte[Math.max(required, 512)];
+        } else if (this.input.length < required) {
+            this.input = Arrays.copyOf(this.input, Math.max(required, this.input.length * 2));
+        }
+        data.get(this.input, this.inputLength, data.remaining());
+        this.inputLength = required;
+    }
+
+    /**
+     * Entfernt die verarbeiteten Daten. Ist alles verarbeitet, wird der Puffer freigegeben
+     */
+    private void consume(int count) {
+        if (count >= this.inputLength) {
+            this.input = null;
+            this.inputLength = 0;
+        } else if (count > 0) {
+            System.arraycopy(this.input, count, this.input, 0, this.inputLength - count);
+            this.inputLength -= count;
+        }
+    }
+
+    /**
+     * ByteArrayInputStream, der sich merkt, ob mehr Daten gelesen werden sollten als vorhanden sind
+     */
+    private static class BoundedInputStream extends ByteArrayInputStream {
+        private boolean exhausted;
+
+        public BoundedInputStream(byte[] buf, int offset, int length) {
+            super(buf, offset, length);
+        }
+
+        @Override
+        public synchronized int read() {
+            int value = super.read();
+            if (value < 0) {
+                this.exhausted = true;
+            }
+            return value;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            int count = super.read(b, off, len);
+            if (count < len) {
+                this.exhausted = true;
+            }
+            return count;
+        }
+
+        public boolean isExhausted() {
+            return exhausted;
+        }
+    }
+}
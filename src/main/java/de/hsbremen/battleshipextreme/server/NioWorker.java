@@ -0,0 +1,172 @@
+package de.hsbremen.battleshipextreme.server;
+
+import de.hsbremen.battleshipextreme.network.IDisposable;
+import de.hsbremen.battleshipextreme.network.ITransferable;
+import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
+import de.hsbremen.battleshipextreme.network.codec.EncodedTransferable;
+import de.hsbremen.battleshipextreme.network.codec.TransferableCodec;
+import de.hsbremen.battleshipextreme.network.eventhandling.EventArgs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Created on 18.10.2026.
+ * I/O-Thread des NIO-Servers. Jeder Worker hat einen eigenen Selector und bedient damit beliebig viele
+ * NioConnections. Empfangene Objekte werden im Thread des Workers an den ServerDispatcher weitergegeben
+ */
+public class NioWorker extends Thread implements IDisposable {
+// ------------------------------ FIELDS ------------------------------
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private Selector selector;
+    private ServerDispatcher serverDispatcher;
+    private ConcurrentLinkedQueue<NioConnection> newConnections;
+    private ConcurrentLinkedQueue<NioConnection> scheduledWrites;
+    private ByteBuffer readBuffer;
+    private ByteArrayOutputStream serializationBuffer;
+    private ObjectOutputStream out;
+    private TransferableCodec codec;
+    private volatile boolean disposed;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public NioWorker(String name, ServerDispatcher serverDispatcher) throws IOException {
+        this.setName(name);
+        this.disposed = false;
+        this.serverDispatcher = serverDispatcher;
+        this.selector = Selector.open();
+        this.newConnections = new ConcurrentLinkedQueue<NioConnection>();
+        this.scheduledWrites = new ConcurrentLinkedQueue<NioConnection>();
+        this.readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        this.serializationBuffer = new ByteArrayOutputStream(1024);
+        this.out = new ObjectOutputStream(this.serializationBuffer);
+        this.codec = new TransferableCodec();
+    }
+
+// --------------------- Interface IDisposable ---------------------
+
+    /**
+     * Beendet den Thread
+     */
+    public void dispose() {
+        this.disposed = true;
+        this.selector.wakeup();
+    }
+
+// --------------------- Interface Runnable ---------------------
+
+    /**
+     * Wartet auf lesbare und beschreibbare Verbindungen und arbeitet sie ab
+     */
+    public void run() {
+        try {
+            while (!this.disposed) {
+                this.selector.select();
+                this.registerNewConnections();
+                this.flushScheduledWrites();
+
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    NioConnection connection = (NioConnection) key.attachment();
+                    try {
+                        if (key.isValid() && key.isReadable()) {
+                            connection.read(this.readBuffer);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    } catch (Exception e) {
+                        // Fehler einer Verbindung dürfen den Worker nicht beenden
+                        connection.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            this.serverDispatcher.getErrorHandler().errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage(getName() + " stopped its execution")));
+        } finally {
+            try {
+                this.selector.close();
+            } catch (IOException e) {
+                this.serverDispatcher.getErrorHandler().errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Selector of " + getName() + " could not been closed!")));
+            }
+        }
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    /**
+     * Übernimmt eine neue Verbindung. Die Registrierung am Selector erfolgt im Thread des Workers
+     */
+    public void addConnection(NioConnection connection) {
+        this.newConnections.add(connection);
+        this.selector.wakeup();
+    }
+
+    /**
+     * Merkt eine Verbindung vor, deren Warteschlange im Thread des Workers gesendet werden soll
+     */
+    public void scheduleWrite(NioConnection connection) {
+        this.scheduledWrites.add(connection);
+        this.selector.wakeup();
+    }
+
+    /**
+     * Serialisiert ein Objekt so, wie es ObjectOutputStream nach einem reset() schreiben würde
+     */
+    ByteBuffer serialize(ITransferable transferableObject) throws IOException {
+        if (transferableObject instanceof EncodedTransferable) {
+            return ((EncodedTransferable) transferableObject).getObjectStreamBytes();
+        }
+        this.serializationBuffer.reset();
+        this.out.reset(); // wird benötig damit alte Objekte vom Stream gelöscht werden
+        this.out.writeObject(transferableObject);
+        this.out.flush();
+        return ByteBuffer.wrap(this.serializationBuffer.toByteArray());
+    }
+
+    /**
+     * Erzeugt den Frame eines Objektes im Binärprotokoll
+     */
+    ByteBuffer encode(ITransferable transferableObject) throws IOException {
+        return this.codec.encode(transferableObject);
+    }
+
+    /**
+     * Codec des Workers, darf nur im Thread des Workers verwendet werden
+     */
+    TransferableCodec getCodec() {
+        return codec;
+    }
+
+    private void registerNewConnections() {
+        NioConnection connection;
+        while ((connection = this.newConnections.poll()) != null) {
+            try {
+                connection.register(this.selector);
+            } catch (IOException e) {
+                connection.close();
+            }
+        }
+    }
+
+    private void flushScheduledWrites() {
+        NioConnection connection;
+        while ((connection = this.scheduledWrites.poll()) != null) {
+            try {
+                connection.flush();
+            } catch (IOException e) {
+                connection.close();
+            }
+        }
+    }
+}
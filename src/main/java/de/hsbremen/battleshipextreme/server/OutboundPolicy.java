@@ -0,0 +1,38 @@
+package de.hsbremen.battleshipextreme.server;
+
+import de.hsbremen.battleshipextreme.network.TransferableType;
+
+/**
+ * Created on 18.10.2026.
+ * Legt fest, was mit einem Objekt passiert, wenn die Warteschlange eines Clients voll ist
+ */
+public enum OutboundPolicy {
+    /**
+     * Nur der neueste Stand wird gesendet, ein neueres Objekt ersetzt ein noch nicht gesendetes älteres
+     */
+    Coalesce,
+    /**
+     * Das Objekt wird verworfen, wenn die Warteschlange voll ist
+     */
+    Drop,
+    /**
+     * Das Objekt darf nicht verloren gehen, ist die Warteschlange voll, wird der Client getrennt
+     */
+    Disconnect;
+
+    /**
+     * Liefert die Regel für einen Typ. Die Spieleliste ist nur ein Zustand und Chatnachrichten sind verzichtbar,
+     * alles andere (Spielzüge, Deltas der Lobby, Fehler) braucht der Client, um im Spiel zu bleiben
+     */
+    public static OutboundPolicy forType(TransferableType type) {
+        switch (type) {
+            case GameList:
+                return Coalesce;
+            case ClientMessage:
+            case Message:
+                return Drop;
+            default:
+                return Disconnect;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package de.hsbremen.battleshipextreme.server;
+
+import de.hsbremen.battleshipextreme.network.ITransferable;
+import de.hsbremen.battleshipextreme.network.codec.EncodedTransferable;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Created on 18.10.2026.
+ * Begrenzte Warteschlange der Objekte, die an einen Client gesendet werden sollen. Beliebig viele Threads fügen
+ * Objekte hinzu, nur der Sender des Clients (ClientSender oder NioWorker) entnimmt sie. Begrenzt wird die Anzahl
+ * der Objekte und ihre geschätzte Größe in Bytes. Was bei voller Warteschlange passiert, legt die
+ * OutboundPolicy des Typs fest. Eine Spieleliste liegt immer höchstens einmal in der Warteschlange, eine neuere
+ * ersetzt die noch nicht gesendete
+ */
+public class OutboundQueue {
+// ------------------------------ FIELDS ------------------------------
+
+    /**
+     * Standardgrenze für die Anzahl wartender Objekte pro Client
+     */
+    public static final int DEFAULT_MAX_MESSAGES = 1024;
+
+    /**
+     * Standardgrenze für die Größe wartender Objekte pro Client
+     */
+    public static final long DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+    /**
+     * Platzhalter in der Warteschlange für die neueste Spieleliste
+     */
+    private static final Entry LATEST_COALESCED = new Entry(null, 0);
+
+    private ClientHandler clientHandler;
+    private OutboundStatistics statistics;
+    private int maxMessages;
+    private long maxBytes;
+    private ConcurrentLinkedQueue<Entry> entries;
+    private AtomicReference<Entry> latestCoalesced;
+    private AtomicInteger size;
+    private AtomicLong bytes;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public OutboundQueue(ClientHandler clientHandler, int maxMessages, long maxBytes, OutboundStatistics statistics) {
+        this.clientHandler = clientHandler;
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.statistics = statistics;
+        this.entries = new ConcurrentLinkedQueue<Entry>();
+        this.latestCoalesced = new AtomicReference<Entry>();
+        this.size = new AtomicInteger();
+        this.bytes = new AtomicLong();
+    }
+
+// --------------------- GETTER / SETTER METHODS ---------------------
+
+    /**
+     * Anzahl der wartenden Objekte
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Geschätzte Größe der wartenden Objekte in Bytes
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    public boolean isEmpty() {
+        return this.entries.isEmpty();
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    /**
+     * Fügt ein Objekt hinzu. Die Grenzen werden ohne Lock geprüft und können von gleichzeitig hinzufügenden
+     * Threads knapp überschritten werden
+     *
+     * @return false, wenn die Warteschlange für ein Objekt mit OutboundPolicy.Disconnect voll ist. Der Client
+     * muss dann getrennt werden
+     */
+    public boolean offer(ITransferable transferableObject) {
+        Entry entry = new Entry(transferableObject, this.estimateSize(transferableObject));
+        OutboundPolicy policy = OutboundPolicy.forType(transferableObject.getType());
+        if (policy == OutboundPolicy.Coalesce) {
+            Entry previous = this.latestCoalesced.getAndSet(entry);
+            if (previous != null) {
+                // der Platzhalter liegt noch in der Warteschlange, er sendet jetzt das neue Objekt
+                this.bytes.addAndGet(entry.size - previous.size);
+                this.statistics.recordCoalesced(entry.size - previous.size);
+                return true;
+            }
+            this.add(LATEST_COALESCED, entry.size);
+            return true;
+        }
+        if (this.size.get() >= this.maxMessages || this.bytes.get() + entry.size > this.maxBytes) {
+            if (policy == OutboundPolicy.Drop) {
+                this.statistics.recordDropped();
+                return true;
+            }
+            this.statistics.recordEviction();
+            return false;
+        }
+        this.add(entry, entry.size);
+        return true;
+    }
+
+    /**
+     * Entnimmt das nächste Objekt oder null, wenn die Warteschlange leer ist. Wird vom Sender aufgerufen
+     */
+    public ITransferable poll() {
+        while (true) {
+            Entry entry = this.entries.poll();
+            if (entry == null) {
+                return null;
+            }
+            if (entry == LATEST_COALESCED) {
+                entry = this.latestCoalesced.getAndSet(null);
+                if (entry == null) {
+                    continue;
+                }
+            }
+            this.size.decrementAndGet();
+            this.bytes.addAndGet(-entry.size);
+            this.statistics.recordRemoved(1, entry.size);
+            return entry.transferableObject;
+        }
+    }
+
+    /**
+     * Verwirft alle wartenden Objekte
+     */
+    public void clear() {
+        while (this.poll() != null) {
+            // nur entnehmen, damit die Statistik stimmt
+        }
+    }
+
+    private void add(Entry entry, int entrySize) {
+        int depth = this.size.incrementAndGet();
+        this.bytes.addAndGet(entrySize);
+        this.statistics.recordQueued(depth, entrySize);
+        this.entries.add(entry);
+    }
+
+    /**
+     * Schätzt die Größe eines Objekts. Objekte für mehrere Empfänger werden für das Protokoll des Clients codiert,
+     * die Codierung wird beim Senden wiederverwendet. Für alle anderen wird eine typische Größe angenommen
+     */
+    private int estimateSize(ITransferable transferableObject) {
+        if (transferableObject instanceof EncodedTransferable) {
+            try {
+                return ((EncodedTransferable) transferableObject).getEncodedLength(this.clientHandler.isBinaryProtocol());
+            } catch (IOException e) {
+                // Fehler wird beim Senden gemeldet
+            }
+        }
+        switch (transferableObject.getType()) {
+            case Game:
+            case GameList:
+                return 4096;
+            case GameListSnapshot:
+                return 1024;
+            default:
+                return 128;
+        }
+    }
+
+    /**
+     * Objekt in der Warteschlange zusammen mit der beim Hinzufügen geschätzten Größe
+     */
+    private static class Entry {
+        private final ITransferable transferableObject;
+        private final int size;
+
+        private Entry(ITransferable transferableObject, int size) {
+            this.transferableObject = transferableObject;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package de.hsbremen.battleshipextreme.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Created on 18.10.2026.
+ * Zählt für alle Clients zusammen, wie viele Objekte auf das Senden warten und wie oft die Grenzen der
+ * Warteschlangen gegriffen haben
+ */
+public class OutboundStatistics {
+// ------------------------------ FIELDS ------------------------------
+
+    private LongAdder queuedMessages;
+    private LongAdder queuedBytes;
+    private AtomicLong maxQueueDepth;
+    private AtomicLong coalesced;
+    private AtomicLong dropped;
+    private AtomicLong evictions;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public OutboundStatistics() {
+        this.queuedMessages = new LongAdder();
+        this.queuedBytes = new LongAdder();
+        this.maxQueueDepth = new AtomicLong();
+        this.coalesced = new AtomicLong();
+        this.dropped = new AtomicLong();
+        this.evictions = new AtomicLong();
+    }
+
+// --------------------- GETTER / SETTER METHODS ---------------------
+
+    /**
+     * Anzahl der Objekte, die zur Zeit in allen Warteschlangen auf das Senden warten
+     */
+    public long getQueuedMessages() {
+        return queuedMessages.sum();
+    }
+
+    /**
+     * Geschätzte Größe der Objekte, die zur Zeit in allen Warteschlangen warten
+     */
+    public long getQueuedBytes() {
+        return queuedBytes.sum();
+    }
+
+    /**
+     * Längste bisher erreichte Warteschlange eines einzelnen Clients
+     */
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * Anzahl der Spielelisten, die durch eine neuere ersetzt wurden, bevor sie gesendet wurden
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * Anzahl der Chatnachrichten, die wegen einer vollen Warteschlange verworfen wurden
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Anzahl der Clients, die getrennt wurden, weil sie nicht schnell genug gelesen haben
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    public void recordQueued(int queueDepth, int bytes) {
+        this.queuedMessages.increment();
+        this.queuedBytes.add(bytes);
+        long max = this.maxQueueDepth.get();
+        while (queueDepth > max && !this.maxQueueDepth.compareAndSet(max, queueDepth)) {
+            max = this.maxQueueDepth.get();
+        }
+    }
+
+    public void recordRemoved(int messages, int bytes) {
+        this.queuedMessages.add(-messages);
+        this.queuedBytes.add(-bytes);
+    }
+
+    public void recordCoalesced(int bytesDifference) {
+        this.coalesced.incrementAndGet();
+        this.queuedBytes.add(bytesDifference);
+    }
+
+    public void recordDropped() {
+        this.dropped.incrementAndGet();
+    }
+
+    public void recordEviction() {
+        this.evictions.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return "Queued: " + getQueuedMessages() + " (" + getQueuedBytes() / 1024 + " KB), max queue depth: " + getMaxQueueDepth()
+                + ", coalesced: " + getCoalesced() + ", dropped: " + getDropped() + ", evictions: " + getEvictions();
+    }
+}
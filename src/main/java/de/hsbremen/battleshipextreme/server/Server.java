@@ -5,17 +5,22 @@ import de.hsbremen.battleshipextreme.network.IDisposable;
 import de.hsbremen.battleshipextreme.network.ITransferable;
 import de.hsbremen.battleshipextreme.network.InfoSendingReason;
 import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
+import de.hsbremen.battleshipextreme.network.codec.FanOutStatistics;
 import de.hsbremen.battleshipextreme.network.eventhandling.ErrorHandler;
 import de.hsbremen.battleshipextreme.network.eventhandling.EventArgs;
 import de.hsbremen.battleshipextreme.network.eventhandling.listener.IErrorListener;
 import de.hsbremen.battleshipextreme.network.transfarableObject.NetGame;
+import de.hsbremen.battleshipextreme.server.journal.JournalStore;
 import de.hsbremen.battleshipextreme.server.listener.IClientConnectionListener;
 import de.hsbremen.battleshipextreme.server.listener.IClientObjectReceivedListener;
 import de.hsbremen.battleshipextreme.server.listener.IServerListener;
 
 import javax.swing.event.EventListenerList;
+import java.io.File;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
 import java.util.ArrayList;
 import java.util.Vector;
 
@@ -30,7 +35,18 @@ public class Server implements IDisposable {
     protected EventListenerList listeners;
     private ServerSocket serverSocket;
     private ServerDispatcher serverDispatcher;
-    private ClientAccepter clientAccepter;
+    private IDisposable clientAccepter;
+    private ServerTransport transport;
+    private int ioThreads;
+    private int maxClients;
+    private int sendBatchSize;
+    private int sendLingerMicros;
+    private int maxQueuedMessages;
+    private long maxQueuedBytes;
+    private File journalDirectory;
+    private JournalStore journalStore;
+    private int aiThreads;
+    private long aiMoveBudgetMillis;
     private ArrayList<IClientConnectionListener> tempClientConnectionListeners;
     private ArrayList<IClientObjectReceivedListener> tempClientObjectReceivedListeners;
     private ArrayList<IServerListener> tempServerListeners;
@@ -47,6 +63,136 @@ public class Server implements IDisposable {
         this.tempServerListeners = new ArrayList<IServerListener>();
         this.port = port;
         this.isRunning = false;
+        this.transport = ServerTransport.ThreadPerClient;
+        this.ioThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        this.maxClients = 12;
+        this.sendBatchSize = ClientSender.DEFAULT_MAX_BATCH_SIZE;
+        this.sendLingerMicros = 0;
+        this.maxQueuedMessages = OutboundQueue.DEFAULT_MAX_MESSAGES;
+        this.maxQueuedBytes = OutboundQueue.DEFAULT_MAX_BYTES;
+        this.aiThreads = AiTurnExecutor.DEFAULT_THREADS;
+        this.aiMoveBudgetMillis = AiTurnExecutor.DEFAULT_MOVE_BUDGET_MILLIS;
+    }
+
+// --------------------- GETTER / SETTER METHODS ---------------------
+
+    public ServerTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Legt fest, wie die Verbindungen zu den Clients bedient werden. Muss vor start() gesetzt werden
+     */
+    public void setTransport(ServerTransport transport) {
+        this.transport = transport;
+    }
+
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    /**
+     * Anzahl der NioWorker, wird nur bei ServerTransport.Nio verwendet
+     */
+    public void setIoThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    /**
+     * Maximale Anzahl gleichzeitig verbundener Clients
+     */
+    public void setMaxClients(int maxClients) {
+        this.maxClients = maxClients;
+        if (this.serverDispatcher != null) {
+            this.serverDispatcher.setMaxPlayers(maxClients);
+        }
+    }
+
+    public int getSendBatchSize() {
+        return sendBatchSize;
+    }
+
+    /**
+     * Maximale Anzahl Objekte, die an einen Client mit einem flush gesendet werden. Muss vor start() gesetzt
+     * werden, wird nicht bei ServerTransport.Nio verwendet
+     */
+    public void setSendBatchSize(int sendBatchSize) {
+        this.sendBatchSize = sendBatchSize;
+    }
+
+    public int getSendLingerMicros() {
+        return sendLingerMicros;
+    }
+
+    /**
+     * Wartezeit in Mikrosekunden, die nach dem ersten Objekt auf weitere gewartet wird, bevor an einen Client
+     * gesendet wird. Muss vor start() gesetzt werden, wird nicht bei ServerTransport.Nio verwendet
+     */
+    public void setSendLingerMicros(int sendLingerMicros) {
+        this.sendLingerMicros = sendLingerMicros;
+    }
+
+    public int getMaxQueuedMessages() {
+        return maxQueuedMessages;
+    }
+
+    /**
+     * Maximale Anzahl Objekte, die für einen Client auf das Senden warten dürfen. Muss vor start() gesetzt werden
+     */
+    public void setMaxQueuedMessages(int maxQueuedMessages) {
+        this.maxQueuedMessages = maxQueuedMessages;
+    }
+
+    public long getMaxQueuedBytes() {
+        return maxQueuedBytes;
+    }
+
+    /**
+     * Maximale geschätzte Größe der Objekte, die für einen Client auf das Senden warten dürfen. Muss vor start()
+     * gesetzt werden
+     */
+    public void setMaxQueuedBytes(long maxQueuedBytes) {
+        this.maxQueuedBytes = maxQueuedBytes;
+    }
+
+    public File getJournalDirectory() {
+        return journalDirectory;
+    }
+
+    /**
+     * Verzeichnis, in dem alle Spiele journalisiert werden. Beim Start werden daraus die Spiele wiederhergestellt,
+     * die beim letzten Beenden oder Absturz noch liefen. Ohne Verzeichnis wird nichts journalisiert. Muss vor
+     * start() gesetzt werden
+     */
+    public void setJournalDirectory(File journalDirectory) {
+        this.journalDirectory = journalDirectory;
+    }
+
+    public int getAiThreads() {
+        return aiThreads;
+    }
+
+    /**
+     * Anzahl der Threads, die die Züge der KI-Spieler aller Spiele berechnen. Muss vor start() gesetzt werden
+     */
+    public void setAiThreads(int aiThreads) {
+        this.aiThreads = aiThreads;
+    }
+
+    public long getAiMoveBudgetMillis() {
+        return aiMoveBudgetMillis;
+    }
+
+    /**
+     * Zeit, nach der ein KI-Spieler ohne fertig berechneten Zug einen zufälligen Zug macht. Muss vor start()
+     * gesetzt werden
+     */
+    public void setAiMoveBudgetMillis(long aiMoveBudgetMillis) {
+        this.aiMoveBudgetMillis = aiMoveBudgetMillis;
     }
 
 // -------------------------- OTHER METHODS --------------------------
@@ -123,6 +269,20 @@ public class Server implements IDisposable {
         return this.serverDispatcher.getNetGames();
     }
 
+    /**
+     * Gibt die Statistik über Broad- und Multicasts zurück, z.B. wie viel Serialisierung eingespart wurde
+     */
+    public FanOutStatistics getFanOutStatistics() {
+        return this.serverDispatcher.getFanOutStatistics();
+    }
+
+    /**
+     * Gibt die Statistik über die Warteschlangen der Clients zurück, z.B. wie viele langsame Clients getrennt wurden
+     */
+    public OutboundStatistics getOutboundStatistics() {
+        return this.serverDispatcher.getOutboundStatistics();
+    }
+
     /**
      * Kick einen Client temporär vom Server. Dieser kann sich aber wieder mit dem Server verbinden
      */
@@ -158,12 +318,7 @@ public class Server implements IDisposable {
      * Entfernt ein eröffnetes Spiel vom Server
      */
     public void removeGame(NetGame netGame) {
-        for (int i = 0; i < serverDispatcher.getNetGames().size(); i++) {
-            if (this.serverDispatcher.getNetGames().get(i).getId().equals(netGame.getId())) {
-                this.serverDispatcher.getNetGames().remove(i);
-                break;
-            }
-        }
+        this.serverDispatcher.removeGame(netGame.getId());
     }
 
     public void removeServerListener(IServerListener listener) {
@@ -174,8 +329,15 @@ public class Server implements IDisposable {
      * Startet den Server,d.h. das er auf Clientverbindungsanfragen wartet
      */
     public void start() {
+        ServerSocketChannel serverSocketChannel = null;
         try {
-            serverSocket = new ServerSocket(port);
+            if (this.transport == ServerTransport.Nio) {
+                serverSocketChannel = ServerSocketChannel.open();
+                serverSocketChannel.socket().bind(new InetSocketAddress(port), 1024);
+                serverSocket = serverSocketChannel.socket();
+            } else {
+                serverSocket = new ServerSocket(port);
+            }
             this.isRunning = true;
         } catch (IOException e) {
             errorHandler.errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Can not start listening on port " + port)));
@@ -185,6 +347,10 @@ public class Server implements IDisposable {
         }
         // Start ServerDispatcher thread
         this.serverDispatcher = new ServerDispatcher(this.errorHandler);
+        this.serverDispatcher.setMaxPlayers(this.maxClients);
+        this.serverDispatcher.setMaxQueuedMessages(this.maxQueuedMessages);
+        this.serverDispatcher.setMaxQueuedBytes(this.maxQueuedBytes);
+        this.serverDispatcher.setAiTurnExecutor(new AiTurnExecutor(this.aiThreads, this.aiMoveBudgetMillis));
         for (IClientConnectionListener listener : this.tempClientConnectionListeners) {
             this.serverDispatcher.addClientConnectionListener(listener);
         }
@@ -197,9 +363,41 @@ public class Server implements IDisposable {
 
         this.tempClientConnectionListeners.clear();
         this.serverDispatcher.start();
+        // Spiele wiederherstellen, bevor sich Clients verbinden
+        if (this.journalDirectory != null) {
+            JournalStore store = new JournalStore(this.journalDirectory, this.errorHandler);
+            try {
+                store.start();
+                this.journalStore = store;
+                this.serverDispatcher.setJournalStore(store);
+                this.serverDispatcher.recoverGames();
+            } catch (IOException e) {
+                errorHandler.errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Can not open journal directory " + this.journalDirectory + ", games are not journaled")));
+            }
+        }
         // Accept and handle client connections
-        this.clientAccepter = new ClientAccepter(serverSocket, serverDispatcher);
-        this.clientAccepter.start();
+        if (this.transport == ServerTransport.Nio) {
+            try {
+                NioClientAccepter nioClientAccepter = new NioClientAccepter(serverSocketChannel, serverDispatcher, this.ioThreads);
+                this.clientAccepter = nioClientAccepter;
+                nioClientAccepter.start();
+            } catch (IOException e) {
+                errorHandler.errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Can not start NIO workers")));
+                this.dispose();
+                this.isRunning = false;
+                return;
+            }
+        } else {
+            ClientThreadFactory threadFactory = new ClientThreadFactory(this.transport == ServerTransport.VirtualThreads);
+            if (this.transport == ServerTransport.VirtualThreads && !threadFactory.isVirtual()) {
+                errorHandler.errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Virtual threads are not supported by this Java version, using platform threads")));
+            }
+            ClientAccepter threadPerClientAccepter = new ClientAccepter(serverSocket, serverDispatcher, threadFactory);
+            threadPerClientAccepter.setMaxBatchSize(this.sendBatchSize);
+            threadPerClientAccepter.setLingerMicros(this.sendLingerMicros);
+            this.clientAccepter = threadPerClientAccepter;
+            threadPerClientAccepter.start();
+        }
 
         this.serverDispatcher.printInfo(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Server started on port " + port)));
     }
@@ -215,6 +413,9 @@ public class Server implements IDisposable {
             if (this.serverDispatcher != null) {
                 this.serverDispatcher.dispose();
             }
+            if (this.journalStore != null) {
+                this.journalStore.dispose();
+            }
             if (this.serverSocket != null) {
                 this.serverSocket.close();
             }
@@ -227,7 +428,7 @@ public class Server implements IDisposable {
      * Stop den Server und alle laufenden Threads
      */
     public void stop() {
-        this.serverDispatcher.getNetGames().removeAllElements();
+        this.serverDispatcher.removeAllGames();
         this.dispose();
         this.isRunning = false;
     }
@@ -1,31 +1,54 @@
 package de.hsbremen.battleshipextreme.server;
 
-import de.hsbremen.battleshipextreme.model.Orientation;
 import de.hsbremen.battleshipextreme.model.exception.FieldOutOfBoardException;
-import de.hsbremen.battleshipextreme.model.exception.ShipAlreadyPlacedException;
-import de.hsbremen.battleshipextreme.model.exception.ShipOutOfBoardException;
+import de.hsbremen.battleshipextreme.model.player.AIPlayer;
 import de.hsbremen.battleshipextreme.model.player.Player;
 import de.hsbremen.battleshipextreme.network.*;
+import de.hsbremen.battleshipextreme.network.codec.EncodedTransferable;
+import de.hsbremen.battleshipextreme.network.codec.FanOutStatistics;
 import de.hsbremen.battleshipextreme.network.eventhandling.ErrorHandler;
 import de.hsbremen.battleshipextreme.network.eventhandling.EventArgs;
+import de.hsbremen.battleshipextreme.network.transfarableObject.ClientInfo;
+import de.hsbremen.battleshipextreme.network.transfarableObject.GameSummary;
 import de.hsbremen.battleshipextreme.network.transfarableObject.Join;
+import de.hsbremen.battleshipextreme.network.transfarableObject.Message;
 import de.hsbremen.battleshipextreme.network.transfarableObject.NetGame;
+import de.hsbremen.battleshipextreme.network.transfarableObject.ServerInfo;
 import de.hsbremen.battleshipextreme.network.transfarableObject.ShipPlacedInformation;
 import de.hsbremen.battleshipextreme.network.transfarableObject.Turn;
+import de.hsbremen.battleshipextreme.server.listener.IAiTurnListener;
 import de.hsbremen.battleshipextreme.server.listener.IClientConnectionListener;
 import de.hsbremen.battleshipextreme.server.listener.IClientObjectReceivedListener;
+import de.hsbremen.battleshipextreme.server.journal.GameJournal;
+import de.hsbremen.battleshipextreme.server.journal.JournalStore;
 import de.hsbremen.battleshipextreme.server.listener.IServerListener;
 
 import javax.swing.event.EventListenerList;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Created on 25.04.2015.
  * Der Serverdispatcher verwaltet alle Clients, Spiele und Spielzüge.
- * Außerdem ist er zuständig, Nachrichten an andere Clients weiterzuleiten (uni-, multi- und broadcast)
+ * Außerdem ist er zuständig, Nachrichten an andere Clients weiterzuleiten (uni-, multi- und broadcast).
+ * Jedes Spiel ist ein Actor mit eigenem Postfach: Spielzüge, Schiffe setzen, Beitreten und Verlassen eines Spiels
+ * laufen nacheinander im Postfach des Spiels, verschiedene Spiele laufen parallel. Die Spieleliste wird nur im
+ * Postfach der Lobby geändert. Die Züge der KI-Spieler eines Spiels werden im AiTurnExecutor berechnet und danach
+ * im Postfach des Spiels ausgeführt
  */
 public class ServerDispatcher extends Thread implements IDisposable, Serializable {
 // ------------------------------ FIELDS ------------------------------
@@ -39,6 +62,30 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
     private ErrorHandler errorHandler;
     private int maxPlayers;
     private int maxGames;
+    private ReentrantLock lock; // schützt die Warteschlange der Chatnachrichten
+    private Condition objectAvailable;
+    private FanOutStatistics fanOutStatistics;
+    private OutboundStatistics outboundStatistics;
+    private int maxQueuedMessages; // Grenzen der Warteschlange jedes Clients
+    private long maxQueuedBytes;
+    private transient ExecutorService mailboxExecutor; // führt die Postfächer aller Spiele und der Lobby aus
+    private transient Mailbox lobbyMailbox;
+    private transient ConcurrentHashMap<String, Mailbox> gameMailboxes; // Spiel ID -> Postfach des Spiels
+    // nur im Postfach der Lobby verwendet
+    private ArrayList<ClientHandler> lobbySubscribers; // Clients, die Änderungen der Spieleliste statt ganzer GameLists erhalten
+    private LinkedHashMap<String, GameSummary> lobbyGames; // letzter veröffentlichter Stand jedes Spiels
+    private long lobbyVersion; // Version der Spieleliste, wird bei jeder Änderung erhöht
+    // Indizes, damit die Zuordnung eines Nachrichtenempfängers nicht mehr alle Clients und Spiele durchsucht.
+    // Geändert werden sie beim Verbinden, Joinen, Verlassen und Entfernen, gelesen aus allen Threads
+    private Set<ClientHandler> connectedClients;
+    private ConcurrentHashMap<String, ClientHandler> clientsByAddress; // ip:port
+    private ConcurrentHashMap<String, ClientHandler> clientsByName;
+    private ConcurrentHashMap<ClientHandler, NetGame> gamesByClient;
+    private ConcurrentHashMap<String, NetGame> gamesById;
+    private Set<String> bannedAddresses;
+    private transient JournalStore journalStore; // null, wenn Spiele nicht journalisiert werden
+    private transient ConcurrentHashMap<String, GameJournal> gameJournals; // Spiel ID -> Journal des Spiels
+    private transient AiTurnExecutor aiTurnExecutor; // berechnet die Züge der KI-Spieler
 
 // --------------------------- CONSTRUCTORS ---------------------------
 
@@ -52,6 +99,35 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
         this.objectQueue = new Vector<ITransferable>();
         this.netGames = new Vector<NetGame>();
         this.banList = new Vector<String>();
+        // ReentrantLock statt synchronized, damit virtuelle Threads beim Warten nicht an ihren Trägerthread gebunden werden
+        this.lock = new ReentrantLock();
+        this.objectAvailable = this.lock.newCondition();
+        this.fanOutStatistics = new FanOutStatistics();
+        this.outboundStatistics = new OutboundStatistics();
+        this.maxQueuedMessages = OutboundQueue.DEFAULT_MAX_MESSAGES;
+        this.maxQueuedBytes = OutboundQueue.DEFAULT_MAX_BYTES;
+        this.mailboxExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+            private AtomicInteger threadNumber = new AtomicInteger();
+
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Game-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.lobbyMailbox = new Mailbox("lobby", this.mailboxExecutor, errorHandler);
+        this.gameMailboxes = new ConcurrentHashMap<String, Mailbox>();
+        this.lobbySubscribers = new ArrayList<ClientHandler>();
+        this.lobbyGames = new LinkedHashMap<String, GameSummary>();
+        this.lobbyVersion = 0;
+        this.connectedClients = ConcurrentHashMap.newKeySet();
+        this.clientsByAddress = new ConcurrentHashMap<String, ClientHandler>();
+        this.clientsByName = new ConcurrentHashMap<String, ClientHandler>();
+        this.gamesByClient = new ConcurrentHashMap<ClientHandler, NetGame>();
+        this.gamesById = new ConcurrentHashMap<String, NetGame>();
+        this.bannedAddresses = ConcurrentHashMap.newKeySet();
+        this.gameJournals = new ConcurrentHashMap<String, GameJournal>();
+        this.aiTurnExecutor = new AiTurnExecutor(AiTurnExecutor.DEFAULT_THREADS, AiTurnExecutor.DEFAULT_MOVE_BUDGET_MILLIS);
     }
 
 // --------------------- GETTER / SETTER METHODS ---------------------
@@ -60,7 +136,7 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
         return banList;
     }
 
-    public synchronized Vector<ClientHandler> getClients() {
+    public Vector<ClientHandler> getClients() {
         return this.clients;
     }
 
@@ -68,6 +144,43 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
         return this.errorHandler;
     }
 
+    /**
+     * Gibt die Statistik über Broad- und Multicasts zurück
+     */
+    public FanOutStatistics getFanOutStatistics() {
+        return fanOutStatistics;
+    }
+
+    /**
+     * Gibt die Statistik über die Warteschlangen der Clients zurück
+     */
+    public OutboundStatistics getOutboundStatistics() {
+        return outboundStatistics;
+    }
+
+    public int getMaxQueuedMessages() {
+        return maxQueuedMessages;
+    }
+
+    /**
+     * Maximale Anzahl Objekte, die für einen Client auf das Senden warten dürfen. Gilt für danach verbundene Clients
+     */
+    public void setMaxQueuedMessages(int maxQueuedMessages) {
+        this.maxQueuedMessages = maxQueuedMessages;
+    }
+
+    public long getMaxQueuedBytes() {
+        return maxQueuedBytes;
+    }
+
+    /**
+     * Maximale geschätzte Größe der Objekte, die für einen Client auf das Senden warten dürfen. Gilt für danach
+     * verbundene Clients
+     */
+    public void setMaxQueuedBytes(long maxQueuedBytes) {
+        this.maxQueuedBytes = maxQueuedBytes;
+    }
+
     public int getMaxGames() {
         return maxGames;
     }
@@ -76,10 +189,33 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
         return maxPlayers;
     }
 
-    public synchronized Vector<NetGame> getNetGames() {
+    public void setMaxPlayers(int maxPlayers) {
+        this.maxPlayers = maxPlayers;
+    }
+
+    public Vector<NetGame> getNetGames() {
         return netGames;
     }
 
+    /**
+     * Setzt das Verzeichnis, in dem die Spiele journalisiert werden. Muss vor dem ersten Spiel gesetzt werden
+     */
+    public void setJournalStore(JournalStore journalStore) {
+        this.journalStore = journalStore;
+    }
+
+    public AiTurnExecutor getAiTurnExecutor() {
+        return aiTurnExecutor;
+    }
+
+    /**
+     * Ersetzt den Executor für die Züge der KI-Spieler. Muss vor dem ersten Spiel gesetzt werden
+     */
+    public void setAiTurnExecutor(AiTurnExecutor aiTurnExecutor) {
+        this.aiTurnExecutor.dispose();
+        this.aiTurnExecutor = aiTurnExecutor;
+    }
+
 
 // --------------------- Interface IDisposable ---------------------
 
@@ -88,9 +224,12 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
      */
     public void dispose() {
         this.disposed = true;
-        for (ClientHandler clients : this.clients) {
+        // Kopie, da sich beendende Clients parallel aus der Liste entfernen
+        for (ClientHandler clients : new ArrayList<ClientHandler>(this.clients)) {
             clients.dispose();
         }
+        this.mailboxExecutor.shutdown();
+        this.aiTurnExecutor.dispose();
     }
 
 // --------------------- Interface Runnable ---------------------
@@ -112,11 +251,162 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
 
 // -------------------------- OTHER METHODS --------------------------
 
+    /**
+     * Prüft den Typ eines vom Client empfangenen Objekts und verarbeitet es. Wird von allen
+     * Transportarten (ClientListener, NioConnection) verwendet
+     */
+    public void processObject(final ClientHandler clientHandler, final ITransferable receivedObject) {
+        // prüfe Objekttypen
+        switch (receivedObject.getType()) {
+            case Join:
+                NetGame joinedGame = this.getGameById(((Join) receivedObject).getGameId());
+                if (joinedGame == null) {
+                    this.unicast(TransferableObjectFactory.CreateError("Game does not exist anymore!"), clientHandler);
+                    break;
+                }
+                this.runInGame(joinedGame, new Runnable() {
+                    public void run() {
+                        assignClientToGame(clientHandler, receivedObject);
+                    }
+                });
+                break;
+            case ShipPlacedInformation:
+                this.runInGameOfClient(clientHandler, new Runnable() {
+                    public void run() {
+                        addShipPlacedInformationToGame(clientHandler, receivedObject);
+                    }
+                });
+                break;
+            case Game:
+                this.lobbyMailbox.execute(new Runnable() {
+                    public void run() {
+                        if (getNetGames().size() < getMaxGames()) {
+                            registerGame(receivedObject);
+                        } else {
+                            ITransferable obj = TransferableObjectFactory.CreateError("Maximum of games has reached, You could not create a new game!");
+                            unicast(obj, clientHandler);
+                        }
+                    }
+                });
+                break;
+            case ServerInfo:
+                final ServerInfo serverInfo = (ServerInfo) receivedObject;
+                switch (serverInfo.getReason()) {
+                    case GameList:
+                        this.lobbyMailbox.execute(new Runnable() {
+                            public void run() {
+                                sendGameList(clientHandler);
+                            }
+                        });
+                        break;
+                    case GameListSnapshot:
+                        this.lobbyMailbox.execute(new Runnable() {
+                            public void run() {
+                                sendGameListSnapshot(clientHandler);
+                            }
+                        });
+                        break;
+                    case PlayerNames:
+                        this.runInGameOfClient(clientHandler, new Runnable() {
+                            public void run() {
+                                sendNameList(clientHandler);
+                            }
+                        });
+                        break;
+
+                    case PlayerWon:
+                        this.runInGameOfClient(clientHandler, new Runnable() {
+                            public void run() {
+                                NetGame game = getGameByClient(clientHandler);
+                                if (game != null) {
+                                    multicast(serverInfo, game.getJoinedPlayers());
+                                    deleteGame(game);
+                                }
+                            }
+                        });
+                        break;
+                }
+                break;
+
+            case Turn:
+                this.runInGameOfClient(clientHandler, new Runnable() {
+                    public void run() {
+                        addTurn(clientHandler, receivedObject);
+                    }
+                });
+                break;
+
+            case ClientInfo:
+                ClientInfo info = (ClientInfo) receivedObject;
+                switch (info.getReason()) {
+                    case Connect:
+                        boolean isNameAvailable = this.reserveClientName(clientHandler, info.getUsername());
+                        if (!isNameAvailable) {
+                            ITransferable error = TransferableObjectFactory.CreateError("Username is already taken! Please take an other one.");
+                            this.unicast(error, clientHandler);
+                        } else {
+                            this.unicast(TransferableObjectFactory.CreateServerInfo(InfoSendingReason.Connect), clientHandler);
+                            this.printInfo(new EventArgs<ITransferable>(this, new Message(info.getIp() + ":" + info.getPort() + " has named to " + info.getUsername() + "(" + info.getPort() + ")")));
+                            this.objectReceived(new EventArgs<ITransferable>(this, info));
+                        }
+                        break;
+                }
+
+                break;
+            default:
+                this.dispatchObject(receivedObject);
+        }
+    }
+
+    /**
+     * Legt eine Aufgabe in das Postfach eines Spiels. Wurde das Spiel inzwischen entfernt, verfällt sie
+     */
+    private void runInGame(NetGame game, Runnable task) {
+        Mailbox mailbox = this.gameMailboxes.get(game.getId());
+        if (mailbox != null) {
+            mailbox.execute(task);
+        }
+    }
+
+    /**
+     * Legt eine Aufgabe in das Postfach des Spiels, in dem der Client spielt. Spielt er in keinem, verfällt sie
+     */
+    private void runInGameOfClient(ClientHandler clientHandler, Runnable task) {
+        NetGame game = this.getGameByClient(clientHandler);
+        if (game != null) {
+            this.runInGame(game, task);
+        }
+    }
+
+    /**
+     * Fügt einen neu verbundenen Client hinzu. Ist der Client gebannt, wird er benachrichtigt und
+     * wieder entfernt
+     */
+    public void connectClient(ClientHandler clientHandler) {
+        // Füge den neunen Client dem Server hinzu
+        this.addClient(clientHandler);
+        // Prüfe ob der Client gebannt ist
+        boolean isBanned = this.isBanned(clientHandler.getSocket().getInetAddress().getHostAddress());
+        if (isBanned) {
+            this.unicast(TransferableObjectFactory.CreateError("You are banned from this server!"), clientHandler);
+            this.removeClient(clientHandler);
+        }
+    }
+
+    /**
+     * Prüft ob die Maximale Anzahl von Clients auf dem Server erreicht wurde
+     */
+    public boolean isFull() {
+        return this.connectedClients.size() >= this.maxPlayers;
+    }
+
     /**
      * Füge einen neuen Client hinzu
      */
-    public synchronized void addClient(ClientHandler clientHandler) {
+    public void addClient(ClientHandler clientHandler) {
         this.clients.add(clientHandler);
+        this.connectedClients.add(clientHandler);
+        this.clientsByAddress.put(getAddress(clientHandler.getSocket().getInetAddress().getHostAddress(), clientHandler.getSocket().getPort()), clientHandler);
         ITransferable serverMessage = TransferableObjectFactory.CreateMessage(clientHandler.getSocket().getInetAddress().getHostAddress() + ":" + clientHandler.getSocket().getPort() + " has connected");
         clientHasConnected(new EventArgs<ITransferable>(this, serverMessage));
     }
@@ -141,25 +431,71 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
     /**
      * Füge ein neues Game hinzu
      */
-    public synchronized void addGame(ITransferable receivedObject) {
+    public void addGame(final ITransferable receivedObject) {
+        this.lobbyMailbox.execute(new Runnable() {
+            public void run() {
+                registerGame(receivedObject);
+            }
+        });
+    }
+
+    /**
+     * Stellt die Spiele aus dem Journalverzeichnis wieder her und nimmt sie in die Spieleliste auf. Die Spieler
+     * müssen ihnen erneut beitreten, danach wird das Spiel an der unterbrochenen Stelle fortgesetzt
+     */
+    public void recoverGames() {
+        if (this.journalStore == null) {
+            return;
+        }
+        for (GameJournal journal : this.journalStore.recover()) {
+            NetGame game = journal.getGame();
+            this.gameJournals.put(game.getId(), journal);
+            this.printInfo(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Recovered game " + game.getName() + " (" + game.getId() + ")")));
+            this.addGame(game);
+        }
+    }
+
+    /**
+     * Legt das Postfach eines neuen Spiels an und nimmt es in die Spieleliste auf, wird im Postfach der Lobby
+     * ausgeführt
+     */
+    private void registerGame(ITransferable receivedObject) {
         if (receivedObject.getType() != TransferableType.Game) {
             return;
         }
         NetGame netGame = (NetGame) receivedObject;
+        if (this.journalStore != null && !this.gameJournals.containsKey(netGame.getId())) {
+            GameJournal journal = this.journalStore.create(netGame);
+            if (journal != null) {
+                this.gameJournals.put(netGame.getId(), journal);
+            }
+        }
+        this.gameMailboxes.put(netGame.getId(), new Mailbox("game " + netGame.getId(), this.mailboxExecutor, this.errorHandler));
         this.netGames.add(netGame);
+        this.gamesById.put(netGame.getId(), netGame);
         objectReceived(new EventArgs<ITransferable>(this, netGame));
-        ITransferable gameList = TransferableObjectFactory.CreateGameList(this.netGames);
-        broadcast(gameList, null);
+        this.applyGameListChange(GameListChangeType.GameAdded, new GameSummary(netGame));
+        // Clients ohne Abonnement der Spieleliste erhalten wie bisher die komplette Liste
+        List<ClientHandler> legacyClients = new ArrayList<ClientHandler>();
+        for (ClientHandler clientHandler : this.connectedClients) {
+            if (!clientHandler.isLobbySubscriber()) {
+                legacyClients.add(clientHandler);
+            }
+        }
+        if (!legacyClients.isEmpty()) {
+            multicast(TransferableObjectFactory.CreateGameList(new Vector<NetGame>(this.netGames)), legacyClients);
+        }
     }
 
     /**
      * Sende ein Objekt vom Typ ITransferable an alle verdundenen Clients
      */
-    public synchronized void broadcast(ITransferable transferableObject, ClientHandler excludedClient) {
-        for (int i = 0; i < this.clients.size(); i++) {
-            ClientHandler clientHandler = this.clients.get(i);
+    public void broadcast(ITransferable transferableObject, ClientHandler excludedClient) {
+        int numberOfRecipients = this.connectedClients.size() - (excludedClient != null && this.connectedClients.contains(excludedClient) ? 1 : 0);
+        ITransferable sharedObject = this.encodeOnce(transferableObject, numberOfRecipients);
+        for (ClientHandler clientHandler : this.connectedClients) {
             if (clientHandler != excludedClient) {
-                clientHandler.getClientSender().addObjectToQueue(transferableObject);
+                clientHandler.getClientSender().addObjectToQueue(sharedObject);
             }
         }
     }
@@ -169,39 +505,26 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
     }
 
     /**
-     * Verarbeite Client Informationen über ein neu gesetztes Schiff auf sein Board
+     * Verarbeite Client Informationen über ein neu gesetztes Schiff auf sein Board, wird im Postfach des Spiels
+     * ausgeführt
      */
     public void addShipPlacedInformationToGame(ClientHandler clientHandler, ITransferable receivedObject) {
         ShipPlacedInformation info = (ShipPlacedInformation) receivedObject;
         NetGame game = getGameByClient(clientHandler);
         if (game != null) {
-            Player player = game.getPlayerByName(clientHandler.getUsername());
-            player.setCurrentShipByType(info.getShipType());
-            if (!game.getReady()) {
-                boolean allShipsSet = game.haveAllPlayersSetTheirShips();
-                if (!allShipsSet) {
-                    if (!player.hasPlacedAllShips()) {
-                        try {
-                            player.placeShip(info.getX(), info.getY(), info.getOrientation());
-                        } catch (ShipAlreadyPlacedException e) {
-                            e.printStackTrace();
-                        } catch (FieldOutOfBoardException e) {
-                            e.printStackTrace();
-                        } catch (ShipOutOfBoardException e) {
-                            e.printStackTrace();
-                        }
-                    }
-                    allShipsSet = game.haveAllPlayersSetTheirShips();
-                    // send to all player all Boards
-                    if (allShipsSet) {
-                        sendGameReady(game);
-                        initializeNextTurn(game);
-                    } else {
-                        if (player.hasPlacedAllShips()) {
-                            // send place your ships to next player
-                            initializeNextShipPlacement(game);
-                        }
-                    }
+            boolean placementFinished = game.placeShip(clientHandler.getUsername(), info);
+            GameJournal journal = this.gameJournals.get(game.getId());
+            if (journal != null) {
+                journal.recordShipPlaced(clientHandler.getUsername(), info);
+            }
+            if (placementFinished) {
+                // send to all player all Boards
+                if (game.getReady()) {
+                    sendGameReady(game);
+                    initializeNextTurn(game);
+                } else {
+                    // send place your ships to next player
+                    initializeNextShipPlacement(game);
                 }
             }
         }
@@ -213,100 +536,177 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
     private void sendGameReady(NetGame game) {
         ITransferable rdy = TransferableObjectFactory.CreateServerInfo(InfoSendingReason.GameReady);
         multicast(rdy, game.getJoinedPlayers());
-
-        // sends all Player names to the clients for combobox
-        game.setGameToReady();
     }
 
     /**
      * Füge einen neunen Spielzug dem passenden Game und der globalen Spielzugliste hinzu.
-     * Anschließend wird der nächste Client benachrichtig, damit er seinen Zug machen kann
+     * Anschließend wird der nächste Client benachrichtig, damit er seinen Zug machen kann. Wird im Postfach des
+     * Spiels ausgeführt. Züge von Clients, die nicht an der Reihe sind, und unmögliche Züge werden abgelehnt
      */
-    public synchronized void addTurn(ClientHandler handler, ITransferable receivedObject) {
+    public void addTurn(ClientHandler handler, ITransferable receivedObject) {
         Turn turn = (Turn) receivedObject;
         NetGame netGame = getGameByClient(handler);
 
         if (netGame != null) {
-            netGame.addTurn(turn);
-            turn.setGameId(netGame.getId());
-            ITransferable clientTurn = handleTurn(netGame, turn);
-            if (clientTurn != null) {
-                this.multicast(clientTurn, netGame.getJoinedPlayers());
-                if (!netGame.isGameover()) {
-                    initializeNextTurn(netGame);
-                }
+            if (!this.isClientOnTurn(netGame, handler)) {
+                this.unicast(TransferableObjectFactory.CreateError("It is not your turn!"), handler);
+                return;
+            }
+            if (!netGame.isTurnPossible(turn)) {
+                this.unicast(TransferableObjectFactory.CreateError("Turn is not possible!"), handler);
+                this.sendMakeTurn(handler);
+                return;
             }
+            turn.setGameId(netGame.getId());
+            handleTurn(netGame, turn);
         }
 
         objectReceived(new EventArgs<ITransferable>(this, turn));
     }
 
+    /**
+     * Gibt an, ob der Client auf dem Platz des Spielers sitzt, der im laufenden Spiel an der Reihe ist
+     */
+    private boolean isClientOnTurn(NetGame game, ClientHandler client) {
+        if (!game.getReady() || game.isGameover()) {
+            return false;
+        }
+        int seat = game.getIndexByClient(client);
+        return seat > -1 && game.getPlayers()[seat] == game.getCurrentPlayer();
+    }
+
     /**
      * Liefert das Spiel anhand eines Clients
      */
     public NetGame getGameByClient(ClientHandler client) {
-        for (NetGame game : netGames) {
-            for (ClientHandler clientHandler : game.getJoinedPlayers()) {
-                if (clientHandler.equals(client)) {
-                    return game;
-                }
-            }
+        if (client == null) {
+            return null;
         }
-        return null;
+        return this.gamesByClient.get(client);
     }
 
     /**
-     * Verarbeitet einen Spielzug des Clients
+     * Verarbeitet einen Spielzug des Clients, sendet ihn an alle Spieler des Spiels und stößt den nächsten
+     * Spielzug an
      */
-    private ITransferable handleTurn(NetGame netGame, ITransferable t) {
-        Turn turn = (Turn) t;
-        Orientation orientation = turn.isHorizontal() ? Orientation.HORIZONTAL : Orientation.VERTICAL;
-        ITransferable clientTurn = null;
+    private void handleTurn(NetGame netGame, Turn turn) {
+        boolean nextTurn;
         try {
-            if (turn.isReloading()) {
-                clientTurn = TransferableObjectFactory.CreateClientTurn(null, true, turn.getAttackingPlayerName(), null);
-            } else {
-                netGame.getCurrentPlayer().setCurrentShipByType(turn.getShipType());
-                netGame.makeTurn(netGame.getPlayerByName(turn.getAttackedPlayerName()), turn.getFieldX(), turn.getFieldY(), orientation);
-                if (!netGame.isGameover()) {
-                    if (netGame.isReady()) {
-                        //  make client turn for other clients
-                        clientTurn = TransferableObjectFactory.CreateClientTurn(netGame.getMarkedFieldOfLastTurn(), false, turn.getAttackingPlayerName(), turn.getAttackedPlayerName());
-                    }
-                } else {
-                    // game is over one player has won the game
-                    clientTurn = TransferableObjectFactory.CreateClientTurn(netGame.getMarkedFieldOfLastTurn(), false, turn.getAttackingPlayerName(), turn.getAttackedPlayerName(), netGame.getWinner().getName());
-                    netGames.remove(netGame);
-                }
-            }
-            if (!netGame.isGameover()) {
-                if (turn.getAttackedPlayerName() != null && !turn.getAttackedPlayerName().isEmpty()) {
-                    if (netGame.getPlayerByName(turn.getAttackedPlayerName()).hasLost()) {
-                        ITransferable info = TransferableObjectFactory.CreateClientInfo(turn.getAttackedPlayerName(), null, -1, InfoSendingReason.GameOver);
-                        multicast(info, netGame.getJoinedPlayers());
-                    }
-                }
-                netGame.nextPlayer();
-            }
+            nextTurn = netGame.applyTurn(turn);
         } catch (FieldOutOfBoardException e) {
             e.printStackTrace();
+            return;
+        }
+        GameJournal journal = this.gameJournals.get(netGame.getId());
+        if (journal != null) {
+            journal.recordTurn(turn);
+        }
+        ITransferable clientTurn = null;
+        if (turn.isReloading()) {
+            clientTurn = TransferableObjectFactory.CreateClientTurn(null, true, turn.getAttackingPlayerName(), null);
+        } else if (netGame.isGameover()) {
+            // game is over one player has won the game
+            clientTurn = TransferableObjectFactory.CreateClientTurn(netGame.getMarkedFieldOfLastTurn(), false, turn.getAttackingPlayerName(), turn.getAttackedPlayerName(), netGame.getWinner().getName());
+            this.closeGame(netGame);
+        } else if (netGame.isReady()) {
+            //  make client turn for other clients
+            clientTurn = TransferableObjectFactory.CreateClientTurn(netGame.getMarkedFieldOfLastTurn(), false, turn.getAttackingPlayerName(), turn.getAttackedPlayerName());
+        }
+        if (!netGame.isGameover()) {
+            if (turn.getAttackedPlayerName() != null && !turn.getAttackedPlayerName().isEmpty()) {
+                if (netGame.getPlayerByName(turn.getAttackedPlayerName()).hasLost()) {
+                    ITransferable info = TransferableObjectFactory.CreateClientInfo(turn.getAttackedPlayerName(), null, -1, InfoSendingReason.GameOver);
+                    multicast(info, netGame.getJoinedPlayers());
+                }
+            }
+        }
+        if (clientTurn != null) {
+            this.multicast(clientTurn, netGame.getJoinedPlayers());
+        }
+        if (nextTurn) {
+            initializeNextTurn(netGame);
         }
-        return clientTurn;
     }
 
     /**
      * Stößt den nächsten Spielzug an
      */
     public void initializeNextTurn(NetGame game) {
-        // get next client id for ship placement
-        int nextPlayer = game.getClientTurnOrder().next();
-        ClientHandler client = game.getPlayersMap().get(nextPlayer);
+        // Allow next client to make his turn
+        this.promptTurn(game, game.nextInTurnOrder());
+    }
 
-        // Allow client to make his turn
-        this.sendMakeTurn(client);
+    /**
+     * Fordert den Spieler auf dem Platz zu seinem Spielzug auf. Für einen KI-Spieler wird der Zug in einer eigenen
+     * Aufgabe angestoßen, damit Spiele nur aus KI-Zügen nicht in immer tieferen Aufrufen laufen
+     */
+    private void promptTurn(final NetGame game, final int seat) {
+        if (game.isAiSeat(seat)) {
+            this.runInGame(game, new Runnable() {
+                public void run() {
+                    startAiTurn(game, seat);
+                }
+            });
+        } else {
+            this.sendMakeTurn(game.getPlayersMap().get(seat));
+        }
+    }
 
-        // add client id again to the queue for next round
-        game.getClientTurnOrder().add(nextPlayer);
+    /**
+     * Übergibt den Zug eines KI-Spielers dem AiTurnExecutor, wird im Postfach des Spiels ausgeführt. Das Postfach
+     * wartet nicht auf das Ergebnis, wird aber angehalten, bis es eintrifft: Die KI liest und ändert bei der
+     * Berechnung das Spiel, deshalb werden Aufgaben wie das Verlassen des Spiels, Züge von Clients oder Snapshots
+     * bis dahin zurückgestellt
+     */
+    private void startAiTurn(final NetGame game, int seat) {
+        if (this.gamesById.get(game.getId()) != game || game.isGameover()) {
+            return;
+        }
+        Player ai = game.getPlayers()[seat];
+        if (game.getCurrentPlayer() != ai) {
+            return;
+        }
+        final int turnNumber = game.getTurnNumber();
+        if (ai.hasLost() || ai.areAllShipsReloading()) {
+            this.applyAiTurn(game, turnNumber, (Turn) TransferableObjectFactory.CreateTurn(ai.getName()));
+            return;
+        }
+        final Mailbox mailbox = this.gameMailboxes.get(game.getId());
+        if (mailbox == null) {
+            return;
+        }
+        mailbox.pause();
+        this.aiTurnExecutor.submit(new Callable<Turn>() {
+            public Turn call() throws Exception {
+                return game.planAiTurn();
+            }
+        }, new Executor() {
+            public void execute(Runnable task) {
+                mailbox.resume(task);
+            }
+        }, new IAiTurnListener() {
+            public void onTurnComputed(Turn turn) {
+                applyAiTurn(game, turnNumber, turn);
+            }
+        });
+    }
+
+    /**
+     * Führt den Zug eines KI-Spielers aus, wird im Postfach des Spiels ausgeführt. Passt das Spiel nicht mehr zum
+     * Zug, wird er verworfen. Fehlt der Zug oder ist er nicht möglich, macht der KI-Spieler einen zufälligen
+     * Ersatzzug und baut sein Wissen über die Gegner neu auf
+     */
+    private void applyAiTurn(NetGame game, int turnNumber, Turn turn) {
+        if (this.gamesById.get(game.getId()) != game || game.isGameover() || game.getTurnNumber() != turnNumber) {
+            return;
+        }
+        if (turn == null || !game.isTurnPossible(turn)) {
+            ((AIPlayer) game.getCurrentPlayer()).discardKnowledge();
+            turn = game.createFallbackTurn(ThreadLocalRandom.current());
+        }
+        turn.setGameId(game.getId());
+        this.handleTurn(game, turn);
+        objectReceived(new EventArgs<ITransferable>(this, turn));
     }
 
     /**
@@ -318,25 +718,40 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
     }
 
     /**
-     * Weisst ein Client einem Spiel zu
+     * Weisst ein Client einem Spiel zu, wird im Postfach des Spiels ausgeführt
      */
-    public synchronized void assignClientToGame(ClientHandler clientHandler, ITransferable receivedObject) {
+    public void assignClientToGame(ClientHandler clientHandler, ITransferable receivedObject) {
         Join join = (Join) receivedObject;
-        NetGame jGame = null;
-        for (NetGame netGame : this.netGames) {
-            if (join.getGameId().equals(netGame.getId())) {
-                if (netGame.getJoinedPlayers().size() < netGame.getMaxPlayers()) {
-                    netGame.addPlayer(clientHandler);
-                    jGame = netGame;
-                    ITransferable info = TransferableObjectFactory.CreateClientInfo(clientHandler.getUsername(), clientHandler.getSocket().getInetAddress().getHostAddress(), clientHandler.getSocket().getPort(), InfoSendingReason.Connect);
-                    this.multicast(info, netGame.getJoinedPlayers());
-                } else {
-                    ITransferable msg = TransferableObjectFactory.CreateError("Game has no free slot available!");
-                    this.unicast(msg, clientHandler);
-                    return;
-                }
-                break;
+        NetGame jGame = this.getGameById(join.getGameId());
+        if (jGame == null) {
+            this.unicast(TransferableObjectFactory.CreateError("Game does not exist anymore!"), clientHandler);
+            return;
+        }
+        if (!this.connectedClients.contains(clientHandler)) {
+            return;
+        }
+        if (!this.isJoinPasswordValid(clientHandler, jGame, join)) {
+            this.unicast(TransferableObjectFactory.CreateError("Wrong password!"), clientHandler);
+            return;
+        }
+        if (jGame.addPlayer(clientHandler)) {
+            this.gamesByClient.put(clientHandler, jGame);
+            GameJournal journal = this.gameJournals.get(jGame.getId());
+            if (journal != null) {
+                journal.recordJoin(jGame.getIndexByClient(clientHandler), clientHandler.getUsername());
+            }
+            // hat sich der Client inzwischen getrennt, hat removeClient ihn eventuell nicht mehr im Index gefunden
+            if (!this.connectedClients.contains(clientHandler)) {
+                this.leaveGame(clientHandler, jGame);
+                return;
             }
+            this.publishGameListChange(GameListChangeType.GameUpdated, jGame);
+            ITransferable info = TransferableObjectFactory.CreateClientInfo(clientHandler.getUsername(), clientHandler.getSocket().getInetAddress().getHostAddress(), clientHandler.getSocket().getPort(), InfoSendingReason.Connect);
+            this.multicast(info, jGame.getJoinedPlayers());
+        } else {
+            ITransferable msg = TransferableObjectFactory.CreateError("Game has no free slot available!");
+            this.unicast(msg, clientHandler);
+            return;
         }
         join.setClient(clientHandler.getUsername());
         objectReceived(new EventArgs<ITransferable>(this, join));
@@ -344,24 +759,118 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
 
         if (jGame.getJoinedPlayers().size() == jGame.getMaxPlayers()) {
             jGame.updatePlayerNames();
-            this.sendReadyForPlacement(jGame);
-            this.initializeNextShipPlacement(jGame);
+            if (jGame.isRecovered()) {
+                this.resumeGame(jGame);
+            } else {
+                this.sendReadyForPlacement(jGame);
+                this.initializeNextShipPlacement(jGame);
+            }
+        }
+    }
+
+    /**
+     * Setzt ein wiederhergestelltes Spiel fort, nachdem alle Spieler wieder beigetreten sind. Der Spieler, der vor
+     * dem Absturz an der Reihe war, darf erneut setzen oder schießen
+     */
+    private void resumeGame(NetGame game) {
+        game.setRecovered(false);
+        int seat = game.getLastInTurnOrder();
+        if (game.getReady()) {
+            this.sendNameList(game);
+            this.sendGameReady(game);
+            this.promptTurn(game, seat);
+        } else {
+            this.sendReadyForPlacement(game);
+            this.promptShipPlacement(game, seat);
+        }
+    }
+
+    /**
+     * Entfernt einen Client aus seinem Spiel und benachrichtigt die übrigen Spieler, wird im Postfach des Spiels
+     * ausgeführt
+     */
+    private void leaveGame(ClientHandler clientHandler, NetGame game) {
+        if (!this.gamesByClient.remove(clientHandler, game)) {
+            return;
+        }
+        int seat = game.getIndexByClient(clientHandler);
+        game.removePlayer(clientHandler);
+        GameJournal journal = this.gameJournals.get(game.getId());
+        if (journal != null && seat > -1) {
+            journal.recordLeave(seat);
+        }
+        this.publishGameListChange(GameListChangeType.GameUpdated, game);
+        ITransferable disconnect = TransferableObjectFactory.CreateClientInfo(clientHandler.getUsername(), clientHandler.getSocket().getInetAddress().getHostAddress(), clientHandler.getSocket().getPort(), InfoSendingReason.Disconnect);
+        multicast(disconnect, game.getJoinedPlayers());
+    }
+
+    /**
+     * Prüft das Passwort eines Beitritts. Clients ohne Abonnement der Spieleliste kennen das Passwort aus der
+     * GameList und prüfen es selbst, sie senden keines mit
+     */
+    private boolean isJoinPasswordValid(ClientHandler clientHandler, NetGame game, Join join) {
+        if (!game.isPrivate()) {
+            return true;
+        }
+        if (join.getPassword() == null) {
+            return !clientHandler.isLobbySubscriber();
         }
+        return join.getPassword().equals(game.getPassword());
     }
 
     /**
      * Initialisiert das Schiffesetzten des nächst möglichgen Spielers in dem Spiel
      */
     private void initializeNextShipPlacement(NetGame game) {
-        // get next client id for ship placement
-        int nextPlayer = game.getClientTurnOrder().next();
-        ClientHandler client = game.getPlayersMap().get(nextPlayer);
+        // Allow next client to place his ships
+        this.promptShipPlacement(game, game.nextInTurnOrder());
+    }
 
-        // Allow client to olace his ships
-        this.sendPlaceYourShips(client);
+    /**
+     * Fordert den Spieler auf dem Platz auf, seine Schiffe zu setzen. Ein KI-Spieler setzt sie in einer eigenen
+     * Aufgabe im Postfach des Spiels
+     */
+    private void promptShipPlacement(final NetGame game, final int seat) {
+        if (game.isAiSeat(seat)) {
+            this.runInGame(game, new Runnable() {
+                public void run() {
+                    placeAiShips(game, seat);
+                }
+            });
+        } else {
+            this.sendPlaceYourShips(game.getPlayersMap().get(seat));
+        }
+    }
 
-        // add client id again to the queue for next round
-        game.getClientTurnOrder().add(nextPlayer);
+    /**
+     * Setzt die Schiffe eines KI-Spielers und stößt danach wie nach dem letzten Schiff eines Menschen das Setzen
+     * des nächsten Spielers oder den ersten Spielzug an. Die Aufstellung ist zufällig und ließe sich beim
+     * Wiederherstellen nicht wiederholen, sie wird daher mit einem Snapshot des Spielstands journalisiert
+     */
+    private void placeAiShips(NetGame game, int seat) {
+        if (this.gamesById.get(game.getId()) != game || game.getReady()) {
+            return;
+        }
+        AIPlayer ai = (AIPlayer) game.getPlayers()[seat];
+        if (!ai.hasPlacedAllShips()) {
+            try {
+                ai.placeShips();
+            } catch (Exception e) {
+                this.errorHandler.errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage(ai.getName() + " can not place its ships in game " + game.getName() + ": " + e)));
+                return;
+            }
+        }
+        if (game.haveAllPlayersSetTheirShips()) {
+            game.setGameToReady();
+            this.sendGameReady(game);
+            this.initializeNextTurn(game);
+        } else {
+            this.initializeNextShipPlacement(game);
+        }
+        GameJournal journal = this.gameJournals.get(game.getId());
+        if (journal != null) {
+            journal.snapshot();
+        }
     }
 
     /**
@@ -391,6 +900,7 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
             names.add(handler.getUsername());
 
         }
+        names.addAll(game.getAiPlayerNames());
         ITransferable object = TransferableObjectFactory.CreatePlayerNames(names);
         this.multicast(object, game.getJoinedPlayers());
     }
@@ -398,16 +908,28 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
     /**
      * Sendet eine private Nachricht zu einen einzelnen Client
      */
-    public synchronized void unicast(ITransferable transferableObject, ClientHandler client) {
-        for (int i = 0; i < this.clients.size(); i++) {
-            ClientHandler clientHandler = this.clients.get(i);
-            if (clientHandler == client) {
-                clientHandler.getClientSender().addObjectToQueue(transferableObject);
-                break;
-            }
+    public void unicast(ITransferable transferableObject, ClientHandler client) {
+        // nur an Clients, die noch mit dem Server verbunden sind
+        if (client != null && this.connectedClients.contains(client)) {
+            client.getClientSender().addObjectToQueue(transferableObject);
         }
     }
 
+    /**
+     * Erstellt die Warteschlange für die Objekte, die an einen Client gesendet werden
+     */
+    public OutboundQueue createOutboundQueue(ClientHandler clientHandler) {
+        return new OutboundQueue(clientHandler, this.maxQueuedMessages, this.maxQueuedBytes, this.outboundStatistics);
+    }
+
+    /**
+     * Trennt einen Client, dessen Warteschlange voll ist, weil er nicht schnell genug liest
+     */
+    public void evictClient(ClientHandler clientHandler) {
+        this.errorHandler.errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage(clientHandler.getSocket().getInetAddress().getHostAddress() + ":" + clientHandler.getSocket().getPort() + " -> " + clientHandler.getUsername() + " is too slow and has been disconnected")));
+        this.removeClient(clientHandler);
+    }
+
     /**
      * Bannt einen Client vom Server
      */
@@ -415,6 +937,7 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
         String ip = client.getSocket().getInetAddress().getHostAddress();
         if (!ip.equals("127.0.0.1") || !ip.equals("localhost")) {
             this.banList.add(ip);
+            this.bannedAddresses.add(ip);
         }
         this.removeClient(client);
     }
@@ -422,31 +945,33 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
     /**
      * Entfernt einen Client vom Server und benachrichtigt alle beteiligen Clients
      */
-    public synchronized void removeClient(ClientHandler clientHandler) {
-        int clientIndex = this.clients.indexOf(clientHandler);
-        if (clientIndex != -1) {
-            this.clients.removeElementAt(clientIndex);
-            ITransferable user = TransferableObjectFactory.CreateClientInfo(clientHandler.getUsername(), clientHandler.getSocket().getInetAddress().getHostAddress(), clientHandler.getSocket().getPort());
-            clientHasDisconnected(new EventArgs<ITransferable>(this, user));
-            boolean found = false;
-            NetGame foundGame = null;
-            for (NetGame netGame : this.netGames) {
-                for (int i = 0; i < netGame.getJoinedPlayers().size(); i++) {
-                    if (netGame.getJoinedPlayers().get(i) == clientHandler) {
-                        netGame.removePlayer(clientHandler);
-                        found = true;
-                        foundGame = netGame;
-                        break;
-                    }
-                }
-                if (found) {
-                    ITransferable disconnect = TransferableObjectFactory.CreateClientInfo(clientHandler.getUsername(), clientHandler.getSocket().getInetAddress().getHostAddress(), clientHandler.getSocket().getPort(), InfoSendingReason.Disconnect);
-                    multicast(disconnect, foundGame.getJoinedPlayers());
-                    break;
+    public void removeClient(final ClientHandler clientHandler) {
+        if (clientHandler == null || !this.connectedClients.remove(clientHandler)) {
+            return;
+        }
+        this.clients.remove(clientHandler);
+        this.clientsByAddress.remove(getAddress(clientHandler.getSocket().getInetAddress().getHostAddress(), clientHandler.getSocket().getPort()), clientHandler);
+        if (clientHandler.hasUsername()) {
+            this.clientsByName.remove(clientHandler.getUsername(), clientHandler);
+        }
+        this.lobbyMailbox.execute(new Runnable() {
+            public void run() {
+                if (clientHandler.isLobbySubscriber()) {
+                    lobbySubscribers.remove(clientHandler);
                 }
             }
-            clientHandler.dispose();
+        });
+        ITransferable user = TransferableObjectFactory.CreateClientInfo(clientHandler.getUsername(), clientHandler.getSocket().getInetAddress().getHostAddress(), clientHandler.getSocket().getPort());
+        clientHasDisconnected(new EventArgs<ITransferable>(this, user));
+        final NetGame foundGame = this.gamesByClient.get(clientHandler);
+        if (foundGame != null) {
+            this.runInGame(foundGame, new Runnable() {
+                public void run() {
+                    leaveGame(clientHandler, foundGame);
+                }
+            });
         }
+        clientHandler.dispose();
     }
 
     private void clientHasDisconnected(EventArgs<ITransferable> eventArgs) {
@@ -461,36 +986,149 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
     /**
      * Sendet ein Objekt nur an eine bestimmte Anzahl von Clients
      */
-    public synchronized void multicast(ITransferable transferableObject, List<ClientHandler> clients) {
+    public void multicast(ITransferable transferableObject, List<ClientHandler> clients) {
+        ITransferable sharedObject = this.encodeOnce(transferableObject, clients.size());
         for (int i = 0; i < clients.size(); i++) {
             ClientHandler clientHandler = clients.get(i);
-            clientHandler.getClientSender().addObjectToQueue(transferableObject);
+            clientHandler.getClientSender().addObjectToQueue(sharedObject);
+        }
+    }
+
+    /**
+     * Hüllt ein Objekt für mehrere Empfänger ein, damit es pro Protokoll nur einmal codiert wird
+     */
+    private ITransferable encodeOnce(ITransferable transferableObject, int numberOfRecipients) {
+        if (numberOfRecipients < 2 || transferableObject instanceof EncodedTransferable) {
+            return transferableObject;
         }
+        this.fanOutStatistics.recordFanOut(numberOfRecipients);
+        return new EncodedTransferable(transferableObject, this.fanOutStatistics);
     }
 
     /**
-     * Entfernt ein Spiel vom Server
+     * Entfernt ein Spiel vom Server, wird im Postfach des Spiels ausgeführt
      */
-    public synchronized void deleteGame(ITransferable receivedObject) {
+    public void deleteGame(ITransferable receivedObject) {
         if (receivedObject.getType() != TransferableType.Game) {
             this.errorHandler.errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Couldn't delete game!")));
             return;
         }
-
-        int gameIndex = this.netGames.indexOf(receivedObject);
-        if (gameIndex != -1) {
-            this.netGames.removeElementAt(gameIndex);
+        if (this.closeGame((NetGame) receivedObject)) {
             objectReceived(new EventArgs<ITransferable>(this, receivedObject));
         }
     }
 
+    /**
+     * Entfernt ein Spiel anhand seiner ID vom Server
+     */
+    public void removeGame(String gameId) {
+        final NetGame netGame = this.getGameById(gameId);
+        if (netGame != null) {
+            this.runInGame(netGame, new Runnable() {
+                public void run() {
+                    closeGame(netGame);
+                }
+            });
+        }
+    }
+
+    /**
+     * Entfernt alle Spiele vom Server. Ihre Journale werden nur geschlossen, damit die Spiele beim nächsten Start
+     * wiederhergestellt werden
+     */
+    public void removeAllGames() {
+        for (GameJournal journal : this.gameJournals.values()) {
+            journal.closeLater();
+        }
+        this.gameJournals.clear();
+        this.netGames.removeAllElements();
+        this.gamesById.clear();
+        this.gamesByClient.clear();
+        this.gameMailboxes.clear();
+        this.lobbyMailbox.execute(new Runnable() {
+            public void run() {
+                lobbyGames.clear();
+            }
+        });
+    }
+
+    /**
+     * Entfernt ein Spiel und seine Spieler aus den Indizes und danach aus der Spieleliste. Wird im Postfach des
+     * Spiels ausgeführt, danach werden keine neuen Aufgaben mehr für das Spiel angenommen
+     *
+     * @return false, wenn das Spiel bereits entfernt wurde
+     */
+    private boolean closeGame(final NetGame game) {
+        if (!this.gamesById.remove(game.getId(), game)) {
+            return false;
+        }
+        this.gameMailboxes.remove(game.getId());
+        GameJournal journal = this.gameJournals.remove(game.getId());
+        if (journal != null) {
+            journal.delete();
+        }
+        for (ClientHandler player : game.getPlayersMap().values()) {
+            if (player != null) {
+                this.gamesByClient.remove(player, game);
+            }
+        }
+        final GameSummary summary = new GameSummary(game);
+        this.lobbyMailbox.execute(new Runnable() {
+            public void run() {
+                netGames.remove(game);
+                applyGameListChange(GameListChangeType.GameRemoved, summary);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Übergibt eine Änderung eines Spiels an das Postfach der Lobby. Die Zusammenfassung wird sofort erstellt,
+     * damit sie den Stand zum Zeitpunkt der Änderung enthält
+     */
+    private void publishGameListChange(final GameListChangeType changeType, NetGame game) {
+        final GameSummary summary = new GameSummary(game);
+        this.lobbyMailbox.execute(new Runnable() {
+            public void run() {
+                applyGameListChange(changeType, summary);
+            }
+        });
+    }
+
+    /**
+     * Übernimmt eine Änderung in die Spieleliste der Lobby und sendet sie an alle Clients, die die Spieleliste
+     * abonniert haben. Wird im Postfach der Lobby ausgeführt, die Versionen sind dadurch fortlaufend
+     */
+    private void applyGameListChange(GameListChangeType changeType, GameSummary summary) {
+        if (changeType == GameListChangeType.GameRemoved) {
+            if (this.lobbyGames.remove(summary.getId()) == null) {
+                return;
+            }
+        } else {
+            // Änderungen eines bereits entfernten Spiels werden verworfen
+            if (changeType == GameListChangeType.GameUpdated && !this.lobbyGames.containsKey(summary.getId())) {
+                return;
+            }
+            this.lobbyGames.put(summary.getId(), summary);
+        }
+        this.lobbyVersion++;
+        if (!this.lobbySubscribers.isEmpty()) {
+            this.multicast(TransferableObjectFactory.CreateGameListChange(this.lobbyVersion, changeType, summary), this.lobbySubscribers);
+        }
+    }
+
     /**
      * Fügt ein Objekt der Warteschlange hinzu
      */
-    public synchronized void dispatchObject(ITransferable transferableObject) {
-        this.objectQueue.add(transferableObject);
-        objectReceived(new EventArgs<ITransferable>(this, transferableObject));
-        notify();
+    public void dispatchObject(ITransferable transferableObject) {
+        this.lock.lock();
+        try {
+            this.objectQueue.add(transferableObject);
+            objectReceived(new EventArgs<ITransferable>(this, transferableObject));
+            this.objectAvailable.signal();
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     public void objectReceived(EventArgs<ITransferable> eventArgs) {
@@ -505,56 +1143,67 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
     /**
      * Gibt einen Client anhand seiner IP und Port zurück
      */
-    public synchronized ClientHandler getClient(String ip, int port) {
-        for (ClientHandler client : getClients()) {
-            if (client.getSocket().getInetAddress().getHostAddress().equals(ip) && client.getSocket().getPort() == port) {
-                return client;
-            }
-        }
-        return null;
+    public ClientHandler getClient(String ip, int port) {
+        return this.clientsByAddress.get(getAddress(ip, port));
+    }
+
+    private static String getAddress(String ip, int port) {
+        return ip + ":" + port;
     }
 
     /**
      * Gibt ein Spiel anhand seiner ID zurück
      */
-    public synchronized NetGame getGameById(String id) {
-        for (int i = 0; i < getNetGames().size(); i++) {
-            if (getNetGames().get(i).getId().equals(id)) {
-                return getNetGames().get(i);
-            }
+    public NetGame getGameById(String id) {
+        if (id == null) {
+            return null;
         }
-        return null;
+        return this.gamesById.get(id);
     }
 
     /**
      * Gibt das nächst mögliche Objekt von der Warteschlange zurück
      */
-    private synchronized ITransferable getNextObjectFromQueue() throws InterruptedException {
-        while (this.objectQueue.size() == 0) {
-            wait();
+    private ITransferable getNextObjectFromQueue() throws InterruptedException {
+        this.lock.lock();
+        try {
+            while (this.objectQueue.size() == 0) {
+                this.objectAvailable.await();
+            }
+            ITransferable object = this.objectQueue.get(0);
+            this.objectQueue.removeElementAt(0);
+            return object;
+        } finally {
+            this.lock.unlock();
         }
-        ITransferable object = this.objectQueue.get(0);
-        this.objectQueue.removeElementAt(0);
-        return object;
     }
 
     public boolean isBanned(String hostAddress) {
-        for (int i = 0; i < banList.size(); i++) {
-            if (hostAddress.equals(banList.get(i))) {
-                return true;
-            }
-        }
-        return false;
+        return this.bannedAddresses.contains(hostAddress);
     }
 
     public boolean isClientNameAvailable(String clientName) {
-        for (ClientHandler client : clients) {
-            if (client.hasUsername()) {
-                if (client.getUsername().equals(clientName)) {
-                    return false;
-                }
-            }
+        return clientName != null && !this.clientsByName.containsKey(clientName);
+    }
+
+    /**
+     * Reserviert einen Benutzernamen für einen Client, ein bisheriger Name des Clients wird freigegeben
+     *
+     * @return false, wenn der Name bereits vergeben ist
+     */
+    private boolean reserveClientName(ClientHandler clientHandler, String clientName) {
+        if (clientName == null || this.clientsByName.putIfAbsent(clientName, clientHandler) != null) {
+            return false;
+        }
+        // hat sich der Client inzwischen getrennt, hat removeClient den Namen eventuell nicht mehr gefunden
+        if (!this.connectedClients.contains(clientHandler)) {
+            this.clientsByName.remove(clientName, clientHandler);
+            return false;
+        }
+        if (clientHandler.hasUsername()) {
+            this.clientsByName.remove(clientHandler.getUsername(), clientHandler);
         }
+        clientHandler.setUsername(clientName);
         return true;
     }
 
@@ -575,6 +1224,7 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
         for (int i = 0; i < banList.size(); i++) {
             if (ip.equals(banList.get(i))) {
                 banList.remove(i);
+                bannedAddresses.remove(ip);
                 break;
             }
         }
@@ -589,22 +1239,42 @@ public class ServerDispatcher extends Thread implements IDisposable, Serializabl
     }
 
     /**
-     * Sendet einem Client die Liste aller eröffneten Spiele
+     * Sendet einem Client die Liste aller eröffneten Spiele, wird im Postfach der Lobby ausgeführt
      */
-    public synchronized void sendGameList(ClientHandler clientHandler) {
-        ITransferable games = TransferableObjectFactory.CreateGameList(this.netGames);
+    public void sendGameList(ClientHandler clientHandler) {
+        ITransferable games = TransferableObjectFactory.CreateGameList(new Vector<NetGame>(this.netGames));
         this.unicast(games, clientHandler);
     }
 
     /**
-     * Sendet einem Client eine Liste aller Namen in seinem aktuellen Spiel
+     * Sendet einem Client den aktuellen Stand der Spieleliste und abonniert für ihn alle folgenden Änderungen.
+     * Wird im Postfach der Lobby ausgeführt
+     */
+    public void sendGameListSnapshot(ClientHandler clientHandler) {
+        if (!this.connectedClients.contains(clientHandler)) {
+            return;
+        }
+        if (!clientHandler.isLobbySubscriber()) {
+            clientHandler.setLobbySubscriber(true);
+            this.lobbySubscribers.add(clientHandler);
+        }
+        ArrayList<GameSummary> games = new ArrayList<GameSummary>(this.lobbyGames.values());
+        this.unicast(TransferableObjectFactory.CreateGameListSnapshot(this.lobbyVersion, games), clientHandler);
+    }
+
+    /**
+     * Sendet einem Client eine Liste aller Namen in seinem aktuellen Spiel, wird im Postfach des Spiels ausgeführt
      */
     public void sendNameList(ClientHandler client) {
         NetGame game = getGameByClient(client);
+        if (game == null) {
+            return;
+        }
         ArrayList<String> names = new ArrayList<String>();
         for (ClientHandler handler : game.getJoinedPlayers()) {
             names.add(handler.getUsername());
         }
+        names.addAll(game.getAiPlayerNames());
         ITransferable object = TransferableObjectFactory.CreatePlayerNames(names);
         this.unicast(object, client);
     }
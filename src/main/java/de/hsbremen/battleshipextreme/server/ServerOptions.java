@@ -0,0 +1,175 @@
+package de.hsbremen.battleshipextreme.server;
+
+import java.io.File;
+
+/**
+ * Created on 18.10.2026.
+ * Liest die Startparameter des Servers ein und überträgt sie auf einen Server.
+ * Unterstützt werden:
+ * --nio                 NIO-Transport statt je zwei Threads pro Client
+ * --virtual-threads     je zwei virtuelle Threads pro Client (ab Java 21)
+ * --io-threads=ANZAHL   Anzahl der NioWorker
+ * --max-clients=ANZAHL  maximale Anzahl gleichzeitig verbundener Clients
+ * --send-batch=ANZAHL   maximale Anzahl Objekte pro flush eines ClientSenders
+ * --send-linger-us=ZEIT Wartezeit eines ClientSenders auf weitere Objekte in Mikrosekunden
+ * --max-queued-messages=ANZAHL  maximale Anzahl wartender Objekte pro Client
+ * --max-queued-kb=GRÖSSE        maximale Größe wartender Objekte pro Client in KB
+ * --journal-dir=PFAD            Verzeichnis für die Journale der Spiele, aus dem sie nach einem Neustart
+ *                               wiederhergestellt werden
+ * --ai-threads=ANZAHL           Anzahl der Threads, die die Züge der KI-Spieler berechnen
+ * --ai-move-budget-ms=ZEIT      Zeit in Millisekunden, nach der ein KI-Spieler einen zufälligen Zug macht
+ */
+public class ServerOptions {
+// ------------------------------ FIELDS ------------------------------
+
+    private ServerTransport transport;
+    private int ioThreads;
+    private int maxClients;
+    private int sendBatchSize;
+    private int sendLingerMicros;
+    private int maxQueuedMessages;
+    private int maxQueuedKilobytes;
+    private File journalDirectory;
+    private int aiThreads;
+    private int aiMoveBudgetMillis;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public ServerOptions() {
+        this.transport = ServerTransport.ThreadPerClient;
+        this.ioThreads = -1;
+        this.maxClients = -1;
+        this.sendBatchSize = -1;
+        this.sendLingerMicros = -1;
+        this.maxQueuedMessages = -1;
+        this.maxQueuedKilobytes = -1;
+        this.aiThreads = -1;
+        this.aiMoveBudgetMillis = -1;
+    }
+
+// -------------------------- STATIC METHODS --------------------------
+
+    /**
+     * Liest die Startparameter ein
+     * @throws IllegalArgumentException bei unbekannten oder ungültigen Parametern
+     */
+    public static ServerOptions parse(String[] args) {
+        ServerOptions options = new ServerOptions();
+        for (String arg : args) {
+            if (arg.equals("--nio")) {
+                options.transport = ServerTransport.Nio;
+            } else if (arg.equals("--virtual-threads")) {
+                options.transport = ServerTransport.VirtualThreads;
+            } else if (arg.startsWith("--io-threads=")) {
+                options.ioThreads = parsePositiveInt(arg, "--io-threads=");
+            } else if (arg.startsWith("--max-clients=")) {
+                options.maxClients = parsePositiveInt(arg, "--max-clients=");
+            } else if (arg.startsWith("--send-batch=")) {
+                options.sendBatchSize = parsePositiveInt(arg, "--send-batch=");
+            } else if (arg.startsWith("--send-linger-us=")) {
+                options.sendLingerMicros = parsePositiveInt(arg, "--send-linger-us=");
+            } else if (arg.startsWith("--max-queued-messages=")) {
+                options.maxQueuedMessages = parsePositiveInt(arg, "--max-queued-messages=");
+            } else if (arg.startsWith("--max-queued-kb=")) {
+                options.maxQueuedKilobytes = parsePositiveInt(arg, "--max-queued-kb=");
+            } else if (arg.startsWith("--journal-dir=") && arg.length() > "--journal-dir=".length()) {
+                options.journalDirectory = new File(arg.substring("--journal-dir=".length()));
+            } else if (arg.startsWith("--ai-threads=")) {
+                options.aiThreads = parsePositiveInt(arg, "--ai-threads=");
+            } else if (arg.startsWith("--ai-move-budget-ms=")) {
+                options.aiMoveBudgetMillis = parsePositiveInt(arg, "--ai-move-budget-ms=");
+            } else {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        return options;
+    }
+
+    private static int parsePositiveInt(String arg, String prefix) {
+        try {
+            int value = Integer.parseInt(arg.substring(prefix.length()));
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // wird unten gemeldet
+        }
+        throw new IllegalArgumentException("Invalid value in " + arg);
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    /**
+     * Überträgt die Einstellungen auf den Server. Muss vor Server.start() aufgerufen werden
+     */
+    public void applyTo(Server server) {
+        server.setTransport(this.transport);
+        if (this.ioThreads > 0) {
+            server.setIoThreads(this.ioThreads);
+        }
+        if (this.maxClients > 0) {
+            server.setMaxClients(this.maxClients);
+        }
+        if (this.sendBatchSize > 0) {
+            server.setSendBatchSize(this.sendBatchSize);
+        }
+        if (this.sendLingerMicros > 0) {
+            server.setSendLingerMicros(this.sendLingerMicros);
+        }
+        if (this.maxQueuedMessages > 0) {
+            server.setMaxQueuedMessages(this.maxQueuedMessages);
+        }
+        if (this.maxQueuedKilobytes > 0) {
+            server.setMaxQueuedBytes(this.maxQueuedKilobytes * 1024L);
+        }
+        if (this.journalDirectory != null) {
+            server.setJournalDirectory(this.journalDirectory);
+        }
+        if (this.aiThreads > 0) {
+            server.setAiThreads(this.aiThreads);
+        }
+        if (this.aiMoveBudgetMillis > 0) {
+            server.setAiMoveBudgetMillis(this.aiMoveBudgetMillis);
+        }
+    }
+
+    public ServerTransport getTransport() {
+        return transport;
+    }
+
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public int getSendBatchSize() {
+        return sendBatchSize;
+    }
+
+    public int getSendLingerMicros() {
+        return sendLingerMicros;
+    }
+
+    public int getMaxQueuedMessages() {
+        return maxQueuedMessages;
+    }
+
+    public int getMaxQueuedKilobytes() {
+        return maxQueuedKilobytes;
+    }
+
+    public File getJournalDirectory() {
+        return journalDirectory;
+    }
+
+    public int getAiThreads() {
+        return aiThreads;
+    }
+
+    public int getAiMoveBudgetMillis() {
+        return aiMoveBudgetMillis;
+    }
+}
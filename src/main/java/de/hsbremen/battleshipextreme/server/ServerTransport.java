@@ -0,0 +1,21 @@
+package de.hsbremen.battleshipextreme.server;
+
+/**
+ * Created on 18.10.2026.
+ * Art, wie der Server die Verbindungen zu den Clients bedient
+ */
+public enum ServerTransport {
+    /**
+     * Je ein ClientListener- und ClientSender-Thread pro Client
+     */
+    ThreadPerClient,
+    /**
+     * Wie ThreadPerClient, aber mit virtuellen Threads (ab Java 21). Auf älteren Laufzeitumgebungen werden
+     * Plattform-Threads verwendet
+     */
+    VirtualThreads,
+    /**
+     * Nicht blockierende SocketChannels, die von wenigen NioWorkern bedient werden
+     */
+    Nio
+}
@@ -0,0 +1,473 @@
+package de.hsbremen.battleshipextreme.server.journal;
+
+import de.hsbremen.battleshipextreme.model.exception.FieldOutOfBoardException;
+import de.hsbremen.battleshipextreme.network.ITransferable;
+import de.hsbremen.battleshipextreme.network.TransferableType;
+import de.hsbremen.battleshipextreme.network.codec.CodecRegistry;
+import de.hsbremen.battleshipextreme.network.codec.ITransferableCodec;
+import de.hsbremen.battleshipextreme.network.transfarableObject.NetGame;
+import de.hsbremen.battleshipextreme.network.transfarableObject.ShipPlacedInformation;
+import de.hsbremen.battleshipextreme.network.transfarableObject.Turn;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StreamCorruptedException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Created on 18.10.2026.
+ * Journal eines Netzwerkspiels. Beitreten, Verlassen, gesetzte Schiffe und Spielzüge werden im Postfach des Spiels
+ * codiert, nachdem sie angewendet wurden, und vom JournalWriter an eine per Memory-Mapping eingeblendete Datei
+ * angehängt. Nach einer festen Anzahl Ereignisse wird ein Snapshot des Spielstands geschrieben und ein neues, leeres
+ * Journal begonnen. Im Verzeichnis des Spiels liegen daher nur "snapshot" und "journal-GENERATION".
+ *
+ * Ein Eintrag besteht aus Länge (int), Art (1 Byte), Nutzdaten und CRC32C über Art und Nutzdaten. Das Ende des
+ * Journals erkennt man an der Länge 0, ein beim Absturz nur halb geschriebener Eintrag an der falschen Prüfsumme
+ */
+public class GameJournal {
+// ------------------------------ FIELDS ------------------------------
+
+    private static final byte JOIN = 1;
+    private static final byte LEAVE = 2;
+    private static final byte SHIP_PLACED = 3;
+    private static final byte TURN = 4;
+    private static final int SNAPSHOT_MAGIC = 0x42535853; // "BSXS"
+    private static final int SNAPSHOT_VERSION = 3; // Version 1 enthielt Spielstände ohne starke KIs, Version 2 ohne große Boards
+    private static final String SNAPSHOT_FILE = "snapshot";
+    private static final String JOURNAL_FILE_PREFIX = "journal-";
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    private static final int RECORD_OVERHEAD = 8; // Länge und Prüfsumme
+
+    private File directory;
+    private JournalWriter writer;
+    // nur im Postfach des Spiels verwendet
+    private NetGame game;
+    private int snapshotInterval;
+    private int eventsSinceSnapshot;
+    private long generation;
+    private ByteArrayOutputStream buffer;
+    private DataOutputStream bufferOut;
+    // nur vom JournalWriter verwendet
+    private RandomAccessFile file;
+    private MappedByteBuffer mapped;
+    private int writePosition;
+    private int forcedPosition;
+    private CRC32C checksum;
+    private boolean closed;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    private GameJournal(File directory, NetGame game, JournalWriter writer, int snapshotInterval, long generation) {
+        this.directory = directory;
+        this.game = game;
+        this.writer = writer;
+        this.snapshotInterval = snapshotInterval;
+        this.generation = generation;
+        this.buffer = new ByteArrayOutputStream(128);
+        this.bufferOut = new DataOutputStream(this.buffer);
+        this.checksum = new CRC32C();
+    }
+
+// -------------------------- STATIC METHODS --------------------------
+
+    /**
+     * Legt das Journal eines neuen Spiels an und schreibt den ersten Snapshot. Wird aufgerufen, bevor das Spiel
+     * anderen Postfächern bekannt ist
+     */
+    static GameJournal create(File directory, NetGame game, JournalWriter writer, int snapshotInterval) {
+        GameJournal journal = new GameJournal(directory, game, writer, snapshotInterval, 0);
+        journal.snapshot();
+        return journal;
+    }
+
+    /**
+     * Stellt ein Spiel aus dem letzten Snapshot und den danach angehängten Ereignissen wieder her. Das Journal
+     * wird danach fortgeschrieben, ältere Generationen werden gelöscht
+     */
+    static GameJournal recover(File directory, JournalWriter writer, int snapshotInterval) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(new File(directory, SNAPSHOT_FILE).toPath())));
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new StreamCorruptedException("Invalid snapshot header");
+        }
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > SNAPSHOT_VERSION) {
+            throw new StreamCorruptedException("Snapshot version " + version + " is not supported");
+        }
+        long generation = in.readLong();
+        byte[] state = new byte[in.readInt()];
+        in.readFully(state);
+        CRC32C stateChecksum = new CRC32C();
+        stateChecksum.update(state, 0, state.length);
+        if ((int) stateChecksum.getValue() != in.readInt()) {
+            throw new StreamCorruptedException("Invalid snapshot checksum");
+        }
+        // Snapshot und Spielstand haben dieselbe Version
+        NetGame game = NetGame.restore(new DataInputStream(new ByteArrayInputStream(state)), version);
+
+        GameJournal journal = new GameJournal(directory, game, writer, snapshotInterval, generation);
+        journal.deleteJournalFiles(journal.getJournalFile(generation));
+        journal.open(generation);
+        journal.replay();
+        game.releaseSeatsForRejoin();
+        return journal;
+    }
+
+// --------------------- GETTER / SETTER METHODS ---------------------
+
+    /**
+     * Gibt das Spiel zurück, zu dem das Journal gehört
+     */
+    public NetGame getGame() {
+        return game;
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    /**
+     * Ein Spieler hat einen Platz eingenommen
+     */
+    public void recordJoin(int seat, String playerName) {
+        try {
+            this.bufferOut.writeByte(JOIN);
+            this.bufferOut.writeByte(seat);
+            this.bufferOut.writeUTF(playerName);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // ByteArrayOutputStream wirft keine IOException
+        }
+        this.submitRecord();
+    }
+
+    /**
+     * Ein Spieler hat seinen Platz verlassen
+     */
+    public void recordLeave(int seat) {
+        try {
+            this.bufferOut.writeByte(LEAVE);
+            this.bufferOut.writeByte(seat);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        this.submitRecord();
+    }
+
+    /**
+     * Ein Spieler hat ein Schiff gesetzt
+     */
+    public void recordShipPlaced(String playerName, ShipPlacedInformation info) {
+        try {
+            this.bufferOut.writeByte(SHIP_PLACED);
+            this.bufferOut.writeUTF(playerName);
+            getCodec(TransferableType.ShipPlacedInformation).write(info, this.bufferOut);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        this.submitRecord();
+    }
+
+    /**
+     * Ein Spielzug wurde ausgeführt
+     */
+    public void recordTurn(Turn turn) {
+        try {
+            this.bufferOut.writeByte(TURN);
+            getCodec(TransferableType.Turn).write(turn, this.bufferOut);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        this.submitRecord();
+    }
+
+    /**
+     * Übergibt den gepufferten Eintrag dem JournalWriter und schreibt nach snapshotInterval Einträgen einen Snapshot
+     */
+    private void submitRecord() {
+        final byte[] record = this.buffer.toByteArray();
+        this.buffer.reset();
+        this.writer.execute(new Runnable() {
+            public void run() {
+                append(record);
+            }
+        });
+        if (++this.eventsSinceSnapshot >= this.snapshotInterval) {
+            this.snapshot();
+        }
+    }
+
+    /**
+     * Codiert den aktuellen Spielstand und übergibt ihn dem JournalWriter. Die folgenden Ereignisse landen in der
+     * nächsten Generation des Journals
+     */
+    public void snapshot() {
+        try {
+            this.game.writeState(this.bufferOut);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        final byte[] state = this.buffer.toByteArray();
+        this.buffer.reset();
+        this.eventsSinceSnapshot = 0;
+        final long snapshotGeneration = ++this.generation;
+        this.writer.execute(new Runnable() {
+            public void run() {
+                writeSnapshot(state, snapshotGeneration);
+            }
+        });
+    }
+
+    /**
+     * Löscht das Journal, z.B. weil das Spiel beendet wurde
+     */
+    public void delete() {
+        this.writer.execute(new Runnable() {
+            public void run() {
+                close();
+                deleteJournalFiles(null);
+                new File(directory, SNAPSHOT_FILE).delete();
+                directory.delete();
+            }
+        });
+    }
+
+    /**
+     * Schließt das Journal, ohne es zu löschen. Das Spiel wird beim nächsten Start wiederhergestellt
+     */
+    public void closeLater() {
+        this.writer.execute(new Runnable() {
+            public void run() {
+                close();
+            }
+        });
+    }
+
+    private static ITransferableCodec<ITransferable> getCodec(TransferableType type) {
+        return CodecRegistry.getDefault().getCodec(type);
+    }
+
+    // ----- ab hier nur vom JournalWriter oder beim Wiederherstellen aufgerufen -----
+
+    /**
+     * Hängt einen Eintrag an das Journal an. Dauerhaft gespeichert ist er erst nach dem nächsten force()
+     */
+    private void append(byte[] record) {
+        if (this.closed || this.mapped == null) {
+            return;
+        }
+        try {
+            this.ensureCapacity(record.length + RECORD_OVERHEAD);
+            this.checksum.reset();
+            this.checksum.update(record, 0, record.length);
+            this.mapped.position(this.writePosition + 4);
+            this.mapped.put(record);
+            this.mapped.putInt((int) this.checksum.getValue());
+            // die Länge zuletzt, damit ein unvollständiger Eintrag nicht als gültig erscheint
+            this.mapped.putInt(this.writePosition, record.length);
+            this.writePosition += record.length + RECORD_OVERHEAD;
+            this.writer.markDirty(this);
+        } catch (IOException e) {
+            this.writer.reportError("Could not write journal of game " + this.directory.getName(), e);
+        }
+    }
+
+    /**
+     * Schreibt alle angehängten Einträge auf die Festplatte
+     */
+    void force() {
+        if (this.closed || this.mapped == null || this.forcedPosition == this.writePosition) {
+            return;
+        }
+        this.mapped.force(this.forcedPosition, this.writePosition - this.forcedPosition);
+        this.forcedPosition = this.writePosition;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        // hinter dem Eintrag muss Platz für die Endmarkierung (Länge 0) bleiben
+        if (this.writePosition + length + 4 <= this.mapped.capacity()) {
+            return;
+        }
+        this.force();
+        int capacity = this.mapped.capacity();
+        while (this.writePosition + length + 4 > capacity) {
+            capacity *= 2;
+        }
+        this.mapped = this.file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /**
+     * Schreibt einen Snapshot atomar (temporäre Datei und Umbenennen) und beginnt danach die nächste Generation
+     * des Journals. Stürzt der Server vorher ab, gelten der alte Snapshot und das alte Journal weiter
+     */
+    private void writeSnapshot(byte[] state, long snapshotGeneration) {
+        if (this.closed) {
+            return;
+        }
+        File temporaryFile = new File(this.directory, SNAPSHOT_FILE + ".tmp");
+        FileOutputStream out = null;
+        try {
+            this.directory.mkdirs();
+            CRC32C stateChecksum = new CRC32C();
+            stateChecksum.update(state, 0, state.length);
+            out = new FileOutputStream(temporaryFile);
+            DataOutputStream dataOut = new DataOutputStream(out);
+            dataOut.writeInt(SNAPSHOT_MAGIC);
+            dataOut.writeByte(SNAPSHOT_VERSION);
+            dataOut.writeLong(snapshotGeneration);
+            dataOut.writeInt(state.length);
+            dataOut.write(state);
+            dataOut.writeInt((int) stateChecksum.getValue());
+            dataOut.flush();
+            out.getFD().sync();
+            out.close();
+            out = null;
+            Files.move(temporaryFile.toPath(), new File(this.directory, SNAPSHOT_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.close();
+            this.deleteJournalFiles(null);
+            this.open(snapshotGeneration);
+        } catch (IOException e) {
+            this.writer.reportError("Could not write snapshot of game " + this.directory.getName(), e);
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Blendet das Journal einer Generation ein, eine neue Datei ist mit Nullen gefüllt
+     */
+    private void open(long journalGeneration) throws IOException {
+        this.file = new RandomAccessFile(this.getJournalFile(journalGeneration), "rw");
+        int capacity = (int) Math.max(INITIAL_CAPACITY, this.file.length());
+        this.mapped = this.file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        this.writePosition = 0;
+        this.forcedPosition = 0;
+        this.closed = false;
+    }
+
+    /**
+     * Wendet alle gültigen Einträge des Journals auf das Spiel an. Angehängt wird danach hinter dem letzten
+     * gültigen Eintrag
+     */
+    private void replay() throws IOException {
+        while (this.writePosition + RECORD_OVERHEAD <= this.mapped.capacity()) {
+            int length = this.mapped.getInt(this.writePosition);
+            if (length <= 0 || this.writePosition + length + RECORD_OVERHEAD > this.mapped.capacity()) {
+                break;
+            }
+            byte[] record = new byte[length];
+            this.mapped.position(this.writePosition + 4);
+            this.mapped.get(record);
+            this.checksum.reset();
+            this.checksum.update(record, 0, length);
+            if ((int) this.checksum.getValue() != this.mapped.getInt()) {
+                break;
+            }
+            this.apply(new DataInputStream(new ByteArrayInputStream(record)));
+            this.writePosition += length + RECORD_OVERHEAD;
+            this.eventsSinceSnapshot++;
+        }
+        // Reste eines unvollständigen Eintrags entfernen, damit die Endmarkierung wieder stimmt
+        if (this.writePosition + 4 <= this.mapped.capacity() && this.mapped.getInt(this.writePosition) != 0) {
+            for (int position = this.writePosition; position < this.mapped.capacity(); position++) {
+                this.mapped.put(position, (byte) 0);
+            }
+            this.mapped.force();
+        }
+        this.forcedPosition = this.writePosition;
+    }
+
+    /**
+     * Wendet ein Ereignis so auf das Spiel an, wie es der ServerDispatcher getan hat, nur ohne Nachrichten an
+     * die Clients
+     */
+    private void apply(DataInputStream in) throws IOException {
+        switch (in.readByte()) {
+            case JOIN:
+                int seat = in.readUnsignedByte();
+                String playerName = in.readUTF();
+                if (playerName.equals(this.game.getSeatName(seat))) {
+                    break; // erneuter Beitritt nach einer Wiederherstellung
+                }
+                this.game.occupySeat(seat, playerName);
+                if (this.game.areAllSeatsTaken()) {
+                    this.game.updatePlayerNames();
+                    this.game.nextInTurnOrder();
+                }
+                break;
+            case LEAVE:
+                this.game.vacateSeat(in.readUnsignedByte());
+                break;
+            case SHIP_PLACED:
+                String placingPlayerName = in.readUTF();
+                ShipPlacedInformation info = (ShipPlacedInformation) getCodec(TransferableType.ShipPlacedInformation).read(in);
+                if (this.game.placeShip(placingPlayerName, info)) {
+                    this.game.nextInTurnOrder();
+                }
+                break;
+            case TURN:
+                Turn turn = (Turn) getCodec(TransferableType.Turn).read(in);
+                try {
+                    if (this.game.applyTurn(turn)) {
+                        this.game.nextInTurnOrder();
+                    }
+                } catch (FieldOutOfBoardException e) {
+                    // wurde beim Spielen genauso ignoriert
+                }
+                break;
+            default:
+                throw new StreamCorruptedException("Unknown journal record");
+        }
+    }
+
+    /**
+     * Gibt die Datei frei. Der Speicher der Einblendung wird vom Garbage Collector freigegeben
+     */
+    private void close() {
+        if (this.file == null || this.closed) {
+            this.closed = true;
+            return;
+        }
+        this.force();
+        this.closed = true;
+        RandomAccessFile closedFile = this.file;
+        this.file = null;
+        this.mapped = null;
+        try {
+            closedFile.close();
+        } catch (IOException e) {
+            this.writer.reportError("Could not close journal of game " + this.directory.getName(), e);
+        }
+    }
+
+    private File getJournalFile(long journalGeneration) {
+        return new File(this.directory, JOURNAL_FILE_PREFIX + journalGeneration);
+    }
+
+    /**
+     * Löscht alle Journale und temporären Dateien außer der angegebenen Datei, der Snapshot bleibt erhalten
+     */
+    private void deleteJournalFiles(File keep) {
+        File[] files = this.directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File candidate : files) {
+            if (!candidate.equals(keep) && (candidate.getName().startsWith(JOURNAL_FILE_PREFIX) || candidate.getName().endsWith(".tmp"))) {
+                candidate.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package de.hsbremen.battleshipextreme.server.journal;
+
+import de.hsbremen.battleshipextreme.network.IDisposable;
+import de.hsbremen.battleshipextreme.network.ITransferable;
+import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
+import de.hsbremen.battleshipextreme.network.eventhandling.ErrorHandler;
+import de.hsbremen.battleshipextreme.network.eventhandling.EventArgs;
+import de.hsbremen.battleshipextreme.network.transfarableObject.NetGame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Created on 18.10.2026.
+ * Verzeichnis mit den Journalen aller laufenden Spiele, ein Unterverzeichnis pro Spiel-ID. Beim Start des Servers
+ * werden daraus die Spiele wiederhergestellt, die bei einem Absturz noch liefen
+ */
+public class JournalStore implements IDisposable {
+// ------------------------------ FIELDS ------------------------------
+
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 256;
+    private static final Pattern GAME_ID_PATTERN = Pattern.compile("[A-Za-z0-9-]{1,64}"); // die ID wird Teil eines Pfades
+
+    private File directory;
+    private JournalWriter writer;
+    private ErrorHandler errorHandler;
+    private int snapshotInterval;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public JournalStore(File directory, ErrorHandler errorHandler) {
+        this.directory = directory;
+        this.errorHandler = errorHandler;
+        this.writer = new JournalWriter(errorHandler);
+        this.snapshotInterval = DEFAULT_SNAPSHOT_INTERVAL;
+    }
+
+// --------------------- GETTER / SETTER METHODS ---------------------
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public JournalWriter getWriter() {
+        return writer;
+    }
+
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    /**
+     * Anzahl Ereignisse eines Spiels, nach denen ein neuer Snapshot geschrieben wird
+     */
+    public void setSnapshotInterval(int snapshotInterval) {
+        this.snapshotInterval = snapshotInterval;
+    }
+
+// --------------------- Interface IDisposable ---------------------
+
+    /**
+     * Schreibt alle ausstehenden Einträge und beendet den JournalWriter. Die Journale bleiben erhalten
+     */
+    public void dispose() {
+        this.writer.dispose();
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    /**
+     * Startet den JournalWriter
+     */
+    public void start() throws IOException {
+        if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+            throw new IOException("Can not create journal directory " + this.directory);
+        }
+        this.writer.start();
+    }
+
+    /**
+     * Legt das Journal eines neuen Spiels an
+     *
+     * @return null, wenn die ID des Spiels nicht als Verzeichnisname taugt
+     */
+    public GameJournal create(NetGame game) {
+        if (game.getId() == null || !GAME_ID_PATTERN.matcher(game.getId()).matches()) {
+            this.errorHandler.errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Game " + game.getName() + " has an invalid id and is not journaled")));
+            return null;
+        }
+        return GameJournal.create(new File(this.directory, game.getId()), game, this.writer, this.snapshotInterval);
+    }
+
+    /**
+     * Stellt alle Spiele wieder her, für die ein Journal existiert. Spiele, deren Snapshot nicht gelesen werden
+     * kann, werden gemeldet und übersprungen
+     */
+    public List<GameJournal> recover() {
+        List<GameJournal> journals = new ArrayList<GameJournal>();
+        File[] gameDirectories = this.directory.listFiles();
+        if (gameDirectories == null) {
+            return journals;
+        }
+        for (File gameDirectory : gameDirectories) {
+            if (!gameDirectory.isDirectory()) {
+                continue;
+            }
+            try {
+                journals.add(GameJournal.recover(gameDirectory, this.writer, this.snapshotInterval));
+            } catch (IOException e) {
+                this.errorHandler.errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Could not recover game " + gameDirectory.getName() + ": " + e)));
+            } catch (RuntimeException e) {
+                this.errorHandler.errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("Could not recover game " + gameDirectory.getName() + ": " + e)));
+            }
+        }
+        return journals;
+    }
+}
@@ -0,0 +1,136 @@
+package de.hsbremen.battleshipextreme.server.journal;
+
+import de.hsbremen.battleshipextreme.network.IDisposable;
+import de.hsbremen.battleshipextreme.network.ITransferable;
+import de.hsbremen.battleshipextreme.network.TransferableObjectFactory;
+import de.hsbremen.battleshipextreme.network.eventhandling.ErrorHandler;
+import de.hsbremen.battleshipextreme.network.eventhandling.EventArgs;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Created on 18.10.2026.
+ * Schreibt die Journale aller Spiele in einem eigenen Thread. Die Postfächer der Spiele legen nur Aufgaben in die
+ * Warteschlange und warten nie auf die Festplatte. Der Writer arbeitet alle wartenden Aufgaben ab und schreibt danach
+ * jedes dabei geänderte Journal mit einem einzigen force() auf die Festplatte (Group Commit). Viele Spielzüge, die
+ * gleichzeitig eintreffen, kosten so nur einen Schreibvorgang pro Spiel
+ */
+public class JournalWriter extends Thread implements Executor, IDisposable {
+// ------------------------------ FIELDS ------------------------------
+
+    private static final int MAX_TASKS_PER_COMMIT = 1024;
+
+    private LinkedBlockingQueue<Runnable> tasks;
+    private ArrayList<Runnable> batch;
+    private LinkedHashSet<GameJournal> dirtyJournals;
+    private ErrorHandler errorHandler;
+    private boolean disposed;
+    private volatile long commits;
+    private volatile long records;
+
+// --------------------------- CONSTRUCTORS ---------------------------
+
+    public JournalWriter(ErrorHandler errorHandler) {
+        super("JournalWriter");
+        this.errorHandler = errorHandler;
+        this.tasks = new LinkedBlockingQueue<Runnable>();
+        this.batch = new ArrayList<Runnable>(MAX_TASKS_PER_COMMIT);
+        this.dirtyJournals = new LinkedHashSet<GameJournal>();
+        this.setDaemon(true);
+    }
+
+// --------------------- GETTER / SETTER METHODS ---------------------
+
+    /**
+     * Anzahl der Durchläufe, in denen Journale auf die Festplatte geschrieben wurden
+     */
+    public long getCommits() {
+        return commits;
+    }
+
+    /**
+     * Anzahl der angehängten Einträge
+     */
+    public long getRecords() {
+        return records;
+    }
+
+// --------------------- Interface Executor ---------------------
+
+    /**
+     * Legt eine Aufgabe in die Warteschlange, die Aufgaben werden in der Reihenfolge ihres Eingangs ausgeführt
+     */
+    public void execute(Runnable task) {
+        this.tasks.add(task);
+    }
+
+// --------------------- Interface IDisposable ---------------------
+
+    /**
+     * Beendet den Thread, nachdem alle bis dahin eingegangenen Aufgaben ausgeführt und geschrieben wurden
+     */
+    public void dispose() {
+        this.execute(new Runnable() {
+            public void run() {
+                disposed = true;
+            }
+        });
+    }
+
+// --------------------- Interface Runnable ---------------------
+
+    public void run() {
+        try {
+            while (!this.disposed) {
+                this.batch.add(this.tasks.take());
+                this.tasks.drainTo(this.batch, MAX_TASKS_PER_COMMIT - 1);
+                for (int i = 0; i < this.batch.size(); i++) {
+                    try {
+                        this.batch.get(i).run();
+                    } catch (RuntimeException e) {
+                        this.reportError("Error in JournalWriter", e);
+                    }
+                }
+                this.batch.clear();
+                this.commit();
+            }
+        } catch (InterruptedException e) {
+            this.errorHandler.errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage("JournalWriter thread interrupted, stopped its execution")));
+        }
+    }
+
+// -------------------------- OTHER METHODS --------------------------
+
+    /**
+     * Merkt sich ein Journal, in das seit dem letzten Commit geschrieben wurde
+     */
+    void markDirty(GameJournal journal) {
+        this.records++;
+        this.dirtyJournals.add(journal);
+    }
+
+    /**
+     * Schreibt alle geänderten Journale auf die Festplatte
+     */
+    private void commit() {
+        if (this.dirtyJournals.isEmpty()) {
+            return;
+        }
+        for (GameJournal journal : this.dirtyJournals) {
+            try {
+                journal.force();
+            } catch (RuntimeException e) {
+                this.reportError("Could not force journal", e);
+            }
+        }
+        this.dirtyJournals.clear();
+        this.commits++;
+    }
+
+    void reportError(String message, Exception e) {
+        this.errorHandler.errorHasOccurred(new EventArgs<ITransferable>(this, TransferableObjectFactory.CreateMessage(message + ": " + e)));
+    }
+}
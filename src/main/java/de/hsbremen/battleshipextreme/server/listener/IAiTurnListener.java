@@ -0,0 +1,16 @@
+package de.hsbremen.battleshipextreme.server.listener;
+
+import de.hsbremen.battleshipextreme.network.transfarableObject.Turn;
+
+import java.util.EventListener;
+
+/**
+ * Created on 18.10.2026.
+ * Interface für das Entgegennehmen eines im AiTurnExecutor berechneten KI-Zugs
+ */
+public interface IAiTurnListener extends EventListener {
+    /**
+     * @param turn der berechnete Zug, null wenn er nicht rechtzeitig oder gar nicht berechnet wurde
+     */
+    void onTurnComputed(Turn turn);
+}
@@ -0,0 +1,32 @@
+package de.hsbremen.battleshipextreme.simulation;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Schreibt die Simulationsergebnisse zeilenweise als CSV
+ */
+public class CsvSimulationResultSink implements ISimulationResultSink {
+    private Writer out;
+
+    public CsvSimulationResultSink(String destinationPath) throws IOException {
+        this(new OutputStreamWriter(new FileOutputStream(destinationPath), Charset.forName("UTF-8")));
+    }
+
+    public CsvSimulationResultSink(Writer out) throws IOException {
+        this.out = new BufferedWriter(out);
+        this.out.write("game,seed,rounds,turns,winner,winnerType,wallTimeNanos\n");
+    }
+
+    public void write(SimulationResult result) throws IOException {
+        out.write(result.getGameNumber() + "," + result.getSeed() + "," + result.getRounds() + "," + result.getTurns() + "," + result.getWinnerName() + "," + result.getWinnerType() + "," + result.getWallTimeNanos() + "\n");
+    }
+
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,20 @@
+package de.hsbremen.battleshipextreme.simulation;
+
+import java.io.IOException;
+
+/**
+ * Nimmt die Ergebnisse der simulierten Spiele entgegen, z.B. um sie in eine
+ * Datei zu schreiben. Die Methoden werden von der SimulationEngine
+ * synchronisiert aufgerufen.
+ */
+public interface ISimulationResultSink {
+    /**
+     * Schreibt das Ergebnis eines Spiels
+     */
+    void write(SimulationResult result) throws IOException;
+
+    /**
+     * Schließt die Ausgabe
+     */
+    void close() throws IOException;
+}
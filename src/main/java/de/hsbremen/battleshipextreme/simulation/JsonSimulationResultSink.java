@@ -0,0 +1,43 @@
+package de.hsbremen.battleshipextreme.simulation;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Schreibt die Simulationsergebnisse als JSON Lines, d.h. ein JSON-Objekt pro
+ * Zeile. So kann die Datei auch während eines laufenden Benchmarks gelesen
+ * werden.
+ */
+public class JsonSimulationResultSink implements ISimulationResultSink {
+    private Writer out;
+
+    public JsonSimulationResultSink(String destinationPath) throws IOException {
+        this(new OutputStreamWriter(new FileOutputStream(destinationPath), Charset.forName("UTF-8")));
+    }
+
+    public JsonSimulationResultSink(Writer out) {
+        this.out = new BufferedWriter(out);
+    }
+
+    public void write(SimulationResult result) throws IOException {
+        out.write("{\"game\":" + result.getGameNumber()
+                + ",\"seed\":" + result.getSeed()
+                + ",\"rounds\":" + result.getRounds()
+                + ",\"turns\":" + result.getTurns()
+                + ",\"winner\":\"" + escape(result.getWinnerName()) + "\""
+                + ",\"winnerType\":\"" + result.getWinnerType() + "\""
+                + ",\"wallTimeNanos\":" + result.getWallTimeNanos() + "}\n");
+    }
+
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private String escape(String value) {
+        return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
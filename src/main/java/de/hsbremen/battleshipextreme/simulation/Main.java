@@ -0,0 +1,109 @@
+package de.hsbremen.battleshipextreme.simulation;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.hsbremen.battleshipextreme.model.Settings;
+import de.hsbremen.battleshipextreme.simulation.tournament.Tournament;
+import de.hsbremen.battleshipextreme.simulation.tournament.TournamentEntrant;
+import de.hsbremen.battleshipextreme.simulation.tournament.TournamentFormat;
+import de.hsbremen.battleshipextreme.simulation.tournament.TournamentStandings;
+
+/**
+ * Startet eine Simulation ohne Benutzeroberfläche.
+ *
+ * Aufruf: &lt;Spiele&gt; [schlaue KIs] [dumme KIs] [Boardgröße] [Ausgabe.csv|Ausgabe.json] [Seed] [starke KIs]
+ *
+ * Mit "replay &lt;Seed eines Spiels&gt; [schlaue KIs] [dumme KIs] [Boardgröße] [starke KIs]"
+ * wird ein einzelnes Spiel aus der Ausgabe wiederholt. Starke KIs suchen
+ * ihre Ziele mit einem Zeitbudget und verlaufen nur gleich, wenn es reicht.
+ * Boards, die größer als Settings.MAX_BOARD_SIZE sind, werden im Modus für
+ * große Boards gespielt.
+ *
+ * Mit "tournament &lt;Log&gt; &lt;ROUND_ROBIN|SWISS&gt; &lt;Tischgröße&gt; &lt;Runden&gt;
+ * &lt;Spiele je Tisch&gt; &lt;Boardgröße&gt; &lt;Seed&gt; &lt;Teilnehmer...&gt;" wird ein
+ * Turnier gespielt, Teilnehmer haben die Form [Name=]Typ[:Zeitbudget in ms].
+ * Mit demselben Aufruf wird ein abgebrochenes Turnier fortgesetzt.
+ */
+public class Main {
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Aufruf: <Spiele> [schlaue KIs] [dumme KIs] [Boardgröße] [Ausgabe.csv|Ausgabe.json] [Seed] [starke KIs]");
+            System.out.println("        replay <Seed eines Spiels> [schlaue KIs] [dumme KIs] [Boardgröße] [starke KIs]");
+            System.out.println("        tournament <Log> <ROUND_ROBIN|SWISS> <Tischgröße> <Runden> <Spiele je Tisch> <Boardgröße> <Seed> <Teilnehmer...>");
+            System.exit(1);
+        }
+        if (args[0].equals("replay")) {
+            replay(args);
+            return;
+        }
+        if (args[0].equals("tournament")) {
+            tournament(args);
+            return;
+        }
+        int numberOfGames = Integer.parseInt(args[0]);
+        int smartAis = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int dumbAis = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        int boardSize = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int hardAis = args.length > 6 ? Integer.parseInt(args[6]) : 0;
+
+        Settings settings = new Settings(0, smartAis, dumbAis, hardAis, boardSize, 1, 1, 1, 1);
+        settings.setLargeBoard(boardSize > Settings.MAX_BOARD_SIZE);
+        settings.validate();
+
+        SimulationEngine engine = new SimulationEngine(settings);
+        if (args.length > 4) {
+            String destinationPath = args[4];
+            engine.setResultSink(destinationPath.endsWith(".json") ? new JsonSimulationResultSink(destinationPath) : new CsvSimulationResultSink(destinationPath));
+        }
+        if (args.length > 5) {
+            engine.setSeed(Long.parseLong(args[5]));
+        }
+
+        long start = System.nanoTime();
+        try {
+            SimulationSummary summary = engine.run(numberOfGames);
+            System.out.println(summary);
+            System.out.println("Dauer: " + (System.nanoTime() - start) / 1000000 + " ms mit " + engine.getParallelism() + " Threads");
+        } finally {
+            if (engine.getResultSink() != null) {
+                engine.getResultSink().close();
+            }
+        }
+    }
+
+    private static void replay(String[] args) throws Exception {
+        long gameSeed = Long.parseLong(args[1]);
+        int smartAis = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int dumbAis = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        int boardSize = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        int hardAis = args.length > 5 ? Integer.parseInt(args[5]) : 0;
+
+        Settings settings = new Settings(0, smartAis, dumbAis, hardAis, boardSize, 1, 1, 1, 1);
+        settings.setLargeBoard(boardSize > Settings.MAX_BOARD_SIZE);
+        settings.validate();
+
+        SimulationResult result = new SimulationEngine(settings).replayGame(gameSeed);
+        System.out.println("Seed: " + result.getSeed() + ", Runden: " + result.getRounds() + ", Züge: " + result.getTurns() + ", Gewinner: " + result.getWinnerName());
+    }
+
+    private static void tournament(String[] args) throws Exception {
+        if (args.length < 10) {
+            System.out.println("Aufruf: tournament <Log> <ROUND_ROBIN|SWISS> <Tischgröße> <Runden> <Spiele je Tisch> <Boardgröße> <Seed> <Teilnehmer...>");
+            System.exit(1);
+        }
+        List<TournamentEntrant> entrants = new ArrayList<TournamentEntrant>();
+        for (int i = 8; i < args.length; i++) {
+            entrants.add(TournamentEntrant.parse(args[i]));
+        }
+        Settings fleet = new Settings(0, 2, 0, 0, Integer.parseInt(args[6]), 1, 1, 1, 1);
+        Tournament tournament = new Tournament(entrants, TournamentFormat.valueOf(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]), Integer.parseInt(args[5]), fleet);
+        tournament.setSeed(Long.parseLong(args[7]));
+
+        long start = System.nanoTime();
+        TournamentStandings standings = tournament.run(new File(args[1]));
+        System.out.print(standings);
+        System.out.println("Dauer: " + (System.nanoTime() - start) / 1000000 + " ms mit " + tournament.getParallelism() + " Threads");
+    }
+}
@@ -0,0 +1,215 @@
+package de.hsbremen.battleshipextreme.simulation;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import de.hsbremen.battleshipextreme.model.Game;
+import de.hsbremen.battleshipextreme.model.Settings;
+import de.hsbremen.battleshipextreme.model.player.AIPlayer;
+import de.hsbremen.battleshipextreme.model.player.Player;
+
+/**
+ * Spielt beliebig viele Spiele zwischen KI-Spielern ohne Konsolenausgabe und
+ * verteilt sie auf mehrere Threads. Jedes Spiel hat seine eigene Game-Instanz,
+ * die Spiele teilen sich also keinen Zustand.
+ *
+ * Jedes Spiel bekommt einen eigenen Seed, der aus dem Basis-Seed und der
+ * Spielnummer berechnet wird. Damit sind die Seeds unabhängig von der
+ * Reihenfolge, in der die Threads die Spiele abarbeiten. Ein Spiel verläuft
+ * mit demselben Seed immer gleich und kann mit replayGame wiederholt werden.
+ */
+public class SimulationEngine {
+    /**
+     * Bis zu dieser Anzahl Spiele wird eine Aufgabe nicht weiter aufgeteilt
+     */
+    private static final int GAMES_PER_TASK = 16;
+
+    private Settings settings;
+    private int parallelism;
+    private long seed;
+    private ISimulationResultSink resultSink;
+
+    /**
+     * Erzeugt eine Simulation für die übergebenen Settings. Es dürfen nur
+     * KI-Spieler vorhanden sein.
+     *
+     * @throws IllegalArgumentException
+     *             wenn die Settings menschliche Spieler enthalten
+     */
+    public SimulationEngine(Settings settings) {
+        if (settings.getPlayers() > 0) {
+            throw new IllegalArgumentException("Simulation only supports AI players");
+        }
+        this.settings = settings;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.seed = System.nanoTime();
+    }
+
+    /**
+     * Spielt die übergebene Anzahl Spiele und liefert die Zusammenfassung der
+     * Ergebnisse. Ist ein ResultSink gesetzt, wird jedes einzelne Ergebnis
+     * zusätzlich dorthin geschrieben.
+     */
+    public SimulationSummary run(int numberOfGames) {
+        SimulationSummary summary = new SimulationSummary();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new SimulationTask(0, numberOfGames, summary));
+        } finally {
+            pool.shutdown();
+        }
+        return summary;
+    }
+
+    /**
+     * Spielt ein einzelnes Spiel bis zum Ende.
+     *
+     * @param gameNumber
+     *            die Nummer des Spiels
+     */
+    public SimulationResult playGame(int gameNumber) throws Exception {
+        return playGame(gameNumber, getSeedOfGame(gameNumber));
+    }
+
+    /**
+     * Spielt ein einzelnes Spiel mit dem übergebenen Seed noch einmal, z.B.
+     * den Seed aus einem Ergebnis der CSV- oder JSON-Ausgabe. Bei denselben
+     * Settings ist das Ergebnis dasselbe wie beim ursprünglichen Spiel.
+     *
+     * @param gameSeed
+     *            der Seed des Spiels
+     */
+    public SimulationResult replayGame(long gameSeed) throws Exception {
+        return playGame(0, gameSeed);
+    }
+
+    private SimulationResult playGame(int gameNumber, long gameSeed) throws Exception {
+        long start = System.nanoTime();
+        Game game = new Game();
+        game.initialize(settings, gameSeed);
+
+        // Schiffe setzen
+        do {
+            ((AIPlayer) game.getCurrentPlayer()).placeShips();
+            game.nextPlayer();
+        } while (!game.isReady());
+
+        // Spielen, bis nur noch ein Spieler übrig ist
+        do {
+            Player currentPlayer = game.getCurrentPlayer();
+            if (!currentPlayer.hasLost() && !currentPlayer.areAllShipsReloading()) {
+                game.makeAiTurn();
+            }
+            game.nextPlayer();
+        } while (!game.isGameover());
+
+        Player winner = game.getWinner();
+        return new SimulationResult(gameNumber, gameSeed, game.getRoundNumber(), game.getTurnNumber(), winner == null ? null : winner.getName(), winner == null ? null : winner.getType(), System.nanoTime() - start);
+    }
+
+    /**
+     * Berechnet den Seed eines Spiels aus dem Basis-Seed und der Spielnummer
+     * (SplitMix64).
+     */
+    public long getSeedOfGame(int gameNumber) {
+        return getSeedOfGame(seed, gameNumber);
+    }
+
+    /**
+     * Berechnet den Seed eines Spiels aus dem übergebenen Basis-Seed und der
+     * Spielnummer (SplitMix64).
+     */
+    public static long getSeedOfGame(long seed, int gameNumber) {
+        long z = seed + (gameNumber + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void publish(SimulationResult result, SimulationSummary summary) {
+        summary.add(result);
+        if (resultSink != null) {
+            synchronized (resultSink) {
+                try {
+                    resultSink.write(result);
+                } catch (IOException e) {
+                    throw new RuntimeException("Could not write result of game " + result.getGameNumber(), e);
+                }
+            }
+        }
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Setzt die Anzahl der Threads, auf die die Spiele verteilt werden
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Setzt den Basis-Seed, aus dem die Seeds der einzelnen Spiele berechnet
+     * werden
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public ISimulationResultSink getResultSink() {
+        return resultSink;
+    }
+
+    public void setResultSink(ISimulationResultSink resultSink) {
+        this.resultSink = resultSink;
+    }
+
+    /**
+     * Teilt einen Bereich von Spielnummern so lange auf, bis er klein genug
+     * ist, und spielt die Spiele dann nacheinander.
+     */
+    private class SimulationTask extends RecursiveAction {
+        private static final long serialVersionUID = 2714063417207185311L;
+        private int from;
+        private int to;
+        private SimulationSummary summary;
+
+        public SimulationTask(int from, int to, SimulationSummary summary) {
+            this.from = from;
+            this.to = to;
+            this.summary = summary;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    try {
+                        publish(playGame(i), summary);
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new RuntimeException("Game " + i + " failed", e);
+                    }
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SimulationTask(from, middle, summary), new SimulationTask(middle, to, summary));
+            }
+        }
+    }
+}
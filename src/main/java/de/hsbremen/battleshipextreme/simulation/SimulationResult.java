@@ -0,0 +1,57 @@
+package de.hsbremen.battleshipextreme.simulation;
+
+import de.hsbremen.battleshipextreme.model.player.PlayerType;
+
+/**
+ * Ergebnis eines einzelnen simulierten Spiels.
+ */
+public class SimulationResult {
+    private int gameNumber;
+    private long seed;
+    private int rounds;
+    private int turns;
+    private String winnerName;
+    private PlayerType winnerType;
+    private long wallTimeNanos;
+
+    public SimulationResult(int gameNumber, long seed, int rounds, int turns, String winnerName, PlayerType winnerType, long wallTimeNanos) {
+        this.gameNumber = gameNumber;
+        this.seed = seed;
+        this.rounds = rounds;
+        this.turns = turns;
+        this.winnerName = winnerName;
+        this.winnerType = winnerType;
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    public int getGameNumber() {
+        return gameNumber;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public String getWinnerName() {
+        return winnerName;
+    }
+
+    public PlayerType getWinnerType() {
+        return winnerType;
+    }
+
+    /**
+     * Gibt die Laufzeit des Spiels in Nanosekunden zurück
+     */
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+}
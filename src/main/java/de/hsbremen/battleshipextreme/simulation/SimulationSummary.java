@@ -0,0 +1,78 @@
+package de.hsbremen.battleshipextreme.simulation;
+
+import java.util.EnumMap;
+
+import de.hsbremen.battleshipextreme.model.player.PlayerType;
+
+/**
+ * Fasst die Ergebnisse aller simulierten Spiele zusammen. Die Ergebnisse
+ * werden von mehreren Threads gleichzeitig hinzugefügt.
+ */
+public class SimulationSummary {
+    private int games;
+    private long totalRounds;
+    private long totalTurns;
+    private int minRounds = Integer.MAX_VALUE;
+    private int maxRounds;
+    private long totalWallTimeNanos;
+    private EnumMap<PlayerType, Integer> winsByType = new EnumMap<PlayerType, Integer>(PlayerType.class);
+
+    /**
+     * Fügt das Ergebnis eines Spiels hinzu
+     */
+    public synchronized void add(SimulationResult result) {
+        games++;
+        totalRounds += result.getRounds();
+        totalTurns += result.getTurns();
+        totalWallTimeNanos += result.getWallTimeNanos();
+        minRounds = Math.min(minRounds, result.getRounds());
+        maxRounds = Math.max(maxRounds, result.getRounds());
+        if (result.getWinnerType() != null) {
+            Integer wins = winsByType.get(result.getWinnerType());
+            winsByType.put(result.getWinnerType(), wins == null ? 1 : wins + 1);
+        }
+    }
+
+    public synchronized int getGames() {
+        return games;
+    }
+
+    /**
+     * Liefert die durchschnittliche Rundenanzahl aller Spiele
+     */
+    public synchronized float getAverageRounds() {
+        return games == 0 ? 0 : (float) totalRounds / (float) games;
+    }
+
+    public synchronized int getMinRounds() {
+        return games == 0 ? 0 : minRounds;
+    }
+
+    public synchronized int getMaxRounds() {
+        return maxRounds;
+    }
+
+    public synchronized long getTotalTurns() {
+        return totalTurns;
+    }
+
+    /**
+     * Liefert die Summe der Laufzeiten aller Spiele in Nanosekunden
+     */
+    public synchronized long getTotalWallTimeNanos() {
+        return totalWallTimeNanos;
+    }
+
+    /**
+     * Liefert die Anzahl der Siege eines Spielertyps
+     */
+    public synchronized int getWins(PlayerType type) {
+        Integer wins = winsByType.get(type);
+        return wins == null ? 0 : wins;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Spiele: " + games + ", Runden (Durchschnitt/Min/Max): " + getAverageRounds() + "/" + getMinRounds() + "/" + maxRounds + ", Züge: " + totalTurns + ", Siege: " + winsByType;
+    }
+}
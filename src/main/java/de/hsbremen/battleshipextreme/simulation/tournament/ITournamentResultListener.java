@@ -0,0 +1,17 @@
+package de.hsbremen.battleshipextreme.simulation.tournament;
+
+import java.util.EventListener;
+
+/**
+ * Interface für das Entgegennehmen der Ergebnisse, die beim Fortsetzen eines
+ * Turniers aus dem TournamentLog gelesen werden
+ */
+public interface ITournamentResultListener extends EventListener {
+    /**
+     * @param result
+     *            ein bereits gespieltes Spiel
+     * @throws IllegalArgumentException
+     *             wenn das Ergebnis nicht zum Turnier passt
+     */
+    void onResultRecovered(TournamentGameResult result);
+}
@@ -0,0 +1,405 @@
+package de.hsbremen.battleshipextreme.simulation.tournament;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import de.hsbremen.battleshipextreme.model.Game;
+import de.hsbremen.battleshipextreme.model.Settings;
+import de.hsbremen.battleshipextreme.model.player.AIPlayer;
+import de.hsbremen.battleshipextreme.model.player.Player;
+import de.hsbremen.battleshipextreme.model.player.PlayerType;
+import de.hsbremen.battleshipextreme.simulation.SimulationEngine;
+
+/**
+ * Spielt ein Turnier zwischen KI-Strategien. Jede Runde verteilt die
+ * Teilnehmer auf Tische mit 2 bis 6 Spielern (siehe TournamentFormat), an
+ * jedem Tisch werden gamesPerTable Spiele gespielt. Von Spiel zu Spiel eines
+ * Tisches beginnt reihum ein anderer Spieler, damit der Vorteil des ersten
+ * Zugs alle gleich trifft.
+ *
+ * Die Spiele werden wie in der SimulationEngine auf alle Kerne verteilt und
+ * haben feste Nummern, aus denen sich Runde, Tisch, Startspieler und Seed
+ * ergeben. Jedes Ergebnis wird sofort in das TournamentLog geschrieben. Wird
+ * ein abgebrochenes Turnier mit demselben Log erneut gestartet, werden nur die
+ * fehlenden Spiele gespielt. Da sich auch die Tische einer Schweizer Runde nur
+ * aus den Ergebnissen der vorherigen Runden ergeben, endet das fortgesetzte
+ * Turnier genauso wie ein durchgelaufenes.
+ */
+public class Tournament {
+    /**
+     * Bis zu dieser Anzahl Spiele wird eine Aufgabe nicht weiter aufgeteilt
+     */
+    private static final int GAMES_PER_TASK = 16;
+
+    private TournamentEntrant[] entrants;
+    private TournamentFormat format;
+    private int tableSize;
+    private int rounds;
+    private int gamesPerTable;
+    private Settings fleet;
+    private int tablesPerRound;
+    private int parallelism;
+    private long seed;
+
+    /**
+     * @param entrants
+     *            die Teilnehmer mit eindeutigen Namen
+     * @param format
+     *            wie die Teilnehmer auf die Tische verteilt werden
+     * @param tableSize
+     *            die Anzahl der Spieler je Tisch
+     * @param rounds
+     *            die Anzahl der Runden
+     * @param gamesPerTable
+     *            die Anzahl der Spiele je Tisch und Runde
+     * @param fleet
+     *            Boardgröße und Schiffe jedes Spielers, die Spieleranzahl
+     *            wird ignoriert
+     * @throws IllegalArgumentException
+     *             wenn die Parameter kein gültiges Turnier ergeben
+     */
+    public Tournament(List<TournamentEntrant> entrants, TournamentFormat format, int tableSize, int rounds, int gamesPerTable, Settings fleet) {
+        HashSet<String> names = new HashSet<String>();
+        for (TournamentEntrant entrant : entrants) {
+            if (!names.add(entrant.getName())) {
+                throw new IllegalArgumentException("Duplicate entrant " + entrant.getName());
+            }
+        }
+        if (tableSize < Settings.MIN_PLAYERS || tableSize > Math.min(Settings.MAX_PLAYERS, entrants.size())) {
+            throw new IllegalArgumentException("Invalid table size " + tableSize + " for " + entrants.size() + " entrants");
+        }
+        if (rounds < 1 || gamesPerTable < 1) {
+            throw new IllegalArgumentException("Rounds and games per table must be at least 1");
+        }
+        try {
+            new Settings(0, tableSize, 0, 0, fleet.getBoardSize(), fleet.getDestroyers(), fleet.getFrigates(), fleet.getCorvettes(), fleet.getSubmarines()).validate();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid fleet: " + e.getMessage(), e);
+        }
+        this.entrants = entrants.toArray(new TournamentEntrant[entrants.size()]);
+        this.format = format;
+        this.tableSize = tableSize;
+        this.rounds = rounds;
+        this.gamesPerTable = gamesPerTable;
+        this.fleet = fleet;
+        if (format == TournamentFormat.ROUND_ROBIN) {
+            this.tablesPerRound = createRoundRobinTables().length;
+        } else {
+            int leftOver = this.entrants.length % tableSize;
+            this.tablesPerRound = this.entrants.length / tableSize + (leftOver >= Settings.MIN_PLAYERS ? 1 : 0);
+        }
+        if ((long) rounds * tablesPerRound * gamesPerTable > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many games");
+        }
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.seed = System.nanoTime();
+    }
+
+    /**
+     * Spielt alle Spiele, die noch nicht im Log stehen, und liefert den Stand
+     * nach allen Spielen
+     *
+     * @param logFile
+     *            die Datei mit den Ergebnissen, wird angelegt oder fortgesetzt
+     * @throws IOException
+     *             wenn das Log nicht gelesen oder geschrieben werden kann oder
+     *             zu einem anderen Turnier gehört
+     */
+    public TournamentStandings run(File logFile) throws IOException {
+        final BitSet played = new BitSet(getTotalGames());
+        // ohne Schweizer Runden müssen die Runden nicht getrennt gezählt werden
+        final TournamentStandings[] standingsOfRounds = new TournamentStandings[format == TournamentFormat.SWISS ? rounds : 1];
+        TournamentLog log = new TournamentLog(logFile, getDescription());
+        try {
+            log.recover(new ITournamentResultListener() {
+                public void onResultRecovered(TournamentGameResult result) {
+                    checkResult(result);
+                    played.set(result.getGameNumber());
+                    getStandingsOfRound(standingsOfRounds, result.getRound()).add(result.getPlacement());
+                }
+            });
+            TournamentStandings standings = createStandings();
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                if (format == TournamentFormat.ROUND_ROBIN) {
+                    // die Tische hängen nicht von den Ergebnissen ab, alle Runden auf einmal spielen
+                    int[][] tables = createRoundRobinTables();
+                    pool.invoke(new TournamentTask(0, getTotalGames(), tables, played, standingsOfRounds, log));
+                    standings.addAll(getStandingsOfRound(standingsOfRounds, 0));
+                } else {
+                    int gamesPerRound = tablesPerRound * gamesPerTable;
+                    for (int round = 0; round < rounds; round++) {
+                        int[][] tables = createSwissTables(standings);
+                        pool.invoke(new TournamentTask(round * gamesPerRound, (round + 1) * gamesPerRound, tables, played, standingsOfRounds, log));
+                        standings.addAll(getStandingsOfRound(standingsOfRounds, round));
+                    }
+                }
+            } finally {
+                pool.shutdown();
+            }
+            return standings;
+        } finally {
+            log.close();
+        }
+    }
+
+    private TournamentStandings createStandings() {
+        String[] names = new String[entrants.length];
+        for (int i = 0; i < entrants.length; i++) {
+            names[i] = entrants[i].getName();
+        }
+        return new TournamentStandings(names);
+    }
+
+    private synchronized TournamentStandings getStandingsOfRound(TournamentStandings[] standingsOfRounds, int round) {
+        round = Math.min(round, standingsOfRounds.length - 1);
+        if (standingsOfRounds[round] == null) {
+            standingsOfRounds[round] = createStandings();
+        }
+        return standingsOfRounds[round];
+    }
+
+    /**
+     * Prüft, ob ein gelesenes Ergebnis zu einem Spiel dieses Turniers gehört
+     */
+    private void checkResult(TournamentGameResult result) {
+        int gameNumber = result.getGameNumber();
+        if (gameNumber < 0 || gameNumber >= getTotalGames() || result.getRound() != gameNumber / (tablesPerRound * gamesPerTable)) {
+            throw new IllegalArgumentException("Game " + gameNumber + " is not part of the tournament");
+        }
+        for (int entrant : result.getPlacement()) {
+            if (entrant < 0 || entrant >= entrants.length) {
+                throw new IllegalArgumentException("Unknown entrant " + entrant);
+            }
+        }
+    }
+
+    /**
+     * Liefert alle Kombinationen von tableSize Teilnehmern in lexikographischer
+     * Reihenfolge
+     */
+    private int[][] createRoundRobinTables() {
+        List<int[]> tables = new ArrayList<int[]>();
+        int[] table = new int[tableSize];
+        for (int i = 0; i < tableSize; i++) {
+            table[i] = i;
+        }
+        while (true) {
+            tables.add(table.clone());
+            // letzte Stelle suchen, die noch erhöht werden kann
+            int position = tableSize - 1;
+            while (position >= 0 && table[position] == entrants.length - tableSize + position) {
+                position--;
+            }
+            if (position < 0) {
+                return tables.toArray(new int[tables.size()][]);
+            }
+            table[position]++;
+            for (int i = position + 1; i < tableSize; i++) {
+                table[i] = table[i - 1] + 1;
+            }
+        }
+    }
+
+    /**
+     * Sortiert die Teilnehmer nach ihrer Elo-Zahl und setzt sie der Reihe nach
+     * an die Tische. Gleich starke bleiben in der Reihenfolge ihrer Indizes.
+     */
+    private int[][] createSwissTables(TournamentStandings standings) {
+        final double[] ratings = standings.getRatings();
+        Integer[] order = new Integer[entrants.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                int byRating = Double.compare(ratings[b], ratings[a]);
+                return byRating != 0 ? byRating : a.compareTo(b);
+            }
+        });
+        int[][] tables = new int[tablesPerRound][];
+        for (int t = 0; t < tablesPerRound; t++) {
+            int size = Math.min(tableSize, order.length - t * tableSize);
+            tables[t] = new int[size];
+            for (int i = 0; i < size; i++) {
+                tables[t][i] = order[t * tableSize + i];
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Spielt ein Spiel an einem Tisch bis zum Ende
+     */
+    private TournamentGameResult playGame(int gameNumber, int[] table) throws Exception {
+        int round = gameNumber / (tablesPerRound * gamesPerTable);
+        long gameSeed = SimulationEngine.getSeedOfGame(seed, gameNumber);
+        int[] players = new int[PlayerType.values().length];
+        for (int entrant : table) {
+            players[entrants[entrant].getType().ordinal()]++;
+        }
+        Settings settings = new Settings(0, players[PlayerType.SMART_AI.ordinal()], players[PlayerType.DUMB_AI.ordinal()], players[PlayerType.HARD_AI.ordinal()], fleet.getBoardSize(),
+                fleet.getDestroyers(), fleet.getFrigates(), fleet.getCorvettes(), fleet.getSubmarines());
+        Game game = new Game();
+        game.initialize(settings, gameSeed);
+
+        // die Spieler eines Typs sind die Teilnehmer dieses Typs in der Reihenfolge des Tisches
+        Player[] seats = game.getPlayers();
+        int[] seating = new int[seats.length];
+        boolean[] seated = new boolean[table.length];
+        for (int seat = 0; seat < seats.length; seat++) {
+            int i = 0;
+            while (seated[i] || entrants[table[i]].getType() != seats[seat].getType()) {
+                i++;
+            }
+            seated[i] = true;
+            seating[seat] = table[i];
+            entrants[table[i]].configure((AIPlayer) seats[seat]);
+        }
+
+        // Schiffe setzen
+        do {
+            ((AIPlayer) game.getCurrentPlayer()).placeShips();
+            game.nextPlayer();
+        } while (!game.isReady());
+
+        // reihum beginnen, über alle Runden gezählt
+        int repetition = round * gamesPerTable + gameNumber % gamesPerTable;
+        game.setCurrentPlayer(seats[repetition % seats.length]);
+
+        // Spielen und die Teilnehmer in der Reihenfolge ihres Ausscheidens von hinten eintragen
+        int[] placement = new int[seats.length];
+        int remaining = seats.length;
+        boolean[] out = new boolean[seats.length];
+        do {
+            Player currentPlayer = game.getCurrentPlayer();
+            if (!currentPlayer.hasLost() && !currentPlayer.areAllShipsReloading()) {
+                game.makeAiTurn();
+                for (int seat = 0; seat < seats.length; seat++) {
+                    if (!out[seat] && seats[seat].hasLost()) {
+                        out[seat] = true;
+                        placement[--remaining] = seating[seat];
+                    }
+                }
+            }
+            game.nextPlayer();
+        } while (!game.isGameover());
+        for (int seat = 0; seat < seats.length; seat++) {
+            if (!out[seat]) {
+                placement[--remaining] = seating[seat];
+            }
+        }
+        return new TournamentGameResult(gameNumber, round, gameSeed, seating, placement, game.getRoundNumber(), game.getTurnNumber());
+    }
+
+    /**
+     * Beschreibt das Turnier in der ersten Zeile des Logs. Ein Log wird nur
+     * fortgesetzt, wenn die Beschreibung gleich ist.
+     */
+    public String getDescription() {
+        StringBuilder description = new StringBuilder();
+        description.append("format=").append(format).append(" tableSize=").append(tableSize).append(" rounds=").append(rounds).append(" gamesPerTable=").append(gamesPerTable);
+        description.append(" boardSize=").append(fleet.getBoardSize()).append(" fleet=").append(fleet.getDestroyers()).append('/').append(fleet.getFrigates()).append('/').append(fleet.getCorvettes()).append('/').append(fleet.getSubmarines());
+        description.append(" seed=").append(seed).append(" entrants=");
+        for (int i = 0; i < entrants.length; i++) {
+            description.append(i > 0 ? ";" : "").append(entrants[i]);
+        }
+        return description.toString();
+    }
+
+    public TournamentEntrant[] getEntrants() {
+        return entrants;
+    }
+
+    public int getTablesPerRound() {
+        return tablesPerRound;
+    }
+
+    /**
+     * Liefert die Anzahl der Spiele aller Runden
+     */
+    public int getTotalGames() {
+        return rounds * tablesPerRound * gamesPerTable;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Setzt die Anzahl der Threads, auf die die Spiele verteilt werden
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Setzt den Basis-Seed, aus dem die Seeds der einzelnen Spiele berechnet
+     * werden. Ein Turnier kann nur mit demselben Seed fortgesetzt werden.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Teilt einen Bereich von Spielnummern so lange auf, bis er klein genug
+     * ist, und spielt dann nacheinander die Spiele, die noch nicht im Log
+     * stehen.
+     */
+    private class TournamentTask extends RecursiveAction {
+        private static final long serialVersionUID = -3290614787017527162L;
+        private int from;
+        private int to;
+        private int[][] tables;
+        private BitSet played;
+        private TournamentStandings[] standingsOfRounds;
+        private TournamentLog log;
+
+        public TournamentTask(int from, int to, int[][] tables, BitSet played, TournamentStandings[] standingsOfRounds, TournamentLog log) {
+            this.from = from;
+            this.to = to;
+            this.tables = tables;
+            this.played = played;
+            this.standingsOfRounds = standingsOfRounds;
+            this.log = log;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    if (played.get(i)) {
+                        continue;
+                    }
+                    try {
+                        TournamentGameResult result = playGame(i, tables[i % (tablesPerRound * gamesPerTable) / gamesPerTable]);
+                        getStandingsOfRound(standingsOfRounds, result.getRound()).add(result.getPlacement());
+                        log.append(result);
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new RuntimeException("Game " + i + " failed", e);
+                    }
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TournamentTask(from, middle, tables, played, standingsOfRounds, log), new TournamentTask(middle, to, tables, played, standingsOfRounds, log));
+            }
+        }
+    }
+}
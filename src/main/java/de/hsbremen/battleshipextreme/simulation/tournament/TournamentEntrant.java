@@ -0,0 +1,88 @@
+package de.hsbremen.battleshipextreme.simulation.tournament;
+
+import de.hsbremen.battleshipextreme.model.player.AIPlayer;
+import de.hsbremen.battleshipextreme.model.player.PlayerType;
+
+/**
+ * Ein Teilnehmer eines Turniers: eine KI-Strategie unter einem eindeutigen
+ * Namen. Dieselbe Strategie kann mit verschiedenen Namen mehrfach teilnehmen,
+ * z.B. die starke KI mit unterschiedlichen Zeitbudgets.
+ */
+public class TournamentEntrant {
+    private String name;
+    private PlayerType type;
+    private long moveBudgetMillis;
+
+    /**
+     * @param name
+     *            der Name, unter dem der Teilnehmer bewertet wird
+     * @param type
+     *            der Typ des KI-Spielers
+     * @param moveBudgetMillis
+     *            das Zeitbudget je Zug der starken KI, 0 für den Standardwert
+     * @throws IllegalArgumentException
+     *             wenn der Typ kein KI-Typ ist oder das Zeitbudget negativ ist
+     */
+    public TournamentEntrant(String name, PlayerType type, long moveBudgetMillis) {
+        if (type == PlayerType.HUMAN) {
+            throw new IllegalArgumentException("Tournament only supports AI players");
+        }
+        if (moveBudgetMillis < 0 || (moveBudgetMillis > 0 && type != PlayerType.HARD_AI)) {
+            throw new IllegalArgumentException("Invalid move budget " + moveBudgetMillis + " for " + type);
+        }
+        this.name = name;
+        this.type = type;
+        this.moveBudgetMillis = moveBudgetMillis;
+    }
+
+    /**
+     * Liest einen Teilnehmer aus der Form [Name=]Typ[:Zeitbudget in ms], z.B.
+     * "SMART_AI" oder "schnell=HARD_AI:5". Ohne Namen ist die Beschreibung
+     * selbst der Name.
+     *
+     * @throws IllegalArgumentException
+     *             wenn die Beschreibung ungültig ist
+     */
+    public static TournamentEntrant parse(String spec) {
+        int nameEnd = spec.indexOf('=');
+        String name = nameEnd < 0 ? spec : spec.substring(0, nameEnd);
+        String strategy = spec.substring(nameEnd + 1);
+        int budgetStart = strategy.indexOf(':');
+        PlayerType type = PlayerType.valueOf(budgetStart < 0 ? strategy : strategy.substring(0, budgetStart));
+        long moveBudgetMillis = budgetStart < 0 ? 0 : Long.parseLong(strategy.substring(budgetStart + 1));
+        if (name.isEmpty() || name.indexOf(';') >= 0) {
+            throw new IllegalArgumentException("Invalid entrant name '" + name + "'");
+        }
+        return new TournamentEntrant(name, type, moveBudgetMillis);
+    }
+
+    /**
+     * Stellt einen KI-Spieler dieses Teilnehmers ein, bevor er seine Schiffe
+     * setzt
+     */
+    void configure(AIPlayer player) {
+        if (moveBudgetMillis > 0) {
+            player.setMoveBudgetMillis(moveBudgetMillis);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PlayerType getType() {
+        return type;
+    }
+
+    public long getMoveBudgetMillis() {
+        return moveBudgetMillis;
+    }
+
+    /**
+     * Liefert die Beschreibung, aus der parse denselben Teilnehmer liest
+     */
+    @Override
+    public String toString() {
+        return name + "=" + type + (moveBudgetMillis > 0 ? ":" + moveBudgetMillis : "");
+    }
+}
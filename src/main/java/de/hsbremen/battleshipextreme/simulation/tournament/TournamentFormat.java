@@ -0,0 +1,20 @@
+package de.hsbremen.battleshipextreme.simulation.tournament;
+
+/**
+ * Legt fest, wie die Teilnehmer eines Turniers in jeder Runde auf die Tische
+ * verteilt werden.
+ */
+public enum TournamentFormat {
+    /**
+     * Jede Runde spielt jede Kombination von Teilnehmern an einem eigenen
+     * Tisch. Die Runden hängen nicht voneinander ab und werden zusammen
+     * gespielt.
+     */
+    ROUND_ROBIN,
+    /**
+     * Die Teilnehmer werden vor jeder Runde nach ihrer bisherigen Elo-Zahl
+     * sortiert und der Reihe nach auf die Tische gesetzt. Bleibt ein einzelner
+     * Teilnehmer übrig, setzt der schwächste aus.
+     */
+    SWISS
+}
@@ -0,0 +1,109 @@
+package de.hsbremen.battleshipextreme.simulation.tournament;
+
+/**
+ * Ergebnis eines einzelnen Turnierspiels. Die Teilnehmer werden über ihren
+ * Index in der Teilnehmerliste des Turniers angegeben.
+ */
+public class TournamentGameResult {
+    private int gameNumber;
+    private int round;
+    private long seed;
+    private int[] seating;
+    private int[] placement;
+    private int rounds;
+    private int turns;
+
+    /**
+     * @param seating
+     *            die Teilnehmer in der Reihenfolge der Spieler im Spiel
+     * @param placement
+     *            die Teilnehmer vom Gewinner bis zum zuerst ausgeschiedenen
+     */
+    public TournamentGameResult(int gameNumber, int round, long seed, int[] seating, int[] placement, int rounds, int turns) {
+        this.gameNumber = gameNumber;
+        this.round = round;
+        this.seed = seed;
+        this.seating = seating;
+        this.placement = placement;
+        this.rounds = rounds;
+        this.turns = turns;
+    }
+
+    /**
+     * Liest ein Ergebnis aus einer von toLine geschriebenen Zeile
+     *
+     * @throws IllegalArgumentException
+     *             wenn die Zeile kein gültiges Ergebnis ist
+     */
+    public static TournamentGameResult parse(String line) {
+        String[] values = line.split(",", -1);
+        if (values.length != 7) {
+            throw new IllegalArgumentException("Expected 7 values but got " + values.length);
+        }
+        int[] seating = parseEntrants(values[3]);
+        int[] placement = parseEntrants(values[4]);
+        if (seating.length != placement.length) {
+            throw new IllegalArgumentException("Seating and placement differ in length");
+        }
+        return new TournamentGameResult(Integer.parseInt(values[0]), Integer.parseInt(values[1]), Long.parseLong(values[2]), seating, placement, Integer.parseInt(values[5]), Integer.parseInt(values[6]));
+    }
+
+    private static int[] parseEntrants(String value) {
+        String[] entrants = value.split(" ");
+        int[] indices = new int[entrants.length];
+        for (int i = 0; i < entrants.length; i++) {
+            indices[i] = Integer.parseInt(entrants[i]);
+        }
+        return indices;
+    }
+
+    /**
+     * Liefert das Ergebnis als Zeile ohne Zeilenumbruch
+     */
+    public String toLine() {
+        StringBuilder line = new StringBuilder();
+        line.append(gameNumber).append(',').append(round).append(',').append(seed).append(',');
+        appendEntrants(line, seating);
+        line.append(',');
+        appendEntrants(line, placement);
+        line.append(',').append(rounds).append(',').append(turns);
+        return line.toString();
+    }
+
+    private static void appendEntrants(StringBuilder line, int[] entrants) {
+        for (int i = 0; i < entrants.length; i++) {
+            if (i > 0) {
+                line.append(' ');
+            }
+            line.append(entrants[i]);
+        }
+    }
+
+    public int getGameNumber() {
+        return gameNumber;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int[] getSeating() {
+        return seating;
+    }
+
+    public int[] getPlacement() {
+        return placement;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+}
@@ -0,0 +1,125 @@
+package de.hsbremen.battleshipextreme.simulation.tournament;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Schreibt die Ergebnisse eines Turniers fortlaufend in eine Textdatei, ein
+ * Spiel pro Zeile. Jede Zeile wird sofort an das Betriebssystem übergeben, ein
+ * abgebrochenes Turnier verliert also höchstens die gerade laufenden Spiele.
+ *
+ * Die erste Zeile beschreibt das Turnier. Beim Fortsetzen muss sie zum
+ * Turnier passen, dann werden die vorhandenen Ergebnisse gelesen. Eine
+ * unvollständige letzte Zeile eines abgebrochenen Turniers wird abgeschnitten.
+ */
+public class TournamentLog {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String HEADER_PREFIX = "# ";
+
+    private File file;
+    private String description;
+    private Writer out;
+
+    /**
+     * @param file
+     *            die Datei, in die die Ergebnisse geschrieben werden
+     * @param description
+     *            die Beschreibung des Turniers, die die erste Zeile bildet
+     */
+    public TournamentLog(File file, String description) {
+        this.file = file;
+        this.description = description;
+    }
+
+    /**
+     * Liest die Ergebnisse aus einer vorhandenen Datei und öffnet sie zum
+     * Anhängen. Gibt es die Datei noch nicht, wird sie angelegt.
+     *
+     * @param listener
+     *            erhält jedes gelesene Ergebnis
+     * @throws IOException
+     *             wenn die Datei zu einem anderen Turnier gehört oder ein
+     *             vollständiges Ergebnis nicht gelesen werden kann
+     */
+    public void recover(ITournamentResultListener listener) throws IOException {
+        if (file.exists()) {
+            truncateTornLine();
+        }
+        if (!file.exists() || file.length() == 0) {
+            out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), UTF_8));
+            append(HEADER_PREFIX + description);
+            return;
+        }
+        BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF_8));
+        try {
+            String header = in.readLine();
+            if (!(HEADER_PREFIX + description).equals(header)) {
+                throw new IOException(file + " belongs to a different tournament: " + header);
+            }
+            int lineNumber = 1;
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                try {
+                    listener.onResultRecovered(TournamentGameResult.parse(line));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Corrupt result in line " + lineNumber + " of " + file, e);
+                }
+            }
+        } finally {
+            in.close();
+        }
+        out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), UTF_8));
+    }
+
+    /**
+     * Schneidet alles nach dem letzten Zeilenumbruch ab
+     */
+    private void truncateTornLine() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            long end = raf.length();
+            while (end > 0) {
+                raf.seek(end - 1);
+                if (raf.read() == '\n') {
+                    break;
+                }
+                end--;
+            }
+            if (end < raf.length()) {
+                raf.setLength(end);
+            }
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Hängt das Ergebnis eines Spiels an, kann von mehreren Threads
+     * gleichzeitig aufgerufen werden
+     */
+    public void append(TournamentGameResult result) throws IOException {
+        append(result.toLine());
+    }
+
+    private synchronized void append(String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+        out.flush();
+    }
+
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+    }
+}
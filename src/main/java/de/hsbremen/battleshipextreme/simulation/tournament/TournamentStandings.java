@@ -0,0 +1,293 @@
+package de.hsbremen.battleshipextreme.simulation.tournament;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Zählt, wie oft jeder Teilnehmer vor jedem anderen platziert war, und
+ * berechnet daraus Elo-Zahlen. Ein Spiel mit mehreren Spielern zählt als
+ * Vergleich jedes Paares von Teilnehmern: Wer später ausgeschieden ist, hat
+ * gegen den anderen gewonnen.
+ *
+ * Die Elo-Zahlen werden nicht Spiel für Spiel angepasst, sondern aus allen
+ * Vergleichen mit dem Bradley-Terry-Modell geschätzt (Maximum Likelihood).
+ * Sie hängen daher nicht von der Reihenfolge ab, in der die Threads die
+ * Spiele beenden, und ein fortgesetztes Turnier kommt zum selben Ergebnis.
+ * Jedes Paar bekommt zusätzlich ein virtuelles Unentschieden, damit ein
+ * Teilnehmer ohne Niederlage eine endliche Zahl erhält. Die
+ * Konfidenzintervalle nehmen die Vergleiche als unabhängig an. Bei Spielen
+ * mit mehr als zwei Spielern sind sie das nicht ganz, die Intervalle sind
+ * dann etwas zu schmal.
+ */
+public class TournamentStandings {
+    /**
+     * Elo-Zahl eines durchschnittlichen Teilnehmers
+     */
+    public static final double MEAN_RATING = 1500;
+
+    private static final double ELO_PER_NEPER = 400 / Math.log(10);
+    private static final double Z_CONFIDENCE = 1.959963984540054; // 95 % Konfidenz
+    private static final double Z_POWER = 0.8416212335729143; // 80 % Trennschärfe
+    private static final double PRIOR_WINS = 0.5;
+    private static final int MAX_ITERATIONS = 10000;
+    private static final double PRECISION = 1e-10;
+
+    private String[] names;
+    private long[][] wins;
+    private long[] games;
+    private long[] firsts;
+    private long totalGames;
+
+    /**
+     * @param names
+     *            die Namen der Teilnehmer in der Reihenfolge ihrer Indizes
+     */
+    public TournamentStandings(String[] names) {
+        this.names = names;
+        this.wins = new long[names.length][names.length];
+        this.games = new long[names.length];
+        this.firsts = new long[names.length];
+    }
+
+    /**
+     * Fügt das Ergebnis eines Spiels hinzu
+     *
+     * @param placement
+     *            die Teilnehmer vom Gewinner bis zum zuerst ausgeschiedenen
+     */
+    public synchronized void add(int[] placement) {
+        totalGames++;
+        firsts[placement[0]]++;
+        for (int i = 0; i < placement.length; i++) {
+            games[placement[i]]++;
+            for (int j = i + 1; j < placement.length; j++) {
+                wins[placement[i]][placement[j]]++;
+            }
+        }
+    }
+
+    /**
+     * Fügt alle Ergebnisse eines anderen Stands hinzu
+     */
+    public synchronized void addAll(TournamentStandings other) {
+        synchronized (other) {
+            totalGames += other.totalGames;
+            for (int i = 0; i < names.length; i++) {
+                games[i] += other.games[i];
+                firsts[i] += other.firsts[i];
+                for (int j = 0; j < names.length; j++) {
+                    wins[i][j] += other.wins[i][j];
+                }
+            }
+        }
+    }
+
+    public String[] getNames() {
+        return names;
+    }
+
+    public synchronized long getTotalGames() {
+        return totalGames;
+    }
+
+    /**
+     * Liefert die Anzahl der Spiele eines Teilnehmers
+     */
+    public synchronized long getGames(int entrant) {
+        return games[entrant];
+    }
+
+    /**
+     * Liefert die Anzahl der Spiele, die ein Teilnehmer gewonnen hat
+     */
+    public synchronized long getFirsts(int entrant) {
+        return firsts[entrant];
+    }
+
+    /**
+     * Liefert, wie oft ein Teilnehmer vor einem anderen platziert war
+     */
+    public synchronized long getWins(int entrant, int opponent) {
+        return wins[entrant][opponent];
+    }
+
+    /**
+     * Schätzt die Elo-Zahlen aller Teilnehmer, ihr Mittel ist MEAN_RATING
+     */
+    public synchronized double[] getRatings() {
+        double[] strengths = estimateStrengths();
+        double[] ratings = new double[names.length];
+        for (int i = 0; i < names.length; i++) {
+            ratings[i] = MEAN_RATING + ELO_PER_NEPER * Math.log(strengths[i]);
+        }
+        return ratings;
+    }
+
+    /**
+     * Liefert für jeden Teilnehmer den halben Abstand der Grenzen des
+     * 95-%-Konfidenzintervalls seiner Elo-Zahl (aus der Fisher-Information)
+     */
+    public synchronized double[] getRatingErrors() {
+        double[] strengths = estimateStrengths();
+        double[] errors = new double[names.length];
+        for (int i = 0; i < names.length; i++) {
+            double information = 0;
+            for (int j = 0; j < names.length; j++) {
+                if (i != j) {
+                    double p = strengths[i] / (strengths[i] + strengths[j]);
+                    information += (wins[i][j] + wins[j][i] + 2 * PRIOR_WINS) * p * (1 - p);
+                }
+            }
+            errors[i] = Z_CONFIDENCE * ELO_PER_NEPER / Math.sqrt(information);
+        }
+        return errors;
+    }
+
+    /**
+     * Bradley-Terry mit dem MM-Algorithmus von Hunter: Die Stärke eines
+     * Teilnehmers wird so lange auf seine Siege geteilt durch die erwarteten
+     * Siege je Stärke gesetzt, bis sie sich nicht mehr ändert.
+     */
+    private double[] estimateStrengths() {
+        int n = names.length;
+        double[] strengths = new double[n];
+        Arrays.fill(strengths, 1);
+        double change = Double.MAX_VALUE;
+        for (int iteration = 0; iteration < MAX_ITERATIONS && change > PRECISION; iteration++) {
+            double[] next = new double[n];
+            double logSum = 0;
+            for (int i = 0; i < n; i++) {
+                double won = 0;
+                double expected = 0;
+                for (int j = 0; j < n; j++) {
+                    if (i != j) {
+                        won += wins[i][j] + PRIOR_WINS;
+                        expected += (wins[i][j] + wins[j][i] + 2 * PRIOR_WINS) / (strengths[i] + strengths[j]);
+                    }
+                }
+                next[i] = won / expected;
+                logSum += Math.log(next[i]);
+            }
+            // geometrisches Mittel auf 1 setzen
+            double mean = Math.exp(logSum / n);
+            change = 0;
+            for (int i = 0; i < n; i++) {
+                next[i] /= mean;
+                change = Math.max(change, Math.abs(Math.log(next[i] / strengths[i])));
+            }
+            strengths = next;
+        }
+        return strengths;
+    }
+
+    /**
+     * Liefert den Anteil der Vergleiche, in denen ein Teilnehmer vor dem
+     * anderen platziert war, NaN ohne Vergleiche
+     */
+    public synchronized double getScore(int entrant, int opponent) {
+        long comparisons = wins[entrant][opponent] + wins[opponent][entrant];
+        return comparisons == 0 ? Double.NaN : (double) wins[entrant][opponent] / comparisons;
+    }
+
+    /**
+     * Liefert die Wahrscheinlichkeit, dass ein Teilnehmer stärker ist als der
+     * andere (Likelihood of Superiority)
+     */
+    public synchronized double getLikelihoodOfSuperiority(int entrant, int opponent) {
+        long won = wins[entrant][opponent];
+        long lost = wins[opponent][entrant];
+        if (won + lost == 0) {
+            return 0.5;
+        }
+        return normalDistribution((won - lost) / Math.sqrt(won + lost));
+    }
+
+    /**
+     * Schätzt, wie viele Vergleiche zwei Teilnehmer insgesamt brauchen, damit
+     * sich ihr bisheriger Unterschied mit 95 % Konfidenz und 80 %
+     * Trennschärfe zeigt.
+     *
+     * @return die Anzahl der Vergleiche, -1 wenn es noch keinen Unterschied
+     *         gibt
+     */
+    public synchronized long getComparisonsNeeded(int entrant, int opponent) {
+        double p = getScore(entrant, opponent);
+        if (Double.isNaN(p) || p == 0.5) {
+            return -1;
+        }
+        // p = 0 oder 1 hätte keine Varianz, dann wie ein Vergleich weniger rechnen
+        long comparisons = wins[entrant][opponent] + wins[opponent][entrant];
+        p = Math.min(Math.max(p, 0.5 / comparisons), 1 - 0.5 / comparisons);
+        double z = Z_CONFIDENCE + Z_POWER;
+        return (long) Math.ceil(z * z * p * (1 - p) / ((p - 0.5) * (p - 0.5)));
+    }
+
+    /**
+     * Rechnet den Anteil gewonnener Vergleiche in einen Elo-Unterschied um
+     */
+    private static double toEloDifference(double score, long comparisons) {
+        double p = Math.min(Math.max(score, 0.5 / comparisons), 1 - 0.5 / comparisons);
+        return ELO_PER_NEPER * Math.log(p / (1 - p));
+    }
+
+    /**
+     * Verteilungsfunktion der Standardnormalverteilung (Abramowitz und Stegun
+     * 7.1.26, Fehler unter 1e-7)
+     */
+    private static double normalDistribution(double x) {
+        double z = Math.abs(x) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * z);
+        double erfc = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429)))) * Math.exp(-z * z);
+        return x >= 0 ? 1 - erfc / 2 : erfc / 2;
+    }
+
+    /**
+     * Liefert eine Tabelle der Teilnehmer nach Elo-Zahl und für jedes Paar,
+     * das gegeneinander gespielt hat, den Elo-Unterschied mit
+     * Konfidenzintervall, die Wahrscheinlichkeit, dass der erste stärker ist,
+     * und die Anzahl der Vergleiche, die zur Trennung noch fehlen.
+     */
+    @Override
+    public synchronized String toString() {
+        int n = names.length;
+        double[] ratings = getRatings();
+        double[] errors = getRatingErrors();
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        final double[] sortRatings = ratings;
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return Double.compare(sortRatings[b], sortRatings[a]);
+            }
+        });
+        StringBuilder report = new StringBuilder();
+        report.append("Spiele: ").append(totalGames).append('\n');
+        for (int rank = 0; rank < n; rank++) {
+            int i = order[rank];
+            report.append(String.format(Locale.ROOT, "%2d. %-20s Elo %6.0f +- %3.0f, Spiele: %d, Siege: %d%n", rank + 1, names[i], ratings[i], errors[i], games[i], firsts[i]));
+        }
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                int i = order[a];
+                int j = order[b];
+                long comparisons = wins[i][j] + wins[j][i];
+                if (comparisons == 0) {
+                    continue;
+                }
+                double score = getScore(i, j);
+                // Wilson-Intervall, es bleibt auch bei 0 oder 1 gewonnenen Anteilen sinnvoll
+                double z2 = Z_CONFIDENCE * Z_CONFIDENCE / comparisons;
+                double center = (score + z2 / 2) / (1 + z2);
+                double error = Z_CONFIDENCE / (1 + z2) * Math.sqrt(score * (1 - score) / comparisons + z2 / (4 * comparisons));
+                long needed = getComparisonsNeeded(i, j);
+                report.append(String.format(Locale.ROOT, "%s - %s: %.3f aus %d, Elo %+.0f [%+.0f, %+.0f], LOS %.1f %%, noch nötig: %s%n", names[i], names[j], score, comparisons,
+                        toEloDifference(score, comparisons), toEloDifference(center - error, comparisons), toEloDifference(center + error, comparisons),
+                        100 * getLikelihoodOfSuperiority(i, j), needed < 0 ? "unbekannt" : String.valueOf(Math.max(0, needed - comparisons))));
+            }
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package de.hsbremen.battleshipextreme.model;
+
+import de.hsbremen.battleshipextreme.model.player.Player;
+import de.hsbremen.battleshipextreme.model.ship.Ship;
+import de.hsbremen.battleshipextreme.model.ship.ShipType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Lädt einen Spielstand, der mit ObjectOutputStream gespeichert wurde, bevor
+ * Schiffe ihre Lage kannten. Beide Spieler haben auf einem 10x10 Board je ein
+ * Schiff jedes Typs, das U-Boot liegt senkrecht auf 3/0 und 3/1.
+ */
+public class LegacySaveGameTest {
+    private Game game;
+    private Player enemy;
+
+    @Before
+    public void setUp() throws Exception {
+        game = new Game();
+        InputStream in = getClass().getResourceAsStream("legacy-game.sav");
+        try {
+            game.load(in);
+        } finally {
+            in.close();
+        }
+        enemy = game.getPlayers()[1];
+    }
+
+    @Test
+    public void shipsOfLegacySaveHaveNoPosition() {
+        for (Ship ship : enemy.getShips()) {
+            assertTrue(ship.isPlaced());
+            assertFalse(ship.hasPosition());
+        }
+    }
+
+    @Test
+    public void sinkingLegacyShipMarksItsFields() throws Exception {
+        assertTrue(game.getCurrentPlayer().setCurrentShipByType(ShipType.SUBMARINE));
+        TurnResult result = new TurnResult();
+        assertTrue(game.makeTurn(enemy, 3, 0, Orientation.VERTICAL, result));
+        assertEquals(1, result.size());
+        assertEquals(FieldState.HIT, result.getState(0));
+
+        assertTrue(game.makeTurn(enemy, 3, 1, Orientation.VERTICAL, result));
+        assertEquals(2, result.size());
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals(3, result.getX(i));
+            assertEquals(FieldState.DESTROYED, result.getState(i));
+        }
+        assertEquals(1, result.getY(0) + result.getY(1));
+        assertEquals(FieldState.DESTROYED, enemy.getBoard().getState(3, 0));
+        assertEquals(FieldState.DESTROYED, enemy.getBoard().getState(3, 1));
+    }
+}
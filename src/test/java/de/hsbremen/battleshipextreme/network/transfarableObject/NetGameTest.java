@@ -0,0 +1,66 @@
+package de.hsbremen.battleshipextreme.network.transfarableObject;
+
+import de.hsbremen.battleshipextreme.model.Orientation;
+import de.hsbremen.battleshipextreme.model.Settings;
+import de.hsbremen.battleshipextreme.model.player.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drei Spieler mit je einem U-Boot auf 0/0 und 1/0 eines 10x10 Boards. Der
+ * erste Spieler versenkt das U-Boot des dritten.
+ */
+public class NetGameTest {
+    private NetGame game;
+    private Player loser;
+
+    @Before
+    public void setUp() throws Exception {
+        game = new NetGame("Test", "", new Settings(3, 0, 0, 10, 0, 0, 0, 1));
+        for (Player player : game.getPlayers()) {
+            assertTrue(player.placeShip(0, 0, Orientation.HORIZONTAL));
+        }
+        loser = game.getPlayers()[2];
+        game.makeTurn(loser, 0, 0, Orientation.HORIZONTAL);
+        game.makeTurn(loser, 1, 0, Orientation.HORIZONTAL);
+        assertTrue(loser.hasLost());
+        assertEquals(2, game.getNumberOfPlayersLeft());
+    }
+
+    @Test
+    public void vacatedSeatOfLoserCountsAgain() {
+        game.vacateSeat(2);
+        assertFalse(loser.hasLost());
+        assertEquals(3, game.getNumberOfPlayersLeft());
+        assertFalse(game.isGameover());
+    }
+
+    @Test
+    public void restoredGameCountsVacatedSeatLikeLiveGame() throws Exception {
+        game.vacateSeat(2);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        game.writeState(new DataOutputStream(bytes));
+        NetGame restored = NetGame.restore(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 3);
+        assertEquals(game.getNumberOfPlayersLeft(), restored.getNumberOfPlayersLeft());
+        assertEquals(game.isGameover(), restored.isGameover());
+    }
+
+    @Test
+    public void leavingAfterLossDoesNotEndGame() throws Exception {
+        game.vacateSeat(2);
+        Player second = game.getPlayers()[1];
+        game.makeTurn(second, 0, 0, Orientation.HORIZONTAL);
+        game.makeTurn(second, 1, 0, Orientation.HORIZONTAL);
+        assertTrue(second.hasLost());
+        assertFalse(game.isGameover());
+    }
+}